@@ -6,6 +6,8 @@ import './ProductSearch.css';
 type SortKey = 'id' | 'nome' | 'precoVenda' | 'quantidadeEstoque';
 type SortOrder = 'asc' | 'desc';
 
+const LIMITE_RESULTADOS = 50;
+
 const ProductSearch: React.FC = () => {
   const [produtos, setProdutos] = useState<Produto[]>([]);
   const [query, setQuery] = useState<string>('');
@@ -21,12 +23,15 @@ const ProductSearch: React.FC = () => {
     return () => clearTimeout(t);
   }, [query]);
 
+  // busca no servidor (índice de produtos): só os melhores resultados trafegam
   useEffect(() => {
     const fetch = async () => {
       setLoading(true);
       setError(null);
       try {
-        const res = await api.get<Produto[]>('/produtos');
+        const res = await api.get<Produto[]>('/produtos/search', {
+          params: { q: debouncedQuery, limit: LIMITE_RESULTADOS },
+        });
         setProdutos(Array.isArray(res.data) ? res.data : []);
       } catch (err: any) {
         console.error('Erro ao carregar produtos:', err);
@@ -36,32 +41,11 @@ const ProductSearch: React.FC = () => {
       }
     };
     fetch();
-  }, []);
-
-  // filtro que busca em id, nome, precoVenda e quantidadeEstoque
-  const filtered = useMemo(() => {
-    if (!debouncedQuery) return produtos;
-    const q = debouncedQuery.toLowerCase();
-
-    const onlyNumber = /^\d+(\.\d+)?$/.test(q.replace(',', '.'));
-
-    return produtos.filter(p => {
-      if (String(p.id).toLowerCase().includes(q)) return true;
-      if (p.nome && p.nome.toLowerCase().includes(q)) return true;
-      if (p.quantidadeEstoque !== undefined && String(p.quantidadeEstoque).toLowerCase().includes(q)) return true;
-      const precoStr = String((p.precoVenda ?? 0)).toLowerCase();
-      if (precoStr.includes(q.replace(',', '.'))) return true;
-      if (onlyNumber) {
-        const asNum = Number(q.replace(',', '.'));
-        if (!Number.isNaN(asNum) && Math.abs((p.precoVenda ?? 0) - asNum) < 0.0001) return true;
-      }
-      return false;
-    });
-  }, [produtos, debouncedQuery]);
+  }, [debouncedQuery]);
 
   // ordenação
   const sorted = useMemo(() => {
-    const arr = [...filtered];
+    const arr = [...produtos];
     arr.sort((a, b) => {
       let va: any = a[sortKey];
       let vb: any = b[sortKey];
@@ -77,7 +61,7 @@ const ProductSearch: React.FC = () => {
       return 0;
     });
     return arr;
-  }, [filtered, sortKey, sortOrder]);
+  }, [produtos, sortKey, sortOrder]);
 
   const toggleSort = (key: SortKey) => {
     if (sortKey === key) {
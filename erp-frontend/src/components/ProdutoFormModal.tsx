@@ -64,26 +64,38 @@ const ProdutoFormModal = ({ isOpen, onClose, onSuccess, produtoToEdit }: Produto
 
     try {
       if (isEditMode && produtoToEdit) {
+        // O estoque não vai no PUT: a diferença para o saldo carregado vira um ajuste no razão,
+        // somado ao saldo atual, sem desfazer vendas feitas enquanto o formulário estava aberto
+        const { quantidadeEstoque, ...cadastro } = produtoData;
         // Tentar PUT (RESTful). Se o backend não aceitar PUT, tentar PATCH e por último POST /{id}
         try {
-          await api.put(`/produtos/${produtoToEdit.id}`, produtoData);
+          await api.put(`/produtos/${produtoToEdit.id}`, cadastro);
         } catch (putErr: any) {
           const status = putErr?.response?.status;
           console.warn('PUT falhou com status', status, '; tentando PATCH...', putErr);
           if (status === 405) {
             try {
-              await api.patch(`/produtos/${produtoToEdit.id}`, produtoData);
+              await api.patch(`/produtos/${produtoToEdit.id}`, cadastro);
             } catch (patchErr: any) {
               const patchStatus = patchErr?.response?.status;
               console.warn('PATCH falhou com status', patchStatus, '; tentando POST /{id}...', patchErr);
               // tentativa final: POST com id na url (alguns backends usam convenção diferente)
-              await api.post(`/produtos/${produtoToEdit.id}`, produtoData);
+              await api.post(`/produtos/${produtoToEdit.id}`, cadastro);
             }
           } else {
             // Se não for 405, relança para ser tratada pelo catch externo
             throw putErr;
           }
         }
+
+        const ajuste = quantidadeEstoque - (produtoToEdit.quantidadeEstoque || 0);
+        if (ajuste !== 0) {
+          await api.post(`/produtos/${produtoToEdit.id}/movimentos`, {
+            tipo: 'AJUSTE',
+            quantidade: ajuste,
+            motivo: 'Ajuste na edição do produto',
+          });
+        }
       } else {
         // Criação normal
         await api.post('/produtos', produtoData);
@@ -96,6 +108,9 @@ const ProdutoFormModal = ({ isOpen, onClose, onSuccess, produtoToEdit }: Produto
       const status = err?.response?.status;
       if (status === 405) {
         setFormError('Método não permitido no servidor (405). Verifique o endpoint ou o CORS no backend.');
+      } else if (status === 400 && typeof err?.response?.data === 'string') {
+        // ex.: ajuste que deixaria o estoque negativo
+        setFormError(err.response.data);
       } else if (status === 0 || !status) {
         setFormError('Erro de conexão com o servidor. Verifique se o backend está rodando.');
       } else {
@@ -60,9 +60,11 @@ const Clientes = () => {
         endereco: '',
         cpfCnpj: ''
       });
-    } catch (error) {
+    } catch (error: any) {
       console.error(error);
-      alert('Erro ao cadastrar cliente. Tente novamente.');
+      // 400/409 trazem o motivo (CPF/CNPJ inválido ou já cadastrado)
+      const motivo = typeof error?.response?.data === 'string' ? error.response.data : null;
+      alert(motivo ?? 'Erro ao cadastrar cliente. Tente novamente.');
     }
   };
 
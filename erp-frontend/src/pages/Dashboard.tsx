@@ -1,70 +1,113 @@
 // src/pages/Dashboard.tsx
-import { useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import api from '../services/api';
 import './Pages.css';
 
-type TotaisResponse = { [forma: string]: number };
+type ResumoResponse = {
+  produtos: number;
+  clientes: number;
+  servicos: number;
+  valorEstoque: number;
+  produtosEstoqueBaixo: number;
+  limiteEstoqueBaixo: number;
+  totais: { [forma: string]: number };
+};
+
+// dados dos eventos venda-criada / venda-excluida de /api/eventos/stream
+type VendaEvento = {
+  id: number;
+  dataVenda: string;
+  valorTotal: number;
+  status: string;
+  formaPagamento: string;
+};
+
+// alterações de estoque chegam a cada venda: o resumo é recarregado no máximo uma vez neste intervalo
+const ESPERA_RECARGA_MS = 10000;
 
 const Dashboard = () => {
   const [qtdProdutos, setQtdProdutos] = useState<number>(0);
   const [qtdClientes, setQtdClientes] = useState<number>(0);
   const [qtdServicos, setQtdServicos] = useState<number>(0);
+  const [valorEstoque, setValorEstoque] = useState<number>(0);
+  const [estoqueBaixo, setEstoqueBaixo] = useState<number>(0);
   const [totalDinheiro, setTotalDinheiro] = useState<number>(0);
   const [totalPix, setTotalPix] = useState<number>(0);
   const [totalGeral, setTotalGeral] = useState<number>(0);
   const [loading, setLoading] = useState<boolean>(true);
   const [erro, setErro] = useState<string | null>(null);
+  const recarga = useRef<number | null>(null);
 
   useEffect(() => {
     carregarDashboard();
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, []);
 
+  // Atualização ao vivo: vendas somam/subtraem nos totais do mês, estoque agenda uma recarga
+  useEffect(() => {
+    const fonte = new EventSource(`${api.defaults.baseURL}/eventos/stream`);
+
+    const aplicarVenda = (evento: MessageEvent, sinal: number) => {
+      const venda: VendaEvento = JSON.parse(evento.data);
+      const agora = new Date();
+      const data = new Date(venda.dataVenda);
+      if (venda.status !== 'FINALIZADA'
+          || data.getFullYear() !== agora.getFullYear() || data.getMonth() !== agora.getMonth()) {
+        return;
+      }
+      const valor = sinal * Number(venda.valorTotal || 0);
+      if (venda.formaPagamento === 'DINHEIRO') {
+        setTotalDinheiro((v) => v + valor);
+      } else if (venda.formaPagamento === 'PIX') {
+        setTotalPix((v) => v + valor);
+      } else {
+        return;
+      }
+      setTotalGeral((v) => v + valor);
+    };
+
+    fonte.addEventListener('venda-criada', (e) => aplicarVenda(e as MessageEvent, 1));
+    fonte.addEventListener('venda-excluida', (e) => aplicarVenda(e as MessageEvent, -1));
+    fonte.addEventListener('estoque-alterado', () => {
+      if (recarga.current === null) {
+        recarga.current = window.setTimeout(() => {
+          recarga.current = null;
+          recarregarEstoque();
+        }, ESPERA_RECARGA_MS);
+      }
+    });
+
+    return () => {
+      fonte.close();
+      if (recarga.current !== null) {
+        window.clearTimeout(recarga.current);
+        recarga.current = null;
+      }
+    };
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, []);
+
   const formatPrice = (v: number) =>
     new Intl.NumberFormat('pt-BR', { style: 'currency', currency: 'BRL' }).format(v || 0);
 
-  const getMonthRange = () => {
-    const start = new Date();
-    start.setDate(1);
-    start.setHours(0, 0, 0, 0);
-    const end = new Date();
-    end.setHours(23, 59, 59, 999);
-    // backend espera "yyyy-MM-ddTHH:mm:ss" (sem Z)
-    const fmt = (d: Date) => d.toISOString().slice(0, 19);
-    return { start: fmt(start), end: fmt(end) };
-  };
-
   const carregarDashboard = async () => {
     setLoading(true);
     setErro(null);
     try {
-      // 1) buscar contagens simples
-      const [prodRes, cliRes, servRes] = await Promise.all([
-        api.get('/produtos'),
-        api.get('/clientes'),
-        api.get('/servicos'),
-      ]);
-      setQtdProdutos(Array.isArray(prodRes.data) ? prodRes.data.length : 0);
-      setQtdClientes(Array.isArray(cliRes.data) ? cliRes.data.length : 0);
-      setQtdServicos(Array.isArray(servRes.data) ? servRes.data.length : 0);
-
-      // 2) buscar faturamento - preferir endpoint específico se existir
-      const { start, end } = getMonthRange();
-
-      // TENTATIVA A: endpoint resumido no backend (recomendado)
-      try {
-        const totalsResp = await api.get<TotaisResponse>(`/dashboard/totais?start=${encodeURIComponent(start)}&end=${encodeURIComponent(end)}`);
-        const data = totalsResp.data || {};
-        const din = Number(data.DINHEIRO || data.dinheiro || 0);
-        const pix = Number(data.PIX || data.pix || 0);
-        setTotalDinheiro(din);
-        setTotalPix(pix);
-        setTotalGeral(din + pix);
-      } catch (err) {
-        // Se endpoint /dashboard/totais não existir, caimos no fallback (opção B)
-        console.warn('Endpoint /dashboard/totais indisponível — usando fallback por ordens-venda', err);
-        await carregarFaturamentoPorOrdens(start, end);
-      }
+      // contagens, estoque e faturamento do mês numa única requisição (agregado no backend)
+      const { data } = await api.get<ResumoResponse>('/dashboard/resumo');
+      setQtdProdutos(data.produtos || 0);
+      setQtdClientes(data.clientes || 0);
+      setQtdServicos(data.servicos || 0);
+      setValorEstoque(Number(data.valorEstoque || 0));
+      setEstoqueBaixo(data.produtosEstoqueBaixo || 0);
+
+      const totais = data.totais || {};
+      const din = Number(totais.DINHEIRO || 0);
+      const pix = Number(totais.PIX || 0);
+      setTotalDinheiro(din);
+      setTotalPix(pix);
+      setTotalGeral(din + pix);
     } catch (err: any) {
       console.error(err);
       setErro('Erro ao carregar dashboard. Veja console para detalhes.');
@@ -73,26 +116,14 @@ const Dashboard = () => {
     }
   };
 
-  // Fallback: pega ordens e agrupa no frontend
-  const carregarFaturamentoPorOrdens = async (start: string, end: string) => {
+  // só os números de estoque: os totais de vendas já vêm pelos eventos
+  const recarregarEstoque = async () => {
     try {
-      const resp = await api.get<any[]>(`/ordens-venda?start=${encodeURIComponent(start)}&end=${encodeURIComponent(end)}`);
-      const ordens = Array.isArray(resp.data) ? resp.data : [];
-      // filtrar apenas finalizadas
-      const finalizadas = ordens.filter(o => o.status === 'FINALIZADA' || o.status === 'FINALIZADO');
-      const din = finalizadas
-        .filter(o => (o.formaPagamento || '').toUpperCase() === 'DINHEIRO')
-        .reduce((s, o) => s + Number(o.valorTotal || 0), 0);
-      const pix = finalizadas
-        .filter(o => (o.formaPagamento || '').toUpperCase() === 'PIX')
-        .reduce((s, o) => s + Number(o.valorTotal || 0), 0);
-
-      setTotalDinheiro(din);
-      setTotalPix(pix);
-      setTotalGeral(din + pix);
+      const { data } = await api.get<ResumoResponse>('/dashboard/resumo');
+      setValorEstoque(Number(data.valorEstoque || 0));
+      setEstoqueBaixo(data.produtosEstoqueBaixo || 0);
     } catch (err) {
-      console.error('Erro ao carregar ordens para faturamento:', err);
-      setErro('Erro ao calcular faturamento a partir das ordens.');
+      console.error(err);
     }
   };
 
@@ -117,7 +148,7 @@ const Dashboard = () => {
           <div className="card-content">
             <h3>Produtos</h3>
             <p className="card-value">{qtdProdutos}</p>
-            <p className="card-label">Total em Estoque</p>
+            <p className="card-label">Estoque: {formatPrice(valorEstoque)} • {estoqueBaixo} com estoque baixo</p>
           </div>
         </div>
 
@@ -7,6 +7,8 @@ import "./NotasHistorico.css";
 interface Nota {
   id: number;
   clienteId?: number;
+  clienteNome?: string;
+  cliente?: Cliente | null;
   tipo: string;
   dataNota: string;
   valor: number;
@@ -15,45 +17,43 @@ interface Nota {
 
 const NotasHistorico = () => {
   const [notas, setNotas] = useState<Nota[]>([]);
-  const [clientes, setClientes] = useState<Cliente[]>([]);
   const [loading, setLoading] = useState(false);
   const [busca, setBusca] = useState("");
   const [notaSelecionada, setNotaSelecionada] = useState<Nota | null>(null);
   const [modalOpen, setModalOpen] = useState(false);
+  const [cursor, setCursor] = useState<string | null>(null);
 
-  useEffect(() => {
-    carregarDados();
-  }, []);
+  // o servidor só aceita termo com 3+ caracteres ou o número da venda; abaixo disso, lista sem filtro
+  const termoBusca = (texto: string) => {
+    const termo = texto.trim();
+    return termo.length >= 3 || /^#?\d+$/.test(termo) ? termo : "";
+  };
 
-  const carregarDados = async () => {
+  // busca no servidor (nome/CPF do cliente, descrição, número), esperando o usuário parar de digitar
+  useEffect(() => {
+    const espera = setTimeout(() => carregarDados(termoBusca(busca)), busca ? 300 : 0);
+    return () => clearTimeout(espera);
+  }, [busca]);
+
+  const mapearNotas = (listaVendas: any[]): Nota[] =>
+    listaVendas.map((venda: any) => ({
+      id: venda.id,
+      clienteId: venda.clienteId,
+      clienteNome: venda.clienteNome,
+      tipo: venda.formaPagamento || "Venda",
+      dataNota: venda.dataVenda,
+      valor: venda.valorTotal || 0,
+      itens: []
+    }));
+
+  const carregarDados = async (termo: string) => {
     setLoading(true);
     try {
-      // 1. Carrega Clientes
-      try {
-        const respClientes = await api.get("clientes");
-        setClientes(respClientes.data || []);
-      } catch (e) {
-        console.warn("Erro secundário ao carregar clientes.");
-      }
-
-      // 2. Carrega Vendas
-      const resp = await api.get("ordens-venda");
-      const listaVendas = Array.isArray(resp.data) ? resp.data : [];
-
-      // 3. Mapeia e guarda itens
-      const notasFormatadas = listaVendas.map((venda: any) => ({
-        id: venda.id,
-        clienteId: venda.cliente?.id,
-        tipo: venda.formaPagamento || "Venda",
-        dataNota: venda.dataVenda,
-        valor: venda.valorTotal || 0,
-        itens: venda.itensVendas || []
-      }));
-
-      // --- ORDENAÇÃO DECRESCENTE (Maior ID primeiro) ---
-      notasFormatadas.sort((a: Nota, b: Nota) => b.id - a.id);
-
-      setNotas(notasFormatadas);
+      // linhas já vêm com o nome do cliente, da mais recente para a mais antiga
+      const resp = await api.get("ordens-venda/busca", { params: { q: termo || undefined } });
+      const listaVendas = Array.isArray(resp.data?.content) ? resp.data.content : [];
+      setNotas(mapearNotas(listaVendas));
+      setCursor(resp.data?.nextCursor ?? null);
 
     } catch (err) {
       console.error("Erro ao carregar histórico:", err);
@@ -63,6 +63,30 @@ const NotasHistorico = () => {
     }
   };
 
+  const carregarMais = async () => {
+    if (!cursor) return;
+    try {
+      const resp = await api.get("ordens-venda/busca", { params: { q: termoBusca(busca) || undefined, cursor } });
+      const listaVendas = Array.isArray(resp.data?.content) ? resp.data.content : [];
+      setNotas(prev => [...prev, ...mapearNotas(listaVendas)]);
+      setCursor(resp.data?.nextCursor ?? null);
+    } catch (err) {
+      console.error("Erro ao carregar mais vendas:", err);
+    }
+  };
+
+  // Itens só são buscados ao abrir a nota
+  const abrirNota = async (nota: Nota) => {
+    try {
+      const resp = await api.get(`ordens-venda/${nota.id}`);
+      setNotaSelecionada({ ...nota, cliente: resp.data?.cliente ?? null, itens: resp.data?.itensVendas || [] });
+    } catch (err) {
+      console.error("Erro ao carregar itens da venda:", err);
+      setNotaSelecionada(nota);
+    }
+    setModalOpen(true);
+  };
+
   const formatPrice = (v: number) => 
     new Intl.NumberFormat("pt-BR", { style: "currency", currency: "BRL" }).format(v);
 
@@ -73,22 +97,6 @@ const NotasHistorico = () => {
     } catch { return iso; }
   };
 
-  const getNomeCliente = (id?: number) => {
-    if (!id) return "Consumidor Final";
-    const c = clientes.find(cl => cl.id === id);
-    return c ? c.nome : "Consumidor Final";
-  };
-
-  const filtrar = () => {
-    if (!busca) return notas;
-    const t = busca.toLowerCase();
-    return notas.filter(n => 
-      n.id.toString().includes(t) ||
-      getNomeCliente(n.clienteId).toLowerCase().includes(t) ||
-      (n.tipo || "").toLowerCase().includes(t)
-    );
-  };
-
   const apagarVenda = async (id: number) => {
     if(!window.confirm("Apagar venda #" + id + "?")) return;
     try {
@@ -112,7 +120,7 @@ const NotasHistorico = () => {
         <input 
           value={busca}
           onChange={e => setBusca(e.target.value)}
-          placeholder="🔍 Buscar venda..."
+          placeholder="🔍 Buscar por cliente, CPF/CNPJ, descrição ou nº da venda..."
         />
       </div>
 
@@ -133,15 +141,15 @@ const NotasHistorico = () => {
               </tr>
             </thead>
             <tbody>
-              {filtrar().map(nota => (
+              {notas.map(nota => (
                 <tr key={nota.id}>
                   <td>{nota.id}</td>
-                  <td>{getNomeCliente(nota.clienteId)}</td>
+                  <td>{nota.clienteNome || "Consumidor Final"}</td>
                   <td>{formatDateTime(nota.dataNota)}</td>
                   <td>{formatPrice(nota.valor)}</td>
                   <td>{nota.tipo}</td>
                   <td className="acoes">
-                     <button onClick={() => { setNotaSelecionada(nota); setModalOpen(true); }}>👁️</button>
+                     <button onClick={() => abrirNota(nota)}>👁️</button>
                      <button onClick={() => apagarVenda(nota.id)} className="btn-delete">🗑️</button>
                   </td>
                 </tr>
@@ -149,6 +157,12 @@ const NotasHistorico = () => {
             </tbody>
           </table>
         )}
+
+        {!loading && cursor && (
+          <div style={{ padding: 12, textAlign: "center" }}>
+            <button onClick={carregarMais}>Carregar mais</button>
+          </div>
+        )}
       </div>
 
       {notaSelecionada && (
@@ -158,7 +172,7 @@ const NotasHistorico = () => {
             onSaveComprovante={handleSalvarComprovante}
             venda={{
                 id: notaSelecionada.id,
-                cliente: clientes.find(c => c.id === notaSelecionada.clienteId),
+                cliente: notaSelecionada.cliente,
                 dataVenda: notaSelecionada.dataNota,
                 valorTotal: notaSelecionada.valor,
                 formaPagamento: notaSelecionada.tipo,
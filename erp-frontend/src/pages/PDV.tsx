@@ -5,11 +5,17 @@ import type { ItemVenda } from '../types';
 import VendaResumoModal, { type VendaResumo } from '../components/VendaResumoModal';
 import './PDV.css';
 
+// valores em reais viram centavos inteiros antes de multiplicar ou somar
+const centavos = (valor: number) => Math.round(valor * 100);
+const totalItem = (precoUnitario: number, quantidade: number) => (centavos(precoUnitario) * quantidade) / 100;
+
 const PDV = () => {
   const [produtos, setProdutos] = useState<Produto[]>([]);
   const [clientes, setClientes] = useState<Cliente[]>([]);
   const [produtoSelecionado, setProdutoSelecionado] = useState<number | ''>('');
   const [clienteSelecionado, setClienteSelecionado] = useState<number | ''>('');
+  const [clienteAtual, setClienteAtual] = useState<Cliente | null>(null);
+  const [buscaCliente, setBuscaCliente] = useState<string>('');
   const [quantidade, setQuantidade] = useState<number>(1);
   const [itensVenda, setItensVenda] = useState<ItemVenda[]>([]);
   const [formaPagamento, setFormaPagamento] = useState<string>('DINHEIRO');
@@ -22,9 +28,14 @@ const PDV = () => {
 
   useEffect(() => {
     fetchProdutos();
-    fetchClientes();
   }, []);
 
+  // clientes vêm do servidor conforme a digitação, não a base inteira
+  useEffect(() => {
+    const espera = setTimeout(() => fetchClientes(buscaCliente.trim()), buscaCliente ? 300 : 0);
+    return () => clearTimeout(espera);
+  }, [buscaCliente]);
+
   const fetchProdutos = async () => {
     try {
       const response = await api.get<Produto[]>('/produtos');
@@ -34,15 +45,32 @@ const PDV = () => {
     }
   };
 
-  const fetchClientes = async () => {
+  const fetchClientes = async (termo: string) => {
     try {
-      const response = await api.get<Cliente[]>('/clientes');
-      setClientes(response.data);
+      // CPF (11) ou CNPJ (14) completo: busca direta pelo documento e já seleciona
+      const digitos = termo.replace(/\D/g, '');
+      if (/^[\d./\- ]+$/.test(termo) && (digitos.length === 11 || digitos.length === 14)) {
+        try {
+          const response = await api.get<Cliente>(`/clientes/doc/${digitos}`);
+          setClientes([response.data]);
+          selecionarCliente(response.data);
+          return;
+        } catch (error: any) {
+          if (error?.response?.status !== 404) throw error;
+        }
+      }
+      const response = await api.get('/clientes', { params: { q: termo, size: 20 } });
+      setClientes(Array.isArray(response.data?.content) ? response.data.content : []);
     } catch (error) {
       console.error('Erro ao carregar clientes:', error);
     }
   };
 
+  const selecionarCliente = (cliente: Cliente | null) => {
+    setClienteAtual(cliente);
+    setClienteSelecionado(cliente ? cliente.id : '');
+  };
+
   const adicionarItem = () => {
     if (!produtoSelecionado || quantidade <= 0) {
       alert('Selecione um produto e quantidade válida');
@@ -65,7 +93,7 @@ const PDV = () => {
           ? {
               ...item,
               quantidade: item.quantidade + quantidade,
-              precoTotal: (item.quantidade + quantidade) * item.precoUnitario
+              precoTotal: totalItem(item.precoUnitario, item.quantidade + quantidade)
             }
           : item
       ));
@@ -75,7 +103,7 @@ const PDV = () => {
         nomeProduto: produto.nome,
         quantidade: quantidade,
         precoUnitario: produto.precoVenda,
-        precoTotal: produto.precoVenda * quantidade
+        precoTotal: totalItem(produto.precoVenda, quantidade)
       };
       setItensVenda([...itensVenda, novoItem]);
     }
@@ -88,82 +116,23 @@ const PDV = () => {
     setItensVenda(itensVenda.filter(item => item.produtoId !== produtoId));
   };
 
+  // soma em centavos inteiros: somar reais em ponto flutuante deixa resto (0,1 + 0,2)
   const calcularTotal = (): number => {
-    return itensVenda.reduce((total, item) => total + item.precoTotal, 0);
+    return itensVenda.reduce((total, item) => total + centavos(item.precoTotal), 0) / 100;
   };
 
-  // gera o HTML do comprovante (usado para upload/impressão)
-  const gerarHtmlComprovante = (resumo: VendaResumo) => {
-    const clienteHtml = resumo.cliente ? `
-      <div><strong>Cliente:</strong> ${resumo.cliente.nome} ${resumo.cliente.email ? `• ${resumo.cliente.email}` : ''} ${resumo.cliente.telefone ? `• ${resumo.cliente.telefone}` : ''}</div>
-    ` : `<div><strong>Cliente:</strong> —</div>`;
-
-    const linhas = resumo.itens.map(i => `
-      <tr>
-        <td style="padding:6px 8px;text-align:center;">${i.quantidade}</td>
-        <td style="padding:6px 8px;">${i.nomeProduto}</td>
-        <td style="padding:6px 8px;text-align:right;">${formatPrice(i.precoUnitario)}</td>
-        <td style="padding:6px 8px;text-align:right;">${formatPrice(i.precoTotal)}</td>
-      </tr>
-    `).join('');
-
-    return `
-      <!doctype html>
-      <html>
-      <head>
-        <meta charset="utf-8" />
-        <title>Comprovante Venda ${resumo.id ?? ''}</title>
-        <style>
-          body { font-family: Arial, Helvetica, sans-serif; color: #222; padding: 18px; }
-          h2 { margin-bottom: 6px; }
-          table { width: 100%; border-collapse: collapse; margin-top: 12px; }
-          th, td { border-bottom: 1px solid #eee; }
-          th { text-align:left; padding: 8px; background:#f8f8f8; }
-          tfoot td { padding: 8px; font-weight: 700; border-top: 2px solid #ddd; }
-        </style>
-      </head>
-      <body>
-        <h2>Comprovante de Venda ${resumo.id ? '#'+resumo.id : ''}</h2>
-        ${clienteHtml}
-        <div><strong>Data:</strong> ${formatDateTime(resumo.dataVenda)}</div>
-        <div><strong>Forma Pagamento:</strong> ${resumo.formaPagamento ?? '—'}</div>
-
-        <table>
-          <thead>
-            <tr>
-              <th style="width:10%;">Qtd</th>
-              <th>Produto</th>
-              <th style="width:18%;text-align:right;">Valor unit.</th>
-              <th style="width:18%;text-align:right;">Valor total</th>
-            </tr>
-          </thead>
-          <tbody>
-            ${linhas}
-          </tbody>
-          <tfoot>
-            <tr>
-              <td></td>
-              <td style="text-align:right">TOTAL</td>
-              <td></td>
-              <td style="text-align:right">${formatPrice(resumo.valorTotal)}</td>
-            </tr>
-          </tfoot>
-        </table>
-      </body>
-      </html>
-    `;
-  };
-
-  // envia HTML como arquivo para o backend
-  const uploadComprovante = async (orderId: number, htmlContent: string) => {
-    const blob = new Blob([htmlContent], { type: 'text/html' });
-    const fd = new FormData();
-    const fileName = `comprovante-${orderId}.html`;
-    fd.append('file', blob, fileName);
-
-    await api.post(`/ordens-venda/${orderId}/comprovante`, fd, {
-      headers: { 'Content-Type': 'multipart/form-data' }
-    });
+  // baixa o comprovante gerado pelo backend depois da venda (202 = ainda na fila)
+  const baixarComprovante = async (orderId: number) => {
+    const resp = await api.get(`/ordens-venda/${orderId}/comprovante`, { responseType: 'blob' });
+    if (resp.status === 202) {
+      throw new Error('Comprovante ainda está sendo gerado, tente novamente em instantes');
+    }
+    const url = URL.createObjectURL(resp.data);
+    const link = document.createElement('a');
+    link.href = url;
+    link.download = `comprovante-${orderId}.html`;
+    link.click();
+    URL.revokeObjectURL(url);
   };
 
   const finalizarVenda = async () => {
@@ -201,7 +170,7 @@ const PDV = () => {
       // montar resumo (preferir dados retornados pelo backend quando disponíveis)
       const resumo: VendaResumo = {
         id: ordemCriada.id,
-        cliente: clientes.find(c => c.id === (clienteSelecionado as number)) ?? null,
+        cliente: clienteAtual,
         dataVenda: ordemCriada.dataVenda ?? novaVenda.dataVenda,
         itens: novaVenda.itensVendas.map((it: any) => {
           // encontrar o item local com nome e preços (pelo produtoId)
@@ -222,20 +191,12 @@ const PDV = () => {
       setVendaResumo(resumo);
       setModalOpen(true);
 
-      // tenta salvar automaticamente o comprovante (se o backend retornou id)
-      if (ordemCriada.id) {
-        try {
-          const html = gerarHtmlComprovante(resumo);
-          await uploadComprovante(ordemCriada.id, html);
-          // sucesso silencioso, se quiser notificar pode alertar
-        } catch (err) {
-          console.warn('Falha ao salvar comprovante automaticamente', err);
-        }
-      }
+      // o comprovante é gerado pelo backend em segundo plano; não precisa enviar nada daqui
 
       // limpar PDV
       setItensVenda([]);
-      setClienteSelecionado('');
+      selecionarCliente(null);
+      setBuscaCliente('');
       setDescricao('');
       setFormaPagamento('DINHEIRO');
 
@@ -261,11 +222,10 @@ const PDV = () => {
     }).format(price);
   };
 
-  const formatDateTime = (iso?: string) => {
-    if (!iso) return '—';
-    const d = new Date(iso);
-    return d.toLocaleString('pt-BR', { day:'2-digit', month:'2-digit', year:'numeric', hour:'2-digit', minute:'2-digit' });
-  };
+  // o escolhido continua na lista mesmo quando a busca muda
+  const opcoesCliente = clienteAtual && !clientes.some(c => c.id === clienteAtual.id)
+    ? [clienteAtual, ...clientes]
+    : clientes;
 
   return (
     <div className="page-container">
@@ -275,13 +235,19 @@ const PDV = () => {
         <div className="pdv-selection">
           <div className="card">
             <h2>Cliente</h2>
+            <input
+              value={buscaCliente}
+              onChange={(e) => setBuscaCliente(e.target.value)}
+              placeholder="Nome, telefone, e-mail ou CPF/CNPJ"
+              className="select-input"
+            />
             <select
               value={clienteSelecionado}
-              onChange={(e) => setClienteSelecionado(Number(e.target.value))}
+              onChange={(e) => selecionarCliente(opcoesCliente.find(c => c.id === Number(e.target.value)) ?? null)}
               className="select-input"
             >
               <option value="">Selecione um cliente</option>
-              {clientes.map(cliente => (
+              {opcoesCliente.map(cliente => (
                 <option key={cliente.id} value={cliente.id}>
                   {cliente.nome}
                 </option>
@@ -400,9 +366,9 @@ const PDV = () => {
         open={modalOpen}
         venda={vendaResumo}
         onClose={() => { setModalOpen(false); setVendaResumo(null); }}
-        onSaveComprovante={async (html) => {
+        onSaveComprovante={async () => {
           if (!vendaResumo?.id) throw new Error('Ordem sem ID');
-          await uploadComprovante(vendaResumo.id, html);
+          await baixarComprovante(vendaResumo.id);
         }}
       />
     </div>
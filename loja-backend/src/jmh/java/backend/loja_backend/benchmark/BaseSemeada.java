@@ -0,0 +1,93 @@
+package backend.loja_backend.benchmark;
+
+import java.time.LocalDate;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import backend.loja_backend.LojaBackendApplication;
+import backend.loja_backend.repositories.ProdutoRepository;
+import backend.loja_backend.services.IndiceBuscaProdutos;
+import backend.loja_backend.services.VendasDiariasService;
+
+/**
+ * Sobe a aplicação contra um H2 em memória (modo PostgreSQL) e semeia {@code ordens} vendas
+ * de 2 itens cada, espalhadas de minuto em minuto para trás a partir de 31/12/2025.
+ * A semeadura é feita em SQL (INSERT ... SELECT), fora do caminho que está sendo medido.
+ */
+@State(Scope.Benchmark)
+public class BaseSemeada {
+
+    static final int PRODUTOS = 1_000;
+    static final int CLIENTES = 5_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int ordens;
+
+    ConfigurableApplicationContext contexto;
+    long primeiroProduto;
+    long primeiroCliente;
+
+    @Setup(Level.Trial)
+    public void subir() {
+        contexto = new SpringApplicationBuilder(LojaBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "spring.main.banner-mode=off",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        // mede as consultas do dashboard, não o cache de resultados
+                        "dashboard.cache.ttl=0s",
+                        "logging.level.root=WARN")
+                .run();
+        semear();
+    }
+
+    @TearDown(Level.Trial)
+    public void descer() {
+        contexto.close();
+    }
+
+    <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    private void semear() {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+
+        jdbc.update("INSERT INTO clientes (nome, email) "
+                + "SELECT 'Cliente ' || x, 'cliente' || x || '@loja.com' FROM SYSTEM_RANGE(1, " + CLIENTES + ") AS s(x)");
+        jdbc.update("INSERT INTO produtos (nome, descricao, preco_custo, preco_venda, quantidade_estoque) "
+                + "SELECT CASE MOD(x, 5) WHEN 0 THEN 'Baqueta' WHEN 1 THEN 'Pele' WHEN 2 THEN 'Prato' "
+                + "WHEN 3 THEN 'Corda' ELSE 'Caixa' END || ' ' || x, 'Acessório de bateria ' || x, "
+                + "5.0, 10.0, 1000000000 FROM SYSTEM_RANGE(1, " + PRODUTOS + ") AS s(x)");
+        primeiroCliente = jdbc.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+        primeiroProduto = jdbc.queryForObject("SELECT MIN(id) FROM produtos", Long.class);
+
+        jdbc.update("INSERT INTO ordem_venda (id, descricao, valor_total, data_venda, status, forma_pagamento, cliente_id) "
+                + "SELECT x, 'Venda ' || x, 20.00, DATEADD('MINUTE', -x, TIMESTAMP '2025-12-31 23:00:00'), "
+                + "CASE MOD(x, 10) WHEN 0 THEN 'CANCELADA' ELSE 'FINALIZADA' END, "
+                + "CASE MOD(x, 3) WHEN 0 THEN 'DINHEIRO' WHEN 1 THEN 'PIX' ELSE 'CARTAO' END, "
+                + primeiroCliente + " + MOD(x, " + CLIENTES + ") FROM SYSTEM_RANGE(1, " + ordens + ") AS s(x)");
+        jdbc.update("INSERT INTO itens_vendas (id, ordem_venda_id, produto_id, quantidade, preco_unitario) "
+                + "SELECT x, (x + 1) / 2, " + primeiroProduto + " + MOD(x, " + PRODUTOS + "), 1, 10.00 "
+                + "FROM SYSTEM_RANGE(1, " + (2L * ordens) + ") AS s(x)");
+
+        // ids semeados à mão: as sequências precisam começar depois deles (com folga para o pooled de 50)
+        jdbc.execute("ALTER SEQUENCE ordem_venda_seq RESTART WITH " + (ordens + 1_000));
+        jdbc.execute("ALTER SEQUENCE itens_vendas_seq RESTART WITH " + (2L * ordens + 1_000));
+
+        bean(VendasDiariasService.class).reconstruir(LocalDate.of(2020, 1, 1), LocalDate.of(2026, 1, 1));
+        bean(IndiceBuscaProdutos.class).reconstruir(bean(ProdutoRepository.class).findAll(Sort.by("id")));
+    }
+}
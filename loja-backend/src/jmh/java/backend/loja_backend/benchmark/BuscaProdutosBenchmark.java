@@ -0,0 +1,68 @@
+package backend.loja_backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.services.IndiceBuscaProdutos;
+
+/**
+ * Busca do PDV no índice em memória, sem banco: prefixo curto, vários termos, erro de
+ * digitação e número (id). Percentis com:
+ *   mvn -Pjmh verify -Djmh.args="BuscaProdutosBenchmark -bm sample"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuscaProdutosBenchmark {
+
+    private static final String[] PALAVRAS = {"violao", "guitarra", "baixo", "cabo", "pedal", "corda", "afinador",
+            "capa", "teclado", "bateria", "prato", "microfone", "suporte", "palheta", "amplificador", "nylon",
+            "aco", "preto", "branco", "vermelho", "eletrico", "acustico", "profissional", "infantil"};
+
+    @Param({"100000"})
+    public int produtos;
+
+    @Param({"vio", "guitarra preto", "modelo123", "amplifcador", "cabo aco", "4521", "p"})
+    public String consulta;
+
+    private IndiceBuscaProdutos indice;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        List<Produtos> lista = new ArrayList<>(produtos);
+        for (long id = 1; id <= produtos; id++) {
+            Produtos p = new Produtos();
+            p.setId(id);
+            p.setNome(PALAVRAS[random.nextInt(PALAVRAS.length)] + " " + PALAVRAS[random.nextInt(PALAVRAS.length)]
+                    + " modelo" + id);
+            p.setDescricao(PALAVRAS[random.nextInt(PALAVRAS.length)]);
+            lista.add(p);
+        }
+        indice = new IndiceBuscaProdutos();
+        indice.reconstruir(lista);
+    }
+
+    @Benchmark
+    public List<Long> buscar() {
+        return indice.buscar(consulta, 20);
+    }
+}
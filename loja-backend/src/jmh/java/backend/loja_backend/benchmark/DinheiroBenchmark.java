@@ -0,0 +1,94 @@
+package backend.loja_backend.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import backend.loja_backend.services.Dinheiro;
+
+/**
+ * Total do checkout: preço em Double convertido para BigDecimal item a item (como era)
+ * contra centavos em long somados e convertidos uma vez no fim (como é). Sem banco.
+ * Rode com -prof gc para ver a alocação por operação:
+ *   mvn -Pjmh verify -Djmh.args="DinheiroBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DinheiroBenchmark {
+
+    @Param({"5", "50"})
+    public int itens;
+
+    private Double[] precosDouble;
+    private BigDecimal[] precos;
+    private long[] precosCentavos;
+    private int[] quantidades;
+
+    @Setup
+    public void preparar() {
+        precosDouble = new Double[itens];
+        precos = new BigDecimal[itens];
+        precosCentavos = new long[itens];
+        quantidades = new int[itens];
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        for (int i = 0; i < itens; i++) {
+            long centavos = aleatorio.nextLong(50, 200_000);
+            precosDouble[i] = centavos / 100.0;
+            precos[i] = BigDecimal.valueOf(centavos, 2);
+            precosCentavos[i] = centavos;
+            quantidades[i] = aleatorio.nextInt(1, 6);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal totalDoubleParaBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < itens; i++) {
+            total = total.add(BigDecimal.valueOf(precosDouble[i]).multiply(BigDecimal.valueOf(quantidades[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal totalBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < itens; i++) {
+            total = total.add(precos[i].multiply(BigDecimal.valueOf(quantidades[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal totalCentavos() {
+        long total = 0;
+        for (int i = 0; i < itens; i++) {
+            total += Dinheiro.total(Dinheiro.centavos(precos[i]), quantidades[i]);
+        }
+        return Dinheiro.reais(total);
+    }
+
+    @Benchmark
+    public BigDecimal totalCentavosPreConvertidos() {
+        long total = 0;
+        for (int i = 0; i < itens; i++) {
+            total += Dinheiro.total(precosCentavos[i], quantidades[i]);
+        }
+        return Dinheiro.reais(total);
+    }
+}
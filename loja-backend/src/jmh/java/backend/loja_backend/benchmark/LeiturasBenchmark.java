@@ -0,0 +1,84 @@
+package backend.loja_backend.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.entity.PDV.services.OrdemVendaService;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.services.ClienteService;
+
+/**
+ * Leitura por entidade gerenciada (como era) contra projeção em DTO/read-only (como é).
+ * Rode com -prof gc para ver a alocação por operação:
+ *   mvn -Pjmh verify -Djmh.args="LeiturasBenchmark -p ordens=1000 -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class LeiturasBenchmark {
+
+    private ClienteRepository clienteRepository;
+    private ClienteService clienteService;
+    private OrdemVendaRepository ordemVendaRepository;
+    private OrdemVendaService ordemVendaService;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate transacao;
+
+    @Setup(Level.Trial)
+    public void preparar(BaseSemeada base) {
+        clienteRepository = base.bean(ClienteRepository.class);
+        clienteService = base.bean(ClienteService.class);
+        ordemVendaRepository = base.bean(OrdemVendaRepository.class);
+        ordemVendaService = base.bean(OrdemVendaService.class);
+        objectMapper = base.bean(ObjectMapper.class);
+        transacao = new TransactionTemplate(base.bean(PlatformTransactionManager.class));
+    }
+
+    // entidade: carregada e serializada dentro da transação (como no open-in-view), com flush no commit
+    @Benchmark
+    public byte[] clientesEntidades() {
+        return transacao.execute(s -> serializar(clienteRepository.findAll()));
+    }
+
+    @Benchmark
+    public byte[] clientesProjecao() throws Exception {
+        return objectMapper.writeValueAsBytes(clienteService.listarTodos());
+    }
+
+    @Benchmark
+    public byte[] ordemDetalheEntidade() {
+        return transacao.execute(s -> serializar(ordemVendaRepository.findById(1L).orElseThrow()));
+    }
+
+    @Benchmark
+    public byte[] ordemDetalheProjecao() throws Exception {
+        return objectMapper.writeValueAsBytes(ordemVendaService.buscarDetalhe(1L).orElseThrow());
+    }
+
+    private byte[] serializar(Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
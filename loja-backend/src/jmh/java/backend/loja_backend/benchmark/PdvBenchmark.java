@@ -0,0 +1,163 @@
+package backend.loja_backend.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.loja_backend.controllers.DashboardController;
+import backend.loja_backend.dto.ProdutoResumoDTO;
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.entity.OrdemVenda;
+import backend.loja_backend.entity.PDV.services.OrdemVendaService;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.services.DashboardService;
+import backend.loja_backend.services.ProdutoService;
+
+/**
+ * Caminhos quentes do PDV e do dashboard. Cada benchmark roda em um fork próprio,
+ * com a base semeada na escala do parâmetro {@code ordens}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class PdvBenchmark {
+
+    private static final int ORDENS_SERIALIZADAS = 50;
+
+    private OrdemVendaService ordemVendaService;
+    private DashboardController dashboardController;
+    private DashboardService dashboardService;
+    private ProdutoService produtoService;
+    private ObjectMapper objectMapper;
+
+    private Clientes cliente;
+    private long primeiroProduto;
+    private List<OrdemVenda> ordensCarregadas;
+
+    @Setup(Level.Trial)
+    public void preparar(BaseSemeada base) {
+        ordemVendaService = base.bean(OrdemVendaService.class);
+        dashboardController = base.bean(DashboardController.class);
+        dashboardService = base.bean(DashboardService.class);
+        produtoService = base.bean(ProdutoService.class);
+        objectMapper = base.bean(ObjectMapper.class);
+
+        cliente = base.bean(ClienteRepository.class).findById(base.primeiroCliente).orElseThrow();
+        primeiroProduto = base.primeiroProduto;
+
+        ordensCarregadas = new ArrayList<>(ORDENS_SERIALIZADAS);
+        for (long id = 1; id <= ORDENS_SERIALIZADAS; id++) {
+            ordemVendaService.buscarPorId(id).ifPresent(ordensCarregadas::add);
+        }
+    }
+
+    @Benchmark
+    public OrdemVenda criarOrdemVenda() {
+        return ordemVendaService.criarOrdemVenda(novaVenda(3), cliente);
+    }
+
+    @Benchmark
+    public Object totaisDoMes() {
+        return dashboardController.totais(
+                LocalDateTime.parse("2025-12-01T00:00:00"), LocalDateTime.parse("2025-12-31T23:59:59"));
+    }
+
+    @Benchmark
+    public Object totaisDoAno() {
+        return dashboardController.totais(
+                LocalDateTime.parse("2025-01-01T00:00:00"), LocalDateTime.parse("2025-12-31T23:59:59"));
+    }
+
+    // séries e ranking sem o cache de resultados (BaseSemeada zera o TTL): custo do SQL
+    @Benchmark
+    public Object serieDoAnoPorDia() {
+        return dashboardService.series(DashboardService.Intervalo.DIA,
+                LocalDate.parse("2025-01-01"), LocalDate.parse("2025-12-31"));
+    }
+
+    @Benchmark
+    public Object serieDoAnoPorSemana() {
+        return dashboardService.series(DashboardService.Intervalo.SEMANA,
+                LocalDate.parse("2025-01-01"), LocalDate.parse("2025-12-31"));
+    }
+
+    @Benchmark
+    public Object serieDoMesPorHora() {
+        return dashboardService.series(DashboardService.Intervalo.HORA,
+                LocalDate.parse("2025-12-01"), LocalDate.parse("2025-12-31"));
+    }
+
+    @Benchmark
+    public Object topProdutosDoAno() {
+        return dashboardService.topProdutos(LocalDate.parse("2025-01-01"), LocalDate.parse("2025-12-31"), 10);
+    }
+
+    @Benchmark
+    public byte[] serializarOrdens() throws Exception {
+        return objectMapper.writeValueAsBytes(ordensCarregadas);
+    }
+
+    @Benchmark
+    public void listarProdutos(Blackhole bh) {
+        for (ProdutoResumoDTO p : produtoService.listarTodos()) {
+            bh.consume(p);
+        }
+    }
+
+    @Benchmark
+    public Object buscarProdutoPorId() {
+        return produtoService.buscarPorId(produtoAleatorio());
+    }
+
+    @Benchmark
+    public Object buscarProdutos() {
+        return produtoService.buscar("baq", 20);
+    }
+
+    private long produtoAleatorio() {
+        return primeiroProduto + ThreadLocalRandom.current().nextInt(BaseSemeada.PRODUTOS);
+    }
+
+    private OrdemVendasDTO novaVenda(int itens) {
+        List<ItensVendasDTO> lista = new ArrayList<>(itens);
+        for (int i = 0; i < itens; i++) {
+            ItensVendasDTO item = new ItensVendasDTO();
+            item.setProdutoId(produtoAleatorio());
+            item.setQuantidade(1);
+            item.setPrecoUnitario(new BigDecimal("10.00"));
+            item.setPrecoTotal(new BigDecimal("10.00"));
+            lista.add(item);
+        }
+        OrdemVendasDTO dto = new OrdemVendasDTO();
+        dto.setClienteId(cliente.getId());
+        dto.setStatus("FINALIZADA");
+        dto.setFormaPagamento("PIX");
+        dto.setValorTotal(BigDecimal.valueOf(10L * itens));
+        dto.setItensVendas(lista);
+        return dto;
+    }
+}
@@ -2,8 +2,10 @@ package backend.loja_backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LojaBackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,72 @@
+package backend.loja_backend.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Bulkhead dos relatórios (dashboard e exportação): no máximo N requisições simultâneas,
+ * logo no máximo N conexões do pool ocupadas por elas. O restante do pool fica garantido
+ * para o PDV. Quem não consegue vaga dentro da espera máxima recebe 503 com Retry-After.
+ */
+@Component
+public class BulkheadRelatoriosFilter extends OncePerRequestFilter {
+
+    private final Semaphore vagas;
+    private final long esperaMaximaNanos;
+    private final Counter rejeitadas;
+
+    public BulkheadRelatoriosFilter(MeterRegistry registry,
+                                    @Value("${loja.relatorios.concorrencia-maxima:4}") int concorrenciaMaxima,
+                                    @Value("${loja.relatorios.espera-maxima:2s}") Duration esperaMaxima) {
+        this.vagas = new Semaphore(concorrenciaMaxima, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.rejeitadas = registry.counter("loja.relatorios.rejeitadas");
+        registry.gauge("loja.relatorios.em.andamento", vagas, v -> concorrenciaMaxima - v.availablePermits());
+    }
+
+    static boolean isRelatorio(String uri) {
+        return uri.startsWith("/api/dashboard/") || uri.equals("/api/dashboard")
+                || uri.startsWith("/api/ordens-venda/export");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod()) || !isRelatorio(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean conseguiu;
+        try {
+            conseguiu = vagas.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            conseguiu = false;
+        }
+        if (!conseguiu) {
+            rejeitadas.increment();
+            response.setHeader("Retry-After", "5");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Erro: relatórios ocupados, tente novamente");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            vagas.release();
+        }
+    }
+}
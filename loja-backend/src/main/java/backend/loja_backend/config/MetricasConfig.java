@@ -0,0 +1,40 @@
+package backend.loja_backend.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+@Configuration
+public class MetricasConfig {
+
+    // Habilita @Timed nos services e controllers (métrica com tags class e method)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Envolve o DataSource (Hikari continua por baixo, com as métricas do pool) para o MonitorSql ver cada comando
+    @Bean
+    public static BeanPostProcessor monitorSqlDataSource(ObjectProvider<MonitorSql> monitorSql) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(monitorSql.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package backend.loja_backend.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Vê todo SQL que passa pelo DataSource (Hibernate e JdbcTemplate): mede a duração por tipo
+ * de comando, conta os comandos da requisição corrente e registra no log, por amostragem,
+ * os que passarem do limite configurado. Substitui o spring.jpa.show-sql.
+ */
+@Slf4j
+@Component
+public class MonitorSql implements QueryExecutionListener {
+
+    private static final ThreadLocal<int[]> COMANDOS_DA_REQUISICAO = new ThreadLocal<>();
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final long limiteLentaNanos;
+    private final double amostragemLenta;
+
+    public MonitorSql(ObjectProvider<MeterRegistry> registry,
+                      @Value("${loja.sql.lenta.limite:200ms}") Duration limiteLenta,
+                      @Value("${loja.sql.lenta.amostragem:0.1}") double amostragemLenta) {
+        this.registry = registry;
+        this.limiteLentaNanos = limiteLenta.toNanos();
+        this.amostragemLenta = amostragemLenta;
+    }
+
+    /** Começa a contar os comandos SQL da thread atual (início da requisição). */
+    public static void iniciarContagem() {
+        COMANDOS_DA_REQUISICAO.set(new int[1]);
+    }
+
+    /** Para de contar e devolve quantos comandos a thread executou desde {@link #iniciarContagem()}. */
+    public static int encerrarContagem() {
+        int[] contador = COMANDOS_DA_REQUISICAO.get();
+        COMANDOS_DA_REQUISICAO.remove();
+        return contador != null ? contador[0] : 0;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        int comandos = execInfo.isBatch() ? Math.max(execInfo.getBatchSize(), 1) : queryInfoList.size();
+        int[] contador = COMANDOS_DA_REQUISICAO.get();
+        if (contador != null) {
+            contador[0] += comandos;
+        }
+
+        long nanos = TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        MeterRegistry meterRegistry = registry.getIfAvailable();
+        if (meterRegistry != null) {
+            Timer.builder("loja.sql.execucoes")
+                    .description("Duração dos comandos SQL enviados ao banco")
+                    .tag("tipo", tipo(sql))
+                    .tag("batch", String.valueOf(execInfo.isBatch()))
+                    .tag("sucesso", String.valueOf(execInfo.isSuccess()))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (nanos >= limiteLentaNanos) {
+            if (meterRegistry != null) {
+                meterRegistry.counter("loja.sql.lentas", "tipo", tipo(sql)).increment();
+            }
+            if (amostragemLenta >= 1.0 || ThreadLocalRandom.current().nextDouble() < amostragemLenta) {
+                log.warn("SQL lenta ({} ms, {} comando(s)): {}", execInfo.getElapsedTime(), comandos, sql);
+            }
+        }
+    }
+
+    private static String tipo(String sql) {
+        String inicio = sql.stripLeading();
+        int espaco = inicio.indexOf(' ');
+        String verbo = (espaco > 0 ? inicio.substring(0, espaco) : inicio).toLowerCase(Locale.ROOT);
+        return switch (verbo) {
+            case "select", "insert", "update", "delete", "with" -> verbo;
+            default -> "outro";
+        };
+    }
+}
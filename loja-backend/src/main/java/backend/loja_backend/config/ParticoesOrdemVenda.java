@@ -0,0 +1,109 @@
+package backend.loja_backend.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantém as partições mensais de ordem_venda (PostgreSQL, migração V3) criadas com alguma
+ * antecedência, para as vendas do mês novo não caírem na partição padrão. Em outros bancos
+ * (H2 dos testes) a tabela não é particionada e nada é feito. As partições que o
+ * arquivamento esvazia são removidas por removerParticoesVazias.
+ */
+@Slf4j
+@Component
+public class ParticoesOrdemVenda {
+
+    // nome das partições criadas por criar_particoes_ordem_venda (V3): ordem_venda_2025_01
+    private static final DateTimeFormatter MES_PARTICAO = DateTimeFormatter.ofPattern("uuuu_MM");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final int mesesAFrente;
+
+    public ParticoesOrdemVenda(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${loja.particoes.meses-a-frente:3}") int mesesAFrente) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.mesesAFrente = mesesAFrente;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${loja.particoes.cron:0 0 3 * * *}")
+    public void criarParticoesFuturas() throws SQLException {
+        if (!postgres()) {
+            return;
+        }
+        LocalDate inicio = LocalDate.now().withDayOfMonth(1);
+        Integer criadas = jdbcTemplate.queryForObject("SELECT criar_particoes_ordem_venda(?, ?)", Integer.class,
+                inicio, inicio.plusMonths(mesesAFrente + 1));
+        if (criadas != null && criadas > 0) {
+            log.info("{} partições mensais de ordem_venda criadas", criadas);
+        }
+    }
+
+    /**
+     * Remove as partições mensais inteiramente anteriores a antesDe que ficaram vazias (o
+     * arquivamento levou as vendas): DROP devolve o espaço na hora, sem esperar o VACUUM.
+     * O DETACH vem antes da conferência, na mesma transação: uma venda com data antiga que
+     * chegue no meio espera o lock; se a partição não estiver vazia, o rollback desfaz o DETACH.
+     */
+    public int removerParticoesVazias(LocalDate antesDe) throws SQLException {
+        if (!postgres()) {
+            return 0;
+        }
+        List<String> particoes = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'ordem_venda'::regclass AND c.relname ~ '^ordem_venda_[0-9]{4}_[0-9]{2}$' " +
+                "ORDER BY c.relname", String.class);
+        int removidas = 0;
+        for (String nome : particoes) {
+            YearMonth mes = YearMonth.parse(nome.substring("ordem_venda_".length()), MES_PARTICAO);
+            if (mes.plusMonths(1).atDay(1).isAfter(antesDe)) {
+                continue;
+            }
+            Boolean removida = transacao.execute(status -> {
+                jdbcTemplate.execute("ALTER TABLE ordem_venda DETACH PARTITION " + nome);
+                if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM " + nome + ")", Boolean.class))) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                jdbcTemplate.execute("DROP TABLE " + nome);
+                return true;
+            });
+            if (Boolean.TRUE.equals(removida)) {
+                removidas++;
+            }
+        }
+        if (removidas > 0) {
+            log.info("{} partições vazias de ordem_venda removidas", removidas);
+        }
+        return removidas;
+    }
+
+    private boolean postgres() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return "PostgreSQL".equals(conn.getMetaData().getDatabaseProductName());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package backend.loja_backend.config;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import backend.loja_backend.repositories.DashboardRepository;
+import backend.loja_backend.repositories.VendasDiariasRepository;
+import backend.loja_backend.services.VendasDiariasService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Popula vendas_diarias a partir do histórico (ordem_venda e arquivo) quando o rollup ainda
+ * não cobre a primeira venda: na primeira subida, ou depois de um backfill interrompido.
+ *
+ * Roda em segundo plano depois da subida, um mês por transação, do mais recente para o mais
+ * antigo: o dashboard recente fica certo primeiro e, se a aplicação parar no meio, a próxima
+ * subida continua do dia anterior ao mais antigo já reconstruído.
+ */
+@Slf4j
+@Component
+public class VendasDiariasBackfill {
+
+    private final VendasDiariasRepository vendasDiariasRepository;
+    private final DashboardRepository dashboardRepository;
+    private final VendasDiariasService vendasDiariasService;
+    private final boolean ativo;
+
+    public VendasDiariasBackfill(VendasDiariasRepository vendasDiariasRepository, DashboardRepository dashboardRepository,
+                                 VendasDiariasService vendasDiariasService,
+                                 @Value("${vendas.rollup.backfill.ativo:true}") boolean ativo) {
+        this.vendasDiariasRepository = vendasDiariasRepository;
+        this.dashboardRepository = dashboardRepository;
+        this.vendasDiariasService = vendasDiariasService;
+        this.ativo = ativo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (ativo) {
+            Thread.ofVirtual().name("rollup-backfill").start(() -> {
+                try {
+                    executar();
+                } catch (Exception e) {
+                    // o que já foi reconstruído fica; o resto sai na próxima subida
+                    log.warn("Falha no backfill de vendas_diarias: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    /** Reconstrói, mês a mês, os dias que faltam no rollup. Devolve quantos meses foram reconstruídos. */
+    public synchronized int executar() {
+        LocalDateTime primeira = dashboardRepository.primeiraVenda();
+        if (primeira == null) {
+            return 0;
+        }
+        LocalDate primeiroDia = vendasDiariasRepository.primeiroDia();
+        LocalDate fim;
+        if (primeiroDia == null) {
+            fim = dashboardRepository.ultimaVenda().toLocalDate();
+        } else if (primeiroDia.isAfter(primeira.toLocalDate())) {
+            fim = primeiroDia.minusDays(1);
+        } else {
+            return 0;
+        }
+
+        int meses = 0;
+        while (!fim.isBefore(primeira.toLocalDate())) {
+            LocalDate inicio = fim.withDayOfMonth(1).isBefore(primeira.toLocalDate())
+                    ? primeira.toLocalDate() : fim.withDayOfMonth(1);
+            vendasDiariasService.reconstruir(inicio, fim);
+            meses++;
+            fim = inicio.minusDays(1);
+        }
+        log.info("Backfill de vendas_diarias: {} meses reconstruídos", meses);
+        return meses;
+    }
+}
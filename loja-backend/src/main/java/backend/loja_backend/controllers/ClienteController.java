@@ -1,16 +1,20 @@
 package backend.loja_backend.controllers;
 
 import backend.loja_backend.services.ClienteService;
+import backend.loja_backend.services.VersaoCatalogo;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import backend.loja_backend.dto.ClienteDTO;
+import backend.loja_backend.dto.ClienteResumoDTO;
 import backend.loja_backend.entity.Clientes;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/clientes")
@@ -19,35 +23,77 @@ public class ClienteController {
 
     @Autowired
     private ClienteService clienteService;
+
+    @Autowired
+    private VersaoCatalogo versaoCatalogo;
         
     @GetMapping("/{id}")
     @Operation(summary = "Buscar cliente por ID", description = "Retorna um cliente específico pelo seu ID")
-    public ResponseEntity<Clientes> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<ClienteResumoDTO> buscarPorId(@PathVariable Long id) {
         return clienteService.buscarPorId(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/doc/{cpfCnpj}")
+    @Operation(summary = "Buscar cliente por CPF/CNPJ", description = "Aceita o documento só com dígitos (com máscara, CNPJ tem barra e precisa ir codificado)")
+    public ResponseEntity<?> buscarPorDocumento(@PathVariable String cpfCnpj) {
+        try {
+            return clienteService.buscarPorDocumento(cpfCnpj)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sem parâmetros devolve a lista completa (com ETag), como sempre. Com page, size ou q
+     * devolve uma página da busca por prefixo de nome, e-mail, telefone ou CPF/CNPJ.
+     */
     @GetMapping
-    @Operation(summary = "Listar todos os clientes", description = "Retorna uma lista de todos os clientes")
-    public List<Clientes> listarTodos() {
-        return clienteService.listarTodos();
+    @Operation(summary = "Listar ou buscar clientes", description = "Lista completa, ou página da busca com ?page=&size=&q=")
+    public ResponseEntity<?> listarTodos(WebRequest request,
+                                         @RequestParam(required = false) Integer page,
+                                         @RequestParam(required = false) Integer size,
+                                         @RequestParam(required = false) String q) {
+        if (page != null || size != null || q != null) {
+            return ResponseEntity.ok(clienteService.buscar(q, page, size));
+        }
+        // versão lida antes da consulta: se mudar no meio, o próximo pedido baixa de novo
+        String etag = versaoCatalogo.etag(VersaoCatalogo.Catalogo.CLIENTES);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(etag)
+            .body(clienteService.listarTodos());
     }
     
     @PostMapping
     @Operation(summary = "Cadastrar novo cliente", description = "Cria um novo cliente no banco de dados")
-    public ResponseEntity<Clientes> criar(@RequestBody ClienteDTO cliente) {
-        Clientes novoCliente = clienteService.salvar(cliente);
-        return ResponseEntity.status(HttpStatus.CREATED).body(novoCliente);
-  
+    public ResponseEntity<?> criar(@RequestBody ClienteDTO cliente) {
+        try {
+            Clientes novoCliente = clienteService.salvar(cliente);
+            return ResponseEntity.status(HttpStatus.CREATED).body(novoCliente);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            return documentoDuplicado();
+        }
     }
     
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar cliente", description = "Atualiza os dados de um cliente existente")
-    public ResponseEntity<Clientes> atualizar(@PathVariable Long id, @RequestBody Clientes cliente) {
+    public ResponseEntity<?> atualizar(@PathVariable Long id, @RequestBody Clientes cliente) {
         try {
             Clientes clienteAtualizado = clienteService.atualizar(id, cliente);
             return ResponseEntity.ok(clienteAtualizado);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            return documentoDuplicado();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -59,4 +105,9 @@ public class ClienteController {
         clienteService.deletar(id);
         return ResponseEntity.noContent().build();
     }
+
+    // unicidade de cpf_cnpj_digitos: checada no service e garantida pelo índice único
+    private static ResponseEntity<String> documentoDuplicado() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: CPF/CNPJ já cadastrado para outro cliente");
+    }
 }
@@ -1,8 +1,8 @@
 package backend.loja_backend.controllers;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,48 +10,107 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import backend.loja_backend.repositories.DashboardRepository;
+import backend.loja_backend.dto.DashboardResumoDTO;
+import backend.loja_backend.dto.SerieVendasDTO;
+import backend.loja_backend.dto.TopProdutoDTO;
+import backend.loja_backend.services.DashboardService;
+import backend.loja_backend.services.VendasDiariasService;
+import io.micrometer.core.annotation.Timed;
 
 @RestController
+@Timed(value = "loja.servicos", histogram = true)
 @RequestMapping("/api/dashboard")
 public class DashboardController {
 
-    private final DashboardRepository repo;
+    private final VendasDiariasService vendasDiariasService;
+    private final DashboardService dashboardService;
 
-    public DashboardController(DashboardRepository repo) {
-        this.repo = repo;
+    public DashboardController(VendasDiariasService vendasDiariasService, DashboardService dashboardService) {
+        this.vendasDiariasService = vendasDiariasService;
+        this.dashboardService = dashboardService;
     }
 
     /**
      * GET /api/dashboard/totais?start=2025-11-01T00:00:00&end=2025-11-30T23:59:59
      *
-     * start and end should be ISO_LOCAL_DATE_TIME (yyyy-MM-dd'T'HH:mm:ss)
+     * start and end should be ISO_LOCAL_DATE_TIME (yyyy-MM-dd'T'HH:mm:ss).
+     * Lido do rollup diário: a granularidade é o dia (o horário de start/end é ignorado).
      */
     @GetMapping("/totais")
     public ResponseEntity<Map<String, BigDecimal>> totais(
             @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam("end")   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(dashboardService.totais(start.toLocalDate(), end.toLocalDate()));
+    }
 
-        List<DashboardRepository.FormaTotalProjection> rows = repo.sumByFormaBetween(start, end);
-
-        BigDecimal totalDinheiro = BigDecimal.ZERO;
-        BigDecimal totalPix = BigDecimal.ZERO;
-        Map<String, BigDecimal> map = new HashMap<>();
-
-        for (var r : rows) {
-            String forma = r.getForma() != null ? r.getForma().toUpperCase() : "UNKNOWN";
-            BigDecimal total = r.getTotal() != null ? r.getTotal() : BigDecimal.ZERO;
-            map.put(forma, total);
+    /**
+     * GET /api/dashboard/resumo?start=2025-11-01&end=2025-11-30&limiteEstoqueBaixo=5
+     *
+     * Contagens de produtos/clientes/serviços, valor do estoque (custo), produtos com estoque
+     * baixo e os totais de vendas do período. start/end são opcionais (padrão: mês corrente).
+     */
+    @GetMapping("/resumo")
+    public ResponseEntity<DashboardResumoDTO> resumo(
+            @RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(value = "end", required = false)   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(value = "limiteEstoqueBaixo", required = false) Integer limiteEstoqueBaixo) {
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio = start != null ? start : hoje.withDayOfMonth(1);
+        LocalDate fim = end != null ? end : hoje;
+        return ResponseEntity.ok(dashboardService.resumo(inicio, fim, limiteEstoqueBaixo));
+    }
 
-            if ("DINHEIRO".equals(forma)) totalDinheiro = totalDinheiro.add(total);
-            if ("PIX".equals(forma)) totalPix = totalPix.add(total);
+    /**
+     * GET /api/dashboard/series?start=2025-01-01&end=2025-12-31&intervalo=dia
+     *
+     * Receita, vendas, unidades, ticket médio e receita acumulada por hora, dia ou semana
+     * (intervalo=hora aceita no máximo 31 dias). start/end opcionais (padrão: mês corrente).
+     */
+    @GetMapping("/series")
+    public ResponseEntity<?> series(
+            @RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(value = "end", required = false)   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(value = "intervalo", defaultValue = "dia") String intervalo) {
+        LocalDate hoje = LocalDate.now();
+        try {
+            SerieVendasDTO serie = dashboardService.series(DashboardService.Intervalo.de(intervalo),
+                    start != null ? start : hoje.withDayOfMonth(1), end != null ? end : hoje);
+            return ResponseEntity.ok(serie);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
         }
+    }
 
-        // garantir chaves mesmo se não houver resultados
-        map.put("DINHEIRO", map.getOrDefault("DINHEIRO", BigDecimal.ZERO));
-        map.put("PIX", map.getOrDefault("PIX", BigDecimal.ZERO));
-        map.put("TOTAL_DINHEIRO_PIX", map.get("DINHEIRO").add(map.get("PIX")));
+    /**
+     * GET /api/dashboard/top-produtos?start=2025-01-01&end=2025-12-31&limite=10
+     *
+     * Produtos com maior receita no período, com unidades e participação na receita total.
+     */
+    @GetMapping("/top-produtos")
+    public ResponseEntity<?> topProdutos(
+            @RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(value = "end", required = false)   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(value = "limite", required = false) Integer limite) {
+        LocalDate hoje = LocalDate.now();
+        try {
+            List<TopProdutoDTO> produtos = dashboardService.topProdutos(
+                    start != null ? start : hoje.withDayOfMonth(1), end != null ? end : hoje, limite);
+            return ResponseEntity.ok(produtos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
+    }
 
-        return ResponseEntity.ok(map);
+    /**
+     * POST /api/dashboard/rollup/reconstruir?start=2025-11-01&end=2025-11-30
+     *
+     * Recalcula o rollup diário a partir das ordens de venda (backfill).
+     */
+    @PostMapping("/rollup/reconstruir")
+    public ResponseEntity<Map<String, Integer>> reconstruirRollup(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam("end")   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        int linhas = vendasDiariasService.reconstruir(start, end);
+        return ResponseEntity.ok(Map.of("linhas", linhas));
     }
 }
@@ -0,0 +1,59 @@
+package backend.loja_backend.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import backend.loja_backend.services.EventosService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/eventos")
+@Tag(name = "Eventos", description = "Vendas e estoque em tempo real (Server-Sent Events)")
+public class EventosController {
+
+    private final EventosService eventosService;
+
+    public EventosController(EventosService eventosService) {
+        this.eventosService = eventosService;
+    }
+
+    /**
+     * GET /api/eventos/stream
+     *
+     * Eventos venda-criada, venda-excluida (dados: resumo da ordem) e estoque-alterado (dados:
+     * lista de produtoId/quantidadeEstoque). O EventSource do navegador reconecta sozinho e
+     * manda Last-Event-ID, e os eventos perdidos que ainda estão no histórico são reenviados.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Assinar eventos", description = "Stream SSE de vendas criadas/excluídas e alterações de estoque")
+    public ResponseEntity<?> stream(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoId) {
+        try {
+            SseEmitter emitter = eventosService.assinar(lerId(ultimoId));
+            return ResponseEntity.ok()
+                    .header("Cache-Control", "no-cache")
+                    // desliga o buffer do nginx, senão os eventos chegam em rajadas
+                    .header("X-Accel-Buffering", "no")
+                    .body(emitter);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "10")
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body("Erro: " + e.getMessage());
+        }
+    }
+
+    private static Long lerId(String ultimoId) {
+        if (ultimoId == null || ultimoId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(ultimoId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package backend.loja_backend.controllers;
 
+import backend.loja_backend.services.CatalogoProdutosCache;
+import backend.loja_backend.services.EstoqueService;
+import backend.loja_backend.services.VersaoCatalogo;
 import backend.loja_backend.services.ProdutoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import backend.loja_backend.dto.DivergenciaEstoqueDTO;
+import backend.loja_backend.dto.MovimentoEstoqueDTO;
 import backend.loja_backend.dto.ProdutoDTO;
+import backend.loja_backend.dto.ProdutoResumoDTO;
 import backend.loja_backend.entity.Produtos;
 
 import java.util.List;
+import java.util.Map;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 
 @RestController
@@ -18,12 +29,23 @@ import java.util.List;
 @Tag(name = "Produto", description = "API para gerenciamento de Produtos")
 public class ProdutoController {
 
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
+
     @Autowired
     private ProdutoService produtoService;
+
+    @Autowired
+    private CatalogoProdutosCache catalogoCache;
+
+    @Autowired
+    private VersaoCatalogo versaoCatalogo;
+
+    @Autowired
+    private EstoqueService estoqueService;
     
     @GetMapping("/{id}")
     @Operation(summary = "Buscar produto por ID", description = "Retorna um produto específico pelo seu ID")
-    public ResponseEntity<Produtos> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<ProdutoResumoDTO> buscarPorId(@PathVariable Long id) {
         return produtoService.buscarPorId(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
@@ -31,8 +53,70 @@ public class ProdutoController {
 
     @GetMapping
     @Operation(summary = "Listar todos os produtos", description = "Retorna uma lista de todos os produtos")
-    public List<Produtos> listarTodos() {
-        return (List<Produtos>) produtoService.listarTodos();
+    public ResponseEntity<List<ProdutoResumoDTO>> listarTodos(WebRequest request) {
+        // versão lida antes da consulta: se mudar no meio, o próximo pedido baixa de novo
+        String etag = versaoCatalogo.etag(VersaoCatalogo.Catalogo.PRODUTOS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(etag)
+            .body(produtoService.listarTodos());
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Buscar produtos", description = "Busca por nome/descrição (prefixo, sem acento, tolera erro de digitação) ou id; devolve os melhores resultados")
+    public List<ProdutoResumoDTO> buscar(@RequestParam(defaultValue = "") String q,
+                                 @RequestParam(defaultValue = "20") int limit) {
+        return produtoService.buscar(q, Math.max(1, Math.min(limit, LIMITE_MAXIMO_BUSCA)));
+    }
+
+    @GetMapping("/cache/estatisticas")
+    @Operation(summary = "Estatísticas do cache do catálogo", description = "Acertos, faltas e remoções do cache de produtos e de estoque")
+    public Map<String, Map<String, Object>> estatisticasCache() {
+        return Map.of(
+            "dados", resumo(catalogoCache.estatisticasDados()),
+            "estoque", resumo(catalogoCache.estatisticasEstoque()),
+            "catalogo", resumo(catalogoCache.estatisticasCatalogo()));
+    }
+
+    private static Map<String, Object> resumo(CacheStats stats) {
+        return Map.of(
+            "hits", stats.hitCount(),
+            "misses", stats.missCount(),
+            "hitRate", stats.hitRate(),
+            "evictions", stats.evictionCount());
+    }
+
+    @GetMapping("/{id}/movimentos")
+    @Operation(summary = "Razão de estoque do produto", description = "Movimentos (venda, ajuste, devolução) do mais novo ao mais antigo, com saldo após cada um; paginado por cursor (nextCursor)")
+    public ResponseEntity<?> listarMovimentos(@PathVariable Long id,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(estoqueService.listar(id, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/movimentos")
+    @Operation(summary = "Lançar movimento de estoque", description = "Ajuste (quantidade com sinal) ou devolução (positiva); o saldo nunca fica negativo")
+    public ResponseEntity<?> movimentarEstoque(@PathVariable Long id, @RequestBody MovimentoEstoqueDTO movimento) {
+        try {
+            return produtoService.movimentarEstoque(id, movimento)
+                .<ResponseEntity<?>>map(criado -> ResponseEntity.status(HttpStatus.CREATED).body(criado))
+                .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/estoque/conciliacao")
+    @Operation(summary = "Conciliação do estoque", description = "Produtos cujo saldo não bate com a última fotografia mais os movimentos seguintes; lista vazia quando tudo confere")
+    public List<DivergenciaEstoqueDTO> conciliarEstoque() {
+        return estoqueService.conciliar();
     }
 
     @PostMapping
@@ -50,7 +134,7 @@ public class ProdutoController {
     } 
 
     @PutMapping("/{id}")
-    @Operation(summary = "Atualizar produto", description = "Atualiza os dados de um produto existente")
+    @Operation(summary = "Atualizar produto", description = "Atualiza nome, descrição e preços; o estoque muda só por POST /{id}/movimentos")
     public ResponseEntity<Produtos> atualizar(@PathVariable Long id, @RequestBody Produtos produto) {
         try {
             Produtos produtoAtualizado = produtoService.atualizar(id, produto);
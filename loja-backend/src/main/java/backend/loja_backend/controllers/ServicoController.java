@@ -2,13 +2,17 @@ package backend.loja_backend.controllers;
 
 
 import backend.loja_backend.services.ServicoService;
+import backend.loja_backend.services.VersaoCatalogo;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import backend.loja_backend.dto.ServicoDTO;
+import backend.loja_backend.dto.ServicoResumoDTO;
 import backend.loja_backend.entity.Servicos;
 
 import java.util.List;
@@ -19,9 +23,12 @@ public class ServicoController {
 
     @Autowired
     private ServicoService servicoService;
+
+    @Autowired
+    private VersaoCatalogo versaoCatalogo;
     @GetMapping("/{id}")
     @Operation(summary = "Buscar serviço por ID", description = "Retorna um serviço específico pelo seu ID")
-    public ResponseEntity<Servicos> buscarPorId(@PathVariable Long id) {    
+    public ResponseEntity<ServicoResumoDTO> buscarPorId(@PathVariable Long id) {    
         return servicoService.buscarPorId(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
@@ -29,8 +36,16 @@ public class ServicoController {
 
     @GetMapping
     @Operation(summary = "Listar todos os serviços", description = "Retorna uma lista de todos os serviços")
-    public List<Servicos> listarTodos() {
-        return (List<Servicos>) servicoService.listarTodos();
+    public ResponseEntity<List<ServicoResumoDTO>> listarTodos(WebRequest request) {
+        // versão lida antes da consulta: se mudar no meio, o próximo pedido baixa de novo
+        String etag = versaoCatalogo.etag(VersaoCatalogo.Catalogo.SERVICOS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(etag)
+            .body(servicoService.listarTodos());
     }
 
     @PostMapping
@@ -0,0 +1,37 @@
+package backend.loja_backend.controllers;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import backend.loja_backend.services.SincronizacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/sync")
+@Tag(name = "Sincronização", description = "Alterações do catálogo para as cópias locais dos terminais")
+public class SincronizacaoController {
+
+    private final SincronizacaoService sincronizacaoService;
+
+    public SincronizacaoController(SincronizacaoService sincronizacaoService) {
+        this.sincronizacaoService = sincronizacaoService;
+    }
+
+    /**
+     * GET /api/sync?since=1234&limite=1000
+     *
+     * Sem since devolve o catálogo inteiro. O token da resposta vai no since do próximo pedido;
+     * com temMais=true ainda há alterações e o pedido deve ser repetido na hora.
+     */
+    @GetMapping
+    @Operation(summary = "Sincronizar catálogo", description = "Produtos, clientes e serviços criados, alterados ou excluídos desde o token")
+    public ResponseEntity<?> sincronizar(@RequestParam(value = "since", required = false) String since,
+                                         @RequestParam(value = "limite", required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(sincronizacaoService.alteracoesDesde(since, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
+    }
+}
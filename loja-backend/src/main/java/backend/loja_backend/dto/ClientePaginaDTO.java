@@ -0,0 +1,17 @@
+package backend.loja_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Página da busca de clientes: sem contagem total, hasNext diz se vale pedir a próxima
+@Data
+@AllArgsConstructor
+public class ClientePaginaDTO {
+
+    private List<ClienteResumoDTO> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,18 @@
+package backend.loja_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Leitura de cliente montada direto na query (não passa pelo persistence context)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteResumoDTO {
+    private Long id;
+    private String nome;
+    private String telefone;
+    private String email;
+    private String endereco;
+    private String cpfCnpj;
+}
@@ -0,0 +1,27 @@
+package backend.loja_backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Tudo o que o Dashboard mostra, numa resposta só
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardResumoDTO {
+    private long produtos;
+    private long clientes;
+    private long servicos;
+    // soma de precoCusto × quantidadeEstoque
+    private BigDecimal valorEstoque;
+    private long produtosEstoqueBaixo;
+    private int limiteEstoqueBaixo;
+    private LocalDate inicio;
+    private LocalDate fim;
+    // mesmo formato de /api/dashboard/totais
+    private Map<String, BigDecimal> totais;
+}
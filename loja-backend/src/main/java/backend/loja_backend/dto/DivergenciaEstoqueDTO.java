@@ -0,0 +1,17 @@
+package backend.loja_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Produto cujo saldo gravado não bate com o razão (última fotografia + movimentos seguintes)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivergenciaEstoqueDTO {
+    private Long produtoId;
+    private Long saldo;
+    private Long saldoCalculado;
+    private Long versao;
+    private Long versaoCalculada;
+}
@@ -0,0 +1,17 @@
+package backend.loja_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Saldo novo de um produto, publicado no evento estoque-alterado
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstoqueAlteradoDTO {
+    private Long produtoId;
+    private Integer quantidadeEstoque;
+    // estoque_versao depois da mudança: os avisos podem chegar fora de ordem, e o cliente
+    // descarta o que tiver versão menor ou igual à do saldo que já mostra
+    private Long versao;
+}
@@ -0,0 +1,14 @@
+package backend.loja_backend.dto;
+
+import backend.loja_backend.entity.MovimentoEstoque;
+import lombok.Data;
+
+// Ajuste ou devolução lançado à mão (POST /api/produtos/{id}/movimentos); quantidade com sinal
+@Data
+public class MovimentoEstoqueDTO {
+
+    private MovimentoEstoque.Tipo tipo;
+    private Integer quantidade;
+    private String motivo;
+
+}
@@ -0,0 +1,15 @@
+package backend.loja_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Página do razão de um produto, do mais novo ao mais antigo: nextCursor vem null no fim
+@Data
+@AllArgsConstructor
+public class MovimentoEstoquePaginaDTO {
+
+    private List<MovimentoEstoqueResumoDTO> content;
+    private String nextCursor;
+}
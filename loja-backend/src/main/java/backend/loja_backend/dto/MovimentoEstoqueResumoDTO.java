@@ -0,0 +1,30 @@
+package backend.loja_backend.dto;
+
+import java.time.LocalDateTime;
+
+import backend.loja_backend.entity.MovimentoEstoque;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Linha do razão de estoque como sai na API
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimentoEstoqueResumoDTO {
+
+    private Long id;
+    private Long produtoId;
+    private Long versao;
+    private MovimentoEstoque.Tipo tipo;
+    private Integer quantidade;
+    private Integer saldo;
+    private Long ordemVendaId;
+    private String motivo;
+    private LocalDateTime criadoEm;
+
+    public static MovimentoEstoqueResumoDTO de(MovimentoEstoque m) {
+        return new MovimentoEstoqueResumoDTO(m.getId(), m.getProdutoId(), m.getVersao(), m.getTipo(),
+                m.getQuantidade(), m.getSaldo(), m.getOrdemVendaId(), m.getMotivo(), m.getCriadoEm());
+    }
+}
@@ -0,0 +1,23 @@
+package backend.loja_backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Um intervalo (hora, dia ou semana) da série de vendas finalizadas
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PontoSerieVendasDTO {
+    // início do intervalo (date_trunc)
+    private LocalDateTime inicio;
+    private long vendas;
+    private long unidades;
+    private BigDecimal receita;
+    private BigDecimal ticketMedio;
+    // receita somada desde o primeiro intervalo da série
+    private BigDecimal receitaAcumulada;
+}
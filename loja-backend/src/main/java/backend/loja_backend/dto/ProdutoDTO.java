@@ -1,4 +1,7 @@
 package backend.loja_backend.dto;
+
+import java.math.BigDecimal;
+
 import lombok.Data;
 
 @Data
@@ -6,8 +9,8 @@ public class ProdutoDTO {
 
     private String nome;
     private String descricao;
-    private Double precoCusto;
-    private Double precoVenda;
+    private BigDecimal precoCusto;
+    private BigDecimal precoVenda;
     private Integer quantidadeEstoque;
 
 }
@@ -0,0 +1,20 @@
+package backend.loja_backend.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Leitura de produto (catálogo, busca, detalhe): montada na query ou a partir do cache
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdutoResumoDTO {
+    private Long id;
+    private String nome;
+    private String descricao;
+    private BigDecimal precoCusto;
+    private BigDecimal precoVenda;
+    private Integer quantidadeEstoque;
+}
@@ -0,0 +1,24 @@
+package backend.loja_backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resposta de /api/dashboard/series: os pontos (intervalos sem venda vêm zerados) e o total do período
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerieVendasDTO {
+    private String intervalo;
+    private LocalDate inicio;
+    private LocalDate fim;
+    private long vendas;
+    private long unidades;
+    private BigDecimal receita;
+    private BigDecimal ticketMedio;
+    private List<PontoSerieVendasDTO> pontos;
+}
@@ -1,4 +1,7 @@
 package backend.loja_backend.dto;
+
+import java.math.BigDecimal;
+
 import lombok.Data;
 
 @Data
@@ -6,6 +9,6 @@ public class ServicoDTO {
 
     private String nome;
     private String descricao;
-    private Double valorBase;
+    private BigDecimal valorBase;
     private String categoria;
 }
@@ -0,0 +1,19 @@
+package backend.loja_backend.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Leitura de serviço montada direto na query (não passa pelo persistence context)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServicoResumoDTO {
+    private Long id;
+    private String nome;
+    private String descricao;
+    private BigDecimal valorBase;
+    private String categoria;
+}
@@ -0,0 +1,26 @@
+package backend.loja_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Alterações do catálogo desde o token do terminal. O terminal aplica os registros (upsert por
+ * id), apaga os ids removidos e guarda o token para o próximo pedido; com temMais, pede de
+ * novo na hora.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SincronizacaoDTO {
+    private String token;
+    private boolean temMais;
+    private List<ProdutoResumoDTO> produtos;
+    private List<ClienteResumoDTO> clientes;
+    private List<ServicoResumoDTO> servicos;
+    private List<Long> produtosRemovidos;
+    private List<Long> clientesRemovidos;
+    private List<Long> servicosRemovidos;
+}
@@ -0,0 +1,22 @@
+package backend.loja_backend.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Produto no ranking de receita (precoUnitario × quantidade dos itens de vendas finalizadas)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopProdutoDTO {
+    private int posicao;
+    private Long produtoId;
+    // null quando o produto foi removido do cadastro
+    private String nome;
+    private long unidades;
+    private BigDecimal receita;
+    // fração da receita de todos os produtos no período (0 a 1)
+    private BigDecimal participacao;
+}
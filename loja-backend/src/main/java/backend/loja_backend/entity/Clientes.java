@@ -17,12 +17,28 @@ public class Clientes {
     private String endereco;
     @Column(name = "cpf_cnpj")
     private String cpfCnpj;
+    // cpfCnpj sem máscara (único), preenchido no cadastro e quando o documento muda: busca pelo documento
+    @Column(name = "cpf_cnpj_digitos", length = 14)
+    private String cpfCnpjDigitos;
+    // versão da última gravação pelos services, usada pela sincronização incremental (GET /api/sync)
+    @Column(name = "versao_sync")
+    private Long versaoSync = 0L;
     
     @PrePersist
     protected void PrePersist() {
         if (this.id != null && this.id==0 ) {
             this.id = null;
         }
+        this.cpfCnpjDigitos = normalizarCpfCnpj(this.cpfCnpj);
+    }
+
+    // CPF/CNPJ sem a máscara (ponto, traço, barra e espaço), igual à V8; null quando não sobra nada
+    public static String normalizarCpfCnpj(String cpfCnpj) {
+        if (cpfCnpj == null) {
+            return null;
+        }
+        String digitos = cpfCnpj.replaceAll("[./\\- ]", "");
+        return digitos.isEmpty() ? null : digitos;
     }
 }
 
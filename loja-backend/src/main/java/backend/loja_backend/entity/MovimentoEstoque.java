@@ -0,0 +1,54 @@
+package backend.loja_backend.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Linha do razão de estoque: só inserida, nunca alterada
+@Entity
+@Immutable
+@Table(name = "movimentos_estoque")
+@Data
+@NoArgsConstructor
+public class MovimentoEstoque {
+
+    public enum Tipo { VENDA, AJUSTE, DEVOLUCAO }
+
+    // Sequence para os movimentos de um lote de vendas irem no mesmo batch JDBC das ordens
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimentos_estoque_seq")
+    @SequenceGenerator(name = "movimentos_estoque_seq", sequenceName = "movimentos_estoque_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+    @Column(nullable = false)
+    private Long versao;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Tipo tipo;
+    @Column(nullable = false)
+    private Integer quantidade;
+    @Column(nullable = false)
+    private Integer saldo;
+    @Column(name = "ordem_venda_id")
+    private Long ordemVendaId;
+    private String motivo;
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    public MovimentoEstoque(Long produtoId, long versao, Tipo tipo, int quantidade, int saldo,
+                            Long ordemVendaId, String motivo, LocalDateTime criadoEm) {
+        this.produtoId = produtoId;
+        this.versao = versao;
+        this.tipo = tipo;
+        this.quantidade = quantidade;
+        this.saldo = saldo;
+        this.ordemVendaId = ordemVendaId;
+        this.motivo = motivo;
+        this.criadoEm = criadoEm;
+    }
+}
@@ -0,0 +1,50 @@
+package backend.loja_backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Evento gravado na transação que o originou e entregue depois pelo OutboxService
+@Entity
+@Table(name = "outbox_eventos")
+@Data
+@NoArgsConstructor
+public class OutboxEvento {
+
+    public enum Status { PENDENTE, ENTREGUE, FALHOU }
+
+    // Sequence para os eventos de um lote de vendas irem no mesmo batch JDBC das ordens
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_eventos_seq")
+    @SequenceGenerator(name = "outbox_eventos_seq", sequenceName = "outbox_eventos_seq", allocationSize = 50)
+    private Long id;
+    @Column(nullable = false, length = 50)
+    private String tipo;
+    @Column(name = "agregado_id", nullable = false)
+    private Long agregadoId;
+    @Column(nullable = false, length = 4000)
+    private String payload;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDENTE;
+    @Column(nullable = false)
+    private int tentativas;
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+    @Column(name = "proxima_tentativa", nullable = false)
+    private LocalDateTime proximaTentativa;
+    @Column(name = "processado_em")
+    private LocalDateTime processadoEm;
+    @Column(length = 1000)
+    private String erro;
+
+    public OutboxEvento(String tipo, Long agregadoId, String payload, LocalDateTime criadoEm) {
+        this.tipo = tipo;
+        this.agregadoId = agregadoId;
+        this.payload = payload;
+        this.criadoEm = criadoEm;
+        this.proximaTentativa = criadoEm;
+    }
+}
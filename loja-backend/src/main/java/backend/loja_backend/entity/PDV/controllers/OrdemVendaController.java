@@ -1,17 +1,35 @@
 //OrdemVendaController.java
 package backend.loja_backend.entity.PDV.controllers;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaPaginaDTO;
 import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.dto.ResultadoVendaLoteDTO;
 import backend.loja_backend.entity.PDV.entity.OrdemVenda;
+import backend.loja_backend.entity.PDV.services.ComprovanteService;
+import backend.loja_backend.entity.PDV.services.ExportacaoVendasService;
 import backend.loja_backend.entity.PDV.services.OrdemVendaService;
 import backend.loja_backend.repositories.ClienteRepository;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -21,8 +39,16 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OrdemVendaController {
 
+    private static final int TAMANHO_MAXIMO_LOTE = 1000;
+
     private final OrdemVendaService ordemVendaService;
     private final ClienteRepository clienteRepository;
+    private final ExportacaoVendasService exportacaoVendasService;
+    private final ComprovanteService comprovanteService;
+
+    // comprovante não muda depois de gerado: o navegador pode reaproveitar por este tempo
+    @Value("${comprovantes.cache.max-age:1d}")
+    private Duration cacheComprovante;
 
     @PostMapping
     public ResponseEntity<?> criarOrdemVenda(@RequestBody OrdemVendasDTO dto) {
@@ -37,18 +63,174 @@ public class OrdemVendaController {
         }
     }
 
+    /**
+     * POST /api/ordens-venda/batch
+     *
+     * Recebe as vendas acumuladas por um terminal offline e devolve o status de cada uma
+     * (CRIADA, DUPLICADA ou REJEITADA), na mesma ordem do envio.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> criarOrdensEmLote(@RequestBody List<OrdemVendasDTO> dtos) {
+        if (dtos.size() > TAMANHO_MAXIMO_LOTE) {
+            return ResponseEntity.badRequest().body("Erro: lote acima de " + TAMANHO_MAXIMO_LOTE + " vendas");
+        }
+        try {
+            List<ResultadoVendaLoteDTO> resultados = ordemVendaService.criarOrdensEmLote(dtos);
+            return ResponseEntity.ok(resultados);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/ordens-venda?start=&end=&status=&formaPagamento=&clienteId=&cursor=&size=
+     *
+     * Paginação por cursor: repita a chamada passando o nextCursor da resposta anterior.
+     */
     @GetMapping
-    public List<OrdemVenda> listarOrdensVendas() {
-        return ordemVendaService.listarTodas();
+    public ResponseEntity<?> listarOrdensVendas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String formaPagamento,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            OrdemVendaPaginaDTO pagina = ordemVendaService.listarPagina(
+                    start, end, status, formaPagamento, clienteId, cursor, size);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/ordens-venda/busca?q=&status=&formaPagamento=&cursor=&size=
+     *
+     * Histórico de vendas: q procura no nome e CPF/CNPJ do cliente, na descrição e no número
+     * da venda. Linhas já com o nome do cliente, paginadas como a listagem (nextCursor).
+     * q com menos de 3 caracteres só é aceito se for o número da venda; senão, 400.
+     */
+    @GetMapping("/busca")
+    public ResponseEntity<?> buscar(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String formaPagamento,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(ordemVendaService.buscar(q, status, formaPagamento, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/ordens-venda/arquivo?start=&end=&clienteId=&cursor=&size=
+     *
+     * Vendas antigas movidas para o arquivo, só leitura. Mesma paginação (nextCursor) e
+     * formato de linha da listagem.
+     */
+    @GetMapping("/arquivo")
+    public ResponseEntity<?> listarArquivo(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(ordemVendaService.listarArquivo(start, end, clienteId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/arquivo/{id}")
+    public ResponseEntity<?> buscarArquivadaPorId(@PathVariable Long id) {
+        return ordemVendaService.buscarDetalheArquivado(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/ordens-venda/export?format=csv|ndjson&start=&end=
+     *
+     * Escreve as vendas do período direto na resposta, à medida que saem do banco.
+     */
+    @GetMapping("/export")
+    public void exportar(
+            @RequestParam(defaultValue = ExportacaoVendasService.CSV) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            HttpServletResponse response) throws IOException {
+        String formato = format.toLowerCase();
+        if (!ExportacaoVendasService.CSV.equals(formato) && !ExportacaoVendasService.NDJSON.equals(formato)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Erro: formato deve ser csv ou ndjson");
+            return;
+        }
+
+        DateTimeFormatter sufixo = DateTimeFormatter.ofPattern("yyyyMMdd");
+        String arquivo = "vendas"
+                + (start != null ? "-" + start.format(sufixo) : "")
+                + (end != null ? "-" + end.format(sufixo) : "")
+                + "." + formato;
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(ExportacaoVendasService.CSV.equals(formato) ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + arquivo + "\"");
+
+        exportacaoVendasService.exportar(formato, start, end, response.getOutputStream());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> buscarPorId(@PathVariable Long id) {
-        return ordemVendaService.buscarPorId(id)
+        return ordemVendaService.buscarDetalhe(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * GET /api/ordens-venda/{id}/comprovante
+     *
+     * Devolve o HTML gerado em segundo plano após a venda. Enquanto ele não existe responde
+     * 202 com Retry-After; 304 quando o If-None-Match/If-Modified-Since ainda vale. O arquivo
+     * vai por sendfile do Tomcat quando o conector suporta (sem passar pela JVM).
+     */
+    @GetMapping("/{id}/comprovante")
+    public void comprovante(@PathVariable Long id, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        Optional<Path> arquivo = comprovanteService.buscar(id);
+        if (arquivo.isEmpty()) {
+            if (ordemVendaService.existe(id)) {
+                response.setStatus(HttpStatus.ACCEPTED.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "2");
+            } else {
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+            }
+            return;
+        }
+
+        Path caminho = arquivo.get();
+        long tamanho = Files.size(caminho);
+        long modificado = Files.getLastModifiedTime(caminho).toMillis();
+        String etag = "\"" + id + "-" + Long.toHexString(modificado) + "-" + Long.toHexString(tamanho) + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + cacheComprovante.toSeconds());
+        if (new ServletWebRequest(request, response).checkNotModified(etag, modificado)) {
+            return;
+        }
+
+        response.setContentType("text/html;charset=UTF-8");
+        response.setContentLengthLong(tamanho);
+        response.setHeader("Content-Disposition", "inline; filename=\"comprovante-" + id + ".html\"");
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", caminho.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", tamanho);
+        } else {
+            Files.copy(caminho, response.getOutputStream());
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletar(@PathVariable Long id) {
         ordemVendaService.deletar(id);
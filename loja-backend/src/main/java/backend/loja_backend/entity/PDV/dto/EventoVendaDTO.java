@@ -0,0 +1,16 @@
+//EventoVendaDTO.java
+package backend.loja_backend.entity.PDV.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Payload dos eventos de venda no outbox: o resumo que vai para o SSE e o que o rollup precisa
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoVendaDTO {
+
+    private OrdemVendaResumoDTO venda;
+    private long unidades;
+}
@@ -0,0 +1,29 @@
+//ItemVendaDetalheDTO.java
+package backend.loja_backend.entity.PDV.dto;
+
+import java.math.BigDecimal;
+
+import backend.loja_backend.dto.ProdutoResumoDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// produto fica null quando o produto foi removido do cadastro
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemVendaDetalheDTO {
+
+    private Long id;
+    private ProdutoResumoDTO produto;
+    private Integer quantidade;
+    private BigDecimal precoUnitario;
+
+    // usado na projeção JPQL (LEFT JOIN com produto: id nulo = produto removido)
+    public ItemVendaDetalheDTO(Long id, Long produtoId, String nome, String descricao, BigDecimal precoCusto,
+                               BigDecimal precoVenda, Integer quantidadeEstoque, Integer quantidade, BigDecimal precoUnitario) {
+        this(id, produtoId == null ? null
+                : new ProdutoResumoDTO(produtoId, nome, descricao, precoCusto, precoVenda, quantidadeEstoque),
+                quantidade, precoUnitario);
+    }
+}
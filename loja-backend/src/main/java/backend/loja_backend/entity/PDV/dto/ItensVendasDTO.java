@@ -1,6 +1,8 @@
 //ItensVendasDTO.java
 package backend.loja_backend.entity.PDV.dto;
 
+import java.math.BigDecimal;
+
 import lombok.Data;
 
 @Data
@@ -8,7 +10,7 @@ public class ItensVendasDTO {
 
     private Long produtoId;
     private Integer quantidade;
-    private Double precoUnitario;
-    private Double precoTotal;
+    private BigDecimal precoUnitario;
+    private BigDecimal precoTotal;
     
 }
@@ -0,0 +1,28 @@
+//LinhaExportacaoVendaDTO.java
+package backend.loja_backend.entity.PDV.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Uma linha por item vendido (ordem sem itens vem com os campos do item nulos)
+@Data
+@AllArgsConstructor
+public class LinhaExportacaoVendaDTO {
+
+    private Long ordemId;
+    private LocalDateTime dataVenda;
+    private String descricao;
+    private String status;
+    private String formaPagamento;
+    private BigDecimal valorTotal;
+    private Long clienteId;
+    private String clienteNome;
+    private Long itemId;
+    private Long produtoId;
+    private String produtoNome;
+    private Integer quantidade;
+    private BigDecimal precoUnitario;
+}
@@ -0,0 +1,39 @@
+//OrdemVendaDetalheDTO.java
+package backend.loja_backend.entity.PDV.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import backend.loja_backend.dto.ClienteResumoDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Detalhe da ordem para leitura (mesmo formato JSON da entidade, sem entidades gerenciadas)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdemVendaDetalheDTO {
+
+    private Long id;
+    private String descricao;
+    private BigDecimal valorTotal;
+    private LocalDateTime dataVenda;
+    private String status;
+    private String formaPagamento;
+    private String chaveIdempotencia;
+    private ClienteResumoDTO cliente;
+    private List<ItemVendaDetalheDTO> itensVendas;
+
+    // usado na projeção JPQL do cabeçalho; os itens vêm numa segunda consulta
+    public OrdemVendaDetalheDTO(Long id, String descricao, BigDecimal valorTotal, LocalDateTime dataVenda,
+                                String status, String formaPagamento, String chaveIdempotencia,
+                                Long clienteId, String clienteNome, String clienteTelefone, String clienteEmail,
+                                String clienteEndereco, String clienteCpfCnpj) {
+        this(id, descricao, valorTotal, dataVenda, status, formaPagamento, chaveIdempotencia,
+                clienteId == null ? null : new ClienteResumoDTO(clienteId, clienteNome, clienteTelefone,
+                        clienteEmail, clienteEndereco, clienteCpfCnpj),
+                List.of());
+    }
+}
@@ -0,0 +1,16 @@
+//OrdemVendaPaginaDTO.java
+package backend.loja_backend.entity.PDV.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Página da listagem keyset: nextCursor vem null quando não há mais resultados
+@Data
+@AllArgsConstructor
+public class OrdemVendaPaginaDTO {
+
+    private List<OrdemVendaResumoDTO> content;
+    private String nextCursor;
+}
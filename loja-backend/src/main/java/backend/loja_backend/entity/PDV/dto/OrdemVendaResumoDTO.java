@@ -0,0 +1,25 @@
+//OrdemVendaResumoDTO.java
+package backend.loja_backend.entity.PDV.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Linha resumida da listagem de ordens (sem itens), montada direto na query
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdemVendaResumoDTO {
+
+    private Long id;
+    private LocalDateTime dataVenda;
+    private String descricao;
+    private BigDecimal valorTotal;
+    private String status;
+    private String formaPagamento;
+    private Long clienteId;
+    private String clienteNome;
+}
@@ -1,6 +1,7 @@
 //OrdemVendasDTO.java
 package backend.loja_backend.entity.PDV.dto;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 import lombok.Data;
@@ -9,8 +10,9 @@ import lombok.Data;
 public class OrdemVendasDTO {
 
     private Long clienteId;
+    private String chaveIdempotencia;
     private String descricao;
-    private Double valorTotal;
+    private BigDecimal valorTotal;
     private String dataVenda;
     private String status;
     private String formaPagamento;
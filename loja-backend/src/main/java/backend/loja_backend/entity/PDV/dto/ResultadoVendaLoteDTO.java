@@ -0,0 +1,21 @@
+//ResultadoVendaLoteDTO.java
+package backend.loja_backend.entity.PDV.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Situação de cada venda enviada no lote, na mesma ordem da requisição
+@Data
+@AllArgsConstructor
+public class ResultadoVendaLoteDTO {
+
+    public static final String CRIADA = "CRIADA";
+    public static final String DUPLICADA = "DUPLICADA";
+    public static final String REJEITADA = "REJEITADA";
+
+    private int indice;
+    private String chaveIdempotencia;
+    private String status;
+    private Long ordemId;
+    private String erro;
+}
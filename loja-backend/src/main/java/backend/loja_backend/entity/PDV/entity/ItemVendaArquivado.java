@@ -0,0 +1,33 @@
+//ItemVendaArquivado.java
+package backend.loja_backend.entity.PDV.entity;
+
+import java.math.BigDecimal;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Item de uma venda arquivada (só leitura)
+@Entity
+@Immutable
+@Table(name = "itens_vendas_arquivo")
+@Data
+public class ItemVendaArquivado {
+
+    @Id
+    private Long id;
+    @Column(name = "ordem_venda_id", nullable = false)
+    private Long ordemVendaId;
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+    // nome do produto na data do arquivamento
+    @Column(name = "produto_nome")
+    private String produtoNome;
+    private Integer quantidade;
+    @Column(precision = 38, scale = 2)
+    private BigDecimal precoUnitario;
+}
@@ -8,9 +8,11 @@ import org.hibernate.annotations.NotFound;          // <--- IMPORTANTE
 import org.hibernate.annotations.NotFoundAction;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 
 import jakarta.persistence.Table;
 import lombok.Data;
@@ -21,7 +23,8 @@ import lombok.Data;
 public class ItensVendas {
 
     @Id
-    @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_vendas_seq")
+    @SequenceGenerator(name = "itens_vendas_seq", sequenceName = "itens_vendas_seq", allocationSize = 50)
     private Long id;
     // Relacionamento com produtos
     @ManyToOne
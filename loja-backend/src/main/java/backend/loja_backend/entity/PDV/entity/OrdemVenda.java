@@ -5,15 +5,19 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
 import backend.loja_backend.entity.Clientes;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 
@@ -22,9 +26,14 @@ import lombok.Data;
 @Data
 public class OrdemVenda {
 
+    // Sequence (em vez de IDENTITY) para o Hibernate conseguir inserir em batch
     @Id
-    @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ordem_venda_seq")
+    @SequenceGenerator(name = "ordem_venda_seq", sequenceName = "ordem_venda_seq", allocationSize = 50)
     private Long id;
+    // Chave enviada pelo terminal para não duplicar vendas reenviadas
+    @Column(name = "chave_idempotencia", unique = true, length = 100)
+    private String chaveIdempotencia;
     private String descricao;
     @Column(name = "valor_total", precision = 10, scale = 2, nullable = false)
     private BigDecimal valorTotal;
@@ -32,10 +41,14 @@ public class OrdemVenda {
     private LocalDateTime dataVenda;
     private String status;
     private String formaPagamento;
+    // null enquanto o comprovante não foi gerado em disco (a fila reprocessa essas ordens ao subir)
+    @Column(name = "comprovante_gerado_em")
+    private LocalDateTime comprovanteGeradoEm;
     @ManyToOne
     @JoinColumn(name = "cliente_id", nullable = false)
     private Clientes cliente;
-    // Mapear itens vendas
+    // Mapear itens vendas (carregados em lote quando não vierem por join fetch)
     @OneToMany(mappedBy = "ordemVenda", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<ItensVendas> itensVendas;
 }
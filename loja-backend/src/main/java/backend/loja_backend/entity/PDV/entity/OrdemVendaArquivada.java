@@ -0,0 +1,38 @@
+//OrdemVendaArquivada.java
+package backend.loja_backend.entity.PDV.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Venda movida para o arquivo (só leitura): gravada pelo ArquivamentoVendasService via SQL
+@Entity
+@Immutable
+@Table(name = "ordem_venda_arquivo")
+@Data
+public class OrdemVendaArquivada {
+
+    @Id
+    private Long id;
+    @Column(name = "data_venda", nullable = false)
+    private LocalDateTime dataVenda;
+    private String descricao;
+    @Column(name = "valor_total", precision = 10, scale = 2, nullable = false)
+    private BigDecimal valorTotal;
+    private String status;
+    private String formaPagamento;
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+    // nome do cliente na data do arquivamento
+    @Column(name = "cliente_nome")
+    private String clienteNome;
+    @Column(name = "arquivado_em", nullable = false)
+    private LocalDateTime arquivadoEm;
+}
@@ -0,0 +1,71 @@
+//ConsultaPaginaVendas.java
+package backend.loja_backend.entity.PDV.repositories;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Limit;
+
+import backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Consulta keyset das listagens de vendas (ordens e arquivo), em ordem (dataVenda, id)
+ * decrescente, montada só com os filtros informados. Filtro "(:x IS NULL OR ...)" faz o
+ * PostgreSQL, no plano genérico do driver, largar o índice (data_venda, id) e varrer a tabela.
+ * O cursor é uma comparação de linha, que o índice atende direto.
+ */
+final class ConsultaPaginaVendas {
+
+    private final String select;
+    private final StringBuilder where = new StringBuilder();
+    private final Map<String, Object> parametros = new LinkedHashMap<>();
+
+    // select: "SELECT new ...OrdemVendaResumoDTO(...) FROM ... o", com a venda no alias o
+    ConsultaPaginaVendas(String select) {
+        this.select = select;
+    }
+
+    // Condição com um parâmetro; ignorada se o valor é nulo
+    ConsultaPaginaVendas filtro(String condicao, String parametro, Object valor) {
+        if (valor != null) {
+            condicao(condicao);
+            parametros.put(parametro, valor);
+        }
+        return this;
+    }
+
+    // Condição que sempre entra; os parâmetros dela vão por parametro()
+    ConsultaPaginaVendas condicao(String condicao) {
+        where.append(where.isEmpty() ? " WHERE " : " AND ").append(condicao);
+        return this;
+    }
+
+    ConsultaPaginaVendas parametro(String nome, Object valor) {
+        parametros.put(nome, valor);
+        return this;
+    }
+
+    // Primeira página sem cursor; as seguintes só com o que vem depois da última linha entregue
+    ConsultaPaginaVendas cursor(LocalDateTime cursorData, Long cursorId) {
+        if (cursorData != null) {
+            condicao("(o.dataVenda, o.id) < (:cursorData, :cursorId)");
+            parametros.put("cursorData", cursorData);
+            parametros.put("cursorId", cursorId);
+        }
+        return this;
+    }
+
+    List<OrdemVendaResumoDTO> buscar(EntityManager entityManager, Limit limite) {
+        TypedQuery<OrdemVendaResumoDTO> consulta = entityManager.createQuery(
+                select + where + " ORDER BY o.dataVenda DESC, o.id DESC", OrdemVendaResumoDTO.class);
+        parametros.forEach(consulta::setParameter);
+        if (limite.isLimited()) {
+            consulta.setMaxResults(limite.max());
+        }
+        return consulta.getResultList();
+    }
+}
@@ -0,0 +1,50 @@
+//OrdemVendaArquivoRepository.java
+package backend.loja_backend.entity.PDV.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import backend.loja_backend.entity.PDV.entity.ItemVendaArquivado;
+import backend.loja_backend.entity.PDV.entity.OrdemVendaArquivada;
+
+@Repository
+public interface OrdemVendaArquivoRepository extends JpaRepository<OrdemVendaArquivada, Long>,
+        OrdemVendaArquivoRepositoryCustom {
+
+    @Query("SELECT i FROM ItemVendaArquivado i WHERE i.ordemVendaId = :id ORDER BY i.id")
+    List<ItemVendaArquivado> buscarItens(@Param("id") Long id);
+
+    // Cópia das ordens do lote, com o nome atual do cliente
+    @Modifying
+    @Query(value = "INSERT INTO ordem_venda_arquivo (id, data_venda, descricao, valor_total, status, " +
+                   "                                 forma_pagamento, cliente_id, cliente_nome, arquivado_em) " +
+                   "SELECT o.id, o.data_venda, o.descricao, o.valor_total, o.status, o.forma_pagamento, " +
+                   "       o.cliente_id, c.nome, :agora " +
+                   "FROM ordem_venda o LEFT JOIN clientes c ON c.id = o.cliente_id " +
+                   "WHERE o.id IN (:ids)",
+           nativeQuery = true)
+    int copiarOrdens(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query(value = "INSERT INTO itens_vendas_arquivo (id, ordem_venda_id, produto_id, produto_nome, quantidade, preco_unitario) " +
+                   "SELECT i.id, i.ordem_venda_id, i.produto_id, p.nome, i.quantidade, i.preco_unitario " +
+                   "FROM itens_vendas i LEFT JOIN produtos p ON p.id = i.produto_id " +
+                   "WHERE i.ordem_venda_id IN (:ids)",
+           nativeQuery = true)
+    int copiarItens(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM itens_vendas WHERE ordem_venda_id IN (:ids)", nativeQuery = true)
+    int apagarItensOriginais(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM ordem_venda WHERE id IN (:ids)", nativeQuery = true)
+    int apagarOrdensOriginais(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,16 @@
+//OrdemVendaArquivoRepositoryCustom.java
+package backend.loja_backend.entity.PDV.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+
+import backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO;
+
+public interface OrdemVendaArquivoRepositoryCustom {
+
+    // Mesma ordem e cursor de OrdemVendaRepository.buscarPagina, sobre o arquivo
+    List<OrdemVendaResumoDTO> buscarPagina(LocalDateTime start, LocalDateTime end, Long clienteId,
+                                           LocalDateTime cursorData, Long cursorId, Limit limit);
+}
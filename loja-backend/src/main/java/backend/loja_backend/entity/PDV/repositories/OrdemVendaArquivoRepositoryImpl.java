@@ -0,0 +1,33 @@
+//OrdemVendaArquivoRepositoryImpl.java
+package backend.loja_backend.entity.PDV.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+
+import backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class OrdemVendaArquivoRepositoryImpl implements OrdemVendaArquivoRepositoryCustom {
+
+    private static final String SELECT_RESUMO =
+            "SELECT new backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO(" +
+            "o.id, o.dataVenda, o.descricao, o.valorTotal, o.status, o.formaPagamento, o.clienteId, o.clienteNome) " +
+            "FROM OrdemVendaArquivada o";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<OrdemVendaResumoDTO> buscarPagina(LocalDateTime start, LocalDateTime end, Long clienteId,
+                                                  LocalDateTime cursorData, Long cursorId, Limit limit) {
+        return new ConsultaPaginaVendas(SELECT_RESUMO)
+                .filtro("o.dataVenda >= :start", "start", start)
+                .filtro("o.dataVenda <= :end", "end", end)
+                .filtro("o.clienteId = :clienteId", "clienteId", clienteId)
+                .cursor(cursorData, cursorId)
+                .buscar(entityManager, limit);
+    }
+}
@@ -1,11 +1,86 @@
 //OrdemVendaRepository.java
 package backend.loja_backend.entity.PDV.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import backend.loja_backend.entity.PDV.dto.ItemVendaDetalheDTO;
+import backend.loja_backend.entity.PDV.dto.LinhaExportacaoVendaDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaDetalheDTO;
+import jakarta.persistence.QueryHint;
 import backend.loja_backend.entity.PDV.entity.OrdemVenda;
 
 @Repository
-public interface OrdemVendaRepository extends JpaRepository<OrdemVenda, Long> {
+public interface OrdemVendaRepository extends JpaRepository<OrdemVenda, Long>, OrdemVendaRepositoryCustom {
+
+    // Detalhe da ordem com cliente, itens e produtos numa única consulta (leitura: sem snapshot para dirty-checking)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = {"cliente", "itensVendas", "itensVendas.produto"})
+    @Query("SELECT o FROM OrdemVenda o WHERE o.id = :id")
+    Optional<OrdemVenda> buscarDetalhe(@Param("id") Long id);
+
+    // Detalhe para leitura (GET /{id}): cabeçalho e itens direto em DTO, sem entidades
+    @Query("SELECT new backend.loja_backend.entity.PDV.dto.OrdemVendaDetalheDTO(" +
+           "o.id, o.descricao, o.valorTotal, o.dataVenda, o.status, o.formaPagamento, o.chaveIdempotencia, " +
+           "c.id, c.nome, c.telefone, c.email, c.endereco, c.cpfCnpj) " +
+           "FROM OrdemVenda o LEFT JOIN o.cliente c WHERE o.id = :id")
+    Optional<OrdemVendaDetalheDTO> buscarDetalheResumo(@Param("id") Long id);
+
+    @Query("SELECT new backend.loja_backend.entity.PDV.dto.ItemVendaDetalheDTO(" +
+           "i.id, p.id, p.nome, p.descricao, p.precoCusto, p.precoVenda, p.quantidadeEstoque, i.quantidade, i.precoUnitario) " +
+           "FROM ItensVendas i LEFT JOIN i.produto p WHERE i.ordemVenda.id = :id ORDER BY i.id")
+    List<ItemVendaDetalheDTO> buscarItensDetalhe(@Param("id") Long id);
+
+    // Cursor só-para-frente (fetch size) para exportação: precisa ser consumido dentro de uma transação
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new backend.loja_backend.entity.PDV.dto.LinhaExportacaoVendaDTO(" +
+           "o.id, o.dataVenda, o.descricao, o.status, o.formaPagamento, o.valorTotal, c.id, c.nome, " +
+           "i.id, p.id, p.nome, i.quantidade, i.precoUnitario) " +
+           "FROM OrdemVenda o JOIN o.cliente c LEFT JOIN o.itensVendas i LEFT JOIN i.produto p " +
+           "WHERE (:start IS NULL OR o.dataVenda >= :start) " +
+           "AND (:end IS NULL OR o.dataVenda <= :end) " +
+           "ORDER BY o.dataVenda, o.id, i.id")
+    Stream<LinhaExportacaoVendaDTO> streamExportacao(@Param("start") LocalDateTime start,
+                                                     @Param("end") LocalDateTime end);
+
+    // Ordens ainda sem comprovante, em lotes por id (reprocessamento ao subir a aplicação)
+    @Query("SELECT o.id FROM OrdemVenda o WHERE o.comprovanteGeradoEm IS NULL AND o.id > :depoisDe ORDER BY o.id")
+    List<Long> buscarSemComprovante(@Param("depoisDe") Long depoisDe, Limit limit);
+
+    // Próximo lote do arquivamento: as mais antigas primeiro (índice (data_venda, id))
+    @Query("SELECT o.id FROM OrdemVenda o WHERE o.dataVenda < :corte ORDER BY o.dataVenda, o.id")
+    List<Long> buscarIdsAntesDe(@Param("corte") LocalDateTime corte, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrdemVenda o SET o.comprovanteGeradoEm = :geradoEm WHERE o.id = :id")
+    int marcarComprovanteGerado(@Param("id") Long id, @Param("geradoEm") LocalDateTime geradoEm);
+
+    @EntityGraph(attributePaths = {"cliente", "itensVendas", "itensVendas.produto"})
+    Optional<OrdemVenda> findByChaveIdempotencia(String chaveIdempotencia);
+
+    @Query("SELECT o.chaveIdempotencia AS chave, o.id AS id FROM OrdemVenda o WHERE o.chaveIdempotencia IN :chaves")
+    List<ChaveOrdemProjection> buscarIdsPorChave(@Param("chaves") Collection<String> chaves);
 
+    interface ChaveOrdemProjection {
+        String getChave();
+        Long getId();
+    }
 }
@@ -0,0 +1,33 @@
+//OrdemVendaRepositoryCustom.java
+package backend.loja_backend.entity.PDV.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+
+import backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO;
+
+// Listagens keyset de ordem_venda, montadas só com os filtros informados (ConsultaPaginaVendas)
+public interface OrdemVendaRepositoryCustom {
+
+    /**
+     * Página por (dataVenda, id) decrescente: o cursor é a última linha da página anterior
+     * (nulo na primeira). Filtros nulos ficam fora da consulta.
+     */
+    List<OrdemVendaResumoDTO> buscarPagina(LocalDateTime start, LocalDateTime end, String status,
+                                           String formaPagamento, Long clienteId,
+                                           LocalDateTime cursorData, Long cursorId, Limit limit);
+
+    /**
+     * Busca do histórico com a mesma ordem/cursor de buscarPagina. padrao já vem em minúsculas
+     * e com % nas pontas (pelo menos 3 caracteres, senão os trigramas da V7 não servem); com
+     * numero, a venda com esse id também entra. Plano no PostgreSQL em PlanoConsultasPostgresTests.
+     */
+    List<OrdemVendaResumoDTO> buscarPorTexto(String padrao, Long numero, String status, String formaPagamento,
+                                             LocalDateTime cursorData, Long cursorId, Limit limit);
+
+    // Termo curto só de dígitos: número da venda, pela PK
+    List<OrdemVendaResumoDTO> buscarPorNumero(Long numero, String status, String formaPagamento,
+                                              LocalDateTime cursorData, Long cursorId, Limit limit);
+}
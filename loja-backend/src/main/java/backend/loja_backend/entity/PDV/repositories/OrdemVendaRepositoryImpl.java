@@ -0,0 +1,70 @@
+//OrdemVendaRepositoryImpl.java
+package backend.loja_backend.entity.PDV.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+
+import backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class OrdemVendaRepositoryImpl implements OrdemVendaRepositoryCustom {
+
+    private static final String SELECT_RESUMO =
+            "SELECT new backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO(" +
+            "o.id, o.dataVenda, o.descricao, o.valorTotal, o.status, o.formaPagamento, c.id, c.nome) " +
+            "FROM OrdemVenda o JOIN o.cliente c";
+
+    // o cliente entra por subconsulta para o filtro cair em cliente_id
+    private static final String TEXTO =
+            "LOWER(o.descricao) LIKE :padrao ESCAPE '\\' " +
+            "OR o.cliente.id IN (SELECT cb.id FROM Clientes cb " +
+            "                    WHERE LOWER(cb.nome) LIKE :padrao ESCAPE '\\' " +
+            "                       OR LOWER(cb.cpfCnpj) LIKE :padrao ESCAPE '\\')";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<OrdemVendaResumoDTO> buscarPagina(LocalDateTime start, LocalDateTime end, String status,
+                                                  String formaPagamento, Long clienteId,
+                                                  LocalDateTime cursorData, Long cursorId, Limit limit) {
+        return new ConsultaPaginaVendas(SELECT_RESUMO)
+                .filtro("o.dataVenda >= :start", "start", start)
+                .filtro("o.dataVenda <= :end", "end", end)
+                .filtro("o.status = :status", "status", status)
+                .filtro("o.formaPagamento = :formaPagamento", "formaPagamento", formaPagamento)
+                .filtro("c.id = :clienteId", "clienteId", clienteId)
+                .cursor(cursorData, cursorId)
+                .buscar(entityManager, limit);
+    }
+
+    @Override
+    public List<OrdemVendaResumoDTO> buscarPorTexto(String padrao, Long numero, String status, String formaPagamento,
+                                                    LocalDateTime cursorData, Long cursorId, Limit limit) {
+        ConsultaPaginaVendas consulta = new ConsultaPaginaVendas(SELECT_RESUMO).parametro("padrao", padrao);
+        if (numero != null) {
+            consulta.condicao("(o.id = :numero OR " + TEXTO + ")").parametro("numero", numero);
+        } else {
+            consulta.condicao("(" + TEXTO + ")");
+        }
+        return consulta
+                .filtro("o.status = :status", "status", status)
+                .filtro("o.formaPagamento = :formaPagamento", "formaPagamento", formaPagamento)
+                .cursor(cursorData, cursorId)
+                .buscar(entityManager, limit);
+    }
+
+    @Override
+    public List<OrdemVendaResumoDTO> buscarPorNumero(Long numero, String status, String formaPagamento,
+                                                     LocalDateTime cursorData, Long cursorId, Limit limit) {
+        return new ConsultaPaginaVendas(SELECT_RESUMO)
+                .condicao("o.id = :numero").parametro("numero", numero)
+                .filtro("o.status = :status", "status", status)
+                .filtro("o.formaPagamento = :formaPagamento", "formaPagamento", formaPagamento)
+                .cursor(cursorData, cursorId)
+                .buscar(entityManager, limit);
+    }
+}
@@ -0,0 +1,102 @@
+//ArquivamentoVendasService.java
+package backend.loja_backend.entity.PDV.services;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import backend.loja_backend.config.ParticoesOrdemVenda;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaArquivoRepository;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Move as vendas com mais de vendas.arquivamento.meses de ordem_venda/itens_vendas para
+ * ordem_venda_arquivo/itens_vendas_arquivo. Roda de madrugada, em lotes: cada lote copia e
+ * apaga numa transação curta, sem segurar locks das tabelas quentes por muito tempo.
+ *
+ * O corte cai sempre no primeiro dia de um mês, então no PostgreSQL as partições mensais
+ * esvaziadas são removidas logo depois. vendas_diarias não muda: o dashboard continua
+ * somando os dias arquivados, e a reconstrução do rollup também lê o arquivo.
+ */
+@Slf4j
+@Service
+public class ArquivamentoVendasService {
+
+    private final OrdemVendaRepository ordemVendaRepository;
+    private final OrdemVendaArquivoRepository ordemVendaArquivoRepository;
+    private final ComprovanteService comprovanteService;
+    private final ParticoesOrdemVenda particoesOrdemVenda;
+    private final TransactionTemplate transacao;
+    private final int meses;
+    private final int tamanhoLote;
+    private final Counter arquivadas;
+
+    public ArquivamentoVendasService(OrdemVendaRepository ordemVendaRepository,
+                                     OrdemVendaArquivoRepository ordemVendaArquivoRepository,
+                                     ComprovanteService comprovanteService, ParticoesOrdemVenda particoesOrdemVenda,
+                                     PlatformTransactionManager transactionManager, MeterRegistry registry,
+                                     @Value("${vendas.arquivamento.meses:24}") int meses,
+                                     @Value("${vendas.arquivamento.lote:500}") int tamanhoLote) {
+        this.ordemVendaRepository = ordemVendaRepository;
+        this.ordemVendaArquivoRepository = ordemVendaArquivoRepository;
+        this.comprovanteService = comprovanteService;
+        this.particoesOrdemVenda = particoesOrdemVenda;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.meses = meses;
+        this.tamanhoLote = tamanhoLote;
+        this.arquivadas = registry.counter("loja.vendas.arquivadas");
+    }
+
+    @Scheduled(cron = "${vendas.arquivamento.cron:0 30 3 * * *}")
+    public void arquivarAgendado() {
+        try {
+            arquivar();
+        } catch (Exception e) {
+            // o que já foi movido fica; o resto sai na próxima execução
+            log.warn("Falha no arquivamento de vendas: {}", e.getMessage());
+        }
+    }
+
+    /** Arquiva tudo o que passou do corte e devolve quantas vendas foram movidas. */
+    public synchronized int arquivar() throws SQLException {
+        LocalDateTime corte = LocalDate.now().minusMonths(meses).withDayOfMonth(1).atStartOfDay();
+        int total = 0;
+        int movidas;
+        do {
+            movidas = transacao.execute(status -> moverLote(corte));
+            total += movidas;
+        } while (movidas == tamanhoLote);
+
+        if (total > 0) {
+            log.info("{} vendas anteriores a {} arquivadas", total, corte.toLocalDate());
+        }
+        particoesOrdemVenda.removerParticoesVazias(corte.toLocalDate());
+        return total;
+    }
+
+    private int moverLote(LocalDateTime corte) {
+        List<Long> ids = ordemVendaRepository.buscarIdsAntesDe(corte, Limit.of(tamanhoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        ordemVendaArquivoRepository.copiarOrdens(ids, LocalDateTime.now());
+        ordemVendaArquivoRepository.copiarItens(ids);
+        ordemVendaArquivoRepository.apagarItensOriginais(ids);
+        ordemVendaArquivoRepository.apagarOrdensOriginais(ids);
+        // o GET /{id}/comprovante só serve ordens quentes: o arquivo não fica ocupando disco
+        ids.forEach(comprovanteService::removerAposCommit);
+        arquivadas.increment(ids.size());
+        return ids.size();
+    }
+}
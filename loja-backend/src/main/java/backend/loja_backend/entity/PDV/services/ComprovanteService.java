@@ -0,0 +1,276 @@
+//ComprovanteService.java
+package backend.loja_backend.entity.PDV.services;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.NumberFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.util.HtmlUtils;
+
+import backend.loja_backend.entity.PDV.dto.ItemVendaDetalheDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaDetalheDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gera os comprovantes (HTML) fora da transação da venda: depois do commit o id entra numa
+ * fila limitada e um worker renderiza e grava em comprovantes.storage. Se a fila estiver cheia
+ * o id fica para o reprocessamento, que varre as ordens com comprovante_gerado_em nulo
+ * (ao subir a aplicação e quando a fila esvazia).
+ */
+@Slf4j
+@Service
+public class ComprovanteService {
+
+    private static final int LOTE_REPROCESSAMENTO = 500;
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final OrdemVendaRepository ordemVendaRepository;
+    private final Path diretorio;
+    private final BlockingQueue<Long> fila;
+    private final int workers;
+    // algum id não coube na fila: varrer o banco quando ela esvaziar
+    private final AtomicBoolean pendentesForaDaFila = new AtomicBoolean(false);
+    private volatile boolean ativo;
+    private Thread[] threads = new Thread[0];
+
+    public ComprovanteService(OrdemVendaRepository ordemVendaRepository,
+                              @Value("${comprovantes.storage:comprovantes}") String storage,
+                              @Value("${comprovantes.fila.capacidade:1000}") int capacidade,
+                              @Value("${comprovantes.workers:1}") int workers) {
+        this.ordemVendaRepository = ordemVendaRepository;
+        this.diretorio = Path.of(storage).toAbsolutePath();
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.workers = workers;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() throws IOException {
+        if (ativo) {
+            return;
+        }
+        Files.createDirectories(diretorio);
+        ativo = true;
+        threads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            threads[i] = Thread.ofPlatform().daemon().name("comprovantes-" + i).start(this::trabalhar);
+        }
+        pendentesForaDaFila.set(true);
+    }
+
+    // o que ficou na fila não se perde: continua sem comprovante_gerado_em e volta ao subir
+    @PreDestroy
+    public synchronized void parar() throws InterruptedException {
+        ativo = false;
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join(5000);
+        }
+        fila.clear();
+    }
+
+    /** Enfileira os comprovantes destas ordens quando a transação atual fizer commit. */
+    public void agendarAposCommit(Collection<Long> ids) {
+        List<Long> copia = List.copyOf(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    copia.forEach(ComprovanteService.this::agendar);
+                }
+            });
+        } else {
+            copia.forEach(this::agendar);
+        }
+    }
+
+    /** Remove o arquivo quando a transação atual (exclusão da ordem) fizer commit. */
+    public void removerAposCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remover(id);
+                }
+            });
+        } else {
+            remover(id);
+        }
+    }
+
+    // nunca bloqueia quem vendeu: fila cheia só marca que há pendentes no banco
+    void agendar(Long id) {
+        if (!fila.offer(id)) {
+            pendentesForaDaFila.set(true);
+        }
+    }
+
+    public Path arquivo(Long id) {
+        return diretorio.resolve("comprovante-" + id + ".html");
+    }
+
+    public Optional<Path> buscar(Long id) {
+        Path arquivo = arquivo(id);
+        return Files.isRegularFile(arquivo) ? Optional.of(arquivo) : Optional.empty();
+    }
+
+    /**
+     * Varre as ordens sem comprovante e as coloca na fila até ela encher. Roda no próprio
+     * worker, que é quem esvazia a fila: esperar vaga aqui travaria o worker nele mesmo. O que
+     * não coube volta a marcar pendentes e sai na próxima varredura, quando a fila esvaziar.
+     * Devolve quantas foram enfileiradas.
+     */
+    public int reprocessarPendentes() {
+        pendentesForaDaFila.set(false);
+        int total = 0;
+        long depoisDe = 0;
+        List<Long> ids;
+        do {
+            ids = ordemVendaRepository.buscarSemComprovante(depoisDe, Limit.of(LOTE_REPROCESSAMENTO));
+            for (Long id : ids) {
+                if (!fila.contains(id)) {
+                    if (!fila.offer(id)) {
+                        pendentesForaDaFila.set(true);
+                        return total;
+                    }
+                    total++;
+                }
+            }
+            if (!ids.isEmpty()) {
+                depoisDe = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == LOTE_REPROCESSAMENTO && ativo);
+        return total;
+    }
+
+    /** Renderiza e grava o comprovante agora (no worker). Devolve false se a ordem não existe mais. */
+    public boolean gerar(Long id) throws IOException {
+        // mesmas projeções do GET /{id} (sem depender do OrdemVendaService, que agenda aqui)
+        Optional<OrdemVendaDetalheDTO> ordem = ordemVendaRepository.buscarDetalheResumo(id);
+        if (ordem.isEmpty()) {
+            return false;
+        }
+        ordem.get().setItensVendas(ordemVendaRepository.buscarItensDetalhe(id));
+        byte[] html = renderizar(ordem.get()).getBytes(StandardCharsets.UTF_8);
+
+        // grava num temporário e renomeia: quem lê nunca vê arquivo pela metade
+        Path temporario = Files.createTempFile(diretorio, "comprovante-" + id + "-", ".tmp");
+        try {
+            Files.write(temporario, html);
+            Files.move(temporario, arquivo(id), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+        // ordem excluída enquanto renderizava: o arquivo não pode ficar órfão
+        if (ordemVendaRepository.marcarComprovanteGerado(id, LocalDateTime.now()) == 0) {
+            remover(id);
+            return false;
+        }
+        return true;
+    }
+
+    private void trabalhar() {
+        while (ativo) {
+            try {
+                Long id = fila.poll(1, TimeUnit.SECONDS);
+                if (id != null) {
+                    gerar(id);
+                } else if (pendentesForaDaFila.get()) {
+                    reprocessarPendentes();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // o id continua sem comprovante_gerado_em e volta no próximo reprocessamento
+                log.warn("Falha ao gerar comprovante: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void remover(Long id) {
+        try {
+            Files.deleteIfExists(arquivo(id));
+        } catch (IOException e) {
+            log.warn("Falha ao remover comprovante {}: {}", id, e.getMessage());
+        }
+    }
+
+    static String renderizar(OrdemVendaDetalheDTO ordem) {
+        NumberFormat moeda = NumberFormat.getCurrencyInstance(Locale.of("pt", "BR"));
+        StringBuilder html = new StringBuilder(2048);
+        html.append("<!doctype html>\n<html>\n<head>\n<meta charset=\"utf-8\" />\n")
+            .append("<title>Comprovante Venda ").append(ordem.getId()).append("</title>\n")
+            .append("<style>\n")
+            .append("body { font-family: Arial, Helvetica, sans-serif; color: #222; padding: 18px; }\n")
+            .append("h2 { margin-bottom: 6px; }\n")
+            .append("table { width: 100%; border-collapse: collapse; margin-top: 12px; }\n")
+            .append("th, td { border-bottom: 1px solid #eee; padding: 6px 8px; }\n")
+            .append("th { text-align: left; background: #f8f8f8; }\n")
+            .append(".num { text-align: right; }\n")
+            .append("tfoot td { font-weight: 700; border-top: 2px solid #ddd; }\n")
+            .append("</style>\n</head>\n<body>\n")
+            .append("<h2>Comprovante de Venda #").append(ordem.getId()).append("</h2>\n");
+
+        if (ordem.getCliente() != null) {
+            html.append("<div><strong>Cliente:</strong> ").append(esc(ordem.getCliente().getNome()));
+            if (ordem.getCliente().getEmail() != null) {
+                html.append(" • ").append(esc(ordem.getCliente().getEmail()));
+            }
+            if (ordem.getCliente().getTelefone() != null) {
+                html.append(" • ").append(esc(ordem.getCliente().getTelefone()));
+            }
+            html.append("</div>\n");
+        } else {
+            html.append("<div><strong>Cliente:</strong> —</div>\n");
+        }
+        html.append("<div><strong>Data:</strong> ")
+            .append(ordem.getDataVenda() != null ? ordem.getDataVenda().format(FORMATO_DATA) : "—").append("</div>\n")
+            .append("<div><strong>Forma Pagamento:</strong> ")
+            .append(ordem.getFormaPagamento() != null ? esc(ordem.getFormaPagamento()) : "—").append("</div>\n");
+
+        html.append("<table>\n<thead><tr><th>Qtd</th><th>Produto</th><th class=\"num\">Valor unit.</th>")
+            .append("<th class=\"num\">Valor total</th></tr></thead>\n<tbody>\n");
+        for (ItemVendaDetalheDTO item : ordem.getItensVendas()) {
+            BigDecimal unitario = item.getPrecoUnitario() != null ? item.getPrecoUnitario() : BigDecimal.ZERO;
+            int quantidade = item.getQuantidade() != null ? item.getQuantidade() : 0;
+            String produto = item.getProduto() != null ? esc(item.getProduto().getNome()) : "(Produto Removido)";
+            html.append("<tr><td>").append(quantidade).append("</td><td>").append(produto)
+                .append("</td><td class=\"num\">").append(moeda.format(unitario))
+                .append("</td><td class=\"num\">").append(moeda.format(unitario.multiply(BigDecimal.valueOf(quantidade))))
+                .append("</td></tr>\n");
+        }
+        html.append("</tbody>\n<tfoot><tr><td></td><td class=\"num\">TOTAL</td><td></td><td class=\"num\">")
+            .append(moeda.format(ordem.getValorTotal() != null ? ordem.getValorTotal() : BigDecimal.ZERO))
+            .append("</td></tr></tfoot>\n</table>\n</body>\n</html>\n");
+        return html.toString();
+    }
+
+    private static String esc(String texto) {
+        return texto == null ? "" : HtmlUtils.htmlEscape(texto, StandardCharsets.UTF_8.name());
+    }
+}
@@ -0,0 +1,29 @@
+//ComprovanteVendasHandler.java
+package backend.loja_backend.entity.PDV.services;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import backend.loja_backend.entity.OutboxEvento;
+import backend.loja_backend.services.EventosService;
+import backend.loja_backend.services.OutboxHandler;
+import lombok.RequiredArgsConstructor;
+
+// Agenda o comprovante das vendas novas; gerar de novo o mesmo comprovante só sobrescreve o arquivo
+@Component
+@RequiredArgsConstructor
+public class ComprovanteVendasHandler implements OutboxHandler {
+
+    private final ComprovanteService comprovanteService;
+
+    @Override
+    public boolean aceita(String tipo) {
+        return EventosService.VENDA_CRIADA.equals(tipo);
+    }
+
+    @Override
+    public void tratar(List<OutboxEvento> eventos) {
+        comprovanteService.agendarAposCommit(eventos.stream().map(OutboxEvento::getAgregadoId).toList());
+    }
+}
@@ -0,0 +1,144 @@
+//ExportacaoVendasService.java
+package backend.loja_backend.entity.PDV.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.loja_backend.entity.PDV.dto.LinhaExportacaoVendaDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exporta o histórico de vendas direto para o OutputStream da resposta, lendo do banco
+ * por cursor: a memória usada não depende do tamanho do período.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportacaoVendasService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final String CABECALHO_CSV = "ordem_id,data_venda,descricao,status,forma_pagamento,valor_total,"
+            + "cliente_id,cliente_nome,item_id,produto_id,produto_nome,quantidade,preco_unitario";
+
+    private final OrdemVendaRepository ordemVendaRepository;
+    private final ObjectMapper objectMapper;
+
+    // readOnly do Spring: o cursor do Postgres só respeita o fetch size com autocommit desligado
+    @Transactional(readOnly = true)
+    public void exportar(String formato, LocalDateTime start, LocalDateTime end, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<LinhaExportacaoVendaDTO> linhas = ordemVendaRepository.streamExportacao(start, end)) {
+            if (CSV.equals(formato)) {
+                escreverCsv(linhas, writer);
+            } else if (NDJSON.equals(formato)) {
+                escreverNdjson(linhas, writer);
+            } else {
+                throw new IllegalArgumentException("Formato inválido: " + formato);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // Uma linha por item; ordens sem itens saem com as colunas do item vazias
+    private void escreverCsv(Stream<LinhaExportacaoVendaDTO> linhas, Writer writer) throws IOException {
+        writer.write(CABECALHO_CSV);
+        writer.write("\r\n");
+        linhas.forEachOrdered(l -> {
+            try {
+                writer.write(campo(l.getOrdemId()) + ',' + campo(l.getDataVenda()) + ',' + campo(l.getDescricao()) + ','
+                        + campo(l.getStatus()) + ',' + campo(l.getFormaPagamento()) + ',' + campo(l.getValorTotal()) + ','
+                        + campo(l.getClienteId()) + ',' + campo(l.getClienteNome()) + ',' + campo(l.getItemId()) + ','
+                        + campo(l.getProdutoId()) + ',' + campo(l.getProdutoNome()) + ',' + campo(l.getQuantidade()) + ','
+                        + campo(l.getPrecoUnitario()));
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Um objeto JSON por ordem: as linhas chegam ordenadas por ordem, então basta agrupar as consecutivas
+    private void escreverNdjson(Stream<LinhaExportacaoVendaDTO> linhas, Writer writer) throws IOException {
+        List<LinhaExportacaoVendaDTO> atual = new ArrayList<>();
+        linhas.forEachOrdered(l -> {
+            if (!atual.isEmpty() && !atual.get(0).getOrdemId().equals(l.getOrdemId())) {
+                escreverOrdem(atual, writer);
+                atual.clear();
+            }
+            atual.add(l);
+        });
+        if (!atual.isEmpty()) {
+            escreverOrdem(atual, writer);
+        }
+    }
+
+    private void escreverOrdem(List<LinhaExportacaoVendaDTO> linhas, Writer writer) {
+        LinhaExportacaoVendaDTO primeira = linhas.get(0);
+        Map<String, Object> ordem = new LinkedHashMap<>();
+        ordem.put("id", primeira.getOrdemId());
+        ordem.put("dataVenda", primeira.getDataVenda());
+        ordem.put("descricao", primeira.getDescricao());
+        ordem.put("status", primeira.getStatus());
+        ordem.put("formaPagamento", primeira.getFormaPagamento());
+        ordem.put("valorTotal", primeira.getValorTotal());
+        ordem.put("clienteId", primeira.getClienteId());
+        ordem.put("clienteNome", primeira.getClienteNome());
+
+        List<Map<String, Object>> itens = new ArrayList<>();
+        for (LinhaExportacaoVendaDTO l : linhas) {
+            if (l.getItemId() == null) {
+                continue;
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", l.getItemId());
+            item.put("produtoId", l.getProdutoId());
+            item.put("produtoNome", l.getProdutoNome());
+            item.put("quantidade", l.getQuantidade());
+            item.put("precoUnitario", l.getPrecoUnitario());
+            itens.add(item);
+        }
+        ordem.put("itens", itens);
+
+        try {
+            writer.write(objectMapper.writeValueAsString(ordem));
+            writer.write('\n');
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar a ordem " + primeira.getOrdemId(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180: aspas quando o valor tem vírgula, aspas ou quebra de linha
+    private static String campo(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+}
@@ -11,6 +11,7 @@ import backend.loja_backend.entity.PDV.entity.ItensVendas;
 import backend.loja_backend.entity.PDV.repositories.ItensVendasRepository;
 import backend.loja_backend.entity.Produtos;
 import backend.loja_backend.entity.PDV.entity.OrdemVenda;
+import backend.loja_backend.services.Dinheiro;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
@@ -26,7 +27,7 @@ public class ItensVendasService {
         item.setProduto(produto);
         item.setOrdemVenda(ordemVenda);
         item.setQuantidade(dto.getQuantidade());
-        item.setPrecoUnitario(java.math.BigDecimal.valueOf(dto.getPrecoUnitario()));
+        item.setPrecoUnitario(Dinheiro.arredondar(dto.getPrecoUnitario()));
 
         return itensVendasRepository.save(item);
     }
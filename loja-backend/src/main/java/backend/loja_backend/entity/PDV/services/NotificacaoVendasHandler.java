@@ -0,0 +1,36 @@
+//NotificacaoVendasHandler.java
+package backend.loja_backend.entity.PDV.services;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.loja_backend.entity.OutboxEvento;
+import backend.loja_backend.entity.PDV.dto.EventoVendaDTO;
+import backend.loja_backend.services.EventosService;
+import backend.loja_backend.services.OutboxHandler;
+import lombok.RequiredArgsConstructor;
+
+// Publica venda-criada/venda-excluida no SSE, na ordem dos eventos, depois do commit da entrega
+@Component
+@RequiredArgsConstructor
+public class NotificacaoVendasHandler implements OutboxHandler {
+
+    private final EventosService eventosService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean aceita(String tipo) {
+        return EventosService.VENDA_CRIADA.equals(tipo) || EventosService.VENDA_EXCLUIDA.equals(tipo);
+    }
+
+    @Override
+    public void tratar(List<OutboxEvento> eventos) throws Exception {
+        for (OutboxEvento evento : eventos) {
+            EventoVendaDTO dados = objectMapper.readValue(evento.getPayload(), EventoVendaDTO.class);
+            eventosService.publicarAposCommit(evento.getTipo(), dados.getVenda());
+        }
+    }
+}
@@ -2,86 +2,533 @@
 package backend.loja_backend.entity.PDV.services;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import backend.loja_backend.dto.ClienteResumoDTO;
+import backend.loja_backend.dto.EstoqueAlteradoDTO;
+import backend.loja_backend.dto.ProdutoResumoDTO;
 import backend.loja_backend.entity.Clientes;
 import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.EventoVendaDTO;
+import backend.loja_backend.entity.PDV.dto.ItemVendaDetalheDTO;
 import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaDetalheDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaPaginaDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO;
 import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.dto.ResultadoVendaLoteDTO;
 import backend.loja_backend.entity.PDV.entity.ItensVendas;
 import backend.loja_backend.entity.PDV.entity.OrdemVenda;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaArquivoRepository;
 import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.repositories.ClienteRepository;
 import backend.loja_backend.repositories.ProdutoRepository;
-import jakarta.transaction.Transactional;
+import backend.loja_backend.services.Dinheiro;
+import backend.loja_backend.services.EstoqueService;
+import backend.loja_backend.services.EventosService;
+import backend.loja_backend.services.OutboxService;
+import backend.loja_backend.services.ProdutoService;
+import backend.loja_backend.services.SincronizacaoService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
 @Service
+@Timed(value = "loja.servicos", histogram = true)
 @RequiredArgsConstructor
 public class OrdemVendaService {
 
+    static final int TAMANHO_PAGINA_PADRAO = 50;
+    static final int TAMANHO_PAGINA_MAXIMO = 200;
+    // abaixo disso o LIKE '%termo%' não tem trigrama para usar e varreria ordem_venda
+    static final int TAMANHO_MINIMO_BUSCA = 3;
+
     private final OrdemVendaRepository ordemVendaRepository;
+    private final OrdemVendaArquivoRepository ordemVendaArquivoRepository;
     private final ProdutoRepository produtoRepository;
+    private final ClienteRepository clienteRepository;
+    private final ProdutoService produtoService;
+    private final EstoqueService estoqueService;
+    private final ComprovanteService comprovanteService;
+    private final SincronizacaoService sincronizacaoService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transacao;
 
-    @Transactional
+    /**
+     * Grava a venda. Reenvio com chave de idempotência já gravada devolve a ordem existente,
+     * inclusive quando os dois envios chegam juntos: o segundo INSERT bate na UNIQUE da
+     * chave, a transação dele (baixa de estoque incluída) é desfeita e a ordem que ganhou
+     * é lida de novo, fora dela.
+     */
     public OrdemVenda criarOrdemVenda(OrdemVendasDTO dto, Clientes cliente) {
+        try {
+            return transacao.execute(status -> gravarOrdemVenda(dto, cliente));
+        } catch (DataIntegrityViolationException e) {
+            if (dto.getChaveIdempotencia() != null) {
+                Optional<OrdemVenda> vencedora = ordemVendaRepository.findByChaveIdempotencia(dto.getChaveIdempotencia());
+                if (vencedora.isPresent()) {
+                    return vencedora.get();
+                }
+            }
+            throw e;
+        }
+    }
+
+    private OrdemVenda gravarOrdemVenda(OrdemVendasDTO dto, Clientes cliente) {
+        // Venda reenviada pelo terminal: devolve a que já foi gravada
+        if (dto.getChaveIdempotencia() != null) {
+            Optional<OrdemVenda> existente = ordemVendaRepository.findByChaveIdempotencia(dto.getChaveIdempotencia());
+            if (existente.isPresent()) {
+                return existente.get();
+            }
+        }
+
+        // Somar quantidades por produto (TreeMap = ordem crescente de id para os locks)
+        SortedMap<Long, Integer> quantidadesPorProduto = new TreeMap<>();
+        for (ItensVendasDTO itemDTO : dto.getItensVendas()) {
+            if (itemDTO.getProdutoId() == null || itemDTO.getQuantidade() == null || itemDTO.getQuantidade() <= 0) {
+                throw new RuntimeException("Item de venda inválido: " + itemDTO.getProdutoId());
+            }
+            quantidadesPorProduto.merge(itemDTO.getProdutoId(), itemDTO.getQuantidade(), Integer::sum);
+        }
+
+        // Dar baixa no estoque de todos os produtos de uma vez (UPDATE condicional, sem oversell);
+        // cada produto ganha um movimento no razão
+        int[] movimentos = new int[quantidadesPorProduto.size()];
+        Arrays.fill(movimentos, 1);
+        List<Long> semSaldo = produtoRepository.baixarEstoque(quantidadesPorProduto,
+                sincronizacaoService.reservarVersoes(quantidadesPorProduto.size()), movimentos);
+
+        // Buscar produtos já com o estoque atualizado
+        Map<Long, Produtos> produtos = new HashMap<>();
+        List<EstoqueAlteradoDTO> estoques = new ArrayList<>();
+        for (Produtos produto : produtoRepository.findAllById(quantidadesPorProduto.keySet())) {
+            produtos.put(produto.getId(), produto);
+            estoques.add(new EstoqueAlteradoDTO(produto.getId(), produto.getQuantidadeEstoque(), produto.getEstoqueVersao()));
+        }
+
+        if (!semSaldo.isEmpty()) {
+            Long produtoId = semSaldo.get(0);
+            Produtos produto = produtos.get(produtoId);
+            if (produto == null) {
+                throw new RuntimeException("Produto não encontrado: " + produtoId);
+            }
+            throw new RuntimeException("Estoque insuficiente para o produto: " + produto.getNome());
+        }
+        // venda recusada é desfeita inteira: só a que segue mexe em cache e versão do catálogo
+        produtoService.estoqueAlterado(estoques);
+
+        // Salvar ordem (cascade salvará os itens)
+        OrdemVenda salva = ordemVendaRepository.save(montarOrdem(dto, cliente, produtos, LocalDateTime.now()));
+
+        // Razão de estoque: o estado antes da baixa é o lido agora menos esta venda
+        Map<Long, Integer> saldosAntes = new HashMap<>();
+        Map<Long, Long> versoesAntes = new HashMap<>();
+        quantidadesPorProduto.forEach((produtoId, quantidade) -> {
+            Produtos produto = produtos.get(produtoId);
+            saldosAntes.put(produtoId, produto.getQuantidadeEstoque() + quantidade);
+            versoesAntes.put(produtoId, produto.getEstoqueVersao() - 1);
+        });
+        estoqueService.registrarVendas(List.of(salva), saldosAntes, versoesAntes);
+
+        // Rollup do dashboard, comprovante e SSE saem pelo outbox depois do commit: a venda
+        // não espera por eles nem disputa o lock da linha do dia em vendas_diarias
+        outboxService.registrar(EventosService.VENDA_CRIADA, salva.getId(), evento(salva));
+        return salva;
+    }
+
+    /**
+     * Grava um lote de vendas feitas offline numa única transação: clientes e produtos são
+     * lidos uma vez, o estoque do lote inteiro é baixado numa só passada e as ordens/itens
+     * são inseridos em batch. Cada venda recebe seu próprio status; vendas com chave de
+     * idempotência já gravada voltam como DUPLICADA e não contam de novo.
+     */
+    @Transactional
+    public List<ResultadoVendaLoteDTO> criarOrdensEmLote(List<OrdemVendasDTO> dtos) {
+        ResultadoVendaLoteDTO[] resultados = new ResultadoVendaLoteDTO[dtos.size()];
+
+        // Chaves já gravadas em lotes anteriores
+        Set<String> chaves = new HashSet<>();
+        Set<Long> clienteIds = new HashSet<>();
+        SortedSet<Long> produtoIds = new TreeSet<>();
+        for (OrdemVendasDTO dto : dtos) {
+            if (dto.getChaveIdempotencia() != null) {
+                chaves.add(dto.getChaveIdempotencia());
+            }
+            if (dto.getClienteId() != null) {
+                clienteIds.add(dto.getClienteId());
+            }
+            if (dto.getItensVendas() != null) {
+                for (ItensVendasDTO item : dto.getItensVendas()) {
+                    if (item.getProdutoId() != null) {
+                        produtoIds.add(item.getProdutoId());
+                    }
+                }
+            }
+        }
+        Map<String, Long> gravadas = new HashMap<>();
+        if (!chaves.isEmpty()) {
+            for (var linha : ordemVendaRepository.buscarIdsPorChave(chaves)) {
+                gravadas.put(linha.getChave(), linha.getId());
+            }
+        }
+
+        Map<Long, Clientes> clientes = new HashMap<>();
+        for (Clientes cliente : clienteRepository.findAllById(clienteIds)) {
+            clientes.put(cliente.getId(), cliente);
+        }
+
+        // Trava os produtos do lote em ordem de id e reserva o saldo venda a venda, em memória
+        Map<Long, Produtos> produtos = new HashMap<>();
+        Map<Long, Integer> saldo = new HashMap<>();
+        if (!produtoIds.isEmpty()) {
+            for (Produtos produto : produtoRepository.bloquearParaBaixa(produtoIds)) {
+                produtos.put(produto.getId(), produto);
+                saldo.put(produto.getId(), produto.getQuantidade() != null ? produto.getQuantidade() : 0);
+            }
+        }
+
+        SortedMap<Long, Integer> baixa = new TreeMap<>();
+        Map<Long, Integer> movimentosPorProduto = new HashMap<>();
+        Map<String, OrdemVenda> novasPorChave = new HashMap<>();
+        List<OrdemVenda> novas = new ArrayList<>();
+        Map<Integer, OrdemVenda> novasPorIndice = new HashMap<>();
+        List<Integer> duplicadasNoLote = new ArrayList<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            OrdemVendasDTO dto = dtos.get(i);
+            String chave = dto.getChaveIdempotencia();
+
+            if (chave != null && gravadas.containsKey(chave)) {
+                resultados[i] = new ResultadoVendaLoteDTO(i, chave, ResultadoVendaLoteDTO.DUPLICADA, gravadas.get(chave), null);
+                continue;
+            }
+            if (chave != null && novasPorChave.containsKey(chave)) {
+                duplicadasNoLote.add(i);
+                continue;
+            }
+
+            String erro = validarVendaLote(dto, clientes, produtos, saldo);
+            if (erro != null) {
+                resultados[i] = new ResultadoVendaLoteDTO(i, chave, ResultadoVendaLoteDTO.REJEITADA, null, erro);
+                continue;
+            }
+
+            for (ItensVendasDTO item : dto.getItensVendas()) {
+                saldo.merge(item.getProdutoId(), -item.getQuantidade(), Integer::sum);
+                baixa.merge(item.getProdutoId(), item.getQuantidade(), Integer::sum);
+            }
+            // um movimento no razão por produto em cada venda
+            dto.getItensVendas().stream().map(ItensVendasDTO::getProdutoId).distinct()
+                    .forEach(produtoId -> movimentosPorProduto.merge(produtoId, 1, Integer::sum));
+            LocalDateTime dataVenda = dto.getDataVenda() != null && !dto.getDataVenda().isBlank()
+                    ? LocalDateTime.parse(dto.getDataVenda())
+                    : LocalDateTime.now();
+            OrdemVenda ordem = montarOrdem(dto, clientes.get(dto.getClienteId()), produtos, dataVenda);
+            novas.add(ordem);
+            novasPorIndice.put(i, ordem);
+            if (chave != null) {
+                novasPorChave.put(chave, ordem);
+            }
+        }
+
+        // Uma única baixa combinada; os produtos estão travados, então não pode faltar saldo aqui
+        int[] movimentos = baixa.keySet().stream().mapToInt(movimentosPorProduto::get).toArray();
+        if (!produtoRepository.baixarEstoque(baixa, sincronizacaoService.reservarVersoes(baixa.size()), movimentos).isEmpty()) {
+            throw new RuntimeException("Estoque alterado durante o processamento do lote");
+        }
+        // versão depois da baixa: a lida com o produto travado mais os movimentos deste lote
+        List<EstoqueAlteradoDTO> estoques = new ArrayList<>();
+        baixa.keySet().forEach(id -> estoques.add(new EstoqueAlteradoDTO(
+                id, saldo.get(id), produtos.get(id).getEstoqueVersao() + movimentosPorProduto.get(id))));
+        produtoService.estoqueAlterado(estoques);
+
+        ordemVendaRepository.saveAll(novas);
+
+        // Razão de estoque: venda a venda, a partir do estado lido com os produtos travados
+        Map<Long, Integer> saldosAntes = new HashMap<>();
+        Map<Long, Long> versoesAntes = new HashMap<>();
+        baixa.keySet().forEach(id -> {
+            Produtos produto = produtos.get(id);
+            saldosAntes.put(id, produto.getQuantidade() != null ? produto.getQuantidade() : 0);
+            versoesAntes.put(id, produto.getEstoqueVersao());
+        });
+        estoqueService.registrarVendas(novas, saldosAntes, versoesAntes);
+        novas.forEach(ordem -> outboxService.registrar(EventosService.VENDA_CRIADA, ordem.getId(), evento(ordem)));
+
+        novasPorIndice.forEach((i, ordem) -> resultados[i] = new ResultadoVendaLoteDTO(
+                i, ordem.getChaveIdempotencia(), ResultadoVendaLoteDTO.CRIADA, ordem.getId(), null));
+        for (int i : duplicadasNoLote) {
+            String chave = dtos.get(i).getChaveIdempotencia();
+            resultados[i] = new ResultadoVendaLoteDTO(
+                    i, chave, ResultadoVendaLoteDTO.DUPLICADA, novasPorChave.get(chave).getId(), null);
+        }
+        return List.of(resultados);
+    }
+
+    private static String validarVendaLote(OrdemVendasDTO dto, Map<Long, Clientes> clientes,
+                                           Map<Long, Produtos> produtos, Map<Long, Integer> saldo) {
+        if (dto.getClienteId() == null || !clientes.containsKey(dto.getClienteId())) {
+            return "Cliente não encontrado!";
+        }
+        if (dto.getValorTotal() == null) {
+            return "Valor total não informado";
+        }
+        if (dto.getItensVendas() == null || dto.getItensVendas().isEmpty()) {
+            return "Venda sem itens";
+        }
+        if (dto.getDataVenda() != null && !dto.getDataVenda().isBlank()) {
+            try {
+                LocalDateTime.parse(dto.getDataVenda());
+            } catch (DateTimeParseException e) {
+                return "Data da venda inválida: " + dto.getDataVenda();
+            }
+        }
+
+        Map<Long, Integer> pedido = new HashMap<>();
+        for (ItensVendasDTO item : dto.getItensVendas()) {
+            if (item.getProdutoId() == null || item.getQuantidade() == null || item.getQuantidade() <= 0
+                    || item.getPrecoUnitario() == null) {
+                return "Item de venda inválido: " + item.getProdutoId();
+            }
+            if (!produtos.containsKey(item.getProdutoId())) {
+                return "Produto não encontrado: " + item.getProdutoId();
+            }
+            pedido.merge(item.getProdutoId(), item.getQuantidade(), Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> linha : pedido.entrySet()) {
+            if (saldo.get(linha.getKey()) < linha.getValue()) {
+                return "Estoque insuficiente para o produto: " + produtos.get(linha.getKey()).getNome();
+            }
+        }
+        return null;
+    }
+
+    private static OrdemVenda montarOrdem(OrdemVendasDTO dto, Clientes cliente, Map<Long, Produtos> produtos,
+                                          LocalDateTime dataVenda) {
         // Criar ordem de venda
         OrdemVenda ordem = new OrdemVenda();
+        ordem.setChaveIdempotencia(dto.getChaveIdempotencia());
         ordem.setCliente(cliente);
         ordem.setDescricao(dto.getDescricao());
-        ordem.setValorTotal(BigDecimal.valueOf(dto.getValorTotal()));
-        ordem.setDataVenda(LocalDateTime.now());
+        ordem.setDataVenda(dataVenda);
         ordem.setStatus(dto.getStatus());
         ordem.setFormaPagamento(dto.getFormaPagamento());
 
-        // Processar itens da venda
-        List<ItensVendas> itensVendas = new ArrayList<>();
-        
-        for (ItensVendasDTO itemDTO : dto.getItensVendas()) {
-            // Buscar produto
-            Produtos produto = produtoRepository.findById(itemDTO.getProdutoId())
-                    .orElseThrow(() -> new RuntimeException("Produto não encontrado: " + itemDTO.getProdutoId()));
-
-            // Validar estoque
-            if (produto.getQuantidade() == null || produto.getQuantidade() < itemDTO.getQuantidade()) {
-                throw new RuntimeException("Estoque insuficiente para o produto: " + produto.getNome());
-            }
-
-            // Dar baixa no estoque
-            produto.setQuantidade(produto.getQuantidade() - itemDTO.getQuantidade());
-            produtoRepository.save(produto);
+        // Processar itens da venda, somando o total em centavos (long)
+        List<ItensVendas> itensVendas = new ArrayList<>(dto.getItensVendas().size());
+        boolean somarItens = dto.getValorTotal() == null;
+        long totalCentavos = 0;
 
+        for (ItensVendasDTO itemDTO : dto.getItensVendas()) {
             // Criar item da venda
             ItensVendas itemVenda = new ItensVendas();
-            itemVenda.setProduto(produto);
+            itemVenda.setProduto(produtos.get(itemDTO.getProdutoId()));
             itemVenda.setOrdemVenda(ordem);
             itemVenda.setQuantidade(itemDTO.getQuantidade());
-            itemVenda.setPrecoUnitario(BigDecimal.valueOf(itemDTO.getPrecoUnitario()));
+            itemVenda.setPrecoUnitario(Dinheiro.arredondar(itemDTO.getPrecoUnitario()));
+            if (somarItens) {
+                totalCentavos += Dinheiro.total(Dinheiro.centavos(itemVenda.getPrecoUnitario()), itemDTO.getQuantidade());
+            }
 
             itensVendas.add(itemVenda);
         }
 
+        // O total informado pelo terminal prevalece; sem ele, vale a soma dos itens
+        ordem.setValorTotal(somarItens ? Dinheiro.reais(totalCentavos) : Dinheiro.arredondar(dto.getValorTotal()));
+
         // Associar itens à ordem
         ordem.setItensVendas(itensVendas);
+        return ordem;
+    }
 
-        // Salvar ordem (cascade salvará os itens)
-        return ordemVendaRepository.save(ordem);
+    /**
+     * Lista ordens em páginas keyset (mais recentes primeiro). O custo de cada página
+     * independe da posição na tabela, diferente de OFFSET.
+     */
+    @Transactional(readOnly = true)
+    public OrdemVendaPaginaDTO listarPagina(LocalDateTime start, LocalDateTime end, String status,
+                                           String formaPagamento, Long clienteId,
+                                           String cursor, Integer size) {
+        return paginar(cursor, size, (cursorData, cursorId, limite) -> ordemVendaRepository.buscarPagina(
+                start, end, vazioParaNull(status), vazioParaNull(formaPagamento), clienteId,
+                cursorData, cursorId, limite));
+    }
+
+    /**
+     * Busca do histórico: o termo casa com parte do nome ou do CPF/CNPJ do cliente, da
+     * descrição ou com o número da venda (com ou sem #). Sem termo, é a listagem comum;
+     * termo com menos de 3 caracteres só vale como número da venda.
+     * Mesma paginação por cursor de listarPagina.
+     */
+    @Transactional(readOnly = true)
+    public OrdemVendaPaginaDTO buscar(String q, String status, String formaPagamento, String cursor, Integer size) {
+        String termo = vazioParaNull(q != null ? q.trim() : null);
+        String statusFiltro = vazioParaNull(status);
+        String formaFiltro = vazioParaNull(formaPagamento);
+        if (termo == null) {
+            return paginar(cursor, size, (cursorData, cursorId, limite) -> ordemVendaRepository.buscarPagina(
+                    null, null, statusFiltro, formaFiltro, null, cursorData, cursorId, limite));
+        }
+
+        Long numero = termo.matches("#?\\d{1,18}") ? Long.valueOf(termo.replace("#", "")) : null;
+        if (termo.replace("#", "").length() < TAMANHO_MINIMO_BUSCA) {
+            if (numero == null) {
+                throw new IllegalArgumentException("a busca precisa de pelo menos " + TAMANHO_MINIMO_BUSCA
+                        + " caracteres (ou o número da venda)");
+            }
+            return paginar(cursor, size, (cursorData, cursorId, limite) -> ordemVendaRepository.buscarPorNumero(
+                    numero, statusFiltro, formaFiltro, cursorData, cursorId, limite));
+        }
+
+        String padrao = "%" + escaparLike(termo.toLowerCase(Locale.ROOT)) + "%";
+        return paginar(cursor, size, (cursorData, cursorId, limite) -> ordemVendaRepository.buscarPorTexto(
+                padrao, numero, statusFiltro, formaFiltro, cursorData, cursorId, limite));
+    }
+
+    /**
+     * Histórico arquivado (vendas movidas pelo ArquivamentoVendasService), só leitura.
+     * Mesma paginação por cursor de listarPagina.
+     */
+    @Transactional(readOnly = true)
+    public OrdemVendaPaginaDTO listarArquivo(LocalDateTime start, LocalDateTime end, Long clienteId,
+                                             String cursor, Integer size) {
+        return paginar(cursor, size, (cursorData, cursorId, limite) -> ordemVendaArquivoRepository.buscarPagina(
+                start, end, clienteId, cursorData, cursorId, limite));
     }
 
-    public List<OrdemVenda> listarTodas() {
-        return ordemVendaRepository.findAll();
+    // Mesmo formato do GET /{id}; cliente e produtos só com id e o nome guardado no arquivamento
+    @Transactional(readOnly = true)
+    public Optional<OrdemVendaDetalheDTO> buscarDetalheArquivado(Long id) {
+        return ordemVendaArquivoRepository.findById(id).map(ordem -> new OrdemVendaDetalheDTO(
+                ordem.getId(), ordem.getDescricao(), ordem.getValorTotal(), ordem.getDataVenda(),
+                ordem.getStatus(), ordem.getFormaPagamento(), null,
+                new ClienteResumoDTO(ordem.getClienteId(), ordem.getClienteNome(), null, null, null, null),
+                ordemVendaArquivoRepository.buscarItens(id).stream()
+                        .map(item -> new ItemVendaDetalheDTO(item.getId(),
+                                new ProdutoResumoDTO(item.getProdutoId(), item.getProdutoNome(), null, null, null, null),
+                                item.getQuantidade(), item.getPrecoUnitario()))
+                        .toList()));
+    }
+
+    // Uma página da consulta a partir do cursor (data|id da última linha entregue)
+    private OrdemVendaPaginaDTO paginar(String cursor, Integer size, ConsultaPagina consulta) {
+        int tamanho = size == null || size <= 0 ? TAMANHO_PAGINA_PADRAO : Math.min(size, TAMANHO_PAGINA_MAXIMO);
+
+        LocalDateTime cursorData = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] partes = decodificarCursor(cursor);
+            cursorData = LocalDateTime.parse(partes[0]);
+            cursorId = Long.valueOf(partes[1]);
+        }
+
+        // busca uma linha a mais só para saber se existe próxima página
+        List<OrdemVendaResumoDTO> linhas = consulta.buscar(cursorData, cursorId, Limit.of(tamanho + 1));
+
+        String proximoCursor = null;
+        if (linhas.size() > tamanho) {
+            linhas = linhas.subList(0, tamanho);
+            OrdemVendaResumoDTO ultima = linhas.get(tamanho - 1);
+            proximoCursor = codificarCursor(ultima.getDataVenda(), ultima.getId());
+        }
+        return new OrdemVendaPaginaDTO(linhas, proximoCursor);
+    }
+
+    private interface ConsultaPagina {
+        List<OrdemVendaResumoDTO> buscar(LocalDateTime cursorData, Long cursorId, Limit limite);
     }
 
     public Optional<OrdemVenda> buscarPorId(Long id) {
-        return ordemVendaRepository.findById(id);
+        return ordemVendaRepository.buscarDetalhe(id);
+    }
+
+    // Caminho de leitura do GET /{id}: cabeçalho e itens em DTO, nunca a entidade
+    @Transactional(readOnly = true)
+    public Optional<OrdemVendaDetalheDTO> buscarDetalhe(Long id) {
+        Optional<OrdemVendaDetalheDTO> detalhe = ordemVendaRepository.buscarDetalheResumo(id);
+        detalhe.ifPresent(d -> d.setItensVendas(ordemVendaRepository.buscarItensDetalhe(id)));
+        return detalhe;
+    }
+
+    public boolean existe(Long id) {
+        return ordemVendaRepository.existsById(id);
     }
 
     @Transactional
     public void deletar(Long id) {
-        ordemVendaRepository.deleteById(id);
+        ordemVendaRepository.findById(id).ifPresent(ordem -> {
+            EventoVendaDTO evento = evento(ordem);
+            ordemVendaRepository.delete(ordem);
+            comprovanteService.removerAposCommit(id);
+            outboxService.registrar(EventosService.VENDA_EXCLUIDA, id, evento);
+        });
+    }
+
+    private static EventoVendaDTO evento(OrdemVenda ordem) {
+        long unidades = 0;
+        if (ordem.getItensVendas() != null) {
+            for (ItensVendas item : ordem.getItensVendas()) {
+                unidades += item.getQuantidade() != null ? item.getQuantidade() : 0;
+            }
+        }
+        return new EventoVendaDTO(resumo(ordem), unidades);
+    }
+
+    private static OrdemVendaResumoDTO resumo(OrdemVenda ordem) {
+        Clientes cliente = ordem.getCliente();
+        return new OrdemVendaResumoDTO(ordem.getId(), ordem.getDataVenda(), ordem.getDescricao(), ordem.getValorTotal(),
+                ordem.getStatus(), ordem.getFormaPagamento(),
+                cliente != null ? cliente.getId() : null, cliente != null ? cliente.getNome() : null);
+    }
+
+    private static String codificarCursor(LocalDateTime dataVenda, Long id) {
+        String valor = dataVenda + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodificarCursor(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            LocalDateTime.parse(partes[0]);
+            Long.parseLong(partes[1]);
+            return partes;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    // % e _ digitados pelo usuário são texto, não curinga (escapados com barra invertida)
+    private static String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String vazioParaNull(String valor) {
+        return valor == null || valor.isBlank() ? null : valor;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+//RollupVendasHandler.java
+package backend.loja_backend.entity.PDV.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.loja_backend.entity.OutboxEvento;
+import backend.loja_backend.entity.PDV.dto.EventoVendaDTO;
+import backend.loja_backend.services.EventosService;
+import backend.loja_backend.services.OutboxHandler;
+import backend.loja_backend.services.VendasDiariasService;
+import lombok.RequiredArgsConstructor;
+
+// Leva vendas e exclusões ao rollup vendas_diarias, na mesma transação que dá baixa nos eventos
+@Component
+@RequiredArgsConstructor
+public class RollupVendasHandler implements OutboxHandler {
+
+    private final VendasDiariasService vendasDiariasService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean aceita(String tipo) {
+        return EventosService.VENDA_CRIADA.equals(tipo) || EventosService.VENDA_EXCLUIDA.equals(tipo);
+    }
+
+    @Override
+    public void tratar(List<OutboxEvento> eventos) throws Exception {
+        List<EventoVendaDTO> vendas = new ArrayList<>();
+        List<EventoVendaDTO> estornos = new ArrayList<>();
+        for (OutboxEvento evento : eventos) {
+            EventoVendaDTO dados = objectMapper.readValue(evento.getPayload(), EventoVendaDTO.class);
+            (EventosService.VENDA_CRIADA.equals(evento.getTipo()) ? vendas : estornos).add(dados);
+        }
+        vendasDiariasService.registrar(vendas, estornos);
+    }
+}
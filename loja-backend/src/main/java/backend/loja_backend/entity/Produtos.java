@@ -1,4 +1,7 @@
 package backend.loja_backend.entity;
+
+import java.math.BigDecimal;
+
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -11,12 +14,20 @@ public class Produtos {
     private Long id;
     private String nome;
     private String descricao;
-    @Column (name = "preco_custo")
-    private Double precoCusto;
-    @Column (name = "preco_venda")
-    private Double precoVenda;
-    @Column (name = "quantidade_estoque")
+    @Column (name = "preco_custo", precision = 12, scale = 2)
+    private BigDecimal precoCusto;
+    @Column (name = "preco_venda", precision = 12, scale = 2)
+    private BigDecimal precoVenda;
+    // Só muda por UPDATE com delta (venda, ajuste, devolução), junto com o movimento em
+    // movimentos_estoque: salvar a entidade nunca regrava um saldo lido antes
+    @Column (name = "quantidade_estoque", updatable = false)
     private Integer quantidadeEstoque;
+    // quantos movimentos de estoque o produto já teve (versão do último em movimentos_estoque)
+    @Column(name = "estoque_versao", nullable = false, updatable = false)
+    private Long estoqueVersao = 0L;
+    // versão da última gravação pelos services, usada pela sincronização incremental (GET /api/sync)
+    @Column(name = "versao_sync")
+    private Long versaoSync = 0L;
     public Integer getQuantidade() {
         return this.quantidadeEstoque;
     }
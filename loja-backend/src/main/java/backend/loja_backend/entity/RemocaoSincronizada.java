@@ -0,0 +1,28 @@
+package backend.loja_backend.entity;
+
+import java.time.LocalDateTime;
+
+import backend.loja_backend.services.VersaoCatalogo;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Registro de exclusão (tombstone) para os terminais removerem o item da cópia local
+@Entity
+@Table(name = "sync_remocoes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RemocaoSincronizada {
+    @Id
+    @Column(name = "versao_sync")
+    private Long versaoSync;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "catalogo", nullable = false, length = 20)
+    private VersaoCatalogo.Catalogo catalogo;
+    @Column(name = "registro_id", nullable = false)
+    private Long registroId;
+    @Column(name = "removido_em", nullable = false)
+    private LocalDateTime removidoEm;
+}
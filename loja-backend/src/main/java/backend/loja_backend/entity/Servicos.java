@@ -1,5 +1,7 @@
 package backend.loja_backend.entity;
 
+import java.math.BigDecimal;
+
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -12,7 +14,10 @@ public class Servicos {
     private Long id;
     private String nome;
     private String descricao;
-    @Column(name = "valor_base")
-    private Double valorBase;
+    @Column(name = "valor_base", precision = 12, scale = 2)
+    private BigDecimal valorBase;
     private String categoria;
+    // versão da última gravação pelos services, usada pela sincronização incremental (GET /api/sync)
+    @Column(name = "versao_sync")
+    private Long versaoSync = 0L;
 }
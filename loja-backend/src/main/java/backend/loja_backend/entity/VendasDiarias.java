@@ -0,0 +1,41 @@
+package backend.loja_backend.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Rollup diário das vendas (dia x forma de pagamento x status), mantido junto com cada venda
+@Entity
+@Table(name = "vendas_diarias")
+@IdClass(VendasDiarias.Chave.class)
+@Data
+public class VendasDiarias {
+    @Id
+    private LocalDate dia;
+    @Id
+    @Column(name = "forma_pagamento")
+    private String formaPagamento;
+    @Id
+    private String status;
+    @Column(nullable = false)
+    private Long quantidade;
+    // soma das quantidades dos itens (unidades vendidas)
+    @Column(nullable = false)
+    private Long unidades;
+    @Column(precision = 14, scale = 2, nullable = false)
+    private BigDecimal total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private LocalDate dia;
+        private String formaPagamento;
+        private String status;
+    }
+}
@@ -1,8 +1,49 @@
 package backend.loja_backend.repositories;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import backend.loja_backend.dto.ClienteResumoDTO;
 import backend.loja_backend.entity.Clientes;
 
 public interface ClienteRepository extends JpaRepository<Clientes, Long> {
 
-}
\ No newline at end of file
+    // Leituras em DTO: sem entidade gerenciada, sem dirty-checking no flush
+    @Query("SELECT new backend.loja_backend.dto.ClienteResumoDTO(c.id, c.nome, c.telefone, c.email, c.endereco, c.cpfCnpj) " +
+           "FROM Clientes c ORDER BY c.id")
+    List<ClienteResumoDTO> listarResumos();
+
+    @Query("SELECT new backend.loja_backend.dto.ClienteResumoDTO(c.id, c.nome, c.telefone, c.email, c.endereco, c.cpfCnpj) " +
+           "FROM Clientes c WHERE c.id = :id")
+    Optional<ClienteResumoDTO> buscarResumo(@Param("id") Long id);
+
+    // Prefixo (já em minúsculas, com % no fim) em nome, e-mail ou telefone; digitos, quando o
+    // termo é numérico, também por prefixo do documento. No PostgreSQL cada LIKE tem índice (V9).
+    @Query("SELECT new backend.loja_backend.dto.ClienteResumoDTO(c.id, c.nome, c.telefone, c.email, c.endereco, c.cpfCnpj) " +
+           "FROM Clientes c " +
+           "WHERE :prefixo IS NULL " +
+           "   OR LOWER(c.nome) LIKE :prefixo ESCAPE '\\' " +
+           "   OR LOWER(c.email) LIKE :prefixo ESCAPE '\\' " +
+           "   OR c.telefone LIKE :prefixo ESCAPE '\\' " +
+           "   OR c.cpfCnpjDigitos LIKE :digitos " +
+           "ORDER BY c.nome, c.id")
+    Slice<ClienteResumoDTO> buscarPorPrefixo(@Param("prefixo") String prefixo, @Param("digitos") String digitos,
+                                             Pageable pageable);
+
+    @Query("SELECT new backend.loja_backend.dto.ClienteResumoDTO(c.id, c.nome, c.telefone, c.email, c.endereco, c.cpfCnpj) " +
+           "FROM Clientes c WHERE c.cpfCnpjDigitos = :digitos")
+    Optional<ClienteResumoDTO> buscarPorDocumento(@Param("digitos") String digitos);
+
+    @Query("SELECT COUNT(c) > 0 FROM Clientes c WHERE c.cpfCnpjDigitos = :digitos AND (:id IS NULL OR c.id <> :id)")
+    boolean documentoEmUso(@Param("digitos") String digitos, @Param("id") Long id);
+
+    // Gravados depois da versão "desde" (sincronização incremental), em ordem de versão
+    @Query("SELECT c FROM Clientes c WHERE c.versaoSync > :desde AND c.versaoSync <= :ate ORDER BY c.versaoSync")
+    List<Clientes> alteradosEntre(@Param("desde") long desde, @Param("ate") long ate, Limit limite);
+}
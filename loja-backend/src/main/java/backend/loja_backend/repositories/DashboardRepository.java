@@ -13,14 +13,94 @@ import backend.loja_backend.entity.PDV.entity.OrdemVenda;
 // Substitua Long pelo tipo da sua entidade OrdemVenda id, se for diferente
 public interface DashboardRepository extends CrudRepository<OrdemVenda, Long> {
 
-    // JPQL usando a entity "OrdemVenda" e seus campos (ajuste nomes se necessário)
-    @Query("SELECT o.formaPagamento AS forma, SUM(o.valorTotal) AS total " +
-           "FROM OrdemVenda o " +
-           "WHERE o.status = 'FINALIZADA' " +
-           "AND o.dataVenda BETWEEN :start AND :end " +
-           "GROUP BY o.formaPagamento")
-    List<FormaTotalProjection> sumByFormaBetween(@Param("start") LocalDateTime start,
-                                                 @Param("end") LocalDateTime end);
+    // Primeira e última venda contando o arquivo (cada MIN/MAX sai do índice de data_venda)
+    @Query(value = "SELECT MIN(v.data_venda) FROM (SELECT MIN(data_venda) AS data_venda FROM ordem_venda " +
+                   "UNION ALL SELECT MIN(data_venda) FROM ordem_venda_arquivo) v",
+           nativeQuery = true)
+    LocalDateTime primeiraVenda();
+
+    @Query(value = "SELECT MAX(v.data_venda) FROM (SELECT MAX(data_venda) AS data_venda FROM ordem_venda " +
+                   "UNION ALL SELECT MAX(data_venda) FROM ordem_venda_arquivo) v",
+           nativeQuery = true)
+    LocalDateTime ultimaVenda();
+
+    // Contagens e estoque numa única ida ao banco (uma varredura de produtos + dois COUNT)
+    @Query(value = "SELECT p.total AS produtos, p.valor AS valorEstoque, p.baixo AS estoqueBaixo, " +
+                   "(SELECT COUNT(*) FROM clientes) AS clientes, (SELECT COUNT(*) FROM servicos) AS servicos " +
+                   "FROM (SELECT COUNT(*) AS total, " +
+                   "COALESCE(SUM(preco_custo * quantidade_estoque), 0) AS valor, " +
+                   "COALESCE(SUM(CASE WHEN quantidade_estoque <= :limite THEN 1 ELSE 0 END), 0) AS baixo " +
+                   "FROM produtos) p",
+           nativeQuery = true)
+    ResumoCadastrosProjection resumoCadastros(@Param("limite") int limiteEstoqueBaixo);
+
+    // Série por hora direto de ordem_venda e do arquivo (o rollup é diário); unidades somadas por ordem antes de agrupar
+    @Query(value = "SELECT s.inicio AS inicio, s.vendas AS vendas, s.unidades AS unidades, s.receita AS receita, " +
+                   "       SUM(s.receita) OVER (ORDER BY s.inicio) AS receitaAcumulada " +
+                   "FROM (SELECT date_trunc('hour', o.data_venda) AS inicio, COUNT(*) AS vendas, " +
+                   "             SUM(o.unidades) AS unidades, SUM(o.valor_total) AS receita " +
+                   "      FROM (SELECT ov.data_venda, ov.valor_total, COALESCE(SUM(i.quantidade), 0) AS unidades " +
+                   "            FROM ordem_venda ov LEFT JOIN itens_vendas i ON i.ordem_venda_id = ov.id " +
+                   "            WHERE ov.status = 'FINALIZADA' AND ov.data_venda >= :inicio AND ov.data_venda < :fim " +
+                   "            GROUP BY ov.id, ov.data_venda, ov.valor_total " +
+                   "            UNION ALL " +
+                   "            SELECT oa.data_venda, oa.valor_total, COALESCE(SUM(ia.quantidade), 0) " +
+                   "            FROM ordem_venda_arquivo oa LEFT JOIN itens_vendas_arquivo ia ON ia.ordem_venda_id = oa.id " +
+                   "            WHERE oa.status = 'FINALIZADA' AND oa.data_venda >= :inicio AND oa.data_venda < :fim " +
+                   "            GROUP BY oa.id, oa.data_venda, oa.valor_total) o " +
+                   "      GROUP BY date_trunc('hour', o.data_venda)) s " +
+                   "ORDER BY s.inicio",
+           nativeQuery = true)
+    List<PontoSerieProjection> seriePorHora(@Param("inicio") LocalDateTime inicio,
+                                            @Param("fim") LocalDateTime fim);
+
+    // Ranking por receita dos itens, das vendas e do arquivo; a participação usa o total de todos os
+    // produtos (antes do LIMIT). Produto já removido do cadastro aparece com o nome guardado no arquivo
+    @Query(value = "SELECT RANK() OVER (ORDER BY r.receita DESC) AS posicao, r.produto_id AS produtoId, " +
+                   "       COALESCE(p.nome, r.nome) AS nome, r.unidades AS unidades, r.receita AS receita, " +
+                   "       r.receita / NULLIF(SUM(r.receita) OVER (), 0) AS participacao " +
+                   "FROM (SELECT v.produto_id, MAX(v.nome) AS nome, SUM(v.quantidade) AS unidades, " +
+                   "             SUM(v.preco_unitario * v.quantidade) AS receita " +
+                   "      FROM (SELECT i.produto_id, CAST(NULL AS VARCHAR(255)) AS nome, i.quantidade, i.preco_unitario " +
+                   "            FROM itens_vendas i JOIN ordem_venda o ON o.id = i.ordem_venda_id " +
+                   "            WHERE o.status = 'FINALIZADA' AND o.data_venda >= :inicio AND o.data_venda < :fim " +
+                   "            UNION ALL " +
+                   "            SELECT ia.produto_id, ia.produto_nome, ia.quantidade, ia.preco_unitario " +
+                   "            FROM itens_vendas_arquivo ia JOIN ordem_venda_arquivo oa ON oa.id = ia.ordem_venda_id " +
+                   "            WHERE oa.status = 'FINALIZADA' AND oa.data_venda >= :inicio AND oa.data_venda < :fim) v " +
+                   "      GROUP BY v.produto_id) r " +
+                   "LEFT JOIN produtos p ON p.id = r.produto_id " +
+                   "ORDER BY r.receita DESC, r.produto_id " +
+                   "LIMIT :limite",
+           nativeQuery = true)
+    List<TopProdutoProjection> topProdutos(@Param("inicio") LocalDateTime inicio,
+                                           @Param("fim") LocalDateTime fim,
+                                           @Param("limite") int limite);
+
+    interface PontoSerieProjection {
+        LocalDateTime getInicio();
+        Long getVendas();
+        Long getUnidades();
+        BigDecimal getReceita();
+        BigDecimal getReceitaAcumulada();
+    }
+
+    interface TopProdutoProjection {
+        Integer getPosicao();
+        Long getProdutoId();
+        String getNome();
+        Long getUnidades();
+        BigDecimal getReceita();
+        BigDecimal getParticipacao();
+    }
+
+    interface ResumoCadastrosProjection {
+        Long getProdutos();
+        BigDecimal getValorEstoque();
+        Long getEstoqueBaixo();
+        Long getClientes();
+        Long getServicos();
+    }
 
     interface FormaTotalProjection {
         String getForma();
@@ -0,0 +1,78 @@
+package backend.loja_backend.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import backend.loja_backend.entity.OutboxEvento;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvento, Long> {
+
+    /**
+     * Próximo lote a entregar, em ordem de id: pendentes já na hora da tentativa e sem evento
+     * anterior do mesmo agregado ainda não entregue (pendente, travado por outra instância ou
+     * não, ou FALHOU). Cada agregado entra no lote só com o seu evento mais antigo; o seguinte
+     * sai no próximo lote, depois do commit deste. Depois de um FALHOU os seguintes do agregado
+     * ficam retidos: uma exclusão não pode ser aplicada sem a venda.
+     * As linhas ficam travadas até o fim da transação; outra instância pula as travadas
+     * (SKIP LOCKED, lock.timeout -2) em vez de esperar, e a regra acima a impede de passar
+     * na frente delas com um evento posterior do mesmo agregado.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvento e " +
+           "WHERE e.status = backend.loja_backend.entity.OutboxEvento.Status.PENDENTE " +
+           "AND e.proximaTentativa <= :agora " +
+           "AND NOT EXISTS (SELECT 1 FROM OutboxEvento a " +
+           "                WHERE a.agregadoId = e.agregadoId " +
+           "                AND a.status IN (backend.loja_backend.entity.OutboxEvento.Status.PENDENTE, " +
+           "                                 backend.loja_backend.entity.OutboxEvento.Status.FALHOU) " +
+           "                AND a.id < e.id) " +
+           "ORDER BY e.id")
+    List<OutboxEvento> travarProximos(@Param("agora") LocalDateTime agora, Limit limite);
+
+    /**
+     * Eventos destes tipos ainda não entregues (pendentes ou FALHOU), travados até o fim da
+     * transação. Sem SKIP LOCKED: espera a entrega em curso terminar; depois a entrega pula
+     * estes eventos até o commit de quem travou.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvento e " +
+           "WHERE e.tipo IN :tipos AND e.status <> backend.loja_backend.entity.OutboxEvento.Status.ENTREGUE " +
+           "ORDER BY e.id")
+    List<OutboxEvento> travarNaoEntregues(@Param("tipos") Collection<String> tipos);
+
+    // Eventos do tipo ainda não entregues cujo agregado não tem também um evento do tipo anterior sem entregar
+    @Query("SELECT e FROM OutboxEvento e " +
+           "WHERE e.tipo = :tipo AND e.status <> backend.loja_backend.entity.OutboxEvento.Status.ENTREGUE " +
+           "AND NOT EXISTS (SELECT 1 FROM OutboxEvento a " +
+           "                WHERE a.agregadoId = e.agregadoId AND a.tipo = :anterior " +
+           "                AND a.status <> backend.loja_backend.entity.OutboxEvento.Status.ENTREGUE) " +
+           "ORDER BY e.id")
+    List<OutboxEvento> buscarNaoEntreguesSemAnterior(@Param("tipo") String tipo, @Param("anterior") String anterior);
+
+    // Só marca o que ainda está pendente: a contagem diz se alguém entregou antes
+    @Modifying
+    @Query("UPDATE OutboxEvento e SET e.status = backend.loja_backend.entity.OutboxEvento.Status.ENTREGUE, " +
+           "e.processadoEm = :agora, e.tentativas = e.tentativas + 1, e.erro = NULL " +
+           "WHERE e.id IN :ids AND e.status = backend.loja_backend.entity.OutboxEvento.Status.PENDENTE")
+    int marcarEntregues(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+
+    @Query("SELECT COUNT(e) FROM OutboxEvento e WHERE e.status = backend.loja_backend.entity.OutboxEvento.Status.PENDENTE")
+    long contarPendentes();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvento e WHERE e.status = backend.loja_backend.entity.OutboxEvento.Status.ENTREGUE " +
+           "AND e.processadoEm < :antesDe")
+    int apagarEntreguesAntesDe(@Param("antesDe") LocalDateTime antesDe);
+}
@@ -1,8 +1,47 @@
 package backend.loja_backend.repositories;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import backend.loja_backend.dto.ProdutoResumoDTO;
 import backend.loja_backend.entity.Produtos;
+import jakarta.persistence.LockModeType;
+
+public interface ProdutoRepository extends JpaRepository<Produtos, Long>, ProdutoRepositoryCustom {
+
+    // SELECT ... FOR UPDATE em ordem de id: vendas concorrentes bloqueiam na mesma sequência
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Produtos p WHERE p.id IN :ids ORDER BY p.id")
+    List<Produtos> bloquearParaBaixa(@Param("ids") Collection<Long> ids);
+
+    // Leituras do catálogo em DTO (alimentam o cache sem passar pelo persistence context)
+    @Query("SELECT new backend.loja_backend.dto.ProdutoResumoDTO(p.id, p.nome, p.descricao, p.precoCusto, p.precoVenda, p.quantidadeEstoque) " +
+           "FROM Produtos p ORDER BY p.id")
+    List<ProdutoResumoDTO> listarResumos();
+
+    @Query("SELECT new backend.loja_backend.dto.ProdutoResumoDTO(p.id, p.nome, p.descricao, p.precoCusto, p.precoVenda, p.quantidadeEstoque) " +
+           "FROM Produtos p WHERE p.id IN :ids")
+    List<ProdutoResumoDTO> buscarResumos(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.quantidadeEstoque AS quantidade, p.estoqueVersao AS versao FROM Produtos p WHERE p.id IN :ids")
+    List<EstoqueProjection> buscarEstoques(@Param("ids") Collection<Long> ids);
+
+    interface EstoqueProjection {
+        Long getId();
+        Integer getQuantidade();
+        Long getVersao();
+    }
+
+    // Ids em ordem crescente, em páginas (jobs que percorrem o catálogo inteiro)
+    @Query("SELECT p.id FROM Produtos p WHERE p.id > :depois ORDER BY p.id")
+    List<Long> buscarIdsDepoisDe(@Param("depois") long depois, Limit limite);
 
-public interface ProdutoRepository extends JpaRepository<Produtos, Long> {
-    
+    // Gravados depois da versão "desde" (sincronização incremental), em ordem de versão
+    @Query("SELECT p FROM Produtos p WHERE p.versaoSync > :desde AND p.versaoSync <= :ate ORDER BY p.versaoSync")
+    List<Produtos> alteradosEntre(@Param("desde") long desde, @Param("ate") long ate, Limit limite);
 }
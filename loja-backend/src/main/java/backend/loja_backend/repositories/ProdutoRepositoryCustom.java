@@ -0,0 +1,26 @@
+package backend.loja_backend.repositories;
+
+import java.util.List;
+import java.util.SortedMap;
+
+public interface ProdutoRepositoryCustom {
+
+    /**
+     * Dá baixa no estoque de vários produtos num único batch JDBC. Cada linha só é
+     * decrementada se houver saldo suficiente; os locks são tomados na ordem crescente
+     * de id (ordem do mapa), evitando deadlock entre vendas concorrentes. Cada linha
+     * baixada recebe a versão de sincronização correspondente (uma por produto, na ordem do mapa)
+     * e avança estoque_versao pelo número de movimentos que quem chama vai gravar para ela.
+     *
+     * @return ids dos produtos que não puderam ser baixados (inexistentes ou sem saldo)
+     */
+    List<Long> baixarEstoque(SortedMap<Long, Integer> quantidadesPorProduto, long[] versoesSync, int[] movimentos);
+
+    /**
+     * Soma a quantidade (com sinal) ao saldo de um produto e avança estoque_versao em um, num
+     * único UPDATE que não deixa o saldo ficar negativo.
+     *
+     * @return false se o produto não existe ou o saldo ficaria negativo
+     */
+    boolean movimentarEstoque(Long produtoId, int quantidade, long versaoSync);
+}
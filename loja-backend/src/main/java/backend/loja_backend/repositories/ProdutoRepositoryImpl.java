@@ -0,0 +1,62 @@
+package backend.loja_backend.repositories;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ProdutoRepositoryImpl implements ProdutoRepositoryCustom {
+
+    private static final String SQL_BAIXA_ESTOQUE =
+            "UPDATE produtos SET quantidade_estoque = quantidade_estoque - ?, " +
+            "estoque_versao = estoque_versao + ?, versao_sync = ? " +
+            "WHERE id = ? AND quantidade_estoque >= ?";
+
+    private static final String SQL_MOVIMENTA_ESTOQUE =
+            "UPDATE produtos SET quantidade_estoque = COALESCE(quantidade_estoque, 0) + ?, " +
+            "estoque_versao = estoque_versao + 1, versao_sync = ? " +
+            "WHERE id = ? AND COALESCE(quantidade_estoque, 0) + ? >= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> baixarEstoque(SortedMap<Long, Integer> quantidadesPorProduto, long[] versoesSync, int[] movimentos) {
+        if (quantidadesPorProduto.isEmpty()) {
+            return List.of();
+        }
+        List<Map.Entry<Long, Integer>> linhas = new ArrayList<>(quantidadesPorProduto.entrySet());
+
+        Map<Long, Integer> indices = new HashMap<>();
+        for (int i = 0; i < linhas.size(); i++) {
+            indices.put(linhas.get(i).getKey(), i);
+        }
+
+        int[] atualizados = jdbcTemplate.batchUpdate(SQL_BAIXA_ESTOQUE, linhas, linhas.size(), (ps, linha) -> {
+            int i = indices.get(linha.getKey());
+            ps.setInt(1, linha.getValue());
+            ps.setInt(2, movimentos[i]);
+            ps.setLong(3, versoesSync[i]);
+            ps.setLong(4, linha.getKey());
+            ps.setInt(5, linha.getValue());
+        })[0];
+
+        List<Long> semSaldo = new ArrayList<>();
+        for (int i = 0; i < atualizados.length; i++) {
+            if (atualizados[i] == 0) {
+                semSaldo.add(linhas.get(i).getKey());
+            }
+        }
+        return semSaldo;
+    }
+
+    @Override
+    public boolean movimentarEstoque(Long produtoId, int quantidade, long versaoSync) {
+        return jdbcTemplate.update(SQL_MOVIMENTA_ESTOQUE, quantidade, versaoSync, produtoId, quantidade) > 0;
+    }
+}
@@ -0,0 +1,19 @@
+package backend.loja_backend.repositories;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import backend.loja_backend.entity.RemocaoSincronizada;
+
+public interface RemocaoSincronizadaRepository extends JpaRepository<RemocaoSincronizada, Long> {
+
+    // início do próximo bloco de 50 versões (a sequence anda de 50 em 50)
+    @Query(value = "SELECT nextval('sync_versao_seq')", nativeQuery = true)
+    long proximoBlocoVersoes();
+
+    @Query("SELECT r FROM RemocaoSincronizada r WHERE r.versaoSync > :desde AND r.versaoSync <= :ate ORDER BY r.versaoSync")
+    List<RemocaoSincronizada> removidasEntre(@Param("desde") long desde, @Param("ate") long ate, Limit limite);
+}
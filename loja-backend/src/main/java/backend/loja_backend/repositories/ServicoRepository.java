@@ -1,8 +1,27 @@
 package backend.loja_backend.repositories;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import backend.loja_backend.dto.ServicoResumoDTO;
 import backend.loja_backend.entity.Servicos;
 
 public interface ServicoRepository extends JpaRepository<Servicos, Long> {
 
-}
\ No newline at end of file
+    // Leituras em DTO: sem entidade gerenciada, sem dirty-checking no flush
+    @Query("SELECT new backend.loja_backend.dto.ServicoResumoDTO(s.id, s.nome, s.descricao, s.valorBase, s.categoria) " +
+           "FROM Servicos s ORDER BY s.id")
+    List<ServicoResumoDTO> listarResumos();
+
+    @Query("SELECT new backend.loja_backend.dto.ServicoResumoDTO(s.id, s.nome, s.descricao, s.valorBase, s.categoria) " +
+           "FROM Servicos s WHERE s.id = :id")
+    Optional<ServicoResumoDTO> buscarResumo(@Param("id") Long id);
+
+    // Gravados depois da versão "desde" (sincronização incremental), em ordem de versão
+    @Query("SELECT s FROM Servicos s WHERE s.versaoSync > :desde AND s.versaoSync <= :ate ORDER BY s.versaoSync")
+    List<Servicos> alteradosEntre(@Param("desde") long desde, @Param("ate") long ate, Limit limite);
+}
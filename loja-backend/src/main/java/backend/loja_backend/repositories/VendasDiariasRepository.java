@@ -0,0 +1,101 @@
+package backend.loja_backend.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import backend.loja_backend.entity.VendasDiarias;
+
+public interface VendasDiariasRepository extends JpaRepository<VendasDiarias, VendasDiarias.Chave> {
+
+    @Query("SELECT v.formaPagamento AS forma, SUM(v.total) AS total " +
+           "FROM VendasDiarias v " +
+           "WHERE v.status = 'FINALIZADA' " +
+           "AND v.dia BETWEEN :start AND :end " +
+           "GROUP BY v.formaPagamento")
+    List<DashboardRepository.FormaTotalProjection> sumByFormaBetween(@Param("start") LocalDate start,
+                                                                     @Param("end") LocalDate end);
+
+    // Séries do dashboard por dia e por semana, direto do rollup (no máximo uma linha por dia/forma)
+    @Query(value = "SELECT s.inicio AS inicio, s.vendas AS vendas, s.unidades AS unidades, s.receita AS receita, " +
+                   "       SUM(s.receita) OVER (ORDER BY s.inicio) AS receitaAcumulada " +
+                   "FROM (SELECT CAST(v.dia AS TIMESTAMP) AS inicio, SUM(v.quantidade) AS vendas, " +
+                   "             SUM(v.unidades) AS unidades, SUM(v.total) AS receita " +
+                   "      FROM vendas_diarias v " +
+                   "      WHERE v.status = 'FINALIZADA' AND v.dia BETWEEN :start AND :end " +
+                   "      GROUP BY CAST(v.dia AS TIMESTAMP)) s " +
+                   "ORDER BY s.inicio",
+           nativeQuery = true)
+    List<DashboardRepository.PontoSerieProjection> seriePorDia(@Param("start") LocalDate start,
+                                                               @Param("end") LocalDate end);
+
+    // semana ISO (começa na segunda-feira) calculada pelo ISODOW: o date_trunc('week') do H2 começa no domingo
+    @Query(value = "SELECT s.inicio AS inicio, s.vendas AS vendas, s.unidades AS unidades, s.receita AS receita, " +
+                   "       SUM(s.receita) OVER (ORDER BY s.inicio) AS receitaAcumulada " +
+                   "FROM (SELECT CAST(v.dia AS TIMESTAMP) - (EXTRACT(ISODOW FROM v.dia) - 1) * INTERVAL '1' DAY AS inicio, " +
+                   "             SUM(v.quantidade) AS vendas, " +
+                   "             SUM(v.unidades) AS unidades, SUM(v.total) AS receita " +
+                   "      FROM vendas_diarias v " +
+                   "      WHERE v.status = 'FINALIZADA' AND v.dia BETWEEN :start AND :end " +
+                   "      GROUP BY CAST(v.dia AS TIMESTAMP) - (EXTRACT(ISODOW FROM v.dia) - 1) * INTERVAL '1' DAY) s " +
+                   "ORDER BY s.inicio",
+           nativeQuery = true)
+    List<DashboardRepository.PontoSerieProjection> seriePorSemana(@Param("start") LocalDate start,
+                                                                  @Param("end") LocalDate end);
+
+    // Incremento atômico da linha do dia (o lock da linha dura só até o commit da venda)
+    @Modifying
+    @Query(value = "UPDATE vendas_diarias SET quantidade = quantidade + :quantidade, " +
+                   "unidades = unidades + :unidades, total = total + :valor " +
+                   "WHERE dia = :dia AND forma_pagamento = :forma AND status = :status",
+           nativeQuery = true)
+    int acumular(@Param("dia") LocalDate dia, @Param("forma") String forma, @Param("status") String status,
+                 @Param("quantidade") long quantidade, @Param("unidades") long unidades,
+                 @Param("valor") BigDecimal valor);
+
+    // Cria a linha zerada se ainda não existir; seguro com vendas concorrentes no mesmo dia
+    @Modifying
+    @Query(value = "INSERT INTO vendas_diarias (dia, forma_pagamento, status, quantidade, unidades, total) " +
+                   "VALUES (:dia, :forma, :status, 0, 0, 0) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int criarSeAusente(@Param("dia") LocalDate dia, @Param("forma") String forma, @Param("status") String status);
+
+    @Query("SELECT MIN(v.dia) FROM VendasDiarias v")
+    LocalDate primeiroDia();
+
+    @Modifying
+    @Query(value = "DELETE FROM vendas_diarias WHERE dia BETWEEN :start AND :end", nativeQuery = true)
+    int deletarEntre(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Backfill a partir de ordem_venda e do arquivo para o intervalo de dias informado
+    // (subconsulta soma as unidades por ordem antes de agrupar por dia, sem duplicar valor_total).
+    // Vendas com venda-criada ainda não entregue ficam de fora: o RollupVendasHandler soma na entrega.
+    @Modifying
+    @Query(value = "INSERT INTO vendas_diarias (dia, forma_pagamento, status, quantidade, unidades, total) " +
+                   "SELECT CAST(o.data_venda AS DATE), COALESCE(o.forma_pagamento, ''), COALESCE(o.status, ''), " +
+                   "       COUNT(*), SUM(o.unidades), SUM(o.valor_total) " +
+                   "FROM (SELECT ov.data_venda, ov.forma_pagamento, ov.status, ov.valor_total, " +
+                   "             COALESCE(SUM(i.quantidade), 0) AS unidades " +
+                   "      FROM ordem_venda ov LEFT JOIN itens_vendas i ON i.ordem_venda_id = ov.id " +
+                   "      WHERE ov.data_venda >= :inicio AND ov.data_venda < :fim " +
+                   "      AND NOT EXISTS (SELECT 1 FROM outbox_eventos e WHERE e.agregado_id = ov.id " +
+                   "                      AND e.tipo = 'venda-criada' AND e.status <> 'ENTREGUE') " +
+                   "      GROUP BY ov.id, ov.data_venda, ov.forma_pagamento, ov.status, ov.valor_total " +
+                   "      UNION ALL " +
+                   "      SELECT oa.data_venda, oa.forma_pagamento, oa.status, oa.valor_total, " +
+                   "             COALESCE(SUM(ia.quantidade), 0) " +
+                   "      FROM ordem_venda_arquivo oa LEFT JOIN itens_vendas_arquivo ia ON ia.ordem_venda_id = oa.id " +
+                   "      WHERE oa.data_venda >= :inicio AND oa.data_venda < :fim " +
+                   "      AND NOT EXISTS (SELECT 1 FROM outbox_eventos e WHERE e.agregado_id = oa.id " +
+                   "                      AND e.tipo = 'venda-criada' AND e.status <> 'ENTREGUE') " +
+                   "      GROUP BY oa.id, oa.data_venda, oa.forma_pagamento, oa.status, oa.valor_total) o " +
+                   "GROUP BY CAST(o.data_venda AS DATE), COALESCE(o.forma_pagamento, ''), COALESCE(o.status, '')",
+           nativeQuery = true)
+    int reconstruirEntre(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+}
@@ -0,0 +1,159 @@
+package backend.loja_backend.services;
+
+import java.math.BigDecimal;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import backend.loja_backend.dto.ProdutoResumoDTO;
+import backend.loja_backend.entity.Produtos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache em memória do catálogo. Os dados cadastrais (nome, descrição, preços) e o estoque
+ * ficam em caches separados: uma venda só invalida o estoque, nunca o nome/preço.
+ *
+ * Toda alteração avança uma geração antes de mexer no cache. Quem carrega do banco anota a
+ * geração antes da consulta e, depois de guardar, confere: se ela mudou no meio, o que foi
+ * lido pode ser anterior à alteração e sai do cache de novo, em vez de ficar até o TTL.
+ */
+@Component
+public class CatalogoProdutosCache implements MeterBinder {
+
+    private static final String CHAVE_CATALOGO = "todos";
+
+    // Cópia imutável dos campos que quase não mudam
+    record DadosProduto(Long id, String nome, String descricao, BigDecimal precoCusto, BigDecimal precoVenda) {
+
+        static DadosProduto de(Produtos p) {
+            return new DadosProduto(p.getId(), p.getNome(), p.getDescricao(), p.getPrecoCusto(), p.getPrecoVenda());
+        }
+
+        static DadosProduto de(ProdutoResumoDTO p) {
+            return new DadosProduto(p.getId(), p.getNome(), p.getDescricao(), p.getPrecoCusto(), p.getPrecoVenda());
+        }
+
+        ProdutoResumoDTO comEstoque(Integer quantidade) {
+            return new ProdutoResumoDTO(id, nome, descricao, precoCusto, precoVenda, quantidade);
+        }
+    }
+
+    private final Cache<Long, DadosProduto> dados;
+    private final Cache<Long, Integer> estoque;
+    // ids do catálogo completo, na ordem da listagem
+    private final Cache<String, List<Long>> catalogo;
+    private final AtomicLong geracao = new AtomicLong();
+
+    public CatalogoProdutosCache(@Value("${catalogo.cache.tamanho-maximo:100000}") long tamanhoMaximo,
+                                 @Value("${catalogo.cache.ttl:10m}") Duration ttl,
+                                 @Value("${catalogo.cache.ttl-estoque:30s}") Duration ttlEstoque) {
+        this.dados = Caffeine.newBuilder().maximumSize(tamanhoMaximo).expireAfterWrite(ttl).recordStats().build();
+        this.estoque = Caffeine.newBuilder().maximumSize(tamanhoMaximo).expireAfterWrite(ttlEstoque).recordStats().build();
+        this.catalogo = Caffeine.newBuilder().maximumSize(1).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    // Acertos, faltas e remoções de cada cache em /actuator/prometheus (cache_gets_total etc.)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, dados, "catalogo.dados");
+        CaffeineCacheMetrics.monitor(registry, estoque, "catalogo.estoque");
+        CaffeineCacheMetrics.monitor(registry, catalogo, "catalogo.lista");
+    }
+
+    List<Long> idsDoCatalogo() {
+        return catalogo.getIfPresent(CHAVE_CATALOGO);
+    }
+
+    // Anotar antes de ler do banco o que vai ser guardado
+    long geracao() {
+        return geracao.get();
+    }
+
+    void guardarCatalogo(List<ProdutoResumoDTO> produtos, long lidoNaGeracao) {
+        produtos.forEach(p -> guardar(p, lidoNaGeracao));
+        catalogo.put(CHAVE_CATALOGO, produtos.stream().map(ProdutoResumoDTO::getId).toList());
+        if (geracao.get() != lidoNaGeracao) {
+            catalogo.invalidateAll();
+        }
+    }
+
+    void guardar(ProdutoResumoDTO produto, long lidoNaGeracao) {
+        dados.put(produto.getId(), DadosProduto.de(produto));
+        guardarEstoque(produto.getId(), produto.getQuantidadeEstoque(), lidoNaGeracao);
+        if (geracao.get() != lidoNaGeracao) {
+            dados.invalidate(produto.getId());
+        }
+    }
+
+    void guardarEstoque(Long id, Integer quantidade, long lidoNaGeracao) {
+        if (quantidade != null) {
+            estoque.put(id, quantidade);
+            if (geracao.get() != lidoNaGeracao) {
+                estoque.invalidate(id);
+            }
+        }
+    }
+
+    // Produto recém-gravado (depois do commit): passa na frente de cargas ainda em andamento.
+    // Só o cadastro: o saldo da entidade foi lido antes do commit e uma venda no meio o deixaria velho
+    void guardar(Produtos produto) {
+        geracao.incrementAndGet();
+        dados.put(produto.getId(), DadosProduto.de(produto));
+    }
+
+    Map<Long, DadosProduto> dados(Collection<Long> ids) {
+        return dados.getAllPresent(ids);
+    }
+
+    Map<Long, Integer> estoques(Collection<Long> ids) {
+        return estoque.getAllPresent(ids);
+    }
+
+    // Produto criado ou removido: a lista de ids muda
+    void invalidarCatalogo() {
+        geracao.incrementAndGet();
+        catalogo.invalidateAll();
+    }
+
+    void invalidar(Long id) {
+        geracao.incrementAndGet();
+        dados.invalidate(id);
+        estoque.invalidate(id);
+    }
+
+    void invalidarEstoque(Collection<Long> ids) {
+        geracao.incrementAndGet();
+        estoque.invalidateAll(ids);
+    }
+
+    void invalidarTudo() {
+        geracao.incrementAndGet();
+        catalogo.invalidateAll();
+        dados.invalidateAll();
+        estoque.invalidateAll();
+    }
+
+    public CacheStats estatisticasDados() {
+        return dados.stats();
+    }
+
+    public CacheStats estatisticasEstoque() {
+        return estoque.stats();
+    }
+
+    public CacheStats estatisticasCatalogo() {
+        return catalogo.stats();
+    }
+}
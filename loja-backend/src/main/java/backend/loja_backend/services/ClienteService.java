@@ -1,52 +1,146 @@
 package backend.loja_backend.services;
 
 import backend.loja_backend.dto.ClienteDTO;
+import backend.loja_backend.dto.ClientePaginaDTO;
+import backend.loja_backend.dto.ClienteResumoDTO;
 import backend.loja_backend.entity.Clientes;
 import backend.loja_backend.repositories.ClienteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.annotation.Timed;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
+@Timed(value = "loja.servicos", histogram = true)
 public class ClienteService {
+
+    static final int TAMANHO_PAGINA_PADRAO = 20;
+    static final int TAMANHO_PAGINA_MAXIMO = 100;
+    // CPF ou CNPJ já sem máscara
+    private static final String DOCUMENTO = "\\d{11}|\\d{14}";
     
     @Autowired
     private ClienteRepository clienteRepositorie;
+
+    @Autowired
+    private VersaoCatalogo versaoCatalogo;
+
+    @Autowired
+    private SincronizacaoService sincronizacao;
     
-    public List<Clientes> listarTodos() {
-        return clienteRepositorie.findAll();
+    @Transactional(readOnly = true)
+    public List<ClienteResumoDTO> listarTodos() {
+        return clienteRepositorie.listarResumos();
     }
     
-    public Optional<Clientes> buscarPorId(Long id) {
-        return clienteRepositorie.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<ClienteResumoDTO> buscarPorId(Long id) {
+        return clienteRepositorie.buscarResumo(id);
     }
     
+    /**
+     * Busca para escolher o cliente no balcão: prefixo de nome, e-mail ou telefone (sem
+     * diferenciar maiúsculas) e, se o termo for numérico, prefixo do CPF/CNPJ. Ordem por nome.
+     */
+    @Transactional(readOnly = true)
+    public ClientePaginaDTO buscar(String q, Integer page, Integer size) {
+        int pagina = page == null || page < 0 ? 0 : page;
+        int tamanho = size == null || size <= 0 ? TAMANHO_PAGINA_PADRAO : Math.min(size, TAMANHO_PAGINA_MAXIMO);
+        String termo = q != null && !q.isBlank() ? q.trim() : null;
+
+        String prefixo = termo != null ? escaparLike(termo.toLowerCase(Locale.ROOT)) + "%" : null;
+        // "123.456" procura pelo documento; nome com dígito no meio não
+        String digitos = termo != null && termo.matches("[\\d./\\- ]+") ? Clientes.normalizarCpfCnpj(termo) : null;
+        Slice<ClienteResumoDTO> fatia = clienteRepositorie.buscarPorPrefixo(
+                prefixo, digitos != null ? digitos + "%" : null, PageRequest.of(pagina, tamanho));
+        return new ClientePaginaDTO(fatia.getContent(), pagina, tamanho, fatia.hasNext());
+    }
+
+    // Aceita o documento com ou sem máscara
+    @Transactional(readOnly = true)
+    public Optional<ClienteResumoDTO> buscarPorDocumento(String cpfCnpj) {
+        String digitos = Clientes.normalizarCpfCnpj(cpfCnpj);
+        if (digitos == null || !digitos.matches(DOCUMENTO)) {
+            throw new IllegalArgumentException("CPF/CNPJ deve ter 11 ou 14 dígitos");
+        }
+        return clienteRepositorie.buscarPorDocumento(digitos);
+    }
+
+    @Transactional
     public Clientes salvar(ClienteDTO cliente) {
+        validarDocumento(cliente.getCpfCnpj(), null);
         Clientes novoCliente = new Clientes();
         novoCliente.setNome(cliente.getNome());
         novoCliente.setTelefone(cliente.getTelefone());
         novoCliente.setEmail(cliente.getEmail());
         novoCliente.setEndereco(cliente.getEndereco());
         novoCliente.setCpfCnpj(cliente.getCpfCnpj());
-        return clienteRepositorie.save(novoCliente);
+        novoCliente.setVersaoSync(sincronizacao.reservarVersao());
+        Clientes salvo = clienteRepositorie.save(novoCliente);
+        versaoCatalogo.alterado(VersaoCatalogo.Catalogo.CLIENTES);
+        return salvo;
     }
     
+    /**
+     * Atualiza o cadastro. O documento só é conferido, e cpf_cnpj_digitos só é refeito, quando
+     * ele muda: cadastro antigo com documento fora do padrão, ou repetido (a V8 deixou os
+     * dígitos dele nulos), continua editável enquanto o documento fica como está.
+     */
+    @Transactional
     public Clientes atualizar(Long id, Clientes clienteAtualizado) {
         return clienteRepositorie.findById(id)
             .map(cliente -> {
+                if (!Objects.equals(cliente.getCpfCnpj(), clienteAtualizado.getCpfCnpj())) {
+                    validarDocumento(clienteAtualizado.getCpfCnpj(), id);
+                    cliente.setCpfCnpj(clienteAtualizado.getCpfCnpj());
+                    cliente.setCpfCnpjDigitos(Clientes.normalizarCpfCnpj(clienteAtualizado.getCpfCnpj()));
+                }
                 cliente.setNome(clienteAtualizado.getNome());
                 cliente.setTelefone(clienteAtualizado.getTelefone());
                 cliente.setEmail(clienteAtualizado.getEmail());
                 cliente.setEndereco(clienteAtualizado.getEndereco());
-                cliente.setCpfCnpj(clienteAtualizado.getCpfCnpj());
-                return clienteRepositorie.save(cliente);
+                cliente.setVersaoSync(sincronizacao.reservarVersao());
+                Clientes salvo = clienteRepositorie.save(cliente);
+                versaoCatalogo.alterado(VersaoCatalogo.Catalogo.CLIENTES);
+                return salvo;
             })
             .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
     }
     
+    @Transactional
     public void deletar(Long id) {
-        clienteRepositorie.deleteById(id);
+        clienteRepositorie.findById(id).ifPresent(registro -> {
+            clienteRepositorie.delete(registro);
+            clienteRepositorie.flush();
+            sincronizacao.registrarRemocao(VersaoCatalogo.Catalogo.CLIENTES, id);
+        });
+        versaoCatalogo.alterado(VersaoCatalogo.Catalogo.CLIENTES);
+    }
+
+    // Documento é opcional; quando vem, precisa ter tamanho de CPF/CNPJ e não pode ser de outro cliente
+    private void validarDocumento(String cpfCnpj, Long id) {
+        String digitos = Clientes.normalizarCpfCnpj(cpfCnpj);
+        if (digitos == null) {
+            return;
+        }
+        if (!digitos.matches(DOCUMENTO)) {
+            throw new IllegalArgumentException("CPF/CNPJ deve ter 11 ou 14 dígitos");
+        }
+        if (clienteRepositorie.documentoEmUso(digitos, id)) {
+            throw new IllegalStateException("CPF/CNPJ já cadastrado para outro cliente");
+        }
+    }
+
+    // % e _ digitados pelo usuário são texto, não curinga (escapados com barra invertida)
+    private static String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 }
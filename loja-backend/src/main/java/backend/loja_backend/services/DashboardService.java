@@ -0,0 +1,234 @@
+package backend.loja_backend.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import backend.loja_backend.dto.DashboardResumoDTO;
+import backend.loja_backend.dto.PontoSerieVendasDTO;
+import backend.loja_backend.dto.SerieVendasDTO;
+import backend.loja_backend.dto.TopProdutoDTO;
+import backend.loja_backend.repositories.DashboardRepository;
+import backend.loja_backend.repositories.VendasDiariasRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Service
+@Timed(value = "loja.servicos", histogram = true)
+public class DashboardService implements MeterBinder {
+
+    // séries por hora leem ordem_venda, não o rollup: o período fica limitado
+    static final int MAXIMO_DIAS_POR_HORA = 31;
+    static final int TOP_PADRAO = 10;
+    static final int TOP_MAXIMO = 100;
+
+    // Intervalos das séries: hora sai de ordem_venda, dia e semana do rollup vendas_diarias
+    public enum Intervalo {
+        HORA(ChronoUnit.HOURS), DIA(ChronoUnit.DAYS), SEMANA(ChronoUnit.WEEKS);
+
+        private final ChronoUnit unidade;
+
+        Intervalo(ChronoUnit unidade) {
+            this.unidade = unidade;
+        }
+
+        public static Intervalo de(String valor) {
+            try {
+                return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("intervalo deve ser hora, dia ou semana");
+            }
+        }
+    }
+
+    private record ChaveSerie(Intervalo intervalo, LocalDate inicio, LocalDate fim) {}
+
+    private record ChaveTop(LocalDate inicio, LocalDate fim, int limite) {}
+
+    private final DashboardRepository dashboardRepository;
+    private final VendasDiariasService vendasDiariasService;
+    private final VendasDiariasRepository vendasDiariasRepository;
+    private final int limiteEstoqueBaixoPadrao;
+    // séries e rankings já calculados, por período: o mesmo gráfico aberto em vários terminais vai ao banco uma vez
+    private final Cache<Object, Object> resultados;
+
+    public DashboardService(DashboardRepository dashboardRepository,
+                            VendasDiariasService vendasDiariasService,
+                            VendasDiariasRepository vendasDiariasRepository,
+                            @Value("${dashboard.estoque-baixo.limite:5}") int limiteEstoqueBaixoPadrao,
+                            @Value("${dashboard.cache.ttl:30s}") Duration ttlResultados,
+                            @Value("${dashboard.cache.tamanho-maximo:500}") long tamanhoMaximo) {
+        this.dashboardRepository = dashboardRepository;
+        this.vendasDiariasService = vendasDiariasService;
+        this.vendasDiariasRepository = vendasDiariasRepository;
+        this.limiteEstoqueBaixoPadrao = limiteEstoqueBaixoPadrao;
+        this.resultados = Caffeine.newBuilder().maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttlResultados).recordStats().build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, resultados, "dashboard.resultados");
+    }
+
+    /**
+     * Contagens, valor do estoque e produtos com estoque baixo (agregados no banco)
+     * mais os totais de vendas do período (rollup diário).
+     */
+    @Transactional(readOnly = true)
+    public DashboardResumoDTO resumo(LocalDate inicio, LocalDate fim, Integer limiteEstoqueBaixo) {
+        int limite = limiteEstoqueBaixo != null ? limiteEstoqueBaixo : limiteEstoqueBaixoPadrao;
+        DashboardRepository.ResumoCadastrosProjection cadastros = dashboardRepository.resumoCadastros(limite);
+
+        BigDecimal valorEstoque = cadastros.getValorEstoque() != null
+                ? cadastros.getValorEstoque().setScale(2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+        return new DashboardResumoDTO(
+                valorOuZero(cadastros.getProdutos()),
+                valorOuZero(cadastros.getClientes()),
+                valorOuZero(cadastros.getServicos()),
+                valorEstoque,
+                valorOuZero(cadastros.getEstoqueBaixo()),
+                limite,
+                inicio,
+                fim,
+                totais(inicio, fim));
+    }
+
+    /**
+     * Totais de vendas por forma de pagamento no período, com DINHEIRO, PIX e
+     * TOTAL_DINHEIRO_PIX sempre presentes.
+     */
+    public Map<String, BigDecimal> totais(LocalDate inicio, LocalDate fim) {
+        List<DashboardRepository.FormaTotalProjection> rows = vendasDiariasService.totaisPorForma(inicio, fim);
+
+        Map<String, BigDecimal> map = new HashMap<>();
+        for (var r : rows) {
+            String forma = r.getForma() != null && !r.getForma().isEmpty() ? r.getForma().toUpperCase() : "UNKNOWN";
+            BigDecimal total = r.getTotal() != null ? r.getTotal() : BigDecimal.ZERO;
+            map.merge(forma, total, BigDecimal::add);
+        }
+
+        // garantir chaves mesmo se não houver resultados
+        map.putIfAbsent("DINHEIRO", BigDecimal.ZERO);
+        map.putIfAbsent("PIX", BigDecimal.ZERO);
+        map.put("TOTAL_DINHEIRO_PIX", map.get("DINHEIRO").add(map.get("PIX")));
+        return map;
+    }
+
+    /**
+     * Receita, vendas, unidades e ticket médio das vendas finalizadas por hora, dia ou semana
+     * (semanas começam na segunda-feira). Intervalos sem venda entram zerados.
+     */
+    public SerieVendasDTO series(Intervalo intervalo, LocalDate inicio, LocalDate fim) {
+        validarPeriodo(inicio, fim);
+        if (intervalo == Intervalo.HORA && ChronoUnit.DAYS.between(inicio, fim) >= MAXIMO_DIAS_POR_HORA) {
+            throw new IllegalArgumentException("série por hora aceita no máximo " + MAXIMO_DIAS_POR_HORA + " dias");
+        }
+        return (SerieVendasDTO) resultados.get(new ChaveSerie(intervalo, inicio, fim),
+                chave -> calcularSerie(intervalo, inicio, fim));
+    }
+
+    /** Produtos com maior receita (precoUnitario × quantidade) nas vendas finalizadas do período. */
+    @SuppressWarnings("unchecked")
+    public List<TopProdutoDTO> topProdutos(LocalDate inicio, LocalDate fim, Integer limite) {
+        validarPeriodo(inicio, fim);
+        int n = limite != null ? Math.max(1, Math.min(limite, TOP_MAXIMO)) : TOP_PADRAO;
+        return (List<TopProdutoDTO>) resultados.get(new ChaveTop(inicio, fim, n),
+                chave -> calcularTopProdutos(inicio, fim, n));
+    }
+
+    private SerieVendasDTO calcularSerie(Intervalo intervalo, LocalDate inicio, LocalDate fim) {
+        List<DashboardRepository.PontoSerieProjection> linhas = switch (intervalo) {
+            case HORA -> dashboardRepository.seriePorHora(inicio.atStartOfDay(), fim.plusDays(1).atStartOfDay());
+            case DIA -> vendasDiariasRepository.seriePorDia(inicio, fim);
+            case SEMANA -> vendasDiariasRepository.seriePorSemana(inicio, fim);
+        };
+        Map<LocalDateTime, DashboardRepository.PontoSerieProjection> porInicio = new HashMap<>();
+        for (var linha : linhas) {
+            porInicio.put(linha.getInicio(), linha);
+        }
+
+        LocalDateTime primeiro = intervalo == Intervalo.SEMANA
+                ? inicio.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay()
+                : inicio.atStartOfDay();
+        LocalDateTime limite = fim.plusDays(1).atStartOfDay();
+
+        List<PontoSerieVendasDTO> pontos = new ArrayList<>();
+        long vendas = 0;
+        long unidades = 0;
+        long receitaCentavos = 0;
+        BigDecimal acumulada = BigDecimal.ZERO;
+        for (LocalDateTime t = primeiro; t.isBefore(limite); t = t.plus(1, intervalo.unidade)) {
+            var linha = porInicio.get(t);
+            if (linha == null) {
+                pontos.add(new PontoSerieVendasDTO(t, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, acumulada));
+                continue;
+            }
+            long v = valorOuZero(linha.getVendas());
+            long u = valorOuZero(linha.getUnidades());
+            BigDecimal r = dinheiro(linha.getReceita());
+            acumulada = dinheiro(linha.getReceitaAcumulada());
+            pontos.add(new PontoSerieVendasDTO(t, v, u, r, ticketMedio(r, v), acumulada));
+            vendas += v;
+            unidades += u;
+            receitaCentavos += Dinheiro.centavos(r);
+        }
+        BigDecimal receita = Dinheiro.reais(receitaCentavos);
+        return new SerieVendasDTO(intervalo.name().toLowerCase(Locale.ROOT), inicio, fim,
+                vendas, unidades, receita, ticketMedio(receita, vendas), pontos);
+    }
+
+    private List<TopProdutoDTO> calcularTopProdutos(LocalDate inicio, LocalDate fim, int limite) {
+        return dashboardRepository.topProdutos(inicio.atStartOfDay(), fim.plusDays(1).atStartOfDay(), limite).stream()
+                .map(r -> new TopProdutoDTO(
+                        r.getPosicao(),
+                        r.getProdutoId(),
+                        r.getNome(),
+                        valorOuZero(r.getUnidades()),
+                        dinheiro(r.getReceita()),
+                        r.getParticipacao() != null
+                                ? r.getParticipacao().setScale(4, RoundingMode.HALF_UP)
+                                : BigDecimal.ZERO))
+                .toList();
+    }
+
+    private static void validarPeriodo(LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("end deve ser igual ou posterior a start");
+        }
+    }
+
+    private static BigDecimal ticketMedio(BigDecimal receita, long vendas) {
+        return vendas > 0
+                ? receita.divide(BigDecimal.valueOf(vendas), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal dinheiro(BigDecimal valor) {
+        return valor != null ? valor.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+
+    private static long valorOuZero(Long valor) {
+        return valor != null ? valor : 0L;
+    }
+}
@@ -0,0 +1,38 @@
+package backend.loja_backend.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Representação única de dinheiro: BigDecimal com 2 casas na API e no banco (NUMERIC), e
+ * centavos em long dentro das somas. Somar long é exato e não aloca; a conversão para
+ * BigDecimal acontece uma vez, no resultado.
+ */
+public final class Dinheiro {
+
+    public static final int CASAS = 2;
+
+    private Dinheiro() {
+    }
+
+    // Centavos do valor, arredondando meio centavo para cima (null vale zero)
+    public static long centavos(BigDecimal valor) {
+        if (valor == null) {
+            return 0;
+        }
+        return valor.setScale(CASAS, RoundingMode.HALF_UP).scaleByPowerOfTen(CASAS).longValueExact();
+    }
+
+    public static BigDecimal reais(long centavos) {
+        return BigDecimal.valueOf(centavos, CASAS);
+    }
+
+    // O mesmo valor com exatamente 2 casas (null continua null)
+    public static BigDecimal arredondar(BigDecimal valor) {
+        return valor != null ? valor.setScale(CASAS, RoundingMode.HALF_UP) : null;
+    }
+
+    public static long total(long centavosUnitario, int quantidade) {
+        return Math.multiplyExact(centavosUnitario, (long) quantidade);
+    }
+}
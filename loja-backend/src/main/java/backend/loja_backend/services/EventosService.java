@@ -0,0 +1,223 @@
+package backend.loja_backend.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Distribui eventos de venda e estoque para os assinantes de /api/eventos/stream (SSE).
+ *
+ * Quem publica nunca espera pelo cliente: o evento é serializado uma vez e vai para o buffer
+ * de cada assinante, que tem tamanho fixo e descarta o mais antigo quando o cliente não
+ * acompanha. Cada assinante é esvaziado por uma virtual thread própria, então um cliente
+ * lento só atrasa a si mesmo. Os últimos eventos ficam guardados para quem reconecta com
+ * Last-Event-ID.
+ */
+@Slf4j
+@Service
+public class EventosService {
+
+    public static final String VENDA_CRIADA = "venda-criada";
+    public static final String VENDA_EXCLUIDA = "venda-excluida";
+    public static final String ESTOQUE_ALTERADO = "estoque-alterado";
+
+    // tipo null = heartbeat (comentário SSE), que mantém proxies abertos e revela conexões mortas
+    private record Evento(long id, String tipo, String json) {}
+
+    private final ObjectMapper objectMapper;
+    private final int tamanhoBuffer;
+    private final int maximoAssinantes;
+    private final int tamanhoHistorico;
+    private final long timeoutMillis;
+    private final Counter descartados;
+
+    private final AtomicLong sequencia = new AtomicLong();
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    // guardado por si mesmo
+    private final ArrayDeque<Evento> historico = new ArrayDeque<>();
+    private final ExecutorService envios = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("eventos-", 0).factory());
+
+    public EventosService(ObjectMapper objectMapper, MeterRegistry registry,
+                          @Value("${eventos.buffer-por-assinante:256}") int tamanhoBuffer,
+                          @Value("${eventos.assinantes.maximo:500}") int maximoAssinantes,
+                          @Value("${eventos.historico:1000}") int tamanhoHistorico,
+                          @Value("${eventos.timeout:30m}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.tamanhoBuffer = tamanhoBuffer;
+        this.maximoAssinantes = maximoAssinantes;
+        this.tamanhoHistorico = tamanhoHistorico;
+        this.timeoutMillis = timeout.toMillis();
+        this.descartados = registry.counter("loja.eventos.descartados");
+        registry.gaugeCollectionSize("loja.eventos.assinantes", List.of(), assinantes);
+    }
+
+    /**
+     * Publica depois do commit da transação atual (sem transação, na hora): evento de venda
+     * que sofreu rollback nunca chega às telas.
+     */
+    public void publicarAposCommit(String tipo, Object dados) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publicar(tipo, dados);
+                }
+            });
+        } else {
+            publicar(tipo, dados);
+        }
+    }
+
+    public void publicar(String tipo, Object dados) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            log.warn("Evento {} não publicado: {}", tipo, e.getMessage());
+            return;
+        }
+        Evento evento;
+        synchronized (historico) {
+            evento = new Evento(sequencia.incrementAndGet(), tipo, json);
+            historico.addLast(evento);
+            if (historico.size() > tamanhoHistorico) {
+                historico.pollFirst();
+            }
+        }
+        for (Assinante assinante : assinantes) {
+            assinante.enfileirar(evento);
+        }
+    }
+
+    /**
+     * Registra um assinante. Com ultimoId (Last-Event-ID da reconexão), reenvia primeiro os
+     * eventos posteriores que ainda estão no histórico.
+     *
+     * @throws IllegalStateException se o limite de assinantes foi atingido
+     */
+    public SseEmitter assinar(Long ultimoId) {
+        if (assinantes.size() >= maximoAssinantes) {
+            throw new IllegalStateException("limite de assinantes de eventos atingido");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Assinante assinante = new Assinante(emitter);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(e -> assinantes.remove(assinante));
+
+        // histórico e registro sob o mesmo lock: nenhum evento fica entre a reposição e o vivo
+        synchronized (historico) {
+            if (ultimoId != null) {
+                for (Evento evento : historico) {
+                    if (evento.id() > ultimoId) {
+                        assinante.enfileirar(evento);
+                    }
+                }
+            }
+            assinantes.add(assinante);
+        }
+        return emitter;
+    }
+
+    public int assinantes() {
+        return assinantes.size();
+    }
+
+    @Scheduled(fixedDelayString = "${eventos.heartbeat:15s}")
+    public void heartbeat() {
+        Evento ping = new Evento(0, null, null);
+        for (Assinante assinante : assinantes) {
+            assinante.enfileirar(ping);
+        }
+    }
+
+    // antes do graceful shutdown do servidor: stream aberto conta como requisição em andamento
+    @EventListener(ContextClosedEvent.class)
+    public void encerrar() {
+        for (Assinante assinante : assinantes) {
+            assinante.emitter.complete();
+        }
+        assinantes.clear();
+        envios.shutdownNow();
+    }
+
+    private final class Assinante {
+
+        private final SseEmitter emitter;
+        // guardado por this
+        private final ArrayDeque<Evento> pendentes = new ArrayDeque<>();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enfileirar(Evento evento) {
+            synchronized (this) {
+                if (pendentes.size() >= tamanhoBuffer) {
+                    pendentes.pollFirst();
+                    descartados.increment();
+                }
+                pendentes.addLast(evento);
+            }
+            if (enviando.compareAndSet(false, true)) {
+                try {
+                    envios.execute(this::esvaziar);
+                } catch (RejectedExecutionException e) {
+                    // aplicação encerrando: os streams já foram fechados
+                }
+            }
+        }
+
+        private void esvaziar() {
+            while (true) {
+                Evento evento;
+                synchronized (this) {
+                    evento = pendentes.pollFirst();
+                    if (evento == null) {
+                        // liberado dentro do lock: quem enfileirar depois agenda outro envio
+                        enviando.set(false);
+                        return;
+                    }
+                }
+                try {
+                    if (evento.tipo() == null) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(Long.toString(evento.id())).name(evento.tipo())
+                                .data(evento.json()));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // cliente desconectou: o emitter avisa os callbacks, aqui só paramos de enviar
+                    assinantes.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package backend.loja_backend.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import backend.loja_backend.entity.Produtos;
+
+/**
+ * Índice invertido em memória para a busca de produtos do PDV. Os termos de nome e descrição
+ * ficam normalizados (minúsculas, sem acento) em mapas ordenados, o que permite busca por
+ * prefixo; termos sem nenhum resultado caem numa busca aproximada (erro de digitação).
+ * Escritas são serializadas; leituras não bloqueiam.
+ */
+@Component
+public class IndiceBuscaProdutos {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern SO_DIGITOS = Pattern.compile("\\d+");
+
+    private static final double PESO_ID = 100;
+    private static final double PESO_NOME_EXATO = 10;
+    private static final double PESO_NOME_PREFIXO = 6;
+    private static final double PESO_NOME_APROXIMADO = 3;
+    private static final double PESO_DESCRICAO_EXATO = 4;
+    private static final double PESO_DESCRICAO_PREFIXO = 2;
+    private static final double PESO_DESCRICAO_APROXIMADO = 1;
+    private static final double BONUS_INICIO_NOME = 1;
+
+    private record Documento(Long id, int tamanhoNome, String primeiroTermoNome,
+                             Set<String> termosNome, Set<String> termosDescricao) {
+    }
+
+    private record Candidato(Long id, double pontos, int tamanhoNome) {
+    }
+
+    // ids de um termo do índice e o peso com que ele casa com o token buscado
+    private record Postagem(Set<Long> ids, double peso) {
+    }
+
+    // Mais pontos primeiro; empate: nome mais curto, depois menor id
+    private static final Comparator<Candidato> MELHOR_PRIMEIRO = Comparator
+            .comparingDouble((Candidato c) -> -c.pontos())
+            .thenComparingInt(Candidato::tamanhoNome)
+            .thenComparing(Candidato::id);
+
+    private final ConcurrentSkipListMap<String, Set<Long>> termosNome = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> termosDescricao = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Documento> documentos = new ConcurrentHashMap<>();
+    // ids em ordem, para a consulta vazia
+    private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+    private volatile boolean carregado;
+
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    public synchronized void reconstruir(Iterable<Produtos> produtos) {
+        termosNome.clear();
+        termosDescricao.clear();
+        documentos.clear();
+        ids.clear();
+        for (Produtos produto : produtos) {
+            adicionar(produto);
+        }
+        carregado = true;
+    }
+
+    public synchronized void indexar(Produtos produto) {
+        retirar(produto.getId());
+        adicionar(produto);
+    }
+
+    public synchronized void remover(Long id) {
+        retirar(id);
+    }
+
+    /**
+     * Devolve os ids dos melhores resultados, do mais relevante para o menos. Todos os termos
+     * da consulta precisam casar (por prefixo ou aproximação); um número casa também com o id.
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        List<String> tokens = tokens(consulta);
+        if (tokens.isEmpty()) {
+            return ids.stream().limit(limite).toList();
+        }
+
+        // Gera candidatos pelo termo mais seletivo (menos postagens) e só confere os demais nos
+        // termos de cada candidato, em vez de cruzar listas enormes de prefixos curtos. Todos os
+        // candidatos dele entram: só o resultado final é limitado
+        String gerador = null;
+        List<Postagem> postagensGerador = List.of();
+        long menor = Long.MAX_VALUE;
+        for (String token : tokens) {
+            List<Postagem> postagens = postagens(token);
+            long tamanho = postagens.stream().mapToLong(postagem -> postagem.ids().size()).sum();
+            if (tamanho < menor) {
+                gerador = token;
+                postagensGerador = postagens;
+                menor = tamanho;
+            }
+        }
+        Map<Long, Double> pontuacao = new HashMap<>();
+        for (Postagem postagem : postagensGerador) {
+            for (Long id : postagem.ids()) {
+                pontuacao.merge(id, postagem.peso(), Math::max);
+            }
+        }
+
+        for (String token : tokens) {
+            if (token.equals(gerador)) {
+                continue;
+            }
+            boolean aproximado = !temPrefixo(token);
+            pontuacao.entrySet().removeIf(linha -> {
+                double pontos = pontuar(documentos.get(linha.getKey()), token, aproximado);
+                linha.setValue(linha.getValue() + pontos);
+                return pontos == 0;
+            });
+        }
+
+        String bruto = consulta.trim();
+        if (SO_DIGITOS.matcher(bruto).matches() && bruto.length() < 19) {
+            Long id = Long.valueOf(bruto);
+            if (documentos.containsKey(id)) {
+                pontuacao.merge(id, PESO_ID, Double::sum);
+            }
+        }
+
+        return melhores(pontuacao, tokens.get(0), limite);
+    }
+
+    // Top-N com heap limitado: não ordena todos os candidatos de prefixos curtos.
+    // Nome que começa pelo primeiro termo buscado ganha um bônus.
+    private List<Long> melhores(Map<Long, Double> pontuacao, String primeiroToken, int limite) {
+        PriorityQueue<Candidato> heap = new PriorityQueue<>(limite + 1, MELHOR_PRIMEIRO.reversed());
+        for (Map.Entry<Long, Double> linha : pontuacao.entrySet()) {
+            if (heap.size() == limite && linha.getValue() + BONUS_INICIO_NOME < heap.peek().pontos()) {
+                continue;
+            }
+            Documento doc = documentos.get(linha.getKey());
+            if (doc == null) {
+                continue;
+            }
+            double pontos = linha.getValue();
+            if (doc.primeiroTermoNome() != null && doc.primeiroTermoNome().startsWith(primeiroToken)) {
+                pontos += BONUS_INICIO_NOME;
+            }
+            heap.offer(new Candidato(doc.id(), pontos, doc.tamanhoNome()));
+            if (heap.size() > limite) {
+                heap.poll();
+            }
+        }
+        List<Candidato> resultado = new ArrayList<>(heap);
+        resultado.sort(MELHOR_PRIMEIRO);
+        return resultado.stream().map(Candidato::id).toList();
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcento.toLowerCase();
+    }
+
+    static List<String> tokens(String texto) {
+        String normalizado = normalizar(texto);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String t : SEPARADORES.split(normalizado)) {
+            if (!t.isEmpty()) {
+                tokens.add(t);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private boolean temPrefixo(String token) {
+        return comecaCom(termosNome.ceilingKey(token), token) || comecaCom(termosDescricao.ceilingKey(token), token);
+    }
+
+    private static boolean comecaCom(String termo, String token) {
+        return termo != null && termo.startsWith(token);
+    }
+
+    // Melhor peso do token entre os termos de um documento (0 = não casa)
+    private static double pontuar(Documento doc, String token, boolean aproximado) {
+        if (doc == null) {
+            return 0;
+        }
+        double pontos = pontuarTermos(doc.termosNome(), token, aproximado,
+                PESO_NOME_EXATO, PESO_NOME_PREFIXO, PESO_NOME_APROXIMADO);
+        if (pontos > 0) {
+            return pontos;
+        }
+        return pontuarTermos(doc.termosDescricao(), token, aproximado,
+                PESO_DESCRICAO_EXATO, PESO_DESCRICAO_PREFIXO, PESO_DESCRICAO_APROXIMADO);
+    }
+
+    private static double pontuarTermos(Set<String> termos, String token, boolean aproximado,
+                                        double pesoExato, double pesoPrefixo, double pesoAproximado) {
+        double melhor = 0;
+        for (String termo : termos) {
+            if (termo.equals(token)) {
+                return pesoExato;
+            }
+            if (termo.startsWith(token)) {
+                melhor = pesoPrefixo;
+            } else if (aproximado && melhor == 0 && token.length() >= 3
+                    && aproximado(token, termo, token.length() <= 4 ? 1 : 2)) {
+                melhor = pesoAproximado;
+            }
+        }
+        return melhor;
+    }
+
+    private void adicionar(Produtos produto) {
+        Set<String> nome = new LinkedHashSet<>(tokens(produto.getNome()));
+        Set<String> descricao = new LinkedHashSet<>(tokens(produto.getDescricao()));
+        int tamanho = produto.getNome() != null ? produto.getNome().length() : 0;
+        String primeiro = nome.isEmpty() ? null : nome.iterator().next();
+        documentos.put(produto.getId(), new Documento(produto.getId(), tamanho, primeiro, nome, descricao));
+        ids.add(produto.getId());
+        nome.forEach(t -> termosNome.computeIfAbsent(t, k -> ConcurrentHashMap.newKeySet()).add(produto.getId()));
+        descricao.forEach(t -> termosDescricao.computeIfAbsent(t, k -> ConcurrentHashMap.newKeySet()).add(produto.getId()));
+    }
+
+    private void retirar(Long id) {
+        Documento doc = documentos.remove(id);
+        ids.remove(id);
+        if (doc == null) {
+            return;
+        }
+        doc.termosNome().forEach(t -> retirarTermo(termosNome, t, id));
+        doc.termosDescricao().forEach(t -> retirarTermo(termosDescricao, t, id));
+    }
+
+    private static void retirarTermo(ConcurrentSkipListMap<String, Set<Long>> termos, String termo, Long id) {
+        termos.computeIfPresent(termo, (t, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Listas de ids dos termos que casam com o token, cada uma com seu peso: por prefixo em
+     * nome e descrição ou, se nenhum termo começa pelo token, por aproximação (só termos que
+     * começam pela mesma letra, o que mantém a varredura pequena).
+     */
+    private List<Postagem> postagens(String token) {
+        List<Postagem> postagens = new ArrayList<>();
+        if (temPrefixo(token)) {
+            adicionarPrefixo(termosNome, token, PESO_NOME_EXATO, PESO_NOME_PREFIXO, postagens);
+            adicionarPrefixo(termosDescricao, token, PESO_DESCRICAO_EXATO, PESO_DESCRICAO_PREFIXO, postagens);
+        } else if (token.length() >= 3) {
+            adicionarAproximado(termosNome, token, PESO_NOME_APROXIMADO, postagens);
+            adicionarAproximado(termosDescricao, token, PESO_DESCRICAO_APROXIMADO, postagens);
+        }
+        return postagens;
+    }
+
+    private static void adicionarPrefixo(NavigableMap<String, Set<Long>> termos, String token,
+                                         double pesoExato, double pesoPrefixo, List<Postagem> destino) {
+        for (Map.Entry<String, Set<Long>> termo : termos.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            destino.add(new Postagem(termo.getValue(), termo.getKey().equals(token) ? pesoExato : pesoPrefixo));
+        }
+    }
+
+    private static void adicionarAproximado(NavigableMap<String, Set<Long>> termos, String token,
+                                            double peso, List<Postagem> destino) {
+        int maxDistancia = token.length() <= 4 ? 1 : 2;
+        String inicial = token.substring(0, 1);
+        for (Map.Entry<String, Set<Long>> termo : termos.subMap(inicial, true, inicial + Character.MAX_VALUE, false).entrySet()) {
+            if (aproximado(token, termo.getKey(), maxDistancia)) {
+                destino.add(new Postagem(termo.getValue(), peso));
+            }
+        }
+    }
+
+    // Compara com o termo inteiro e com o começo dele, para palavras ainda incompletas
+    private static boolean aproximado(String token, String termo, int maxDistancia) {
+        if (distancia(token, termo, maxDistancia) <= maxDistancia) {
+            return true;
+        }
+        for (int tamanho = token.length(); tamanho <= token.length() + 1 && tamanho < termo.length(); tamanho++) {
+            if (distancia(token, termo.substring(0, tamanho), maxDistancia) <= maxDistancia) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Levenshtein com corte: devolve max + 1 assim que a distância passa do limite
+    static int distancia(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i;
+            int menorDaLinha = atual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                atual[j] = Math.min(Math.min(atual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + custo);
+                menorDaLinha = Math.min(menorDaLinha, atual[j]);
+            }
+            if (menorDaLinha > max) {
+                return max + 1;
+            }
+            int[] troca = anterior;
+            anterior = atual;
+            atual = troca;
+        }
+        return anterior[b.length()];
+    }
+}
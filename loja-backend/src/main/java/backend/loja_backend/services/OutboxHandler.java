@@ -0,0 +1,19 @@
+package backend.loja_backend.services;
+
+import java.util.List;
+
+import backend.loja_backend.entity.OutboxEvento;
+
+/**
+ * Recebe os eventos do outbox. tratar roda dentro da transação que marca o lote como
+ * entregue: o que o handler grava no banco vale uma vez só, porque uma falha desfaz tudo e
+ * o lote volta a ficar pendente. Efeitos fora do banco (arquivo, SSE) devem ficar para depois
+ * do commit e tolerar repetição, já que um lote que falhou é entregue de novo.
+ */
+public interface OutboxHandler {
+
+    boolean aceita(String tipo);
+
+    // Só os eventos do lote com tipo aceito, em ordem de id
+    void tratar(List<OutboxEvento> eventos) throws Exception;
+}
@@ -0,0 +1,326 @@
+package backend.loja_backend.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.loja_backend.entity.OutboxEvento;
+import backend.loja_backend.repositories.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbox transacional. registrar grava o evento na transação de quem chama (a venda); depois
+ * do commit uma thread própria entrega os pendentes em lotes aos OutboxHandler, fora da
+ * transação e dos locks do checkout.
+ *
+ * Cada lote é entregue numa transação só, que também marca os eventos como ENTREGUE. Se um
+ * handler falha, o lote volta e é refeito evento a evento: o que falhou ganha nova tentativa
+ * com espera crescente e os seguintes da mesma ordem esperam por ele. Se ele vira FALHOU, os
+ * seguintes continuam retidos até o evento ser reaberto (reabrir), depois de corrigida a causa.
+ * A linha só existe se a venda fez commit e só sai de PENDENTE no commit da entrega, então
+ * uma queda no meio não perde nada: ao subir, os pendentes são entregues.
+ *
+ * Mais de uma instância pode entregar da mesma tabela: cada uma pula os eventos travados pela
+ * outra e nenhuma entrega um evento enquanto houver um anterior do mesmo agregado sem entregar.
+ */
+@Slf4j
+@Service
+public class OutboxService {
+
+    private static final int TAMANHO_ERRO = 1000;
+    private static final Duration INTERVALO_LIMPEZA = Duration.ofHours(1);
+    private static final Duration INTERVALO_CONTAGEM = Duration.ofSeconds(15);
+
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxHandler> handlers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transacao;
+    private final boolean ativo;
+    private final int tamanhoLote;
+    private final int maximoTentativas;
+    private final Duration intervalo;
+    private final Duration esperaInicial;
+    private final Duration esperaMaxima;
+    private final Duration retencao;
+    private final Counter entregues;
+    private final Counter falhas;
+    private final Timer atraso;
+    // último COUNT dos pendentes, refeito pela thread do outbox: o scrape não vai ao banco
+    private final AtomicLong pendentes = new AtomicLong();
+
+    // liberado a cada commit com evento novo: a thread acorda sem esperar o intervalo
+    private final Semaphore sinal = new Semaphore(0);
+    private volatile boolean rodando;
+    private Thread thread;
+    private LocalDateTime ultimaLimpeza = LocalDateTime.MIN;
+    private LocalDateTime ultimaContagem = LocalDateTime.MIN;
+
+    public OutboxService(OutboxRepository outboxRepository, List<OutboxHandler> handlers, ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager, MeterRegistry registry,
+                         @Value("${outbox.ativo:true}") boolean ativo,
+                         @Value("${outbox.lote:200}") int tamanhoLote,
+                         @Value("${outbox.tentativas.maximo:10}") int maximoTentativas,
+                         @Value("${outbox.intervalo:1s}") Duration intervalo,
+                         @Value("${outbox.retry.inicial:1s}") Duration esperaInicial,
+                         @Value("${outbox.retry.maximo:5m}") Duration esperaMaxima,
+                         @Value("${outbox.retencao:7d}") Duration retencao) {
+        this.outboxRepository = outboxRepository;
+        this.handlers = handlers;
+        this.objectMapper = objectMapper;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.ativo = ativo;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoTentativas = maximoTentativas;
+        this.intervalo = intervalo;
+        this.esperaInicial = esperaInicial;
+        this.esperaMaxima = esperaMaxima;
+        this.retencao = retencao;
+        this.entregues = registry.counter("loja.outbox.entregues");
+        this.falhas = registry.counter("loja.outbox.falhas");
+        this.atraso = Timer.builder("loja.outbox.atraso")
+                .description("Tempo entre o commit do evento e a entrega aos handlers")
+                .publishPercentileHistogram()
+                .register(registry);
+        registry.gauge("loja.outbox.pendentes", pendentes);
+    }
+
+    /** Grava o evento na transação atual; sem transação é erro (o evento poderia ficar sem a venda). */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(String tipo, Long agregadoId, Object dados) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento " + tipo + " não serializável: " + e.getMessage(), e);
+        }
+        outboxRepository.save(new OutboxEvento(tipo, agregadoId, payload, LocalDateTime.now()));
+
+        // um aviso por transação, mesmo com muitos eventos (lote de vendas)
+        if (!TransactionSynchronizationManager.hasResource(sinal)) {
+            TransactionSynchronizationManager.bindResource(sinal, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(sinal);
+                    if (status == STATUS_COMMITTED) {
+                        sinal.release();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Devolve à fila um evento que FALHOU, com as tentativas zeradas; os eventos seguintes do
+     * mesmo agregado, retidos por ele, saem logo depois. Falso se o evento não está em FALHOU.
+     */
+    public boolean reabrir(Long id) {
+        Boolean reaberto = transacao.execute(status -> outboxRepository.findById(id)
+                .filter(evento -> evento.getStatus() == OutboxEvento.Status.FALHOU)
+                .map(evento -> {
+                    evento.setStatus(OutboxEvento.Status.PENDENTE);
+                    evento.setTentativas(0);
+                    evento.setProximaTentativa(LocalDateTime.now());
+                    evento.setProcessadoEm(null);
+                    return true;
+                })
+                .orElse(false));
+        if (Boolean.TRUE.equals(reaberto)) {
+            sinal.release();
+        }
+        return Boolean.TRUE.equals(reaberto);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        if (!ativo || rodando) {
+            return;
+        }
+        rodando = true;
+        thread = Thread.ofPlatform().daemon().name("outbox").start(this::trabalhar);
+    }
+
+    // o que estava sendo entregue volta para pendente no rollback e sai na próxima subida
+    @PreDestroy
+    public synchronized void parar() throws InterruptedException {
+        rodando = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(5000);
+        }
+    }
+
+    /**
+     * Entrega agora, lote a lote, tudo o que está pendente e na hora, e devolve quantos saíram.
+     * Segue enquanto algum lote entrega: o evento seguinte de um agregado só sai no lote depois
+     * do anterior. A thread do outbox chama a cada aviso; testes e a operação podem chamar para
+     * esvaziar a fila.
+     */
+    public synchronized int processarPendentes() {
+        int total = 0;
+        int entregues;
+        do {
+            entregues = processarLote();
+            total += entregues;
+        } while (entregues > 0 && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+
+    private int processarLote() {
+        LocalDateTime agora = LocalDateTime.now();
+        try {
+            return transacao.execute(status -> {
+                List<OutboxEvento> eventos = outboxRepository.travarProximos(agora, Limit.of(tamanhoLote));
+                entregar(eventos, agora);
+                return eventos.size();
+            });
+        } catch (RuntimeException e) {
+            log.debug("Lote do outbox falhou, entregando um a um: {}", e.getMessage());
+            return entregarUmAUm(agora);
+        }
+    }
+
+    // Isola o evento que falhou; os seguintes da mesma ordem ficam para depois dele
+    private int entregarUmAUm(LocalDateTime agora) {
+        List<OutboxEvento> lote = transacao.execute(status -> outboxRepository.travarProximos(agora, Limit.of(tamanhoLote)));
+        Set<Long> agregadosComFalha = new HashSet<>();
+        int total = 0;
+        for (OutboxEvento pendente : lote) {
+            if (agregadosComFalha.contains(pendente.getAgregadoId())) {
+                continue;
+            }
+            try {
+                total += transacao.execute(status -> {
+                    OutboxEvento evento = outboxRepository.findById(pendente.getId()).orElse(null);
+                    if (evento == null || evento.getStatus() != OutboxEvento.Status.PENDENTE) {
+                        return 0;
+                    }
+                    entregar(List.of(evento), agora);
+                    return 1;
+                });
+            } catch (RuntimeException e) {
+                agregadosComFalha.add(pendente.getAgregadoId());
+                transacao.executeWithoutResult(status -> registrarFalha(pendente.getId(), e, agora));
+            }
+        }
+        return total;
+    }
+
+    private void entregar(List<OutboxEvento> eventos, LocalDateTime agora) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        for (OutboxHandler handler : handlers) {
+            List<OutboxEvento> aceitos = eventos.stream().filter(e -> handler.aceita(e.getTipo())).toList();
+            if (aceitos.isEmpty()) {
+                continue;
+            }
+            try {
+                handler.tratar(aceitos);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        List<Long> ids = eventos.stream().map(OutboxEvento::getId).toList();
+        if (outboxRepository.marcarEntregues(ids, agora) != ids.size()) {
+            // outra instância entregou algum deles: desfaz para não aplicar duas vezes
+            throw new IllegalStateException("Eventos do outbox já entregues por outra instância");
+        }
+        entregues.increment(ids.size());
+        for (OutboxEvento evento : eventos) {
+            atraso.record(Duration.between(evento.getCriadoEm(), agora));
+        }
+    }
+
+    private void registrarFalha(Long id, RuntimeException erro, LocalDateTime agora) {
+        outboxRepository.findById(id).ifPresent(evento -> {
+            falhas.increment();
+            int tentativas = evento.getTentativas() + 1;
+            evento.setTentativas(tentativas);
+            String mensagem = erro.getMessage() != null ? erro.getMessage() : erro.getClass().getName();
+            evento.setErro(mensagem.length() > TAMANHO_ERRO ? mensagem.substring(0, TAMANHO_ERRO) : mensagem);
+            if (tentativas >= maximoTentativas) {
+                // desiste: fica registrado para análise e segura os eventos seguintes da ordem
+                evento.setStatus(OutboxEvento.Status.FALHOU);
+                evento.setProcessadoEm(agora);
+                log.error("Evento {} ({}) do outbox falhou {} vezes, desistindo; os seguintes do agregado {} " +
+                        "ficam retidos até ele ser reaberto: {}", id, evento.getTipo(), tentativas,
+                        evento.getAgregadoId(), mensagem);
+            } else {
+                evento.setProximaTentativa(agora.plus(espera(tentativas)));
+                log.warn("Evento {} ({}) do outbox falhou (tentativa {}): {}", id, evento.getTipo(), tentativas, mensagem);
+            }
+        });
+    }
+
+    // 1s, 2s, 4s, ... até esperaMaxima
+    private Duration espera(int tentativas) {
+        Duration espera = esperaInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return espera.compareTo(esperaMaxima) > 0 ? esperaMaxima : espera;
+    }
+
+    private void trabalhar() {
+        while (rodando) {
+            try {
+                sinal.tryAcquire(intervalo.toMillis(), TimeUnit.MILLISECONDS);
+                sinal.drainPermits();
+                processarPendentes();
+                limparEntregues();
+                contarPendentes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // nada muda no banco: os pendentes continuam lá para a próxima volta
+                log.warn("Falha ao entregar eventos do outbox: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void contarPendentes() {
+        LocalDateTime agora = LocalDateTime.now();
+        if (ultimaContagem.plus(INTERVALO_CONTAGEM).isAfter(agora)) {
+            return;
+        }
+        ultimaContagem = agora;
+        pendentes.set(outboxRepository.contarPendentes());
+    }
+
+    private void limparEntregues() {
+        LocalDateTime agora = LocalDateTime.now();
+        if (ultimaLimpeza.plus(INTERVALO_LIMPEZA).isAfter(agora)) {
+            return;
+        }
+        ultimaLimpeza = agora;
+        Integer apagados = transacao.execute(status -> outboxRepository.apagarEntreguesAntesDe(agora.minus(retencao)));
+        if (apagados != null && apagados > 0) {
+            log.info("{} eventos entregues do outbox apagados", apagados);
+        }
+    }
+}
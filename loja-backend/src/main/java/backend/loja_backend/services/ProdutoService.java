@@ -1,29 +1,92 @@
 package backend.loja_backend.services;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import backend.loja_backend.repositories.ProdutoRepository;
+import backend.loja_backend.dto.EstoqueAlteradoDTO;
+import backend.loja_backend.dto.MovimentoEstoqueDTO;
+import backend.loja_backend.dto.MovimentoEstoqueResumoDTO;
 import backend.loja_backend.dto.ProdutoDTO;
+import backend.loja_backend.dto.ProdutoResumoDTO;
+import backend.loja_backend.entity.MovimentoEstoque;
 import backend.loja_backend.entity.Produtos;
+import io.micrometer.core.annotation.Timed;
 
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed(value = "loja.servicos", histogram = true)
 public class ProdutoService {
-   
+
     @Autowired
     private ProdutoRepository produtoRepositorie;
 
-    public Iterable<Produtos> listarTodos() {
-        return produtoRepositorie.findAll();
+    @Autowired
+    private CatalogoProdutosCache catalogoCache;
+
+    @Autowired
+    private IndiceBuscaProdutos indiceBusca;
+
+    @Autowired
+    private VersaoCatalogo versaoCatalogo;
+
+    @Autowired
+    private SincronizacaoService sincronizacao;
+
+    @Autowired
+    private EventosService eventos;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    // Leituras do catálogo saem do cache; só o que faltar (ou expirou) vai ao banco, em DTO
+    public List<ProdutoResumoDTO> listarTodos() {
+        List<Long> ids = catalogoCache.idsDoCatalogo();
+        if (ids == null) {
+            long geracao = catalogoCache.geracao();
+            List<ProdutoResumoDTO> todos = produtoRepositorie.listarResumos();
+            catalogoCache.guardarCatalogo(todos, geracao);
+            return todos;
+        }
+        return montar(ids);
+    }
+
+    public Optional<ProdutoResumoDTO> buscarPorId(Long id) {
+        return montar(List.of(id)).stream().findFirst();
     }
 
-    public Optional<Produtos> buscarPorId(Long id) {
-        return produtoRepositorie.findById(id);
+    /**
+     * Busca no índice em memória (prefixo sem acento em nome/descrição, id exato e
+     * tolerância a erro de digitação) e devolve só os melhores resultados.
+     */
+    public List<ProdutoResumoDTO> buscar(String consulta, int limite) {
+        if (!indiceBusca.isCarregado()) {
+            carregarIndice();
+        }
+        return montar(indiceBusca.buscar(consulta != null ? consulta : "", limite));
     }
-    
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void carregarIndice() {
+        if (!indiceBusca.isCarregado()) {
+            indiceBusca.reconstruir(produtoRepositorie.findAll(Sort.by("id")));
+        }
+    }
+
+    @Transactional
     public Produtos salvar(ProdutoDTO produtoDTO) {
         Produtos produto = new Produtos();
         produto.setNome(produtoDTO.getNome());
@@ -31,9 +94,30 @@ public class ProdutoService {
         produto.setPrecoCusto(produtoDTO.getPrecoCusto());
         produto.setPrecoVenda(produtoDTO.getPrecoVenda());
         produto.setQuantidadeEstoque(produtoDTO.getQuantidadeEstoque());
-        return produtoRepositorie.save(produto);
+        // o estoque inicial é o primeiro movimento do razão
+        int inicial = produtoDTO.getQuantidadeEstoque() != null ? produtoDTO.getQuantidadeEstoque() : 0;
+        produto.setEstoqueVersao(inicial != 0 ? 1L : 0L);
+        produto.setVersaoSync(sincronizacao.reservarVersao());
+        Produtos salvo = produtoRepositorie.save(produto);
+        if (inicial != 0) {
+            estoqueService.registrar(List.of(new MovimentoEstoque(salvo.getId(), 1L, MovimentoEstoque.Tipo.AJUSTE,
+                    inicial, inicial, null, "Estoque inicial", LocalDateTime.now())));
+        }
+        aposCommit(() -> {
+            catalogoCache.guardar(salvo);
+            catalogoCache.invalidarCatalogo();
+            indiceBusca.indexar(salvo);
+        });
+        versaoCatalogo.alterado(VersaoCatalogo.Catalogo.PRODUTOS);
+        return salvo;
     }
 
+    /**
+     * Atualiza o cadastro (nome, descrição, preços). O estoque não muda por aqui: o UPDATE
+     * não inclui quantidade_estoque, então a edição não desfaz uma venda feita no meio dela;
+     * para corrigir o saldo use movimentarEstoque.
+     */
+    @Transactional
     public Produtos atualizar(Long id, Produtos produtoAtualizado) {
         return produtoRepositorie.findById(id)
             .map(produto -> {
@@ -41,13 +125,128 @@ public class ProdutoService {
                 produto.setDescricao(produtoAtualizado.getDescricao());
                 produto.setPrecoCusto(produtoAtualizado.getPrecoCusto());
                 produto.setPrecoVenda(produtoAtualizado.getPrecoVenda());
-                produto.setQuantidadeEstoque(produtoAtualizado.getQuantidadeEstoque());
-                return produtoRepositorie.save(produto);
+                produto.setVersaoSync(sincronizacao.reservarVersao());
+                Produtos salvo = produtoRepositorie.save(produto);
+                aposCommit(() -> {
+                    catalogoCache.guardar(salvo);
+                    indiceBusca.indexar(salvo);
+                });
+                versaoCatalogo.alterado(VersaoCatalogo.Catalogo.PRODUTOS);
+                return salvo;
             })
             .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
     }
 
+    @Transactional
     public void deletar(Long id) {
-        produtoRepositorie.deleteById(id);
+        produtoRepositorie.findById(id).ifPresent(produto -> {
+            produtoRepositorie.delete(produto);
+            sincronizacao.registrarRemocao(VersaoCatalogo.Catalogo.PRODUTOS, id);
+        });
+        aposCommit(() -> {
+            catalogoCache.invalidar(id);
+            catalogoCache.invalidarCatalogo();
+            indiceBusca.remover(id);
+        });
+        versaoCatalogo.alterado(VersaoCatalogo.Catalogo.PRODUTOS);
+    }
+
+    /**
+     * Lança um ajuste (quantidade com qualquer sinal) ou uma devolução (positiva) no estoque:
+     * um UPDATE com delta, que não deixa o saldo negativo, e o movimento no razão, na mesma
+     * transação. Vazio se o produto não existe.
+     */
+    @Transactional
+    public Optional<MovimentoEstoqueResumoDTO> movimentarEstoque(Long id, MovimentoEstoqueDTO dto) {
+        if (dto.getTipo() == null || dto.getTipo() == MovimentoEstoque.Tipo.VENDA) {
+            throw new IllegalArgumentException("Tipo de movimento deve ser AJUSTE ou DEVOLUCAO");
+        }
+        if (dto.getQuantidade() == null || dto.getQuantidade() == 0) {
+            throw new IllegalArgumentException("Quantidade do movimento não informada");
+        }
+        if (dto.getTipo() == MovimentoEstoque.Tipo.DEVOLUCAO && dto.getQuantidade() < 0) {
+            throw new IllegalArgumentException("Devolução deve ter quantidade positiva");
+        }
+
+        if (!produtoRepositorie.movimentarEstoque(id, dto.getQuantidade(), sincronizacao.reservarVersao())) {
+            if (!produtoRepositorie.existsById(id)) {
+                return Optional.empty();
+            }
+            throw new IllegalArgumentException("Estoque insuficiente para o movimento");
+        }
+        // a linha segue travada pelo UPDATE até o commit: saldo e versão lidos são os deste movimento
+        var estoque = produtoRepositorie.buscarEstoques(List.of(id)).get(0);
+        MovimentoEstoque movimento = new MovimentoEstoque(id, estoque.getVersao(), dto.getTipo(),
+                dto.getQuantidade(), estoque.getQuantidade(), null, dto.getMotivo(), LocalDateTime.now());
+        estoqueService.registrar(List.of(movimento));
+        estoqueAlterado(List.of(new EstoqueAlteradoDTO(id, estoque.getQuantidade(), estoque.getVersao())));
+        return Optional.of(MovimentoEstoqueResumoDTO.de(movimento));
+    }
+
+    /**
+     * Avisa que o estoque destes produtos mudou (venda, ajuste, devolução), com o saldo e a versão novos de cada um. Invalida
+     * já e de novo após o commit, para que uma leitura concorrente não deixe no cache o saldo
+     * anterior à venda; o evento estoque-alterado sai só depois do commit.
+     */
+    public void estoqueAlterado(List<EstoqueAlteradoDTO> saldos) {
+        List<Long> copia = saldos.stream().map(EstoqueAlteradoDTO::getProdutoId).toList();
+        catalogoCache.invalidarEstoque(copia);
+        // o estoque faz parte da listagem: a ETag dos produtos muda a cada venda
+        versaoCatalogo.alterado(VersaoCatalogo.Catalogo.PRODUTOS);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    catalogoCache.invalidarEstoque(copia);
+                }
+            });
+        }
+        eventos.publicarAposCommit(EventosService.ESTOQUE_ALTERADO, saldos);
+    }
+
+    // Cache e índice só enxergam o que foi commitado (sem transação, na hora)
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    private List<ProdutoResumoDTO> montar(List<Long> ids) {
+        long geracao = catalogoCache.geracao();
+        Map<Long, CatalogoProdutosCache.DadosProduto> dados = new HashMap<>(catalogoCache.dados(ids));
+        Map<Long, Integer> estoques = new HashMap<>(catalogoCache.estoques(ids));
+
+        List<Long> semDados = ids.stream().filter(id -> !dados.containsKey(id)).toList();
+        if (!semDados.isEmpty()) {
+            for (ProdutoResumoDTO p : produtoRepositorie.buscarResumos(semDados)) {
+                catalogoCache.guardar(p, geracao);
+                dados.put(p.getId(), CatalogoProdutosCache.DadosProduto.de(p));
+                estoques.put(p.getId(), p.getQuantidadeEstoque());
+            }
+        }
+
+        List<Long> semEstoque = ids.stream().filter(id -> dados.containsKey(id) && !estoques.containsKey(id)).toList();
+        if (!semEstoque.isEmpty()) {
+            for (var linha : produtoRepositorie.buscarEstoques(semEstoque)) {
+                catalogoCache.guardarEstoque(linha.getId(), linha.getQuantidade(), geracao);
+                estoques.put(linha.getId(), linha.getQuantidade());
+            }
+        }
+
+        List<ProdutoResumoDTO> produtos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            CatalogoProdutosCache.DadosProduto d = dados.get(id);
+            if (d != null) {
+                produtos.add(d.comEstoque(estoques.get(id)));
+            }
+        }
+        return produtos;
     }
 }
@@ -1,26 +1,41 @@
 package backend.loja_backend.services;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.annotation.Timed;
 
 import backend.loja_backend.repositories.ServicoRepository;
 import backend.loja_backend.dto.ServicoDTO;
+import backend.loja_backend.dto.ServicoResumoDTO;
 import backend.loja_backend.entity.Servicos;
 
 @Service
+@Timed(value = "loja.servicos", histogram = true)
 public class ServicoService {
 
     @Autowired
     private ServicoRepository servicoRepositorie;
 
-    public Iterable<Servicos> listarTodos() {
-        return servicoRepositorie.findAll();
+    @Autowired
+    private VersaoCatalogo versaoCatalogo;
+
+    @Autowired
+    private SincronizacaoService sincronizacao;
+
+    @Transactional(readOnly = true)
+    public List<ServicoResumoDTO> listarTodos() {
+        return servicoRepositorie.listarResumos();
     }
 
-    public Optional<Servicos> buscarPorId(Long id) {
-        return servicoRepositorie.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<ServicoResumoDTO> buscarPorId(Long id) {
+        return servicoRepositorie.buscarResumo(id);
     }
     
+    @Transactional
     public Servicos salvar(ServicoDTO servicoDTO) {
         Servicos servico = new Servicos();
 
@@ -28,9 +43,13 @@ public class ServicoService {
         servico.setDescricao(servicoDTO.getDescricao());
         servico.setValorBase(servicoDTO.getValorBase());
         servico.setCategoria(servicoDTO.getCategoria());
-        return servicoRepositorie.save(servico);
+        servico.setVersaoSync(sincronizacao.reservarVersao());
+        Servicos salvo = servicoRepositorie.save(servico);
+        versaoCatalogo.alterado(VersaoCatalogo.Catalogo.SERVICOS);
+        return salvo;
     }
 
+    @Transactional
     public Servicos atualizar(Long id, Servicos servicoAtualizado) {
         return servicoRepositorie.findById(id)
             .map(servico -> {
@@ -38,12 +57,21 @@ public class ServicoService {
                 servico.setDescricao(servicoAtualizado.getDescricao());
                 servico.setValorBase(servicoAtualizado.getValorBase());
                 servico.setCategoria(servicoAtualizado.getCategoria());
-                return servicoRepositorie.save(servico);
+                servico.setVersaoSync(sincronizacao.reservarVersao());
+                Servicos salvo = servicoRepositorie.save(servico);
+                versaoCatalogo.alterado(VersaoCatalogo.Catalogo.SERVICOS);
+                return salvo;
             })
             .orElseThrow(() -> new RuntimeException("Serviço não encontrado"));
     }
 
+    @Transactional
     public void deletar(Long id) {
-        servicoRepositorie.deleteById(id);
+        servicoRepositorie.findById(id).ifPresent(registro -> {
+            servicoRepositorie.delete(registro);
+            servicoRepositorie.flush();
+            sincronizacao.registrarRemocao(VersaoCatalogo.Catalogo.SERVICOS, id);
+        });
+        versaoCatalogo.alterado(VersaoCatalogo.Catalogo.SERVICOS);
     }
 }
@@ -0,0 +1,200 @@
+package backend.loja_backend.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import backend.loja_backend.dto.ClienteResumoDTO;
+import backend.loja_backend.dto.ProdutoResumoDTO;
+import backend.loja_backend.dto.ServicoResumoDTO;
+import backend.loja_backend.dto.SincronizacaoDTO;
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.RemocaoSincronizada;
+import backend.loja_backend.entity.Servicos;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+import backend.loja_backend.repositories.RemocaoSincronizadaRepository;
+import backend.loja_backend.repositories.ServicoRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sincronização incremental do catálogo. Cada gravação em produtos, clientes e serviços (e
+ * cada exclusão, em sync_remocoes) recebe uma versão única e crescente; o token do terminal
+ * é a última versão que ele já aplicou.
+ *
+ * As versões são reservadas antes do commit e podem terminar fora de ordem, então o token
+ * devolvido nunca passa da menor versão ainda em andamento: nada gravado depois dele pode
+ * aparecer com versão menor. O controle é em memória, valendo para uma instância só.
+ */
+@Service
+@Timed(value = "loja.servicos", histogram = true)
+@RequiredArgsConstructor
+public class SincronizacaoService {
+
+    static final int LIMITE_PADRAO = 1000;
+    static final int LIMITE_MAXIMO = 5000;
+    // mesmo INCREMENT BY da sync_versao_seq: um nextval a cada 50 versões
+    private static final int TAMANHO_BLOCO = 50;
+
+    private final ProdutoRepository produtoRepository;
+    private final ClienteRepository clienteRepository;
+    private final ServicoRepository servicoRepository;
+    private final RemocaoSincronizadaRepository remocaoRepository;
+
+    // guardados por this
+    private final NavigableSet<Long> emAndamento = new TreeSet<>();
+    private long proxima = 1;
+    private long fimDoBloco = 0;
+    private long ultimaReservada = -1;
+
+    public long reservarVersao() {
+        return reservarVersoes(1)[0];
+    }
+
+    /**
+     * Reserva versões para gravações da transação atual; elas contam como em andamento até
+     * a transação terminar (commit ou rollback).
+     */
+    public long[] reservarVersoes(int quantidade) {
+        if (quantidade == 0) {
+            return new long[0];
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Versão de sincronização reservada fora de transação");
+        }
+        long[] versoes = new long[quantidade];
+        synchronized (this) {
+            for (int i = 0; i < quantidade; i++) {
+                if (proxima > fimDoBloco) {
+                    proxima = remocaoRepository.proximoBlocoVersoes();
+                    fimDoBloco = proxima + TAMANHO_BLOCO - 1;
+                }
+                versoes[i] = proxima++;
+                emAndamento.add(versoes[i]);
+            }
+            ultimaReservada = versoes[quantidade - 1];
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (SincronizacaoService.this) {
+                    for (long versao : versoes) {
+                        emAndamento.remove(versao);
+                    }
+                }
+            }
+        });
+        return versoes;
+    }
+
+    // Registra a exclusão na mesma transação do delete
+    public void registrarRemocao(VersaoCatalogo.Catalogo catalogo, Long id) {
+        remocaoRepository.save(new RemocaoSincronizada(reservarVersao(), catalogo, id, LocalDateTime.now()));
+    }
+
+    /**
+     * Maior versão que já pode ser entregue: abaixo da menor em andamento. Antes da primeira
+     * reserva, tudo o que está no banco veio de transações já encerradas.
+     */
+    synchronized long versaoEstavel() {
+        if (!emAndamento.isEmpty()) {
+            return emAndamento.first() - 1;
+        }
+        return ultimaReservada >= 0 ? ultimaReservada : Long.MAX_VALUE;
+    }
+
+    /**
+     * Alterações depois do token (sem token: o catálogo inteiro), até limite registros por
+     * tipo. Quando algum tipo passa do limite, a resposta para na última versão que coube
+     * e vem com temMais.
+     */
+    @Transactional(readOnly = true)
+    public SincronizacaoDTO alteracoesDesde(String token, Integer limite) {
+        long desde = lerToken(token);
+        int maximo = limite == null || limite <= 0 ? LIMITE_PADRAO : Math.min(limite, LIMITE_MAXIMO);
+        long ate = versaoEstavel();
+        Limit consulta = Limit.of(maximo + 1);
+
+        List<Produtos> produtos = produtoRepository.alteradosEntre(desde, ate, consulta);
+        List<Clientes> clientes = clienteRepository.alteradosEntre(desde, ate, consulta);
+        List<Servicos> servicos = servicoRepository.alteradosEntre(desde, ate, consulta);
+        List<RemocaoSincronizada> remocoes = remocaoRepository.removidasEntre(desde, ate, consulta);
+
+        // as versões são únicas: cortar na versão do último que coube não deixa nada pela metade
+        long corte = ate;
+        corte = corte(produtos, Produtos::getVersaoSync, maximo, corte);
+        corte = corte(clientes, Clientes::getVersaoSync, maximo, corte);
+        corte = corte(servicos, Servicos::getVersaoSync, maximo, corte);
+        corte = corte(remocoes, RemocaoSincronizada::getVersaoSync, maximo, corte);
+        boolean temMais = corte < ate;
+
+        if (corte == Long.MAX_VALUE) {
+            // nenhuma reserva desde a subida: o token é a maior versão entregue
+            corte = Math.max(Math.max(maior(produtos, Produtos::getVersaoSync), maior(clientes, Clientes::getVersaoSync)),
+                    Math.max(maior(servicos, Servicos::getVersaoSync), maior(remocoes, RemocaoSincronizada::getVersaoSync)));
+        }
+        long ultima = Math.max(corte, desde);
+
+        return new SincronizacaoDTO(
+                Long.toString(ultima),
+                temMais,
+                produtos.stream().filter(p -> p.getVersaoSync() <= ultima)
+                        .map(p -> new ProdutoResumoDTO(p.getId(), p.getNome(), p.getDescricao(),
+                                p.getPrecoCusto(), p.getPrecoVenda(), p.getQuantidadeEstoque()))
+                        .toList(),
+                clientes.stream().filter(c -> c.getVersaoSync() <= ultima)
+                        .map(c -> new ClienteResumoDTO(c.getId(), c.getNome(), c.getTelefone(),
+                                c.getEmail(), c.getEndereco(), c.getCpfCnpj()))
+                        .toList(),
+                servicos.stream().filter(s -> s.getVersaoSync() <= ultima)
+                        .map(s -> new ServicoResumoDTO(s.getId(), s.getNome(), s.getDescricao(),
+                                s.getValorBase(), s.getCategoria()))
+                        .toList(),
+                removidos(remocoes, VersaoCatalogo.Catalogo.PRODUTOS, ultima),
+                removidos(remocoes, VersaoCatalogo.Catalogo.CLIENTES, ultima),
+                removidos(remocoes, VersaoCatalogo.Catalogo.SERVICOS, ultima));
+    }
+
+    private static long lerToken(String token) {
+        if (token == null || token.isBlank()) {
+            return -1;
+        }
+        try {
+            long desde = Long.parseLong(token.trim());
+            if (desde < 0) {
+                throw new NumberFormatException();
+            }
+            return desde;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("token de sincronização inválido: " + token);
+        }
+    }
+
+    private static <T> long corte(List<T> registros, Function<T, Long> versao, int maximo, long corte) {
+        if (registros.size() > maximo) {
+            return Math.min(corte, versao.apply(registros.get(maximo - 1)));
+        }
+        return corte;
+    }
+
+    private static <T> long maior(List<T> registros, Function<T, Long> versao) {
+        return registros.isEmpty() ? -1 : versao.apply(registros.get(registros.size() - 1));
+    }
+
+    private static List<Long> removidos(List<RemocaoSincronizada> remocoes, VersaoCatalogo.Catalogo catalogo, long ate) {
+        return remocoes.stream()
+                .filter(r -> r.getCatalogo() == catalogo && r.getVersaoSync() <= ate)
+                .map(RemocaoSincronizada::getRegistroId)
+                .toList();
+    }
+}
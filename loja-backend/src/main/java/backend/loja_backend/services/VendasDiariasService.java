@@ -0,0 +1,114 @@
+package backend.loja_backend.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.loja_backend.entity.VendasDiarias;
+import backend.loja_backend.entity.PDV.dto.EventoVendaDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO;
+import backend.loja_backend.entity.OutboxEvento;
+import backend.loja_backend.repositories.DashboardRepository;
+import backend.loja_backend.repositories.OutboxRepository;
+import backend.loja_backend.repositories.VendasDiariasRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mantém o rollup vendas_diarias. As vendas chegam pelo outbox (RollupVendasHandler) logo
+ * depois do commit, na transação que dá baixa nos eventos: cada venda entra uma vez só e o
+ * rollup fica atrás de ordem_venda apenas pelo atraso da entrega.
+ */
+@Service
+@RequiredArgsConstructor
+public class VendasDiariasService {
+
+    private final VendasDiariasRepository vendasDiariasRepository;
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    // Agrupa vendas e estornos por chave do rollup: um UPDATE por dia/forma/status, não por venda
+    public void registrar(List<EventoVendaDTO> vendas, List<EventoVendaDTO> estornos) {
+        // por chave: {quantidade, unidades, valor em centavos}; sem um BigDecimal novo a cada venda
+        Map<VendasDiarias.Chave, long[]> totais = new LinkedHashMap<>();
+        somar(totais, vendas, 1);
+        somar(totais, estornos, -1);
+        totais.forEach((chave, t) -> {
+            if (t[0] != 0 || t[1] != 0 || t[2] != 0) {
+                acumular(chave, t[0], t[1], Dinheiro.reais(t[2]));
+            }
+        });
+    }
+
+    public List<DashboardRepository.FormaTotalProjection> totaisPorForma(LocalDate start, LocalDate end) {
+        return vendasDiariasRepository.sumByFormaBetween(start, end);
+    }
+
+    /**
+     * Recalcula o rollup dos dias informados a partir de ordem_venda e do arquivo (backfill/correção).
+     *
+     * O resultado fica como se todos os eventos de venda já entregues tivessem sido aplicados, e
+     * só eles: os não entregues são travados (a entrega espera o commit) e a entrega de cada um
+     * depois completa a conta. Por isso vendas com venda-criada pendente ficam fora da soma, e
+     * vendas já excluídas com venda-excluida pendente (e criação entregue) voltam para ela.
+     */
+    @Transactional
+    public int reconstruir(LocalDate start, LocalDate end) {
+        outboxRepository.travarNaoEntregues(List.of(EventosService.VENDA_CRIADA, EventosService.VENDA_EXCLUIDA));
+        vendasDiariasRepository.deletarEntre(start, end);
+        int linhas = vendasDiariasRepository.reconstruirEntre(start.atStartOfDay(), end.plusDays(1).atStartOfDay());
+
+        List<EventoVendaDTO> excluidas = outboxRepository
+                .buscarNaoEntreguesSemAnterior(EventosService.VENDA_EXCLUIDA, EventosService.VENDA_CRIADA).stream()
+                .map(this::lerEvento)
+                .filter(e -> {
+                    LocalDate dia = e.getVenda().getDataVenda().toLocalDate();
+                    return !dia.isBefore(start) && !dia.isAfter(end);
+                })
+                .toList();
+        registrar(excluidas, List.of());
+        return linhas;
+    }
+
+    private EventoVendaDTO lerEvento(OutboxEvento evento) {
+        try {
+            return objectMapper.readValue(evento.getPayload(), EventoVendaDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento " + evento.getId() + " do outbox ilegível: " + e.getMessage(), e);
+        }
+    }
+
+    private void acumular(VendasDiarias.Chave chave, long quantidade, long unidades, BigDecimal valor) {
+        LocalDate dia = chave.getDia();
+        String forma = chave.getFormaPagamento();
+        String status = chave.getStatus();
+
+        if (vendasDiariasRepository.acumular(dia, forma, status, quantidade, unidades, valor) == 0) {
+            vendasDiariasRepository.criarSeAusente(dia, forma, status);
+            vendasDiariasRepository.acumular(dia, forma, status, quantidade, unidades, valor);
+        }
+    }
+
+    private static void somar(Map<VendasDiarias.Chave, long[]> totais, List<EventoVendaDTO> eventos, int sinal) {
+        for (EventoVendaDTO evento : eventos) {
+            OrdemVendaResumoDTO venda = evento.getVenda();
+            VendasDiarias.Chave chave = new VendasDiarias.Chave(venda.getDataVenda().toLocalDate(),
+                    chave(venda.getFormaPagamento()), chave(venda.getStatus()));
+            long[] t = totais.computeIfAbsent(chave, c -> new long[3]);
+            t[0] += sinal;
+            t[1] += sinal * evento.getUnidades();
+            t[2] += sinal * Dinheiro.centavos(venda.getValorTotal());
+        }
+    }
+
+    private static String chave(String valor) {
+        return valor != null ? valor : "";
+    }
+}
@@ -0,0 +1,60 @@
+package backend.loja_backend.services;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Contador de alterações de cada cadastro (produtos, clientes, serviços), usado como ETag
+ * forte das listagens: enquanto ninguém grava, o terminal que já tem a lista recebe 304
+ * sem a consulta ir ao banco.
+ */
+@Component
+public class VersaoCatalogo {
+
+    public enum Catalogo { PRODUTOS, CLIENTES, SERVICOS }
+
+    // muda a cada subida: uma ETag da execução anterior nunca coincide com as novas
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Catalogo, AtomicLong> versoes = new EnumMap<>(Catalogo.class);
+
+    public VersaoCatalogo() {
+        for (Catalogo catalogo : Catalogo.values()) {
+            versoes.put(catalogo, new AtomicLong());
+        }
+    }
+
+    public long versao(Catalogo catalogo) {
+        return versoes.get(catalogo).get();
+    }
+
+    /**
+     * ETag da versão atual. Deve ser lida antes de carregar a lista: se alguém gravar no meio,
+     * a resposta sai com a versão anterior e o próximo pedido baixa de novo.
+     */
+    public String etag(Catalogo catalogo) {
+        return "\"" + catalogo.name().toLowerCase(Locale.ROOT) + "-" + instancia + "-" + versao(catalogo) + "\"";
+    }
+
+    /**
+     * Registra uma alteração. Dentro de transação conta de novo após o término, para que uma
+     * leitura concorrente não guarde os dados anteriores ao commit sob a versão nova.
+     */
+    public void alterado(Catalogo catalogo) {
+        AtomicLong versao = versoes.get(catalogo);
+        versao.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    versao.incrementAndGet();
+                }
+            });
+        }
+    }
+}
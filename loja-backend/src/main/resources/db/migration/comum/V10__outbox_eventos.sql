@@ -0,0 +1,27 @@
+-- Outbox transacional: a venda grava aqui, na mesma transação, o que precisa acontecer depois
+-- dela (rollup do dashboard, comprovante, avisos em tempo real). O OutboxService entrega os
+-- pendentes em lotes fora da transação do checkout; como a linha só existe se a venda fez
+-- commit, nada se perde numa queda entre o commit e a entrega.
+CREATE SEQUENCE IF NOT EXISTS outbox_eventos_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_eventos (
+    id BIGINT NOT NULL PRIMARY KEY,
+    tipo VARCHAR(50) NOT NULL,
+    -- eventos do mesmo agregado (a ordem de venda) são entregues na ordem de id
+    agregado_id BIGINT NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    tentativas INTEGER DEFAULT 0 NOT NULL,
+    criado_em TIMESTAMP(6) NOT NULL,
+    proxima_tentativa TIMESTAMP(6) NOT NULL,
+    processado_em TIMESTAMP(6),
+    erro VARCHAR(1000)
+);
+
+-- próximo lote: pendentes em ordem de id
+CREATE INDEX IF NOT EXISTS idx_outbox_eventos_status_id
+    ON outbox_eventos (status, id);
+
+-- ordem por agregado: existe evento anterior ainda pendente desta ordem?
+CREATE INDEX IF NOT EXISTS idx_outbox_eventos_agregado
+    ON outbox_eventos (agregado_id, status, id);
@@ -0,0 +1,33 @@
+-- Arquivo das vendas antigas: o ArquivamentoVendasService move, em lotes, as ordens mais
+-- velhas que vendas.arquivamento.meses de ordem_venda/itens_vendas para estas tabelas.
+-- As tabelas quentes (checkout, dashboard, histórico recente) ficam pequenas; o histórico
+-- continua consultável em GET /api/ordens-venda/arquivo, só leitura.
+--
+-- Formato enxuto: sem chave de idempotência nem marca de comprovante, e sem FK para
+-- clientes/produtos. Nome do cliente e do produto são copiados na hora do arquivamento,
+-- para a venda continuar legível se o cadastro for removido depois.
+CREATE TABLE IF NOT EXISTS ordem_venda_arquivo (
+    id BIGINT NOT NULL PRIMARY KEY,
+    data_venda TIMESTAMP(6) NOT NULL,
+    descricao VARCHAR(255),
+    valor_total NUMERIC(10, 2) NOT NULL,
+    status VARCHAR(255),
+    forma_pagamento VARCHAR(255),
+    cliente_id BIGINT NOT NULL,
+    cliente_nome VARCHAR(255),
+    arquivado_em TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS itens_vendas_arquivo (
+    id BIGINT NOT NULL PRIMARY KEY,
+    ordem_venda_id BIGINT NOT NULL,
+    produto_id BIGINT NOT NULL,
+    produto_nome VARCHAR(255),
+    quantidade INTEGER,
+    preco_unitario NUMERIC(38, 2)
+);
+
+-- mesma paginação keyset do histórico quente: (data_venda, id) decrescente
+CREATE INDEX IF NOT EXISTS idx_ordem_venda_arquivo_data_id ON ordem_venda_arquivo (data_venda, id);
+CREATE INDEX IF NOT EXISTS idx_ordem_venda_arquivo_cliente_data ON ordem_venda_arquivo (cliente_id, data_venda);
+CREATE INDEX IF NOT EXISTS idx_itens_vendas_arquivo_ordem ON itens_vendas_arquivo (ordem_venda_id, id);
@@ -0,0 +1,38 @@
+-- Razão de estoque: cada mudança de saldo (venda, ajuste, devolução) vira uma linha só de
+-- inserção em movimentos_estoque, gravada na mesma transação do UPDATE atômico em produtos.
+-- produtos.quantidade_estoque continua sendo o saldo lido por todos, mas só muda por delta
+-- (quantidade_estoque = quantidade_estoque + ?); estoque_versao conta os movimentos do produto,
+-- então o movimento de versão N é exatamente o N-ésimo e o razão não tem buracos.
+ALTER TABLE produtos ADD COLUMN IF NOT EXISTS estoque_versao BIGINT DEFAULT 0 NOT NULL;
+
+CREATE SEQUENCE IF NOT EXISTS movimentos_estoque_seq START WITH 1 INCREMENT BY 50;
+
+-- sem FK para produtos/ordem_venda: o histórico sobrevive à remoção do cadastro e ao arquivamento
+CREATE TABLE IF NOT EXISTS movimentos_estoque (
+    id BIGINT NOT NULL PRIMARY KEY,
+    produto_id BIGINT NOT NULL,
+    -- estoque_versao do produto depois deste movimento
+    versao BIGINT NOT NULL,
+    tipo VARCHAR(20) NOT NULL,
+    -- variação do saldo: negativa na venda, positiva na devolução, qualquer sinal no ajuste
+    quantidade INTEGER NOT NULL,
+    -- saldo do produto depois deste movimento
+    saldo INTEGER NOT NULL,
+    ordem_venda_id BIGINT,
+    motivo VARCHAR(255),
+    criado_em TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_movimentos_estoque_produto_versao UNIQUE (produto_id, versao)
+);
+
+-- Fotografias periódicas do saldo: a conciliação só soma os movimentos posteriores à última
+CREATE TABLE IF NOT EXISTS estoque_snapshots (
+    produto_id BIGINT NOT NULL,
+    versao BIGINT NOT NULL,
+    saldo INTEGER NOT NULL,
+    criado_em TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (produto_id, versao)
+);
+
+-- o saldo de hoje é o ponto de partida do razão
+INSERT INTO estoque_snapshots (produto_id, versao, saldo, criado_em)
+SELECT id, 0, COALESCE(quantidade_estoque, 0), CURRENT_TIMESTAMP FROM produtos;
@@ -0,0 +1,68 @@
+-- Esquema que o Hibernate mantinha com ddl-auto=update. Tudo com IF NOT EXISTS: em bancos
+-- criados antes das migrações (baseline 0) este script só completa o que faltar.
+
+CREATE TABLE IF NOT EXISTS clientes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome VARCHAR(255),
+    telefone VARCHAR(255),
+    email VARCHAR(255),
+    endereco VARCHAR(255),
+    cpf_cnpj VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS produtos (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome VARCHAR(255),
+    descricao VARCHAR(255),
+    preco_custo DOUBLE PRECISION,
+    preco_venda DOUBLE PRECISION,
+    quantidade_estoque INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS servicos (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome VARCHAR(255),
+    descricao VARCHAR(255),
+    valor_base DOUBLE PRECISION,
+    categoria VARCHAR(255)
+);
+
+CREATE SEQUENCE IF NOT EXISTS ordem_venda_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS itens_vendas_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS ordem_venda (
+    id BIGINT NOT NULL PRIMARY KEY,
+    chave_idempotencia VARCHAR(100),
+    descricao VARCHAR(255),
+    valor_total NUMERIC(10, 2) NOT NULL,
+    data_venda TIMESTAMP(6) NOT NULL,
+    status VARCHAR(255),
+    forma_pagamento VARCHAR(255),
+    comprovante_gerado_em TIMESTAMP(6),
+    cliente_id BIGINT NOT NULL,
+    CONSTRAINT uk_ordem_venda_chave_idempotencia UNIQUE (chave_idempotencia),
+    CONSTRAINT fk_ordem_venda_cliente FOREIGN KEY (cliente_id) REFERENCES clientes (id)
+);
+
+-- colunas que entraram depois da criação da tabela em bancos antigos
+ALTER TABLE ordem_venda ADD COLUMN IF NOT EXISTS chave_idempotencia VARCHAR(100);
+ALTER TABLE ordem_venda ADD COLUMN IF NOT EXISTS comprovante_gerado_em TIMESTAMP(6);
+
+-- produto_id sem FK: o item continua existindo quando o produto é excluído ("Produto Removido")
+CREATE TABLE IF NOT EXISTS itens_vendas (
+    id BIGINT NOT NULL PRIMARY KEY,
+    produto_id BIGINT NOT NULL,
+    ordem_venda_id BIGINT NOT NULL,
+    quantidade INTEGER,
+    preco_unitario NUMERIC(38, 2),
+    CONSTRAINT fk_itens_vendas_ordem_venda FOREIGN KEY (ordem_venda_id) REFERENCES ordem_venda (id)
+);
+
+CREATE TABLE IF NOT EXISTS vendas_diarias (
+    dia DATE NOT NULL,
+    forma_pagamento VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    quantidade BIGINT NOT NULL,
+    total NUMERIC(14, 2) NOT NULL,
+    PRIMARY KEY (dia, forma_pagamento, status)
+);
@@ -0,0 +1,24 @@
+-- Índices para as consultas de vendas existentes. As colunas extras no fim cobrem a consulta
+-- (o banco responde só pelo índice, sem ler a linha da tabela).
+
+-- DashboardRepository.sumByFormaBetween: status = 'FINALIZADA' AND data_venda BETWEEN ... GROUP BY forma_pagamento
+CREATE INDEX IF NOT EXISTS idx_ordem_venda_status_data
+    ON ordem_venda (status, data_venda, forma_pagamento, valor_total);
+
+-- listagem keyset (data_venda DESC, id DESC), exportação por período, MIN/MAX e rebuild do rollup
+CREATE INDEX IF NOT EXISTS idx_ordem_venda_data_id
+    ON ordem_venda (data_venda, id);
+
+-- filtros da listagem por cliente e por forma de pagamento (mesma ordenação por data)
+CREATE INDEX IF NOT EXISTS idx_ordem_venda_cliente_data
+    ON ordem_venda (cliente_id, data_venda);
+CREATE INDEX IF NOT EXISTS idx_ordem_venda_forma_data
+    ON ordem_venda (forma_pagamento, data_venda);
+
+-- itens de uma ordem (detalhe, exportação, batch fetch) já na ordem de id
+CREATE INDEX IF NOT EXISTS idx_itens_vendas_ordem
+    ON itens_vendas (ordem_venda_id, id);
+
+-- vendas de um produto (o FK lógico sem constraint também precisa de índice)
+CREATE INDEX IF NOT EXISTS idx_itens_vendas_produto
+    ON itens_vendas (produto_id);
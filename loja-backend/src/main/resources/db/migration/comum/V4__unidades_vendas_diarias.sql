@@ -0,0 +1,11 @@
+-- Unidades vendidas (soma de itens_vendas.quantidade) no rollup diário, para as séries do
+-- dashboard por dia/semana não precisarem ler os itens.
+ALTER TABLE vendas_diarias ADD COLUMN IF NOT EXISTS unidades BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE vendas_diarias v SET unidades = COALESCE((
+    SELECT SUM(i.quantidade)
+    FROM ordem_venda o JOIN itens_vendas i ON i.ordem_venda_id = o.id
+    WHERE o.data_venda >= CAST(v.dia AS TIMESTAMP)
+      AND o.data_venda < CAST(v.dia AS TIMESTAMP) + INTERVAL '1' DAY
+      AND COALESCE(o.forma_pagamento, '') = v.forma_pagamento
+      AND COALESCE(o.status, '') = v.status), 0);
@@ -0,0 +1,24 @@
+-- Sincronização incremental do catálogo (GET /api/sync): cada gravação em produtos, clientes
+-- e serviços recebe uma versão crescente; exclusões ficam registradas em sync_remocoes.
+-- A sequence é reservada em blocos de 50 pela aplicação.
+CREATE SEQUENCE IF NOT EXISTS sync_versao_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE produtos ADD COLUMN IF NOT EXISTS versao_sync BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS versao_sync BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE servicos ADD COLUMN IF NOT EXISTS versao_sync BIGINT DEFAULT 0 NOT NULL;
+
+-- linhas já existentes também recebem versões únicas (a resposta paginada corta por versão)
+UPDATE produtos SET versao_sync = nextval('sync_versao_seq');
+UPDATE clientes SET versao_sync = nextval('sync_versao_seq');
+UPDATE servicos SET versao_sync = nextval('sync_versao_seq');
+
+CREATE INDEX IF NOT EXISTS idx_produtos_versao_sync ON produtos (versao_sync);
+CREATE INDEX IF NOT EXISTS idx_clientes_versao_sync ON clientes (versao_sync);
+CREATE INDEX IF NOT EXISTS idx_servicos_versao_sync ON servicos (versao_sync);
+
+CREATE TABLE IF NOT EXISTS sync_remocoes (
+    versao_sync BIGINT NOT NULL PRIMARY KEY,
+    catalogo VARCHAR(20) NOT NULL,
+    registro_id BIGINT NOT NULL,
+    removido_em TIMESTAMP(6) NOT NULL
+);
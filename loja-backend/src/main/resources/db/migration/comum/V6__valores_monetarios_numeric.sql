@@ -0,0 +1,6 @@
+-- Preços e valores em NUMERIC(12,2) em vez de DOUBLE PRECISION: somas exatas no banco (valor
+-- do estoque, relatórios) e o mesmo tipo de ordem_venda.valor_total. A conversão arredonda
+-- para centavos.
+ALTER TABLE produtos ALTER COLUMN preco_custo SET DATA TYPE NUMERIC(12, 2);
+ALTER TABLE produtos ALTER COLUMN preco_venda SET DATA TYPE NUMERIC(12, 2);
+ALTER TABLE servicos ALTER COLUMN valor_base SET DATA TYPE NUMERIC(12, 2);
@@ -0,0 +1,19 @@
+-- CPF/CNPJ só com dígitos, único, para achar o cliente pelo documento no balcão
+-- (GET /api/clientes/doc/{cpfCnpj}). cpf_cnpj continua como foi digitado, para exibição;
+-- a aplicação preenche cpf_cnpj_digitos quando cpf_cnpj é cadastrado ou alterado.
+ALTER TABLE clientes ADD COLUMN cpf_cnpj_digitos VARCHAR(14);
+
+-- só os dígitos, e só se formam um CPF (11) ou CNPJ (14): texto livre antigo fica sem documento
+UPDATE clientes
+SET cpf_cnpj_digitos = CASE WHEN LENGTH(REGEXP_REPLACE(cpf_cnpj, '[^0-9]', '', 'g')) IN (11, 14)
+                            THEN REGEXP_REPLACE(cpf_cnpj, '[^0-9]', '', 'g') END
+WHERE cpf_cnpj IS NOT NULL;
+
+-- cadastros repetidos de antes da restrição: o documento fica com o cliente mais antigo
+UPDATE clientes
+SET cpf_cnpj_digitos = NULL
+WHERE EXISTS (SELECT 1 FROM clientes anterior
+              WHERE anterior.cpf_cnpj_digitos = clientes.cpf_cnpj_digitos
+                AND anterior.id < clientes.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_clientes_cpf_cnpj_digitos ON clientes (cpf_cnpj_digitos);
@@ -0,0 +1,118 @@
+-- ordem_venda particionada por mês de data_venda (RANGE). Consultas por período (dashboard,
+-- listagem, exportação, rollup) só leem as partições do intervalo, e o arquivamento futuro
+-- pode desanexar meses inteiros.
+--
+-- Consequências do particionamento no PostgreSQL:
+--  * a chave primária precisa conter data_venda: passa a ser (id, data_venda);
+--  * UNIQUE(chave_idempotencia) não é mais possível na tabela: a unicidade vai para
+--    ordem_venda_chaves, mantida por trigger;
+--  * itens_vendas.ordem_venda_id deixa de ter FK (ela exigiria data_venda no item);
+--    a exclusão dos itens continua pelo cascade do JPA.
+
+-- bancos antigos usavam IDENTITY: adianta as sequences para depois do maior id existente
+SELECT setval('ordem_venda_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM ordem_venda), (SELECT last_value FROM ordem_venda_seq)));
+SELECT setval('itens_vendas_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM itens_vendas), (SELECT last_value FROM itens_vendas_seq)));
+
+ALTER TABLE ordem_venda RENAME TO ordem_venda_antiga;
+
+CREATE TABLE ordem_venda (
+    id BIGINT NOT NULL,
+    chave_idempotencia VARCHAR(100),
+    descricao VARCHAR(255),
+    valor_total NUMERIC(10, 2) NOT NULL,
+    data_venda TIMESTAMP(6) NOT NULL,
+    status VARCHAR(255),
+    forma_pagamento VARCHAR(255),
+    comprovante_gerado_em TIMESTAMP(6),
+    cliente_id BIGINT NOT NULL,
+    CONSTRAINT pk_ordem_venda PRIMARY KEY (id, data_venda),
+    CONSTRAINT fk_ordem_venda_cliente FOREIGN KEY (cliente_id) REFERENCES clientes (id)
+) PARTITION BY RANGE (data_venda);
+
+-- recebe o que não tiver partição mensal (datas fora da janela criada)
+CREATE TABLE ordem_venda_padrao PARTITION OF ordem_venda DEFAULT;
+
+-- Unicidade da chave de idempotência, agora fora da tabela particionada
+CREATE TABLE ordem_venda_chaves (
+    chave_idempotencia VARCHAR(100) PRIMARY KEY,
+    ordem_venda_id BIGINT NOT NULL
+);
+
+CREATE FUNCTION ordem_venda_registrar_chave() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        IF NEW.chave_idempotencia IS NOT NULL THEN
+            INSERT INTO ordem_venda_chaves (chave_idempotencia, ordem_venda_id)
+            VALUES (NEW.chave_idempotencia, NEW.id);
+        END IF;
+        RETURN NEW;
+    END IF;
+    -- linhas movidas da partição padrão para uma partição nova não foram excluídas de verdade
+    IF OLD.chave_idempotencia IS NOT NULL
+            AND current_setting('loja.movendo_particao', true) IS DISTINCT FROM 'on' THEN
+        DELETE FROM ordem_venda_chaves
+        WHERE chave_idempotencia = OLD.chave_idempotencia AND ordem_venda_id = OLD.id;
+    END IF;
+    RETURN OLD;
+END;
+$$;
+
+CREATE TRIGGER trg_ordem_venda_chave
+    AFTER INSERT OR DELETE ON ordem_venda
+    FOR EACH ROW EXECUTE FUNCTION ordem_venda_registrar_chave();
+
+-- Cria as partições mensais que faltam em [inicio, fim). Linhas do mês que já estavam na
+-- partição padrão são movidas para a partição nova antes do ATTACH. Devolve quantas criou.
+CREATE FUNCTION criar_particoes_ordem_venda(inicio DATE, fim DATE) RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    mes DATE := date_trunc('month', inicio)::DATE;
+    proximo DATE;
+    nome TEXT;
+    criadas INTEGER := 0;
+BEGIN
+    WHILE mes < fim LOOP
+        proximo := (mes + INTERVAL '1 month')::DATE;
+        nome := 'ordem_venda_' || to_char(mes, 'YYYY_MM');
+        IF to_regclass(nome) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE ordem_venda INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', nome);
+            PERFORM set_config('loja.movendo_particao', 'on', true);
+            EXECUTE format('WITH movidas AS (DELETE FROM ordem_venda_padrao WHERE data_venda >= %L AND data_venda < %L RETURNING *) '
+                           'INSERT INTO %I SELECT * FROM movidas', mes, proximo, nome);
+            PERFORM set_config('loja.movendo_particao', 'off', true);
+            EXECUTE format('ALTER TABLE ordem_venda ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', nome, mes, proximo);
+            criadas := criadas + 1;
+        END IF;
+        mes := proximo;
+    END LOOP;
+    RETURN criadas;
+END;
+$$;
+
+-- partições do histórico existente até alguns meses à frente (a aplicação continua criando)
+SELECT criar_particoes_ordem_venda(
+    LEAST(COALESCE((SELECT MIN(data_venda) FROM ordem_venda_antiga)::DATE, CURRENT_DATE), CURRENT_DATE),
+    (date_trunc('month', CURRENT_DATE) + INTERVAL '4 months')::DATE);
+
+INSERT INTO ordem_venda (id, chave_idempotencia, descricao, valor_total, data_venda, status,
+                         forma_pagamento, comprovante_gerado_em, cliente_id)
+SELECT id, chave_idempotencia, descricao, valor_total, data_venda, status,
+       forma_pagamento, comprovante_gerado_em, cliente_id
+FROM ordem_venda_antiga;
+
+-- leva junto a FK de itens_vendas e os índices da V2, recriados abaixo na tabela particionada
+DROP TABLE ordem_venda_antiga CASCADE;
+
+CREATE INDEX idx_ordem_venda_status_data ON ordem_venda (status, data_venda) INCLUDE (forma_pagamento, valor_total);
+CREATE INDEX idx_ordem_venda_data_id ON ordem_venda (data_venda, id);
+CREATE INDEX idx_ordem_venda_cliente_data ON ordem_venda (cliente_id, data_venda);
+CREATE INDEX idx_ordem_venda_forma_data ON ordem_venda (forma_pagamento, data_venda);
+-- findByChaveIdempotencia (a unicidade está em ordem_venda_chaves)
+CREATE INDEX idx_ordem_venda_chave ON ordem_venda (chave_idempotencia) WHERE chave_idempotencia IS NOT NULL;
+-- fila de comprovantes: só as ordens ainda sem comprovante entram no índice
+CREATE INDEX idx_ordem_venda_sem_comprovante ON ordem_venda (id) WHERE comprovante_gerado_em IS NULL;
+
+ANALYZE ordem_venda;
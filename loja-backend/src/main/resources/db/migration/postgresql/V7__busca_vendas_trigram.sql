@@ -0,0 +1,16 @@
+-- Busca textual do histórico de vendas (GET /api/ordens-venda/busca): LIKE '%termo%' sobre
+-- nome e cpf/cnpj do cliente e descrição da venda. Índices GIN de trigramas atendem o LIKE
+-- com curinga dos dois lados; o planner junta os três (e a PK, na busca por número) num
+-- BitmapOr em vez de varrer ordem_venda. Termos com menos de 3 caracteres não usam trigramas.
+--
+-- pg_trgm faz parte do contrib do PostgreSQL; criar a extensão exige permissão de CREATE no banco.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_clientes_nome_trgm
+    ON clientes USING gin (LOWER(nome) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_clientes_cpf_cnpj_trgm
+    ON clientes USING gin (LOWER(cpf_cnpj) gin_trgm_ops);
+
+-- criado na tabela particionada: vale para as partições atuais e as que vierem
+CREATE INDEX IF NOT EXISTS idx_ordem_venda_descricao_trgm
+    ON ordem_venda USING gin (LOWER(descricao) gin_trgm_ops);
@@ -0,0 +1,11 @@
+-- Busca de clientes por prefixo (GET /api/clientes?q=): LIKE 'termo%' em nome, e-mail,
+-- telefone e documento. Com collation diferente de C, só índices *_pattern_ops atendem
+-- LIKE por prefixo (o único de cpf_cnpj_digitos não serve para isso).
+CREATE INDEX IF NOT EXISTS idx_clientes_nome_prefixo
+    ON clientes (LOWER(nome) varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_clientes_email_prefixo
+    ON clientes (LOWER(email) varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_clientes_telefone_prefixo
+    ON clientes (telefone varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_clientes_cpf_cnpj_digitos_prefixo
+    ON clientes (cpf_cnpj_digitos varchar_pattern_ops);
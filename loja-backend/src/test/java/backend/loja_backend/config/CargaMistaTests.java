@@ -0,0 +1,164 @@
+package backend.loja_backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+
+/**
+ * Carga mista: vendas no PDV concorrendo com relatórios pesados, com um pool pequeno.
+ * Os relatórios ficam limitados pelo bulkhead e as vendas continuam passando.
+ * Fica fora do mvn test normal: rodar com mvn -Pcarga test -Dtest=CargaMistaTests.
+ */
+@Tag("carga")
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=6",
+        "loja.relatorios.concorrencia-maxima=2",
+        "loja.relatorios.espera-maxima=200ms"
+})
+@AutoConfigureMockMvc
+class CargaMistaTests {
+
+    private static final int CLIENTES_PDV = 8;
+    private static final int CLIENTES_RELATORIO = 16;
+    private static final long DURACAO_MS = 3_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void vendasMantemP99ComRelatoriosConcorrendo() throws Exception {
+        Clientes cliente = new Clientes();
+        cliente.setNome("Balcão");
+        cliente = clienteRepository.save(cliente);
+        List<Long> produtos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Produtos p = new Produtos();
+            p.setNome("Produto " + i);
+            p.setPrecoCusto(new BigDecimal("1.00"));
+            p.setPrecoVenda(new BigDecimal("2.00"));
+            p.setQuantidadeEstoque(1_000_000);
+            produtos.add(produtoRepository.save(p).getId());
+        }
+        Long clienteId = cliente.getId();
+
+        // aquecimento (JIT, caches, primeira linha do rollup) fora da medição
+        for (int i = 0; i < 50; i++) {
+            mockMvc.perform(post("/api/ordens-venda").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(venda(clienteId, produtos))));
+            mockMvc.perform(get("/api/ordens-venda/export").param("format", "csv"));
+        }
+
+        List<Long> latenciasVenda = Collections.synchronizedList(new ArrayList<>());
+        Set<Integer> statusVenda = ConcurrentHashMap.newKeySet();
+        Set<Integer> statusRelatorio = ConcurrentHashMap.newKeySet();
+        long fim = System.currentTimeMillis() + DURACAO_MS;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(CLIENTES_PDV + CLIENTES_RELATORIO)) {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < CLIENTES_RELATORIO; i++) {
+                boolean exportacao = i % 2 == 0;
+                tarefas.add(executor.submit(() -> {
+                    while (System.currentTimeMillis() < fim) {
+                        var requisicao = exportacao
+                                ? get("/api/ordens-venda/export").param("format", "csv")
+                                : get("/api/dashboard/totais")
+                                        .param("start", "2020-01-01T00:00:00").param("end", "2030-01-01T00:00:00");
+                        statusRelatorio.add(mockMvc.perform(requisicao).andReturn().getResponse().getStatus());
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < CLIENTES_PDV; i++) {
+                tarefas.add(executor.submit(() -> {
+                    while (System.currentTimeMillis() < fim) {
+                        String corpo = objectMapper.writeValueAsString(venda(clienteId, produtos));
+                        long inicio = System.nanoTime();
+                        int status = mockMvc.perform(post("/api/ordens-venda")
+                                .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                                .andReturn().getResponse().getStatus();
+                        latenciasVenda.add(System.nanoTime() - inicio);
+                        statusVenda.add(status);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        List<Long> ordenadas = new ArrayList<>(latenciasVenda);
+        Collections.sort(ordenadas);
+        double p50 = ordenadas.get(ordenadas.size() / 2) / 1e6;
+        double p99 = ordenadas.get((int) Math.ceil(ordenadas.size() * 0.99) - 1) / 1e6;
+        // vai junto de cada asserção, para a falha já mostrar as latências da rodada
+        String resumo = String.format("carga mista: %d vendas, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                ordenadas.size(), p50, p99, ordenadas.get(ordenadas.size() - 1) / 1e6);
+
+        assertThat(statusVenda).as(resumo).containsOnly(200);
+        assertThat(statusRelatorio).as(resumo).isSubsetOf(200, 503);
+        assertThat(p99).as(resumo).isLessThan(1_000);
+    }
+
+    private static OrdemVendasDTO venda(Long clienteId, List<Long> produtos) {
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produtos.get(ThreadLocalRandom.current().nextInt(produtos.size())));
+        item.setQuantidade(1);
+        item.setPrecoUnitario(new BigDecimal("2.00"));
+        item.setPrecoTotal(new BigDecimal("2.00"));
+
+        OrdemVendasDTO dto = new OrdemVendasDTO();
+        dto.setClienteId(clienteId);
+        dto.setStatus("FINALIZADA");
+        dto.setFormaPagamento("PIX");
+        dto.setValorTotal(new BigDecimal("2.00"));
+        dto.setItensVendas(List.of(item));
+        return dto;
+    }
+}
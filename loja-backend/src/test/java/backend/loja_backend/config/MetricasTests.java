@@ -0,0 +1,54 @@
+package backend.loja_backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void contaComandosSqlPorRequisicao() throws Exception {
+        mockMvc.perform(get("/api/clientes")).andExpect(status().isOk());
+
+        DistributionSummary resumo = registry.find("loja.sql.comandos.por.requisicao")
+                .tag("uri", "/api/clientes").summary();
+        assertThat(resumo).isNotNull();
+        assertThat(resumo.count()).isPositive();
+        assertThat(resumo.max()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void expoeMetricasNoFormatoPrometheus() throws Exception {
+        mockMvc.perform(get("/api/clientes")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("hikaricp_connections"),
+                        containsString("loja_servicos_seconds"),
+                        containsString("loja_sql_execucoes_seconds"),
+                        containsString("spring_data_repository_invocations_seconds"),
+                        containsString("cache_gets_total"))));
+    }
+}
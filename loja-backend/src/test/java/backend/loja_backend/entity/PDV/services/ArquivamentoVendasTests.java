@@ -0,0 +1,141 @@
+package backend.loja_backend.entity.PDV.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaDetalheDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO;
+import backend.loja_backend.entity.PDV.entity.ItensVendas;
+import backend.loja_backend.entity.PDV.entity.OrdemVenda;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+
+@SpringBootTest(properties = "vendas.arquivamento.lote=2")
+@AutoConfigureMockMvc
+class ArquivamentoVendasTests {
+
+    @Autowired
+    private ArquivamentoVendasService arquivamentoVendasService;
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void limparDados() {
+        jdbcTemplate.update("DELETE FROM itens_vendas_arquivo");
+        jdbcTemplate.update("DELETE FROM ordem_venda_arquivo");
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void moveAsVendasAntigasEmLotesEMantemAsRecentes() throws Exception {
+        Clientes cliente = cliente("Marta Lins");
+        Produtos produto = produto("Afinador");
+        LocalDateTime antiga = LocalDate.now().minusYears(3).atTime(10, 0);
+        OrdemVenda primeira = venda(cliente, produto, antiga, 2);
+        OrdemVenda segunda = venda(cliente, produto, antiga.plusDays(1), 1);
+        OrdemVenda terceira = venda(cliente, produto, antiga.plusDays(2), 3);
+        OrdemVenda recente = venda(cliente, produto, LocalDateTime.now().minusDays(3), 1);
+
+        // lote de 2: três vendas antigas saem em dois lotes
+        assertThat(arquivamentoVendasService.arquivar()).isEqualTo(3);
+
+        assertThat(ordemVendaRepository.findAll()).extracting(OrdemVenda::getId).containsExactly(recente.getId());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM itens_vendas", Long.class)).isEqualTo(1);
+        assertThat(ordemVendaService.listarArquivo(null, null, null, null, null).getContent())
+                .extracting(OrdemVendaResumoDTO::getId)
+                .containsExactly(terceira.getId(), segunda.getId(), primeira.getId());
+
+        // nada mais a mover
+        assertThat(arquivamentoVendasService.arquivar()).isZero();
+    }
+
+    @Test
+    void arquivoContinuaLegivelDepoisDeRemoverOsCadastros() throws Exception {
+        Clientes cliente = cliente("Rui Castro");
+        Produtos produto = produto("Capotraste");
+        OrdemVenda ordem = venda(cliente, produto, LocalDate.now().minusYears(3).atTime(15, 30), 2);
+        arquivamentoVendasService.arquivar();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+
+        OrdemVendaDetalheDTO detalhe = ordemVendaService.buscarDetalheArquivado(ordem.getId()).orElseThrow();
+        assertThat(detalhe.getCliente().getNome()).isEqualTo("Rui Castro");
+        assertThat(detalhe.getItensVendas()).singleElement().satisfies(item -> {
+            assertThat(item.getProduto().getNome()).isEqualTo("Capotraste");
+            assertThat(item.getQuantidade()).isEqualTo(2);
+            assertThat(item.getPrecoUnitario()).isEqualByComparingTo("12.50");
+        });
+
+        mockMvc.perform(get("/api/ordens-venda/arquivo").param("clienteId", cliente.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(ordem.getId()))
+                .andExpect(jsonPath("$.content[0].clienteNome").value("Rui Castro"));
+        mockMvc.perform(get("/api/ordens-venda/arquivo/{id}", ordem.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valorTotal").value(25.0));
+        mockMvc.perform(get("/api/ordens-venda/{id}", ordem.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    private Clientes cliente(String nome) {
+        Clientes c = new Clientes();
+        c.setNome(nome);
+        return clienteRepository.save(c);
+    }
+
+    private Produtos produto(String nome) {
+        Produtos p = new Produtos();
+        p.setNome(nome);
+        p.setPrecoCusto(new BigDecimal("6.00"));
+        p.setPrecoVenda(new BigDecimal("12.50"));
+        p.setQuantidadeEstoque(10);
+        return produtoRepository.save(p);
+    }
+
+    private OrdemVenda venda(Clientes cliente, Produtos produto, LocalDateTime data, int quantidade) {
+        OrdemVenda ordem = new OrdemVenda();
+        ordem.setCliente(cliente);
+        ordem.setDataVenda(data);
+        ordem.setStatus("FINALIZADA");
+        ordem.setFormaPagamento("PIX");
+        ordem.setValorTotal(new BigDecimal("12.50").multiply(BigDecimal.valueOf(quantidade)));
+        ItensVendas item = new ItensVendas();
+        item.setOrdemVenda(ordem);
+        item.setProduto(produto);
+        item.setQuantidade(quantidade);
+        item.setPrecoUnitario(new BigDecimal("12.50"));
+        ordem.setItensVendas(new ArrayList<>(List.of(item)));
+        return ordemVendaRepository.save(ordem);
+    }
+}
@@ -0,0 +1,186 @@
+package backend.loja_backend.entity.PDV.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.entity.OrdemVenda;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+import backend.loja_backend.services.OutboxService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ComprovanteTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ComprovanteService comprovanteService;
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void comprovanteEGeradoDepoisDaVendaEServidoComCache() throws Exception {
+        OrdemVenda ordem = vender("Baqueta <7A>");
+        Path arquivo = aguardarComprovante(ordem.getId());
+
+        assertThat(Files.readString(arquivo)).contains("Comprovante de Venda #" + ordem.getId())
+                .contains("Baqueta &lt;7A&gt;");
+
+        String etag = mockMvc.perform(get("/api/ordens-venda/{id}/comprovante", ordem.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/html"))
+                .andExpect(header().string("Cache-Control", "private, max-age=86400"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/api/ordens-venda/{id}/comprovante", ordem.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void ordemInexistenteDa404EExclusaoRemoveOArquivo() throws Exception {
+        mockMvc.perform(get("/api/ordens-venda/{id}/comprovante", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+
+        OrdemVenda ordem = vender("Pele");
+        Path arquivo = aguardarComprovante(ordem.getId());
+        ordemVendaService.deletar(ordem.getId());
+
+        assertThat(arquivo).doesNotExist();
+    }
+
+    @Test
+    void pendentesSaoGeradosAoReiniciar() throws Exception {
+        OrdemVenda ordem = vender("Chimbal");
+        Path arquivo = aguardarComprovante(ordem.getId());
+
+        // simula uma queda antes de o worker gravar: sem arquivo e sem marca no banco
+        comprovanteService.parar();
+        Files.delete(arquivo);
+        jdbcTemplate.update("UPDATE ordem_venda SET comprovante_gerado_em = NULL WHERE id = ?", ordem.getId());
+        mockMvc.perform(get("/api/ordens-venda/{id}/comprovante", ordem.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Retry-After"));
+
+        comprovanteService.iniciar();
+        aguardarComprovante(ordem.getId());
+    }
+
+    @Test
+    void maisPendentesQueACapacidadeDaFilaNaoTravamOWorker(@TempDir Path diretorio) throws Exception {
+        // gravadas direto, sem passar pelo outbox: como vendas antigas no primeiro deploy
+        Clientes cliente = new Clientes();
+        cliente.setNome("Balcão");
+        cliente = clienteRepository.save(cliente);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            OrdemVenda ordem = new OrdemVenda();
+            ordem.setCliente(cliente);
+            ordem.setDataVenda(LocalDateTime.now());
+            ordem.setStatus("FINALIZADA");
+            ordem.setFormaPagamento("PIX");
+            ordem.setValorTotal(new BigDecimal("2.00"));
+            ordem.setItensVendas(new ArrayList<>());
+            ids.add(ordemVendaRepository.save(ordem).getId());
+        }
+
+        // fila para 2: a varredura inicial não cabe nela e o worker tem de seguir esvaziando
+        ComprovanteService pequeno = new ComprovanteService(ordemVendaRepository, diretorio.toString(), 2, 1);
+        pequeno.iniciar();
+        try {
+            for (int i = 0; i < 300 && !ids.stream().allMatch(id -> Files.exists(pequeno.arquivo(id))); i++) {
+                Thread.sleep(50);
+            }
+            assertThat(ids).allSatisfy(id -> assertThat(pequeno.arquivo(id)).exists());
+        } finally {
+            pequeno.parar();
+        }
+    }
+
+    private Path aguardarComprovante(Long id) throws InterruptedException {
+        Path arquivo = comprovanteService.arquivo(id);
+        // o arquivo aparece antes da marca no banco: espera os dois
+        for (int i = 0; i < 100 && !(Files.exists(arquivo) && marcado(id)); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(arquivo).exists();
+        assertThat(marcado(id)).isTrue();
+        return arquivo;
+    }
+
+    private boolean marcado(Long id) {
+        return ordemVendaRepository.findById(id).map(o -> o.getComprovanteGeradoEm() != null).orElse(false);
+    }
+
+    private OrdemVenda vender(String nomeProduto) {
+        Clientes cliente = new Clientes();
+        cliente.setNome("Balcão");
+        cliente = clienteRepository.save(cliente);
+
+        Produtos produto = new Produtos();
+        produto.setNome(nomeProduto);
+        produto.setPrecoCusto(new BigDecimal("1.00"));
+        produto.setPrecoVenda(new BigDecimal("2.00"));
+        produto.setQuantidadeEstoque(10);
+        produto = produtoRepository.save(produto);
+
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(1);
+        item.setPrecoUnitario(new BigDecimal("2.00"));
+        item.setPrecoTotal(new BigDecimal("2.00"));
+        OrdemVendasDTO dto = new OrdemVendasDTO();
+        dto.setClienteId(cliente.getId());
+        dto.setStatus("FINALIZADA");
+        dto.setFormaPagamento("PIX");
+        dto.setValorTotal(new BigDecimal("2.00"));
+        dto.setItensVendas(List.of(item));
+        OrdemVenda ordem = ordemVendaService.criarOrdemVenda(dto, cliente);
+        // o comprovante é agendado pelo outbox
+        outboxService.processarPendentes();
+        return ordem;
+    }
+}
@@ -0,0 +1,129 @@
+package backend.loja_backend.entity.PDV.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+
+@SpringBootTest
+class ExportacaoVendasTests {
+
+    @Autowired
+    private ExportacaoVendasService exportacaoVendasService;
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void csvTemUmaLinhaPorItemERespeitaOPeriodo() throws Exception {
+        Clientes cliente = novoCliente("Silva, João");
+        Produtos baqueta = novoProduto("Baqueta");
+        Produtos pele = novoProduto("Pele \"batedeira\"");
+        ordemVendaService.criarOrdensEmLote(List.of(
+                venda("e-1", "2025-03-10T10:00:00", cliente, baqueta, pele),
+                venda("e-2", "2025-03-11T10:00:00", cliente, baqueta),
+                venda("e-3", "2025-04-01T10:00:00", cliente, baqueta)));
+
+        String csv = exportar(ExportacaoVendasService.CSV,
+                LocalDateTime.parse("2025-03-01T00:00:00"), LocalDateTime.parse("2025-03-31T23:59:59"));
+
+        List<String> linhas = csv.lines().toList();
+        assertThat(linhas).hasSize(4);
+        assertThat(linhas.get(0)).startsWith("ordem_id,data_venda");
+        assertThat(linhas.get(1)).contains("\"Silva, João\"").contains("Baqueta");
+        assertThat(linhas.get(2)).contains("\"Pele \"\"batedeira\"\"\"");
+        assertThat(linhas.get(3)).contains("2025-03-11T10:00");
+    }
+
+    @Test
+    void ndjsonAgrupaOsItensDeCadaOrdem() throws Exception {
+        Clientes cliente = novoCliente("Balcão");
+        Produtos baqueta = novoProduto("Baqueta");
+        Produtos pele = novoProduto("Pele");
+        ordemVendaService.criarOrdensEmLote(List.of(
+                venda("n-1", "2025-03-10T10:00:00", cliente, baqueta, pele),
+                venda("n-2", "2025-03-11T10:00:00", cliente, pele)));
+
+        List<String> linhas = exportar(ExportacaoVendasService.NDJSON, null, null).lines().toList();
+
+        assertThat(linhas).hasSize(2);
+        JsonNode primeira = objectMapper.readTree(linhas.get(0));
+        assertThat(primeira.get("clienteNome").asText()).isEqualTo("Balcão");
+        assertThat(primeira.get("itens")).hasSize(2);
+        assertThat(objectMapper.readTree(linhas.get(1)).get("itens")).hasSize(1);
+    }
+
+    private String exportar(String formato, LocalDateTime start, LocalDateTime end) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoVendasService.exportar(formato, start, end, saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    private Produtos novoProduto(String nome) {
+        Produtos p = new Produtos();
+        p.setNome(nome);
+        p.setPrecoCusto(new BigDecimal("1.00"));
+        p.setPrecoVenda(new BigDecimal("2.00"));
+        p.setQuantidadeEstoque(100);
+        return produtoRepository.save(p);
+    }
+
+    private Clientes novoCliente(String nome) {
+        Clientes c = new Clientes();
+        c.setNome(nome);
+        return clienteRepository.save(c);
+    }
+
+    private static OrdemVendasDTO venda(String chave, String data, Clientes cliente, Produtos... produtos) {
+        OrdemVendasDTO dto = new OrdemVendasDTO();
+        dto.setChaveIdempotencia(chave);
+        dto.setClienteId(cliente.getId());
+        dto.setStatus("FINALIZADA");
+        dto.setFormaPagamento("PIX");
+        dto.setDataVenda(data);
+        dto.setValorTotal(BigDecimal.valueOf(2L * produtos.length));
+        dto.setItensVendas(Arrays.stream(produtos).map(p -> {
+            ItensVendasDTO item = new ItensVendasDTO();
+            item.setProdutoId(p.getId());
+            item.setQuantidade(1);
+            item.setPrecoUnitario(new BigDecimal("2.00"));
+            item.setPrecoTotal(new BigDecimal("2.00"));
+            return item;
+        }).toList());
+        return dto;
+    }
+}
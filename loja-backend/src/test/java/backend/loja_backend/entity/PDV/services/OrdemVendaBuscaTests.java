@@ -0,0 +1,141 @@
+package backend.loja_backend.entity.PDV.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaPaginaDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO;
+import backend.loja_backend.entity.PDV.entity.OrdemVenda;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.repositories.ClienteRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "comprovantes.workers=0")
+class OrdemVendaBuscaTests {
+
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private OrdemVenda vendaJoana;
+    private OrdemVenda vendaPedro;
+    private OrdemVenda vendaDesconto;
+
+    @BeforeEach
+    void popularDados() {
+        Clientes joana = cliente("Joana Prado", "123.456.789-00");
+        Clientes pedro = cliente("Pedro Alves", "98.765.432/0001-10");
+        LocalDateTime base = LocalDateTime.of(2025, 5, 2, 9, 0);
+        vendaJoana = venda(joana, base, "Violão e capa", "PIX");
+        vendaPedro = venda(pedro, base.plusHours(1), "Cordas", "DINHEIRO");
+        vendaDesconto = venda(pedro, base.plusHours(2), "Troca com 10% de desconto", "PIX");
+    }
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void procuraEmClienteDescricaoENumero() {
+        assertThat(ids(buscar("joana"))).containsExactly(vendaJoana.getId());
+        assertThat(ids(buscar("765.432"))).containsExactly(vendaDesconto.getId(), vendaPedro.getId());
+        assertThat(ids(buscar("VIOLÃO"))).containsExactly(vendaJoana.getId());
+        assertThat(ids(buscar("#" + vendaPedro.getId()))).contains(vendaPedro.getId());
+        assertThat(ids(buscar(null))).containsExactly(vendaDesconto.getId(), vendaPedro.getId(), vendaJoana.getId());
+    }
+
+    @Test
+    void curingaDigitadoEhTextoComum() {
+        assertThat(ids(buscar("10%"))).containsExactly(vendaDesconto.getId());
+        assertThat(ids(buscar("0% d"))).containsExactly(vendaDesconto.getId());
+    }
+
+    @Test
+    void termoCurtoSoValeComoNumeroDaVenda() {
+        jdbcTemplate.update("INSERT INTO ordem_venda (id, valor_total, data_venda, status, forma_pagamento, cliente_id) " +
+                "VALUES (42, 10.00, ?, 'FINALIZADA', 'PIX', ?)", LocalDateTime.of(2025, 5, 1, 9, 0),
+                vendaJoana.getCliente().getId());
+        OrdemVenda cabo = venda(vendaJoana.getCliente(), LocalDateTime.of(2025, 5, 3, 9, 0), "Cabo 42 m", "PIX");
+
+        // curto e numérico: só a PK, a descrição com 42 não entra
+        assertThat(ids(buscar("42"))).containsExactly(42L);
+        assertThat(ids(buscar("#42"))).containsExactly(42L);
+        assertThat(ids(ordemVendaService.buscar("42", null, "DINHEIRO", null, null))).isEmpty();
+        assertThat(ids(buscar("cabo 42"))).containsExactly(cabo.getId());
+
+        assertThatThrownBy(() -> buscar("jo")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> buscar("%")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void linhasJaVemComClienteNumaUnicaConsultaEPaginadas() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        OrdemVendaPaginaDTO primeira = ordemVendaService.buscar("pedro", null, null, null, 1);
+
+        assertThat(primeira.getContent()).singleElement().satisfies(linha -> {
+            assertThat(linha.getClienteNome()).isEqualTo("Pedro Alves");
+            assertThat(linha.getValorTotal()).isEqualByComparingTo("10.00");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        OrdemVendaPaginaDTO segunda = ordemVendaService.buscar("pedro", null, null, primeira.getNextCursor(), 1);
+        assertThat(ids(segunda)).containsExactly(vendaPedro.getId());
+        assertThat(segunda.getNextCursor()).isNull();
+
+        assertThat(ids(ordemVendaService.buscar("pedro", null, "DINHEIRO", null, null)))
+                .containsExactly(vendaPedro.getId());
+    }
+
+    private OrdemVendaPaginaDTO buscar(String q) {
+        return ordemVendaService.buscar(q, null, null, null, null);
+    }
+
+    private static List<Long> ids(OrdemVendaPaginaDTO pagina) {
+        return pagina.getContent().stream().map(OrdemVendaResumoDTO::getId).toList();
+    }
+
+    private Clientes cliente(String nome, String cpfCnpj) {
+        Clientes c = new Clientes();
+        c.setNome(nome);
+        c.setCpfCnpj(cpfCnpj);
+        return clienteRepository.save(c);
+    }
+
+    private OrdemVenda venda(Clientes cliente, LocalDateTime data, String descricao, String forma) {
+        OrdemVenda ordem = new OrdemVenda();
+        ordem.setCliente(cliente);
+        ordem.setDescricao(descricao);
+        ordem.setValorTotal(new BigDecimal("10.00"));
+        ordem.setDataVenda(data);
+        ordem.setStatus("FINALIZADA");
+        ordem.setFormaPagamento(forma);
+        ordem.setItensVendas(new ArrayList<>());
+        return ordemVendaRepository.save(ordem);
+    }
+}
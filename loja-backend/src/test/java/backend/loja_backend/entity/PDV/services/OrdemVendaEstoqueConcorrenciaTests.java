@@ -0,0 +1,166 @@
+package backend.loja_backend.entity.PDV.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+
+@SpringBootTest
+class OrdemVendaEstoqueConcorrenciaTests {
+
+    private static final int TERMINAIS = 16;
+    private static final int VENDAS_POR_TERMINAL = 20;
+
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void vendasParalelasDoMesmoProdutoNaoVendemAlemDoEstoque() throws Exception {
+        int estoqueInicial = 50;
+        Produtos produto = novoProduto("Cabo P10", estoqueInicial);
+        Clientes cliente = novoCliente();
+
+        AtomicInteger vendidas = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+        executarEmParalelo(() -> {
+            for (int i = 0; i < VENDAS_POR_TERMINAL; i++) {
+                try {
+                    ordemVendaService.criarOrdemVenda(venda(item(produto.getId(), 1)), cliente);
+                    vendidas.incrementAndGet();
+                } catch (RuntimeException e) {
+                    recusadas.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        int estoqueFinal = produtoRepository.findById(produto.getId()).orElseThrow().getQuantidadeEstoque();
+        assertThat(vendidas.get()).isEqualTo(estoqueInicial);
+        assertThat(recusadas.get()).isEqualTo(TERMINAIS * VENDAS_POR_TERMINAL - estoqueInicial);
+        assertThat(estoqueFinal).isZero();
+        assertThat(ordemVendaRepository.count()).isEqualTo(estoqueInicial);
+    }
+
+    @Test
+    void vendasComProdutosEmOrdemInversaNaoTravamNemPerdemBaixa() throws Exception {
+        Produtos a = novoProduto("Palheta", 1000);
+        Produtos b = novoProduto("Corda", 1000);
+        Clientes cliente = novoCliente();
+
+        AtomicInteger terminal = new AtomicInteger();
+        executarEmParalelo(() -> {
+            boolean inverso = terminal.getAndIncrement() % 2 == 0;
+            for (int i = 0; i < VENDAS_POR_TERMINAL; i++) {
+                OrdemVendasDTO dto = inverso
+                        ? venda(item(b.getId(), 1), item(a.getId(), 2))
+                        : venda(item(a.getId(), 2), item(b.getId(), 1));
+                ordemVendaService.criarOrdemVenda(dto, cliente);
+            }
+            return null;
+        });
+
+        int total = TERMINAIS * VENDAS_POR_TERMINAL;
+        assertThat(produtoRepository.findById(a.getId()).orElseThrow().getQuantidadeEstoque()).isEqualTo(1000 - 2 * total);
+        assertThat(produtoRepository.findById(b.getId()).orElseThrow().getQuantidadeEstoque()).isEqualTo(1000 - total);
+    }
+
+    @Test
+    void reenviosSimultaneosComAMesmaChaveDevolvemAMesmaOrdem() throws Exception {
+        Produtos produto = novoProduto("Afinador", 100);
+        Clientes cliente = novoCliente();
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        executarEmParalelo(() -> {
+            OrdemVendasDTO dto = venda(item(produto.getId(), 1));
+            dto.setChaveIdempotencia("terminal-3:venda-42");
+            ids.add(ordemVendaService.criarOrdemVenda(dto, cliente).getId());
+            return null;
+        });
+
+        assertThat(ids).hasSize(1);
+        assertThat(ordemVendaRepository.count()).isEqualTo(1);
+        assertThat(produtoRepository.findById(produto.getId()).orElseThrow().getQuantidadeEstoque()).isEqualTo(99);
+    }
+
+    private void executarEmParalelo(Callable<Void> tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(TERMINAIS);
+        try {
+            List<Future<Void>> futuros = new ArrayList<>();
+            for (int t = 0; t < TERMINAIS; t++) {
+                futuros.add(executor.submit(tarefa));
+            }
+            for (Future<Void> futuro : futuros) {
+                futuro.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Produtos novoProduto(String nome, int estoque) {
+        Produtos p = new Produtos();
+        p.setNome(nome);
+        p.setPrecoCusto(new BigDecimal("1.00"));
+        p.setPrecoVenda(new BigDecimal("2.00"));
+        p.setQuantidadeEstoque(estoque);
+        return produtoRepository.save(p);
+    }
+
+    private Clientes novoCliente() {
+        Clientes c = new Clientes();
+        c.setNome("Balcão");
+        return clienteRepository.save(c);
+    }
+
+    private static ItensVendasDTO item(Long produtoId, int quantidade) {
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produtoId);
+        item.setQuantidade(quantidade);
+        item.setPrecoUnitario(new BigDecimal("2.00"));
+        item.setPrecoTotal(new BigDecimal("2.00").multiply(BigDecimal.valueOf(quantidade)));
+        return item;
+    }
+
+    private static OrdemVendasDTO venda(ItensVendasDTO... itens) {
+        OrdemVendasDTO dto = new OrdemVendasDTO();
+        dto.setStatus("FINALIZADA");
+        dto.setFormaPagamento("DINHEIRO");
+        dto.setItensVendas(List.of(itens));
+        dto.setValorTotal(List.of(itens).stream().map(ItensVendasDTO::getPrecoTotal).reduce(BigDecimal.ZERO, BigDecimal::add));
+        return dto;
+    }
+}
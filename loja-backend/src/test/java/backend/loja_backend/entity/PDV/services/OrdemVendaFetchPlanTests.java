@@ -0,0 +1,125 @@
+package backend.loja_backend.entity.PDV.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.entity.ItensVendas;
+import backend.loja_backend.entity.PDV.entity.OrdemVenda;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+// sem o worker de comprovantes: as estatísticas do Hibernate são globais e ele consultaria em paralelo
+@SpringBootTest(properties = "comprovantes.workers=0")
+class OrdemVendaFetchPlanTests {
+
+    private static final int ORDENS = 30;
+    private static final int ITENS_POR_ORDEM = 4;
+
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long algumaOrdemId;
+
+    @BeforeEach
+    void popularDados() {
+        List<Produtos> produtos = new ArrayList<>();
+        for (int i = 0; i < ITENS_POR_ORDEM; i++) {
+            Produtos p = new Produtos();
+            p.setNome("Produto " + i);
+            p.setPrecoCusto(new BigDecimal("5.00"));
+            p.setPrecoVenda(new BigDecimal("10.00"));
+            p.setQuantidadeEstoque(1000);
+            produtos.add(produtoRepository.save(p));
+        }
+
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int o = 0; o < ORDENS; o++) {
+            Clientes cliente = new Clientes();
+            cliente.setNome("Cliente " + o);
+            cliente = clienteRepository.save(cliente);
+
+            OrdemVenda ordem = new OrdemVenda();
+            ordem.setCliente(cliente);
+            ordem.setValorTotal(BigDecimal.valueOf(40));
+            ordem.setDataVenda(base.plusMinutes(o));
+            ordem.setStatus("FINALIZADA");
+            ordem.setFormaPagamento("PIX");
+            List<ItensVendas> itens = new ArrayList<>();
+            for (Produtos produto : produtos) {
+                ItensVendas item = new ItensVendas();
+                item.setOrdemVenda(ordem);
+                item.setProduto(produto);
+                item.setQuantidade(1);
+                item.setPrecoUnitario(BigDecimal.TEN);
+                itens.add(item);
+            }
+            ordem.setItensVendas(itens);
+            algumaOrdemId = ordemVendaRepository.save(ordem).getId();
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void listagemPaginadaUsaUmaUnicaConsulta() {
+        var pagina = ordemVendaService.listarPagina(null, null, null, null, null, null, 20);
+
+        assertThat(pagina.getContent()).hasSize(20);
+        assertThat(pagina.getContent().get(0).getClienteNome()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void detalheCarregaClienteItensEProdutosNumaUnicaConsulta() {
+        OrdemVenda ordem = ordemVendaService.buscarPorId(algumaOrdemId).orElseThrow();
+
+        assertThat(ordem.getCliente().getNome()).isNotNull();
+        assertThat(ordem.getItensVendas()).hasSize(ITENS_POR_ORDEM);
+        ordem.getItensVendas().forEach(i -> assertThat(i.getProduto().getNome()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void detalheDeLeituraNaoCarregaEntidades() {
+        var detalhe = ordemVendaService.buscarDetalhe(algumaOrdemId).orElseThrow();
+
+        assertThat(detalhe.getCliente().getNome()).isNotNull();
+        assertThat(detalhe.getItensVendas()).hasSize(ITENS_POR_ORDEM);
+        detalhe.getItensVendas().forEach(i -> assertThat(i.getProduto().getNome()).isNotNull());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,139 @@
+package backend.loja_backend.entity.PDV.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaPaginaDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendaResumoDTO;
+import backend.loja_backend.entity.PDV.entity.OrdemVenda;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.repositories.ClienteRepository;
+
+@SpringBootTest(properties = "comprovantes.workers=0")
+class OrdemVendaListagemTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 10, 9, 0);
+
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private Clientes joana;
+    private Clientes pedro;
+
+    @BeforeEach
+    void popularClientes() {
+        joana = cliente("Joana Prado");
+        pedro = cliente("Pedro Alves");
+    }
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void cursorPercorreTudoSemRepetirNemPularComDatasIguais() {
+        List<Long> esperado = new ArrayList<>();
+        // três vendas por horário: o desempate pelo id é o que o cursor precisa respeitar
+        for (int hora = 0; hora < 4; hora++) {
+            for (int i = 0; i < 3; i++) {
+                esperado.add(venda(joana, BASE.plusHours(hora), "FINALIZADA", "PIX").getId());
+            }
+        }
+        esperado = esperado.reversed();
+
+        List<Long> percorrido = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            OrdemVendaPaginaDTO pagina = ordemVendaService.listarPagina(null, null, null, null, null, cursor, 5);
+            assertThat(pagina.getContent()).hasSizeLessThanOrEqualTo(5);
+            percorrido.addAll(ids(pagina));
+            cursor = pagina.getNextCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(percorrido).isEqualTo(esperado);
+        assertThat(paginas).isEqualTo(3);
+    }
+
+    @Test
+    void filtrosSeCombinamComOCursor() {
+        OrdemVenda antiga = venda(joana, BASE.minusDays(3), "FINALIZADA", "PIX");
+        OrdemVenda pix1 = venda(joana, BASE, "FINALIZADA", "PIX");
+        OrdemVenda cancelada = venda(joana, BASE.plusHours(1), "CANCELADA", "PIX");
+        OrdemVenda dinheiro = venda(joana, BASE.plusHours(2), "FINALIZADA", "DINHEIRO");
+        OrdemVenda doPedro = venda(pedro, BASE.plusHours(3), "FINALIZADA", "PIX");
+        OrdemVenda pix2 = venda(joana, BASE.plusHours(4), "FINALIZADA", "PIX");
+
+        assertThat(ids(ordemVendaService.listarPagina(BASE.minusDays(1), BASE.plusDays(1), "FINALIZADA", "PIX",
+                joana.getId(), null, null))).containsExactly(pix2.getId(), pix1.getId());
+        assertThat(ids(ordemVendaService.listarPagina(null, null, " ", "", null, null, null)))
+                .containsExactly(pix2.getId(), doPedro.getId(), dinheiro.getId(), cancelada.getId(), pix1.getId(),
+                        antiga.getId());
+        assertThat(ids(ordemVendaService.listarPagina(null, null, "CANCELADA", null, null, null, null)))
+                .containsExactly(cancelada.getId());
+
+        // segunda página continua com os mesmos filtros
+        OrdemVendaPaginaDTO primeira = ordemVendaService.listarPagina(null, null, null, "PIX", joana.getId(), null, 2);
+        assertThat(ids(primeira)).containsExactly(pix2.getId(), cancelada.getId());
+        OrdemVendaPaginaDTO segunda = ordemVendaService.listarPagina(null, null, null, "PIX", joana.getId(),
+                primeira.getNextCursor(), 2);
+        assertThat(ids(segunda)).containsExactly(pix1.getId(), antiga.getId());
+        assertThat(segunda.getNextCursor()).isNull();
+    }
+
+    @Test
+    void tamanhoLimitadoECursorInvalidoRecusado() {
+        for (int i = 0; i < OrdemVendaService.TAMANHO_PAGINA_MAXIMO + 1; i++) {
+            venda(pedro, BASE.plusMinutes(i), "FINALIZADA", "PIX");
+        }
+
+        OrdemVendaPaginaDTO pagina = ordemVendaService.listarPagina(null, null, null, null, null, null, 10_000);
+        assertThat(pagina.getContent()).hasSize(OrdemVendaService.TAMANHO_PAGINA_MAXIMO);
+        assertThat(pagina.getNextCursor()).isNotNull();
+        assertThat(ordemVendaService.listarPagina(null, null, null, null, null, null, 0).getContent())
+                .hasSize(OrdemVendaService.TAMANHO_PAGINA_PADRAO);
+
+        assertThatThrownBy(() -> ordemVendaService.listarPagina(null, null, null, null, null, "nao-e-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Long> ids(OrdemVendaPaginaDTO pagina) {
+        return pagina.getContent().stream().map(OrdemVendaResumoDTO::getId).toList();
+    }
+
+    private Clientes cliente(String nome) {
+        Clientes c = new Clientes();
+        c.setNome(nome);
+        return clienteRepository.save(c);
+    }
+
+    private OrdemVenda venda(Clientes cliente, LocalDateTime data, String status, String forma) {
+        OrdemVenda ordem = new OrdemVenda();
+        ordem.setCliente(cliente);
+        ordem.setValorTotal(new BigDecimal("10.00"));
+        ordem.setDataVenda(data);
+        ordem.setStatus(status);
+        ordem.setFormaPagamento(forma);
+        ordem.setItensVendas(new ArrayList<>());
+        return ordemVendaRepository.save(ordem);
+    }
+}
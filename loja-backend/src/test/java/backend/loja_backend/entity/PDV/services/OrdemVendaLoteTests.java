@@ -0,0 +1,133 @@
+package backend.loja_backend.entity.PDV.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.dto.ResultadoVendaLoteDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "comprovantes.workers=0")
+class OrdemVendaLoteTests {
+
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void loteDevolveStatusPorVendaEReenvioNaoContaDuasVezes() {
+        Produtos produto = novoProduto(5);
+        Clientes cliente = novoCliente();
+
+        List<OrdemVendasDTO> lote = List.of(
+                venda("t1-1", cliente.getId(), produto.getId(), 2),
+                venda("t1-2", cliente.getId(), produto.getId(), 10),
+                venda("t1-1", cliente.getId(), produto.getId(), 2),
+                venda("t1-3", 999_999L, produto.getId(), 1),
+                venda("t1-4", cliente.getId(), produto.getId(), 3));
+
+        List<ResultadoVendaLoteDTO> resultados = ordemVendaService.criarOrdensEmLote(lote);
+
+        assertThat(resultados).extracting(ResultadoVendaLoteDTO::getStatus).containsExactly(
+                ResultadoVendaLoteDTO.CRIADA, ResultadoVendaLoteDTO.REJEITADA, ResultadoVendaLoteDTO.DUPLICADA,
+                ResultadoVendaLoteDTO.REJEITADA, ResultadoVendaLoteDTO.CRIADA);
+        assertThat(resultados.get(2).getOrdemId()).isEqualTo(resultados.get(0).getOrdemId());
+        assertThat(estoque(produto)).isZero();
+
+        List<ResultadoVendaLoteDTO> reenvio = ordemVendaService.criarOrdensEmLote(lote);
+
+        assertThat(reenvio.get(0).getStatus()).isEqualTo(ResultadoVendaLoteDTO.DUPLICADA);
+        assertThat(reenvio.get(0).getOrdemId()).isEqualTo(resultados.get(0).getOrdemId());
+        assertThat(reenvio.get(4).getStatus()).isEqualTo(ResultadoVendaLoteDTO.DUPLICADA);
+        assertThat(ordemVendaRepository.count()).isEqualTo(2);
+        assertThat(estoque(produto)).isZero();
+    }
+
+    @Test
+    void loteGravaEmBatchSemUmComandoPorVenda() {
+        int vendas = 200;
+        Produtos produto = novoProduto(10 * vendas);
+        Clientes cliente = novoCliente();
+        List<OrdemVendasDTO> lote = new ArrayList<>();
+        for (int i = 0; i < vendas; i++) {
+            lote.add(venda("l-" + i, cliente.getId(), produto.getId(), 1));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ResultadoVendaLoteDTO> resultados = ordemVendaService.criarOrdensEmLote(lote);
+
+        assertThat(resultados).extracting(ResultadoVendaLoteDTO::getStatus).containsOnly(ResultadoVendaLoteDTO.CRIADA);
+        assertThat(resultados).extracting(ResultadoVendaLoteDTO::getOrdemId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(estoque(produto)).isEqualTo(10 * vendas - vendas);
+        // ordens, itens e eventos vão em batches de 50 e os ids saem de sequences com alocação 50
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(vendas / 4);
+    }
+
+    private int estoque(Produtos produto) {
+        return produtoRepository.findById(produto.getId()).orElseThrow().getQuantidadeEstoque();
+    }
+
+    private Produtos novoProduto(int estoque) {
+        Produtos p = new Produtos();
+        p.setNome("Baqueta");
+        p.setPrecoCusto(new BigDecimal("1.00"));
+        p.setPrecoVenda(new BigDecimal("2.00"));
+        p.setQuantidadeEstoque(estoque);
+        return produtoRepository.save(p);
+    }
+
+    private Clientes novoCliente() {
+        Clientes c = new Clientes();
+        c.setNome("Balcão");
+        return clienteRepository.save(c);
+    }
+
+    private static OrdemVendasDTO venda(String chave, Long clienteId, Long produtoId, int quantidade) {
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produtoId);
+        item.setQuantidade(quantidade);
+        item.setPrecoUnitario(new BigDecimal("2.00"));
+        item.setPrecoTotal(new BigDecimal("2.00").multiply(BigDecimal.valueOf(quantidade)));
+
+        OrdemVendasDTO dto = new OrdemVendasDTO();
+        dto.setChaveIdempotencia(chave);
+        dto.setClienteId(clienteId);
+        dto.setStatus("FINALIZADA");
+        dto.setFormaPagamento("PIX");
+        dto.setDataVenda("2025-03-10T14:30:00");
+        dto.setValorTotal(item.getPrecoTotal());
+        dto.setItensVendas(List.of(item));
+        return dto;
+    }
+}
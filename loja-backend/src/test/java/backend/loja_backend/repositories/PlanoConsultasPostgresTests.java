@@ -0,0 +1,122 @@
+package backend.loja_backend.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mesmo EXPLAIN de PlanoConsultasVendasTests, mas no PostgreSQL com a V3 (particionamento).
+ * Roda só quando LOJA_TEST_POSTGRES_URL aponta para um banco descartável, por exemplo
+ * LOJA_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/loja_teste (usuário/senha em
+ * LOJA_TEST_POSTGRES_USER / LOJA_TEST_POSTGRES_PASSWORD).
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "LOJA_TEST_POSTGRES_URL", matches = ".+")
+class PlanoConsultasPostgresTests {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("LOJA_TEST_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("LOJA_TEST_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("LOJA_TEST_POSTGRES_PASSWORD", ""));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "false");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void seriePorHoraETopProdutosUsamIndiceESoOMesConsultado() {
+        jdbcTemplate.queryForObject("SELECT criar_particoes_ordem_venda(DATE '2025-01-01', DATE '2025-06-01')",
+                Integer.class);
+
+        for (String sql : List.of(PlanoConsultasVendasTests.SERIE_POR_HORA, PlanoConsultasVendasTests.TOP_PRODUTOS)) {
+            assertThat(explain(sql)).doesNotContain("Seq Scan")
+                    .contains("ordem_venda_2025_03")
+                    .doesNotContain("ordem_venda_2025_02")
+                    .doesNotContain("ordem_venda_2025_04");
+        }
+    }
+
+    @Test
+    void totaisESerieDiariaNaoVarremORollup() {
+        assertThat(explain(PlanoConsultasVendasTests.TOTAIS_POR_FORMA)).doesNotContain("Seq Scan");
+        assertThat(explain(PlanoConsultasVendasTests.SERIE_POR_DIA)).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void itensDaOrdemNaoVarremATabela() {
+        assertThat(explain(PlanoConsultasVendasTests.ITENS_DA_ORDEM)).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void buscaDeClientesPorPrefixoEDocumentoUsaIndices() {
+        assertThat(explain("SELECT id FROM clientes WHERE LOWER(nome) LIKE 'jo%' OR LOWER(email) LIKE 'jo%' "
+                + "OR telefone LIKE 'jo%' OR cpf_cnpj_digitos LIKE '123%'"))
+                .doesNotContain("Seq Scan");
+        assertThat(explain("SELECT id FROM clientes WHERE cpf_cnpj_digitos = '12345678900'"))
+                .contains("uk_clientes_cpf_cnpj_digitos");
+    }
+
+    // mesma consulta que o Hibernate gera para OrdemVendaRepository.buscarPorTexto (termo "viol")
+    @Test
+    void buscaDoHistoricoNaoVarreAsTabelas() {
+        String plano = explain("SELECT o.id FROM ordem_venda o JOIN clientes c ON c.id = o.cliente_id "
+                + "WHERE (LOWER(o.descricao) LIKE '%viol%' ESCAPE '\\' "
+                + "  OR o.cliente_id IN (SELECT cb.id FROM clientes cb WHERE LOWER(cb.nome) LIKE '%viol%' ESCAPE '\\' "
+                + "                      OR LOWER(cb.cpf_cnpj) LIKE '%viol%' ESCAPE '\\')) "
+                + "ORDER BY o.data_venda DESC, o.id DESC LIMIT 51");
+
+        assertThat(plano).doesNotContain("Seq Scan")
+                .contains("idx_clientes_nome_trgm")
+                .contains("idx_clientes_cpf_cnpj_trgm");
+    }
+
+    // página seguinte da listagem como OrdemVendaRepository.buscarPagina manda, no plano genérico que o
+    // driver passa a usar depois de algumas execuções: o cursor tem que descer o índice (data_venda, id)
+    // de cada partição, sem ordenar
+    @Test
+    void paginaSeguinteDaListagemUsaOIndiceNoPlanoGenerico() {
+        jdbcTemplate.queryForObject("SELECT criar_particoes_ordem_venda(DATE '2025-01-01', DATE '2025-06-01')",
+                Integer.class);
+
+        String plano = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            jdbcTemplate.execute("PREPARE pagina_vendas(timestamp, bigint) AS "
+                    + "SELECT o.id FROM ordem_venda o JOIN clientes c ON c.id = o.cliente_id "
+                    + "WHERE (o.data_venda, o.id) < ($1, $2) "
+                    + "ORDER BY o.data_venda DESC, o.id DESC LIMIT 51");
+            List<String> linhas = jdbcTemplate.queryForList(
+                    "EXPLAIN EXECUTE pagina_vendas('2025-03-10 12:00', 1000)", String.class);
+            jdbcTemplate.execute("DEALLOCATE pagina_vendas");
+            return String.join("\n", linhas);
+        });
+
+        // o Merge Append das partições mostra "Sort Key", mas nó Sort não pode haver
+        assertThat(plano).doesNotContain("Seq Scan")
+                .doesNotContainPattern("(?m)^\\s*(->\\s+)?Sort\\s+\\(")
+                .contains("Index");
+    }
+
+    // com seqscan desligado o planejador só volta a ele se não houver índice que sirva
+    private String explain(String sql) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            List<String> linhas = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+            return String.join("\n", linhas);
+        });
+    }
+}
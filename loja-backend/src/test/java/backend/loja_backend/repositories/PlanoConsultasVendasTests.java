@@ -0,0 +1,118 @@
+package backend.loja_backend.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Confere pelo EXPLAIN do H2 que as consultas que o dashboard e o histórico rodam usam os
+ * índices das migrações (no PostgreSQL, veja PlanoConsultasPostgresTests). As nativas são
+ * lidas do próprio @Query do repositório, com os parâmetros trocados por literais.
+ */
+@SpringBootTest
+class PlanoConsultasVendasTests {
+
+    private static final Map<String, String> MARCO_2025 = Map.of(
+            "inicio", "TIMESTAMP '2025-03-01 00:00:00'",
+            "fim", "TIMESTAMP '2025-04-01 00:00:00'",
+            "start", "DATE '2025-03-01'",
+            "end", "DATE '2025-03-31'",
+            "limite", "10");
+
+    // GET /api/dashboard/series?intervalo=HORA
+    static final String SERIE_POR_HORA = nativa(DashboardRepository.class, "seriePorHora", MARCO_2025);
+
+    // GET /api/dashboard/top-produtos
+    static final String TOP_PRODUTOS = nativa(DashboardRepository.class, "topProdutos", MARCO_2025);
+
+    // GET /api/dashboard/series?intervalo=DIA
+    static final String SERIE_POR_DIA = nativa(VendasDiariasRepository.class, "seriePorDia", MARCO_2025);
+
+    // mesma consulta que o Hibernate gera para VendasDiariasRepository.sumByFormaBetween (/totais e /resumo)
+    static final String TOTAIS_POR_FORMA =
+            "SELECT v.forma_pagamento, SUM(v.total) FROM vendas_diarias v " +
+            "WHERE v.status = 'FINALIZADA' " +
+            "AND v.dia BETWEEN DATE '2025-03-01' AND DATE '2025-03-31' " +
+            "GROUP BY v.forma_pagamento";
+
+    static final String ITENS_DA_ORDEM =
+            "SELECT i.id, i.quantidade FROM itens_vendas i WHERE i.ordem_venda_id = 1 ORDER BY i.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long clienteId;
+
+    @BeforeEach
+    void semear() {
+        jdbcTemplate.update("INSERT INTO clientes (nome) VALUES ('Plano')");
+        clienteId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM clientes", Long.class);
+        jdbcTemplate.update("INSERT INTO ordem_venda (id, valor_total, data_venda, status, forma_pagamento, cliente_id) " +
+                "SELECT 900000 + s.x, 10, DATEADD('HOUR', s.x, TIMESTAMP '2025-01-01 00:00:00'), " +
+                "CASE WHEN MOD(s.x, 5) = 0 THEN 'CANCELADA' ELSE 'FINALIZADA' END, " +
+                "CASE WHEN MOD(s.x, 2) = 0 THEN 'PIX' ELSE 'DINHEIRO' END, ? " +
+                "FROM SYSTEM_RANGE(1, 5000) AS s(x)", clienteId);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM ordem_venda WHERE id > 900000 AND id <= 905000");
+        jdbcTemplate.update("DELETE FROM clientes WHERE id = ?", clienteId);
+    }
+
+    @Test
+    void seriePorHoraETopProdutosNaoVarremAsVendas() {
+        for (String sql : List.of(SERIE_POR_HORA, TOP_PRODUTOS)) {
+            assertThat(explain(sql)).containsIgnoringCase("idx_ordem_venda_status_data")
+                    .doesNotContainIgnoringCase("ORDEM_VENDA.tableScan")
+                    .doesNotContainIgnoringCase("ORDEM_VENDA_ARQUIVO.tableScan")
+                    .doesNotContainIgnoringCase("ITENS_VENDAS.tableScan")
+                    .doesNotContainIgnoringCase("ITENS_VENDAS_ARQUIVO.tableScan");
+        }
+    }
+
+    @Test
+    void totaisESerieDiariaLeemSoOsDiasDoRollup() {
+        for (String sql : List.of(TOTAIS_POR_FORMA, SERIE_POR_DIA)) {
+            assertThat(explain(sql)).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    @Test
+    void itensDaOrdemUsamOIndiceDaOrdem() {
+        String plano = explain(ITENS_DA_ORDEM);
+
+        // no H2 pode ser o índice criado junto com a FK; o que importa é não varrer
+        assertThat(plano).doesNotContainIgnoringCase("tableScan");
+    }
+
+    private String explain(String sql) {
+        List<String> linhas = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", linhas);
+    }
+
+    // SQL do @Query nativo do método, com cada :parametro trocado pelo literal informado
+    static String nativa(Class<?> repositorio, String metodo, Map<String, String> literais) {
+        String sql = Arrays.stream(repositorio.getMethods())
+                .filter(m -> m.getName().equals(metodo))
+                .map(m -> m.getAnnotation(Query.class))
+                .filter(q -> q != null && q.nativeQuery())
+                .findFirst().orElseThrow(() -> new IllegalArgumentException("sem @Query nativa: " + metodo))
+                .value();
+        for (Map.Entry<String, String> literal : literais.entrySet()) {
+            sql = sql.replaceAll(":" + literal.getKey() + "\\b", literal.getValue());
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,129 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import backend.loja_backend.dto.ClienteDTO;
+import backend.loja_backend.dto.ClientePaginaDTO;
+import backend.loja_backend.dto.ClienteResumoDTO;
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.repositories.ClienteRepository;
+
+@SpringBootTest
+class ClienteBuscaTests {
+
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Clientes joana;
+
+    @BeforeEach
+    void popularDados() {
+        joana = clienteService.salvar(cliente("Joana Prado", "joana@loja.com", "(11) 98888-0000", "123.456.789-00"));
+        clienteService.salvar(cliente("João Lima", "jl@loja.com", null, "98.765.432/0001-10"));
+        clienteService.salvar(cliente("Maria Jota", "maria@loja.com", null, null));
+        for (int i = 0; i < 5; i++) {
+            clienteService.salvar(cliente("Cliente " + i, null, null, null));
+        }
+    }
+
+    @AfterEach
+    void limparDados() {
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void documentoFicaSoComDigitosEAchaComOuSemMascara() {
+        assertThat(clienteRepository.findById(joana.getId()).orElseThrow().getCpfCnpjDigitos()).isEqualTo("12345678900");
+
+        assertThat(clienteService.buscarPorDocumento("12345678900")).get()
+                .extracting(ClienteResumoDTO::getNome).isEqualTo("Joana Prado");
+        assertThat(clienteService.buscarPorDocumento("98.765.432/0001-10")).get()
+                .extracting(ClienteResumoDTO::getNome).isEqualTo("João Lima");
+        assertThat(clienteService.buscarPorDocumento("11122233344")).isEmpty();
+        assertThatThrownBy(() -> clienteService.buscarPorDocumento("123")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void documentoRepetidoERecusado() {
+        assertThatThrownBy(() -> clienteService.salvar(cliente("Outra", null, null, "123 456 789 00")))
+                .isInstanceOf(IllegalStateException.class);
+
+        Clientes mesma = clienteRepository.findById(joana.getId()).orElseThrow();
+        mesma.setNome("Joana P. Prado");
+        assertThat(clienteService.atualizar(joana.getId(), mesma).getNome()).isEqualTo("Joana P. Prado");
+    }
+
+    @Test
+    void cadastroAntigoForaDoPadraoContinuaEditavel() {
+        // como a V8 deixou: repetido com os dígitos nulos, e documento curto demais
+        jdbcTemplate.update("INSERT INTO clientes (nome, cpf_cnpj, versao_sync) VALUES ('Joana (antigo)', '123.456.789-00', 0)");
+        jdbcTemplate.update("INSERT INTO clientes (nome, cpf_cnpj, cpf_cnpj_digitos, versao_sync) VALUES ('Balcão', '1234', '1234', 0)");
+        Clientes repetido = clienteRepository.findAll().stream().filter(c -> c.getNome().equals("Joana (antigo)")).findFirst().orElseThrow();
+        Clientes curto = clienteRepository.findAll().stream().filter(c -> c.getNome().equals("Balcão")).findFirst().orElseThrow();
+
+        repetido.setTelefone("(11) 97777-0000");
+        curto.setEmail("balcao@loja.com");
+        clienteService.atualizar(repetido.getId(), repetido);
+        clienteService.atualizar(curto.getId(), curto);
+
+        assertThat(clienteRepository.findById(repetido.getId()).orElseThrow().getCpfCnpjDigitos()).isNull();
+        assertThat(clienteRepository.findById(curto.getId()).orElseThrow().getEmail()).isEqualTo("balcao@loja.com");
+        // trocar o documento passa pela validação
+        curto.setCpfCnpj("123.456.789-00");
+        assertThatThrownBy(() -> clienteService.atualizar(curto.getId(), curto)).isInstanceOf(IllegalStateException.class);
+        curto.setCpfCnpj("1234X678900");
+        assertThatThrownBy(() -> clienteService.atualizar(curto.getId(), curto)).isInstanceOf(IllegalArgumentException.class);
+        curto.setCpfCnpj("111.222.333-44");
+        clienteService.atualizar(curto.getId(), curto);
+        assertThat(clienteService.buscarPorDocumento("11122233344")).get()
+                .extracting(ClienteResumoDTO::getNome).isEqualTo("Balcão");
+    }
+
+    @Test
+    void buscaPorPrefixoDeNomeEmailTelefoneEDocumento() {
+        assertThat(nomes(clienteService.buscar("jo", null, null))).containsExactly("Joana Prado", "João Lima");
+        assertThat(nomes(clienteService.buscar("MARIA@", null, null))).containsExactly("Maria Jota");
+        assertThat(nomes(clienteService.buscar("(11) 9", null, null))).containsExactly("Joana Prado");
+        assertThat(nomes(clienteService.buscar("98.765", null, null))).containsExactly("João Lima");
+        // prefixo, não trecho do meio
+        assertThat(nomes(clienteService.buscar("prado", null, null))).isEmpty();
+    }
+
+    @Test
+    void paginasSemContagem() {
+        ClientePaginaDTO primeira = clienteService.buscar("cliente", 0, 3);
+        ClientePaginaDTO segunda = clienteService.buscar("cliente", 1, 3);
+
+        assertThat(nomes(primeira)).containsExactly("Cliente 0", "Cliente 1", "Cliente 2");
+        assertThat(primeira.isHasNext()).isTrue();
+        assertThat(nomes(segunda)).containsExactly("Cliente 3", "Cliente 4");
+        assertThat(segunda.isHasNext()).isFalse();
+    }
+
+    private static List<String> nomes(ClientePaginaDTO pagina) {
+        return pagina.getContent().stream().map(ClienteResumoDTO::getNome).toList();
+    }
+
+    private static ClienteDTO cliente(String nome, String email, String telefone, String cpfCnpj) {
+        ClienteDTO dto = new ClienteDTO();
+        dto.setNome(nome);
+        dto.setEmail(email);
+        dto.setTelefone(telefone);
+        dto.setCpfCnpj(cpfCnpj);
+        return dto;
+    }
+}
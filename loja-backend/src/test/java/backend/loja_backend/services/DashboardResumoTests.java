@@ -0,0 +1,102 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import backend.loja_backend.dto.DashboardResumoDTO;
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.Servicos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.entity.PDV.services.OrdemVendaService;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+import backend.loja_backend.repositories.ServicoRepository;
+
+@SpringBootTest
+class DashboardResumoTests {
+
+    @Autowired
+    private DashboardService dashboardService;
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        servicoRepository.deleteAll();
+    }
+
+    @Test
+    void resumoTrazContagensEstoqueETotais() {
+        Produtos baqueta = produto("Baqueta", "4.00", 10);
+        produto("Pele", "20.00", 3);
+        produto("Prato", "150.00", 0);
+        Clientes cliente = new Clientes();
+        cliente.setNome("Balcão");
+        cliente = clienteRepository.save(cliente);
+        Servicos servico = new Servicos();
+        servico.setNome("Regulagem");
+        servicoRepository.save(servico);
+
+        LocalDate hoje = LocalDate.now();
+        // o rollup não é limpo entre classes de teste: compara pelo acréscimo, com o outbox em dia
+        outboxService.processarPendentes();
+        BigDecimal pixAntes = dashboardService.totais(hoje.withDayOfMonth(1), hoje).get("PIX");
+
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(baqueta.getId());
+        item.setQuantidade(2);
+        item.setPrecoUnitario(new BigDecimal("8.00"));
+        OrdemVendasDTO venda = new OrdemVendasDTO();
+        venda.setStatus("FINALIZADA");
+        venda.setFormaPagamento("PIX");
+        venda.setValorTotal(new BigDecimal("16.00"));
+        venda.setItensVendas(List.of(item));
+        ordemVendaService.criarOrdemVenda(venda, cliente);
+        // o rollup é atualizado pelo outbox depois do commit
+        outboxService.processarPendentes();
+
+        DashboardResumoDTO resumo = dashboardService.resumo(hoje.withDayOfMonth(1), hoje, 3);
+
+        assertThat(resumo.getProdutos()).isEqualTo(3);
+        assertThat(resumo.getClientes()).isEqualTo(1);
+        assertThat(resumo.getServicos()).isEqualTo(1);
+        // 4×8 (após a venda) + 20×3 + 150×0
+        assertThat(resumo.getValorEstoque()).isEqualByComparingTo("92.00");
+        assertThat(resumo.getProdutosEstoqueBaixo()).isEqualTo(2);
+        assertThat(resumo.getTotais().get("PIX").subtract(pixAntes)).isEqualByComparingTo("16.00");
+        assertThat(resumo.getTotais()).containsKeys("DINHEIRO", "TOTAL_DINHEIRO_PIX");
+    }
+
+    private Produtos produto(String nome, String custo, int estoque) {
+        Produtos p = new Produtos();
+        p.setNome(nome);
+        p.setPrecoCusto(new BigDecimal(custo));
+        p.setPrecoVenda(new BigDecimal(custo).multiply(BigDecimal.TWO));
+        p.setQuantidadeEstoque(estoque);
+        return produtoRepository.save(p);
+    }
+}
@@ -0,0 +1,210 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import backend.loja_backend.dto.PontoSerieVendasDTO;
+import backend.loja_backend.dto.SerieVendasDTO;
+import backend.loja_backend.dto.TopProdutoDTO;
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.entity.PDV.services.OrdemVendaService;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.DashboardRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+import backend.loja_backend.services.DashboardService.Intervalo;
+
+@SpringBootTest
+class DashboardSeriesTests {
+
+    @Autowired
+    private DashboardService dashboardService;
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private DashboardRepository dashboardRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Produtos baqueta;
+    private Produtos pele;
+    private Produtos prato;
+
+    @AfterEach
+    void limparDados() {
+        jdbcTemplate.update("DELETE FROM itens_vendas_arquivo");
+        jdbcTemplate.update("DELETE FROM ordem_venda_arquivo");
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void seriePorDiaTemTodosOsDiasComTicketMedioEAcumulado() {
+        // o rollup não é limpo entre testes: cada teste usa um ano próprio
+        LocalDate segunda = semear(2031);
+
+        SerieVendasDTO serie = dashboardService.series(Intervalo.DIA, segunda, segunda.plusDays(7));
+
+        List<PontoSerieVendasDTO> pontos = serie.getPontos();
+        assertThat(pontos).hasSize(8);
+        assertThat(pontos.get(0).getInicio()).isEqualTo(segunda.atStartOfDay());
+        assertThat(pontos.get(0).getVendas()).isEqualTo(2);
+        assertThat(pontos.get(0).getUnidades()).isEqualTo(3);
+        assertThat(pontos.get(0).getReceita()).isEqualByComparingTo("36.00");
+        assertThat(pontos.get(0).getTicketMedio()).isEqualByComparingTo("18.00");
+        // venda cancelada não conta
+        assertThat(pontos.get(1).getVendas()).isZero();
+        assertThat(pontos.get(1).getReceitaAcumulada()).isEqualByComparingTo("36.00");
+        assertThat(pontos.get(2).getReceitaAcumulada()).isEqualByComparingTo("44.00");
+        assertThat(pontos.get(7).getReceitaAcumulada()).isEqualByComparingTo("194.00");
+
+        assertThat(serie.getVendas()).isEqualTo(4);
+        assertThat(serie.getUnidades()).isEqualTo(5);
+        assertThat(serie.getReceita()).isEqualByComparingTo("194.00");
+        assertThat(serie.getTicketMedio()).isEqualByComparingTo("48.50");
+    }
+
+    @Test
+    void seriesPorSemanaEPorHora() {
+        LocalDate segunda = semear(2032);
+
+        SerieVendasDTO semanas = dashboardService.series(Intervalo.SEMANA, segunda.plusDays(2), segunda.plusDays(13));
+        assertThat(semanas.getPontos()).extracting(PontoSerieVendasDTO::getInicio)
+                .containsExactly(segunda.atStartOfDay(), segunda.plusWeeks(1).atStartOfDay());
+        // a primeira semana só conta a partir de start (quarta-feira)
+        assertThat(semanas.getPontos().get(0).getReceita()).isEqualByComparingTo("8.00");
+        assertThat(semanas.getPontos().get(1).getReceita()).isEqualByComparingTo("150.00");
+
+        SerieVendasDTO horas = dashboardService.series(Intervalo.HORA, segunda, segunda);
+        assertThat(horas.getPontos()).hasSize(24);
+        PontoSerieVendasDTO dezHoras = horas.getPontos().get(10);
+        assertThat(dezHoras.getInicio()).isEqualTo(segunda.atTime(10, 0));
+        assertThat(dezHoras.getVendas()).isEqualTo(2);
+        assertThat(dezHoras.getUnidades()).isEqualTo(3);
+        assertThat(dezHoras.getReceita()).isEqualByComparingTo("36.00");
+
+        assertThatThrownBy(() -> dashboardService.series(Intervalo.HORA, segunda, segunda.plusDays(40)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void topProdutosPorReceitaComParticipacaoEmCache() {
+        LocalDate segunda = semear(2033);
+        LocalDate inicio = segunda.withDayOfMonth(1);
+        LocalDate fim = inicio.plusMonths(1).minusDays(1);
+
+        List<TopProdutoDTO> top = dashboardService.topProdutos(inicio, fim, 2);
+
+        assertThat(top).extracting(TopProdutoDTO::getNome).containsExactly("Prato", "Baqueta");
+        assertThat(top.get(0).getPosicao()).isEqualTo(1);
+        assertThat(top.get(0).getReceita()).isEqualByComparingTo("150.00");
+        assertThat(top.get(0).getParticipacao()).isEqualByComparingTo("0.7732");
+        assertThat(top.get(1).getUnidades()).isEqualTo(3);
+        assertThat(top.get(1).getReceita()).isEqualByComparingTo("24.00");
+
+        // mesmo período dentro do TTL: mesma resposta, sem ir ao banco
+        assertThat(dashboardService.topProdutos(inicio, fim, 2)).isSameAs(top);
+    }
+
+    @Test
+    void seriePorHoraETopProdutosIncluemVendasArquivadas() {
+        LocalDate segunda = semear(2034);
+        // venda já arquivada, de um produto que saiu do cadastro
+        jdbcTemplate.update("INSERT INTO ordem_venda_arquivo (id, data_venda, valor_total, status, forma_pagamento, " +
+                "cliente_id, cliente_nome, arquivado_em) VALUES (990001, ?, 300.00, 'FINALIZADA', 'PIX', 1, 'Balcão', ?)",
+                segunda.atTime(10, 50), LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO itens_vendas_arquivo (id, ordem_venda_id, produto_id, produto_nome, " +
+                "quantidade, preco_unitario) VALUES (990001, 990001, 990001, 'Metrônomo', 2, 150.00)");
+
+        PontoSerieVendasDTO dezHoras = dashboardService.series(Intervalo.HORA, segunda, segunda).getPontos().get(10);
+        assertThat(dezHoras.getVendas()).isEqualTo(3);
+        assertThat(dezHoras.getUnidades()).isEqualTo(5);
+        assertThat(dezHoras.getReceita()).isEqualByComparingTo("336.00");
+
+        List<TopProdutoDTO> top = dashboardService.topProdutos(segunda.withDayOfMonth(1), segunda.plusDays(20), 1);
+        assertThat(top).singleElement().satisfies(t -> {
+            assertThat(t.getNome()).isEqualTo("Metrônomo");
+            assertThat(t.getUnidades()).isEqualTo(2);
+            assertThat(t.getReceita()).isEqualByComparingTo("300.00");
+        });
+
+        // arquivada antes de todas as vendas quentes: a primeira venda (início do backfill) vem do arquivo
+        jdbcTemplate.update("UPDATE ordem_venda_arquivo SET data_venda = ? WHERE id = 990001", LocalDateTime.of(2001, 1, 2, 8, 0));
+        assertThat(dashboardRepository.primeiraVenda()).isEqualTo(LocalDateTime.of(2001, 1, 2, 8, 0));
+        assertThat(dashboardRepository.ultimaVenda()).isAfterOrEqualTo(segunda.plusDays(7).atTime(14, 0));
+    }
+
+    // Vendas numa segunda-feira de março do ano informado e na segunda seguinte
+    private LocalDate semear(int ano) {
+        baqueta = produto("Baqueta", "8.00");
+        pele = produto("Pele", "20.00");
+        prato = produto("Prato", "150.00");
+        Clientes cliente = new Clientes();
+        cliente.setNome("Balcão");
+        cliente = clienteRepository.save(cliente);
+
+        LocalDate segunda = LocalDate.of(ano, 3, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        List<OrdemVendasDTO> vendas = new ArrayList<>();
+        vendas.add(venda(cliente, segunda.atTime(10, 15), "FINALIZADA", "PIX", baqueta, 2));
+        vendas.add(venda(cliente, segunda.atTime(10, 40), "FINALIZADA", "DINHEIRO", pele, 1));
+        vendas.add(venda(cliente, segunda.plusDays(1).atTime(11, 0), "CANCELADA", "PIX", pele, 5));
+        vendas.add(venda(cliente, segunda.plusDays(2).atTime(9, 0), "FINALIZADA", "PIX", baqueta, 1));
+        vendas.add(venda(cliente, segunda.plusDays(7).atTime(14, 0), "FINALIZADA", "PIX", prato, 1));
+        ordemVendaService.criarOrdensEmLote(vendas);
+        // o rollup é atualizado pelo outbox depois do commit
+        outboxService.processarPendentes();
+        return segunda;
+    }
+
+    private Produtos produto(String nome, String preco) {
+        Produtos p = new Produtos();
+        p.setNome(nome);
+        p.setPrecoCusto(new BigDecimal(preco).divide(BigDecimal.TWO));
+        p.setPrecoVenda(new BigDecimal(preco));
+        p.setQuantidadeEstoque(100);
+        return produtoRepository.save(p);
+    }
+
+    private static OrdemVendasDTO venda(Clientes cliente, LocalDateTime data, String status, String forma,
+                                        Produtos produto, int quantidade) {
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(quantidade);
+        item.setPrecoUnitario(produto.getPrecoVenda());
+        item.setPrecoTotal(produto.getPrecoVenda().multiply(BigDecimal.valueOf(quantidade)));
+        OrdemVendasDTO dto = new OrdemVendasDTO();
+        dto.setClienteId(cliente.getId());
+        dto.setStatus(status);
+        dto.setFormaPagamento(forma);
+        dto.setDataVenda(data.toString());
+        dto.setValorTotal(item.getPrecoTotal());
+        dto.setItensVendas(List.of(item));
+        return dto;
+    }
+}
@@ -0,0 +1,38 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class DinheiroTests {
+
+    @Test
+    void somaEmCentavosEExata() {
+        double emDouble = 0;
+        long centavos = 0;
+        for (int i = 0; i < 1000; i++) {
+            emDouble += 0.10;
+            centavos += Dinheiro.centavos(new BigDecimal("0.10"));
+        }
+        assertThat(emDouble).isNotEqualTo(100.0);
+        assertThat(Dinheiro.reais(centavos)).isEqualTo(new BigDecimal("100.00"));
+    }
+
+    @Test
+    void arredondaMeioCentavoParaCima() {
+        assertThat(Dinheiro.centavos(new BigDecimal("2.005"))).isEqualTo(201);
+        assertThat(Dinheiro.centavos(new BigDecimal("-2.005"))).isEqualTo(-201);
+        assertThat(Dinheiro.arredondar(new BigDecimal("19.9"))).isEqualTo(new BigDecimal("19.90"));
+        assertThat(Dinheiro.centavos(null)).isZero();
+        assertThat(Dinheiro.arredondar(null)).isNull();
+    }
+
+    @Test
+    void totalDoItemNaoEstouraEmSilencio() {
+        assertThat(Dinheiro.total(1999, 3)).isEqualTo(5997);
+        assertThatThrownBy(() -> Dinheiro.total(Long.MAX_VALUE / 2, 3)).isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,252 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import backend.loja_backend.dto.DivergenciaEstoqueDTO;
+import backend.loja_backend.dto.MovimentoEstoqueDTO;
+import backend.loja_backend.dto.MovimentoEstoqueResumoDTO;
+import backend.loja_backend.dto.ProdutoDTO;
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.MovimentoEstoque;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.entity.OrdemVenda;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.entity.PDV.services.OrdemVendaService;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.MovimentoEstoqueRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EstoqueRazaoTests {
+
+    @Autowired
+    private ProdutoService produtoService;
+    @Autowired
+    private EstoqueService estoqueService;
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transacao;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void limparDados() {
+        jdbcTemplate.update("DELETE FROM movimentos_estoque");
+        jdbcTemplate.update("DELETE FROM estoque_snapshots");
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void cadaMudancaDeSaldoViraUmMovimentoComVersaoSemBuracos() throws Exception {
+        Clientes cliente = cliente();
+        Produtos produto = produto("Encordoamento", 10);
+
+        OrdemVenda vendaUnica = ordemVendaService.criarOrdemVenda(venda(cliente, item(produto.getId(), 3)), cliente);
+        var lote = ordemVendaService.criarOrdensEmLote(List.of(
+                venda(cliente, item(produto.getId(), 1), item(produto.getId(), 1)),
+                venda(cliente, item(produto.getId(), 1))));
+        mockMvc.perform(post("/api/produtos/{id}/movimentos", produto.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tipo\":\"AJUSTE\",\"quantidade\":-2,\"motivo\":\"Avaria\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.versao").value(5))
+                .andExpect(jsonPath("$.saldo").value(2));
+        mockMvc.perform(post("/api/produtos/{id}/movimentos", produto.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tipo\":\"DEVOLUCAO\",\"quantidade\":1}"))
+                .andExpect(status().isCreated());
+
+        List<MovimentoEstoqueResumoDTO> razao = estoqueService.listar(produto.getId(), null, null).getContent();
+        assertThat(razao).extracting(MovimentoEstoqueResumoDTO::getVersao).containsExactly(6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(razao).extracting(MovimentoEstoqueResumoDTO::getTipo).containsExactly(
+                MovimentoEstoque.Tipo.DEVOLUCAO, MovimentoEstoque.Tipo.AJUSTE, MovimentoEstoque.Tipo.VENDA,
+                MovimentoEstoque.Tipo.VENDA, MovimentoEstoque.Tipo.VENDA, MovimentoEstoque.Tipo.AJUSTE);
+        assertThat(razao).extracting(MovimentoEstoqueResumoDTO::getQuantidade).containsExactly(1, -2, -1, -2, -3, 10);
+        assertThat(razao).extracting(MovimentoEstoqueResumoDTO::getSaldo).containsExactly(3, 2, 4, 5, 7, 10);
+        assertThat(razao).extracting(MovimentoEstoqueResumoDTO::getOrdemVendaId).containsExactly(
+                null, null, lote.get(1).getOrdemId(), lote.get(0).getOrdemId(), vendaUnica.getId(), null);
+        assertThat(produtoRepository.findById(produto.getId()).orElseThrow().getQuantidadeEstoque()).isEqualTo(3);
+        assertThat(divergencias(produto)).isEmpty();
+
+        mockMvc.perform(get("/api/produtos/{id}/movimentos", produto.getId()).param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(4))
+                .andExpect(jsonPath("$.nextCursor").value("3"));
+        mockMvc.perform(get("/api/produtos/{id}/movimentos", produto.getId()).param("cursor", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].versao").value(2))
+                .andExpect(jsonPath("$.content[1].motivo").value("Estoque inicial"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void movimentoQueDeixariaSaldoNegativoEhRecusado() throws Exception {
+        Produtos produto = produto("Afinador", 2);
+
+        mockMvc.perform(post("/api/produtos/{id}/movimentos", produto.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tipo\":\"AJUSTE\",\"quantidade\":-3}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/produtos/{id}/movimentos", produto.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tipo\":\"VENDA\",\"quantidade\":-1}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/produtos/{id}/movimentos", produto.getId() + 1000)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tipo\":\"AJUSTE\",\"quantidade\":1}"))
+                .andExpect(status().isNotFound());
+
+        assertThat(produtoRepository.findById(produto.getId()).orElseThrow().getQuantidadeEstoque()).isEqualTo(2);
+        assertThat(estoqueService.listar(produto.getId(), null, null).getContent()).hasSize(1);
+    }
+
+    @Test
+    void edicaoDoCadastroNaoDesfazVendaFeitaNoMeio() {
+        Clientes cliente = cliente();
+        Produtos produto = produto("Capotraste", 10);
+        // tela de edição aberta antes da venda, com o saldo 10 ainda no formulário
+        Produtos editado = produtoRepository.findById(produto.getId()).orElseThrow();
+
+        ordemVendaService.criarOrdemVenda(venda(cliente, item(produto.getId(), 4)), cliente);
+
+        editado.setPrecoVenda(new BigDecimal("39.90"));
+        produtoService.atualizar(produto.getId(), editado);
+
+        Produtos lido = produtoRepository.findById(produto.getId()).orElseThrow();
+        assertThat(lido.getQuantidadeEstoque()).isEqualTo(6);
+        assertThat(lido.getPrecoVenda()).isEqualByComparingTo("39.90");
+        assertThat(divergencias(produto)).isEmpty();
+    }
+
+    @Test
+    void conciliacaoApontaSaldoAlteradoForaDoRazaoEFotografaOsDemais() throws Exception {
+        Clientes cliente = cliente();
+        Produtos certo = produto("Palheta", 20);
+        Produtos alterado = produto("Cabo P10", 20);
+        ordemVendaService.criarOrdemVenda(venda(cliente, item(certo.getId(), 5), item(alterado.getId(), 1)), cliente);
+        jdbcTemplate.update("UPDATE produtos SET quantidade_estoque = 99 WHERE id = ?", alterado.getId());
+
+        assertThat(divergencias(certo)).isEmpty();
+        assertThat(divergencias(alterado)).singleElement().satisfies(d -> {
+            assertThat(d.getSaldo()).isEqualTo(99);
+            assertThat(d.getSaldoCalculado()).isEqualTo(19);
+            assertThat(d.getVersao()).isEqualTo(d.getVersaoCalculada()).isEqualTo(2);
+        });
+        mockMvc.perform(get("/api/produtos/estoque/conciliacao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.produtoId == " + alterado.getId() + ")].saldoCalculado").value(19));
+
+        estoqueService.fotografar();
+
+        assertThat(snapshots(certo)).containsExactly("2:15");
+        assertThat(snapshots(alterado)).isEmpty();
+        // depois da fotografia a conciliação parte dela
+        produtoService.movimentarEstoque(certo.getId(), ajuste(5));
+        assertThat(divergencias(certo)).isEmpty();
+        assertThat(divergencias(alterado)).hasSize(1);
+    }
+
+    @Test
+    void divergenciaQueApareceDepoisDaConciliacaoNaoViraFotografia() {
+        Clientes cliente = cliente();
+        Produtos produto = produto("Correia", 12);
+        ordemVendaService.criarOrdemVenda(venda(cliente, item(produto.getId(), 2)), cliente);
+        assertThat(divergencias(produto)).isEmpty();
+
+        // UPDATE por fora entre a conciliação e a fotografia
+        jdbcTemplate.update("UPDATE produtos SET quantidade_estoque = 50 WHERE id = ?", produto.getId());
+        Integer fotografados = transacao.execute(status ->
+                movimentoEstoqueRepository.registrarSnapshots(List.of(produto.getId()), LocalDateTime.now()));
+        assertThat(fotografados).isZero();
+
+        assertThat(snapshots(produto)).isEmpty();
+        assertThat(divergencias(produto)).singleElement().satisfies(d -> assertThat(d.getSaldoCalculado()).isEqualTo(10));
+    }
+
+    private List<DivergenciaEstoqueDTO> divergencias(Produtos produto) {
+        return estoqueService.conciliar().stream()
+                .filter(d -> d.getProdutoId().equals(produto.getId()))
+                .toList();
+    }
+
+    private List<String> snapshots(Produtos produto) {
+        return jdbcTemplate.queryForList(
+                "SELECT versao || ':' || saldo FROM estoque_snapshots WHERE produto_id = ? ORDER BY versao",
+                String.class, produto.getId());
+    }
+
+    private static MovimentoEstoqueDTO ajuste(int quantidade) {
+        MovimentoEstoqueDTO dto = new MovimentoEstoqueDTO();
+        dto.setTipo(MovimentoEstoque.Tipo.AJUSTE);
+        dto.setQuantidade(quantidade);
+        return dto;
+    }
+
+    private Produtos produto(String nome, int estoque) {
+        ProdutoDTO dto = new ProdutoDTO();
+        dto.setNome(nome);
+        dto.setPrecoCusto(new BigDecimal("10.00"));
+        dto.setPrecoVenda(new BigDecimal("25.00"));
+        dto.setQuantidadeEstoque(estoque);
+        return produtoService.salvar(dto);
+    }
+
+    private Clientes cliente() {
+        Clientes c = new Clientes();
+        c.setNome("Balcão");
+        return clienteRepository.save(c);
+    }
+
+    private static ItensVendasDTO item(Long produtoId, int quantidade) {
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produtoId);
+        item.setQuantidade(quantidade);
+        item.setPrecoUnitario(new BigDecimal("25.00"));
+        item.setPrecoTotal(new BigDecimal("25.00").multiply(BigDecimal.valueOf(quantidade)));
+        return item;
+    }
+
+    private static OrdemVendasDTO venda(Clientes cliente, ItensVendasDTO... itens) {
+        OrdemVendasDTO dto = new OrdemVendasDTO();
+        dto.setClienteId(cliente.getId());
+        dto.setStatus("FINALIZADA");
+        dto.setFormaPagamento("PIX");
+        dto.setItensVendas(List.of(itens));
+        dto.setValorTotal(List.of(itens).stream().map(ItensVendasDTO::getPrecoTotal).reduce(BigDecimal.ZERO, BigDecimal::add));
+        return dto;
+    }
+}
@@ -0,0 +1,198 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.entity.PDV.services.OrdemVendaService;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eventos.buffer-por-assinante=8", "eventos.historico=16"})
+class EventosTests {
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private EventosService eventosService;
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    // vendas de outras classes de teste ainda no outbox não chegam às assinaturas daqui
+    @BeforeEach
+    void entregarPendentes() {
+        outboxService.processarPendentes();
+    }
+
+    @AfterEach
+    void limparDados() {
+        http.shutdownNow();
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void vendaPublicaVendaCriadaEEstoqueAlteradoDepoisDoCommit() throws Exception {
+        Clientes cliente = new Clientes();
+        cliente.setNome("Balcão");
+        cliente = clienteRepository.save(cliente);
+        Produtos produto = new Produtos();
+        produto.setNome("Capotraste");
+        produto.setPrecoCusto(new BigDecimal("10.00"));
+        produto.setPrecoVenda(new BigDecimal("25.00"));
+        produto.setQuantidadeEstoque(5);
+        produto = produtoRepository.save(produto);
+
+        BlockingQueue<String> linhas = assinar(null);
+
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(2);
+        item.setPrecoUnitario(new BigDecimal("25.00"));
+        item.setPrecoTotal(new BigDecimal("50.00"));
+        OrdemVendasDTO dto = new OrdemVendasDTO();
+        dto.setClienteId(cliente.getId());
+        dto.setStatus("FINALIZADA");
+        dto.setFormaPagamento("PIX");
+        dto.setValorTotal(new BigDecimal("50.00"));
+        dto.setItensVendas(List.of(item));
+        Long ordemId = ordemVendaService.criarOrdemVenda(dto, cliente).getId();
+        outboxService.processarPendentes();
+
+        String estoque = aguardarDados(linhas, EventosService.ESTOQUE_ALTERADO);
+        assertThat(estoque).contains("\"produtoId\":" + produto.getId()).contains("\"quantidadeEstoque\":3")
+                .contains("\"versao\":" + (produto.getEstoqueVersao() + 1));
+        String venda = aguardarDados(linhas, EventosService.VENDA_CRIADA);
+        assertThat(venda).contains("\"id\":" + ordemId).contains("\"formaPagamento\":\"PIX\"");
+
+        ordemVendaService.deletar(ordemId);
+        outboxService.processarPendentes();
+        assertThat(aguardarDados(linhas, EventosService.VENDA_EXCLUIDA)).contains("\"id\":" + ordemId);
+    }
+
+    @Test
+    void reconexaoComLastEventIdRecebeOQuePerdeu() throws Exception {
+        eventosService.publicar("teste", Map.of("n", 1));
+        BlockingQueue<String> primeira = assinar(null);
+        eventosService.publicar("teste", Map.of("n", 2));
+        String id = aguardarLinha(primeira, "id:");
+
+        eventosService.publicar("teste", Map.of("n", 3));
+        BlockingQueue<String> reconexao = assinar(id.substring("id:".length()));
+        assertThat(aguardarDados(reconexao, "teste")).isEqualTo("{\"n\":3}");
+    }
+
+    @Test
+    void clienteLentoPerdeOsMaisAntigosSemAtrasarOsDemais() throws Exception {
+        double descartadosAntes = meterRegistry.counter("loja.eventos.descartados").count();
+        String carga = "x".repeat(16 * 1024);
+
+        // conexão que nunca lê: o buffer TCP enche e o envio para ela fica travado
+        int antes = eventosService.assinantes();
+        try (Socket lento = new Socket("localhost", porta)) {
+            OutputStream saida = lento.getOutputStream();
+            saida.write(("GET /api/eventos/stream HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            saida.flush();
+            aguardarAssinantes(antes + 1);
+            BlockingQueue<String> rapido = assinar(null);
+
+            long inicio = System.nanoTime();
+            for (int i = 0; i < 2_000; i++) {
+                eventosService.publicar("carga", Map.of("n", i, "dados", carga));
+            }
+            eventosService.publicar("fim", Map.of("n", -1));
+            long publicacaoMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            assertThat(aguardarDados(rapido, "fim")).isEqualTo("{\"n\":-1}");
+            assertThat(meterRegistry.counter("loja.eventos.descartados").count()).isGreaterThan(descartadosAntes);
+            assertThat(publicacaoMillis).isLessThan(5_000);
+        }
+    }
+
+    private void aguardarAssinantes(int quantidade) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (eventosService.assinantes() < quantidade && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+    }
+
+    // só volta depois que o servidor registrou a assinatura
+    private BlockingQueue<String> assinar(String ultimoId) throws InterruptedException {
+        int antes = eventosService.assinantes();
+        HttpRequest.Builder pedido = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/eventos/stream"))
+                .header("Accept", "text/event-stream");
+        if (ultimoId != null) {
+            pedido.header("Last-Event-ID", ultimoId);
+        }
+        BlockingQueue<String> linhas = new LinkedBlockingQueue<>();
+        http.sendAsync(pedido.build(), HttpResponse.BodyHandlers.ofLines())
+                .thenAccept(resposta -> {
+                    try (Stream<String> corpo = resposta.body()) {
+                        corpo.forEach(linhas::add);
+                    } catch (RuntimeException e) {
+                        // conexão encerrada no fim do teste
+                    }
+                });
+        aguardarAssinantes(antes + 1);
+        return linhas;
+    }
+
+    private static String aguardarLinha(BlockingQueue<String> linhas, String prefixo) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            String linha = linhas.poll(100, TimeUnit.MILLISECONDS);
+            if (linha != null && linha.startsWith(prefixo)) {
+                return linha;
+            }
+        }
+        throw new AssertionError("linha não recebida: " + prefixo);
+    }
+
+    // devolve o campo data: do próximo evento com este nome
+    private static String aguardarDados(BlockingQueue<String> linhas, String evento) throws InterruptedException {
+        aguardarLinha(linhas, "event:" + evento);
+        return aguardarLinha(linhas, "data:").substring("data:".length());
+    }
+}
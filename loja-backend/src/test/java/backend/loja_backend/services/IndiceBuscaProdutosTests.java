@@ -0,0 +1,87 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import backend.loja_backend.entity.Produtos;
+
+class IndiceBuscaProdutosTests {
+
+    private static Produtos produto(long id, String nome, String descricao) {
+        Produtos p = new Produtos();
+        p.setId(id);
+        p.setNome(nome);
+        p.setDescricao(descricao);
+        return p;
+    }
+
+    private static IndiceBuscaProdutos indice(Produtos... produtos) {
+        IndiceBuscaProdutos indice = new IndiceBuscaProdutos();
+        indice.reconstruir(List.of(produtos));
+        return indice;
+    }
+
+    @Test
+    void buscaPorPrefixoIgnoraAcentoEMaiusculas() {
+        IndiceBuscaProdutos indice = indice(
+                produto(1, "Violão Clássico Nylon", "Tampo de abeto"),
+                produto(2, "Guitarra Stratocaster", "Captação single coil"),
+                produto(3, "Capa para violão", null));
+
+        assertThat(indice.buscar("VIOL", 10)).containsExactly(1L, 3L);
+        assertThat(indice.buscar("classico", 10)).containsExactly(1L);
+        assertThat(indice.buscar("capt", 10)).containsExactly(2L);
+        assertThat(indice.buscar("capa viol", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void toleraErroDeDigitacao() {
+        IndiceBuscaProdutos indice = indice(
+                produto(1, "Violão Clássico", null),
+                produto(2, "Pedal de distorção", null));
+
+        assertThat(indice.buscar("vilao", 10)).containsExactly(1L);
+        assertThat(indice.buscar("distorsao", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void numeroCasaComIdExatoPrimeiro() {
+        IndiceBuscaProdutos indice = indice(
+                produto(7, "Cabo 10 metros", null),
+                produto(10, "Afinador", null));
+
+        assertThat(indice.buscar("10", 10)).containsExactly(10L, 7L);
+    }
+
+    @Test
+    void atualizacaoIncrementalReflete() {
+        IndiceBuscaProdutos indice = indice(produto(1, "Baqueta 5A", null));
+
+        indice.indexar(produto(1, "Baqueta 7A", null));
+        indice.indexar(produto(2, "Baixo 4 cordas", null));
+        assertThat(indice.buscar("5a", 10)).isEmpty();
+        assertThat(indice.buscar("ba", 10)).containsExactlyInAnyOrder(1L, 2L);
+
+        indice.remover(2L);
+        assertThat(indice.buscar("baixo", 10)).isEmpty();
+    }
+
+    @Test
+    void variosTermosAchamOProdutoMesmoComTermoFrequente() {
+        List<Produtos> produtos = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            produtos.add(produto(id, "Corda nylon " + id, null));
+        }
+        produtos.add(produto(5_001, "Corda aço 010", null));
+        IndiceBuscaProdutos indice = new IndiceBuscaProdutos();
+        indice.reconstruir(produtos);
+
+        assertThat(indice.buscar("corda 010", 10)).containsExactly(5_001L);
+        assertThat(indice.buscar("corda aco", 10)).containsExactly(5_001L);
+        assertThat(indice.buscar("cord", 10)).hasSize(10);
+    }
+}
@@ -0,0 +1,208 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.loja_backend.entity.OutboxEvento;
+import backend.loja_backend.repositories.OutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {"outbox.retry.inicial=1h", "outbox.retry.maximo=1h", "outbox.tentativas.maximo=2"})
+class OutboxTests {
+
+    private static final String TIPO = "teste";
+
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private TransactionTemplate transacao;
+    @Autowired
+    private HandlerDeTeste handler;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    @AfterEach
+    void limpar() {
+        outboxRepository.deleteAll();
+        handler.recebidos.clear();
+        handler.falhar.clear();
+    }
+
+    @Test
+    void entregaDepoisDoCommitNaOrdemDeGravacao() {
+        double entreguesAntes = meterRegistry.counter("loja.outbox.entregues").count();
+        transacao.executeWithoutResult(status -> {
+            outboxService.registrar(TIPO, 1L, "a");
+            outboxService.registrar(TIPO, 2L, "b");
+            outboxService.registrar(TIPO, 1L, "c");
+        });
+        assertThat(handler.recebidos).isEmpty();
+
+        assertThat(outboxService.processarPendentes()).isEqualTo(3);
+
+        assertThat(handler.recebidos).containsExactly("a", "b", "c");
+        assertThat(outboxRepository.findAll()).allSatisfy(evento -> {
+            assertThat(evento.getStatus()).isEqualTo(OutboxEvento.Status.ENTREGUE);
+            assertThat(evento.getProcessadoEm()).isNotNull();
+        });
+        assertThat(outboxRepository.contarPendentes()).isZero();
+        assertThat(meterRegistry.counter("loja.outbox.entregues").count() - entreguesAntes).isEqualTo(3);
+    }
+
+    @Test
+    void rollbackNaoDeixaEventoESemTransacaoEhErro() {
+        transacao.executeWithoutResult(status -> {
+            outboxService.registrar(TIPO, 1L, "a");
+            status.setRollbackOnly();
+        });
+        assertThat(outboxRepository.count()).isZero();
+
+        assertThatThrownBy(() -> outboxService.registrar(TIPO, 1L, "a"))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    void falhaEsperaESeguraOsEventosSeguintesDaMesmaOrdem() {
+        handler.falhar.add("a");
+        transacao.executeWithoutResult(status -> {
+            outboxService.registrar(TIPO, 1L, "a");
+            outboxService.registrar(TIPO, 1L, "b");
+            outboxService.registrar(TIPO, 2L, "c");
+        });
+
+        // o lote falha inteiro e é refeito um a um: só a outra ordem passa
+        assertThat(outboxService.processarPendentes()).isEqualTo(1);
+        assertThat(handler.recebidos).containsExactly("c");
+        OutboxEvento falhou = evento("a");
+        assertThat(falhou.getStatus()).isEqualTo(OutboxEvento.Status.PENDENTE);
+        assertThat(falhou.getTentativas()).isEqualTo(1);
+        assertThat(falhou.getErro()).contains("falha simulada");
+        assertThat(falhou.getProximaTentativa()).isAfter(LocalDateTime.now().plusMinutes(50));
+        assertThat(evento("b").getStatus()).isEqualTo(OutboxEvento.Status.PENDENTE);
+
+        // antes da hora nada sai, nem o evento seguinte da mesma ordem
+        assertThat(outboxService.processarPendentes()).isZero();
+
+        handler.falhar.clear();
+        vencer("a");
+        assertThat(outboxService.processarPendentes()).isEqualTo(2);
+        assertThat(handler.recebidos).containsExactly("c", "a", "b");
+    }
+
+    @Test
+    void depoisDoMaximoOsSeguintesDaOrdemFicamRetidosAteReabrir() {
+        handler.falhar.add("criada");
+        transacao.executeWithoutResult(status -> {
+            outboxService.registrar(TIPO, 1L, "criada");
+            outboxService.registrar(TIPO, 2L, "outra");
+        });
+
+        assertThat(outboxService.processarPendentes()).isEqualTo(1);
+        vencer("criada");
+        assertThat(outboxService.processarPendentes()).isZero();
+        assertThat(evento("criada").getStatus()).isEqualTo(OutboxEvento.Status.FALHOU);
+        assertThat(evento("criada").getTentativas()).isEqualTo(2);
+
+        // a exclusão da mesma venda, gravada depois da desistência, não sai sem a criação
+        transacao.executeWithoutResult(status -> outboxService.registrar(TIPO, 1L, "excluida"));
+        assertThat(outboxService.processarPendentes()).isZero();
+        assertThat(evento("excluida").getStatus()).isEqualTo(OutboxEvento.Status.PENDENTE);
+        assertThat(outboxRepository.contarPendentes()).isEqualTo(1);
+
+        // causa corrigida: reaberto, sai antes dos que segurava
+        handler.falhar.clear();
+        assertThat(outboxService.reabrir(evento("criada").getId())).isTrue();
+        assertThat(outboxService.reabrir(evento("outra").getId())).isFalse();
+        assertThat(outboxService.processarPendentes()).isEqualTo(2);
+        assertThat(handler.recebidos).containsExactly("outra", "criada", "excluida");
+    }
+
+    @Test
+    void loteLevaSoOEventoMaisAntigoDeCadaAgregado() {
+        transacao.executeWithoutResult(status -> {
+            outboxService.registrar(TIPO, 1L, "criada");
+            outboxService.registrar(TIPO, 2L, "outra");
+            outboxService.registrar(TIPO, 1L, "excluida");
+        });
+
+        // o que outra instância travar pode ser pulado, mas "excluida" nunca sai antes de "criada"
+        List<String> lote = transacao.execute(status -> outboxRepository
+                .travarProximos(LocalDateTime.now(), Limit.of(10)).stream()
+                .map(OutboxEvento::getPayload).toList());
+        assertThat(lote).containsExactly("\"criada\"", "\"outra\"");
+
+        assertThat(outboxService.processarPendentes()).isEqualTo(3);
+        assertThat(handler.recebidos).containsExactly("criada", "outra", "excluida");
+    }
+
+    private OutboxEvento evento(String dados) {
+        return outboxRepository.findAll().stream()
+                .filter(evento -> evento.getPayload().equals("\"" + dados + "\""))
+                .findFirst().orElseThrow();
+    }
+
+    // simula a passagem do tempo até a próxima tentativa
+    private void vencer(String dados) {
+        OutboxEvento evento = evento(dados);
+        evento.setProximaTentativa(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(evento);
+    }
+
+    @TestConfiguration
+    static class Configuracao {
+
+        @Bean
+        HandlerDeTeste handlerDeTeste() {
+            return new HandlerDeTeste();
+        }
+    }
+
+    static class HandlerDeTeste implements OutboxHandler {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        final List<String> recebidos = new CopyOnWriteArrayList<>();
+        final Set<String> falhar = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean aceita(String tipo) {
+            return TIPO.equals(tipo);
+        }
+
+        @Override
+        public void tratar(List<OutboxEvento> eventos) throws Exception {
+            List<String> dados = new ArrayList<>();
+            for (OutboxEvento evento : eventos) {
+                dados.add(objectMapper.readValue(evento.getPayload(), String.class));
+            }
+            for (String valor : dados) {
+                if (falhar.contains(valor)) {
+                    throw new IllegalStateException("falha simulada em " + valor);
+                }
+            }
+            recebidos.addAll(dados);
+        }
+    }
+}
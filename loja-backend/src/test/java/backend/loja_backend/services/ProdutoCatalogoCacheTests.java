@@ -0,0 +1,181 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import backend.loja_backend.dto.MovimentoEstoqueDTO;
+import backend.loja_backend.dto.ProdutoResumoDTO;
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.MovimentoEstoque;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.entity.PDV.services.OrdemVendaService;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+// sem o worker de comprovantes: as estatísticas do Hibernate são globais e ele consultaria em paralelo
+@SpringBootTest(properties = "comprovantes.workers=0")
+class ProdutoCatalogoCacheTests {
+
+    private static final int PRODUTOS = 200;
+    private static final int LEITURAS = 2_000;
+
+    @Autowired
+    private ProdutoService produtoService;
+    @Autowired
+    private CatalogoProdutosCache catalogoCache;
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<Produtos> produtos;
+
+    @BeforeEach
+    void popularDados() {
+        catalogoCache.invalidarTudo();
+        produtos = new ArrayList<>();
+        for (int i = 0; i < PRODUTOS; i++) {
+            Produtos p = new Produtos();
+            p.setNome("Produto " + i);
+            p.setPrecoCusto(new BigDecimal("1.00"));
+            p.setPrecoVenda(BigDecimal.valueOf(200 + i * 100L, 2));
+            p.setQuantidadeEstoque(100);
+            produtos.add(produtoRepository.save(p));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        catalogoCache.invalidarTudo();
+    }
+
+    @Test
+    void leiturasRepetidasDoCatalogoNaoVaoAoBanco() {
+        assertThat(produtoService.listarTodos()).hasSize(PRODUTOS);
+        long statementsAposCarga = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < LEITURAS; i++) {
+            assertThat(produtoService.listarTodos()).hasSize(PRODUTOS);
+            Produtos p = produtos.get(i % PRODUTOS);
+            assertThat(produtoService.buscarPorId(p.getId())).get().extracting(ProdutoResumoDTO::getNome).isEqualTo(p.getNome());
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAposCarga);
+        assertThat(catalogoCache.estatisticasDados().hitCount()).isGreaterThan(0);
+    }
+
+    @Test
+    void vendaInvalidaSoOEstoqueDoProdutoVendido() {
+        Produtos vendido = produtos.get(0);
+        produtoService.listarTodos();
+
+        vender(vendido, 3);
+
+        statistics.clear();
+        ProdutoResumoDTO lido = produtoService.buscarPorId(vendido.getId()).orElseThrow();
+
+        assertThat(lido.getQuantidadeEstoque()).isEqualTo(97);
+        assertThat(lido.getNome()).isEqualTo(vendido.getNome());
+        // só o estoque foi relido
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void alteracaoDePrecoApareceNaLeituraSeguinte() {
+        produtoService.listarTodos();
+        Produtos alterado = produtos.get(5);
+        alterado.setPrecoVenda(new BigDecimal("999.00"));
+
+        produtoService.atualizar(alterado.getId(), alterado);
+
+        assertThat(produtoService.buscarPorId(alterado.getId())).get()
+                .extracting(ProdutoResumoDTO::getPrecoVenda, InstanceOfAssertFactories.BIG_DECIMAL)
+                .isEqualByComparingTo("999.00");
+    }
+
+    @Test
+    void edicaoNaoDevolveAoCacheOSaldoDeAntesDeUmaVenda() {
+        Produtos editado = produtos.get(3);
+        produtoService.listarTodos();
+        // entidade lida pela edição antes da venda, guardada depois do commit da venda
+        Produtos lidoNaEdicao = produtoRepository.findById(editado.getId()).orElseThrow();
+        vender(editado, 4);
+
+        lidoNaEdicao.setNome("Produto editado");
+        catalogoCache.guardar(lidoNaEdicao);
+
+        assertThat(produtoService.buscarPorId(editado.getId())).get().satisfies(p -> {
+            assertThat(p.getNome()).isEqualTo("Produto editado");
+            assertThat(p.getQuantidadeEstoque()).isEqualTo(96);
+        });
+    }
+
+    @Test
+    void cargaLidaAntesDeUmaAlteracaoNaoFicaNoCacheDepoisDela() {
+        Produtos alterado = produtos.get(7);
+        Produtos vendido = produtos.get(8);
+        // leitor que consultou o banco antes das alterações e só guarda depois do commit delas
+        long geracao = catalogoCache.geracao();
+        List<ProdutoResumoDTO> antigos = produtoRepository.buscarResumos(List.of(alterado.getId(), vendido.getId()));
+
+        alterado.setPrecoVenda(new BigDecimal("555.00"));
+        produtoService.atualizar(alterado.getId(), alterado);
+        MovimentoEstoqueDTO avaria = new MovimentoEstoqueDTO();
+        avaria.setTipo(MovimentoEstoque.Tipo.AJUSTE);
+        avaria.setQuantidade(-40);
+        produtoService.movimentarEstoque(vendido.getId(), avaria);
+
+        antigos.forEach(p -> catalogoCache.guardar(p, geracao));
+
+        assertThat(produtoService.buscarPorId(alterado.getId())).get()
+                .extracting(ProdutoResumoDTO::getPrecoVenda, InstanceOfAssertFactories.BIG_DECIMAL)
+                .isEqualByComparingTo("555.00");
+        assertThat(produtoService.buscarPorId(vendido.getId())).get()
+                .extracting(ProdutoResumoDTO::getQuantidadeEstoque).isEqualTo(60);
+    }
+
+    private void vender(Produtos produto, int quantidade) {
+        Clientes cliente = new Clientes();
+        cliente.setNome("Balcão");
+        cliente = clienteRepository.save(cliente);
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(quantidade);
+        item.setPrecoUnitario(new BigDecimal("2.00"));
+        OrdemVendasDTO venda = new OrdemVendasDTO();
+        venda.setStatus("FINALIZADA");
+        venda.setFormaPagamento("PIX");
+        venda.setValorTotal(new BigDecimal("2.00").multiply(BigDecimal.valueOf(quantidade)));
+        venda.setItensVendas(List.of(item));
+        ordemVendaService.criarOrdemVenda(venda, cliente);
+    }
+}
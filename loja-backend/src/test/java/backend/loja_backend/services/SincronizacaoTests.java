@@ -0,0 +1,174 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import backend.loja_backend.dto.ClienteDTO;
+import backend.loja_backend.dto.ProdutoDTO;
+import backend.loja_backend.dto.ProdutoResumoDTO;
+import backend.loja_backend.dto.ServicoDTO;
+import backend.loja_backend.dto.SincronizacaoDTO;
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.Servicos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.entity.PDV.services.OrdemVendaService;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+import backend.loja_backend.repositories.RemocaoSincronizadaRepository;
+import backend.loja_backend.repositories.ServicoRepository;
+
+@SpringBootTest
+class SincronizacaoTests {
+
+    @Autowired
+    private SincronizacaoService sincronizacaoService;
+    @Autowired
+    private ProdutoService produtoService;
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private ServicoService servicoService;
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+    @Autowired
+    private RemocaoSincronizadaRepository remocaoRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void limparDados() {
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        servicoRepository.deleteAll();
+        remocaoRepository.deleteAll();
+    }
+
+    @Test
+    void devolveSoOQueMudouDepoisDoToken() {
+        Produtos produto = produtoService.salvar(produto("Corda Ré", 10));
+        Servicos servico = servicoService.salvar(servico("Regulagem"));
+
+        SincronizacaoDTO completa = sincronizacaoService.alteracoesDesde(null, null);
+        assertThat(completa.getProdutos()).extracting(ProdutoResumoDTO::getId).contains(produto.getId());
+        assertThat(completa.isTemMais()).isFalse();
+
+        SincronizacaoDTO semMudanca = sincronizacaoService.alteracoesDesde(completa.getToken(), null);
+        assertThat(semMudanca.getProdutos()).isEmpty();
+        assertThat(semMudanca.getServicos()).isEmpty();
+        assertThat(semMudanca.getToken()).isEqualTo(completa.getToken());
+
+        produto.setPrecoVenda(new BigDecimal("15.00"));
+        produtoService.atualizar(produto.getId(), produto);
+        Clientes cliente = clienteService.salvar(cliente("Cliente Sync"));
+        servicoService.deletar(servico.getId());
+
+        SincronizacaoDTO delta = sincronizacaoService.alteracoesDesde(completa.getToken(), null);
+        assertThat(delta.getProdutos()).singleElement().satisfies(p -> {
+            assertThat(p.getId()).isEqualTo(produto.getId());
+            assertThat(p.getPrecoVenda()).isEqualByComparingTo("15.00");
+        });
+        assertThat(delta.getClientes()).extracting("id").containsExactly(cliente.getId());
+        assertThat(delta.getServicos()).isEmpty();
+        assertThat(delta.getServicosRemovidos()).containsExactly(servico.getId());
+        assertThat(Long.parseLong(delta.getToken())).isGreaterThan(Long.parseLong(completa.getToken()));
+    }
+
+    @Test
+    void vendaEntraNoDeltaComOEstoqueNovo() {
+        Produtos produto = produtoService.salvar(produto("Encordoamento", 10));
+        Clientes cliente = clienteService.salvar(cliente("Balcão"));
+        String token = sincronizacaoService.alteracoesDesde(null, null).getToken();
+
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(3);
+        item.setPrecoUnitario(new BigDecimal("2.00"));
+        item.setPrecoTotal(new BigDecimal("6.00"));
+        OrdemVendasDTO venda = new OrdemVendasDTO();
+        venda.setClienteId(cliente.getId());
+        venda.setStatus("FINALIZADA");
+        venda.setFormaPagamento("PIX");
+        venda.setValorTotal(new BigDecimal("6.00"));
+        venda.setItensVendas(List.of(item));
+        ordemVendaService.criarOrdemVenda(venda, clienteRepository.findById(cliente.getId()).orElseThrow());
+
+        SincronizacaoDTO delta = sincronizacaoService.alteracoesDesde(token, null);
+        assertThat(delta.getProdutos()).singleElement()
+                .extracting(ProdutoResumoDTO::getQuantidadeEstoque).isEqualTo(7);
+    }
+
+    @Test
+    void respostaPaginadaNaoPerdeRegistros() {
+        String token = sincronizacaoService.alteracoesDesde(null, null).getToken();
+        List<Long> criados = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            criados.add(produtoService.salvar(produto("Produto " + i, i)).getId());
+        }
+
+        List<Long> recebidos = new ArrayList<>();
+        SincronizacaoDTO pagina;
+        int paginas = 0;
+        do {
+            pagina = sincronizacaoService.alteracoesDesde(token, 3);
+            pagina.getProdutos().forEach(p -> recebidos.add(p.getId()));
+            token = pagina.getToken();
+            paginas++;
+        } while (pagina.isTemMais());
+
+        assertThat(recebidos).containsExactlyElementsOf(criados);
+        assertThat(paginas).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void tokenNaoPassaDeGravacaoAindaEmAndamento() {
+        long reservada = transactionTemplate.execute(status -> {
+            long versao = sincronizacaoService.reservarVersao();
+            assertThat(sincronizacaoService.versaoEstavel()).isLessThan(versao);
+            return versao;
+        });
+        assertThat(sincronizacaoService.versaoEstavel()).isGreaterThanOrEqualTo(reservada);
+    }
+
+    private static ProdutoDTO produto(String nome, int estoque) {
+        ProdutoDTO dto = new ProdutoDTO();
+        dto.setNome(nome);
+        dto.setPrecoCusto(new BigDecimal("1.00"));
+        dto.setPrecoVenda(new BigDecimal("2.00"));
+        dto.setQuantidadeEstoque(estoque);
+        return dto;
+    }
+
+    private static ClienteDTO cliente(String nome) {
+        ClienteDTO dto = new ClienteDTO();
+        dto.setNome(nome);
+        return dto;
+    }
+
+    private static ServicoDTO servico(String nome) {
+        ServicoDTO dto = new ServicoDTO();
+        dto.setNome(nome);
+        dto.setValorBase(new BigDecimal("50.00"));
+        return dto;
+    }
+}
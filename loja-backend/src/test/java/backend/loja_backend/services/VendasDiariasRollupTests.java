@@ -0,0 +1,207 @@
+package backend.loja_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import backend.loja_backend.config.VendasDiariasBackfill;
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.dto.ResultadoVendaLoteDTO;
+import backend.loja_backend.entity.PDV.repositories.OrdemVendaRepository;
+import backend.loja_backend.entity.PDV.services.OrdemVendaService;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+
+@SpringBootTest
+class VendasDiariasRollupTests {
+
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private VendasDiariasBackfill backfill;
+    @Autowired
+    private VendasDiariasService vendasDiariasService;
+    @Autowired
+    private OrdemVendaRepository ordemVendaRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // entregas pendentes de outras classes saem antes da limpeza: o rollup fica só com as vendas deste teste
+    @BeforeEach
+    void limparRollup() {
+        outboxService.processarPendentes();
+        jdbcTemplate.update("DELETE FROM vendas_diarias");
+    }
+
+    @AfterEach
+    void limparDados() {
+        jdbcTemplate.update("DELETE FROM itens_vendas_arquivo");
+        jdbcTemplate.update("DELETE FROM ordem_venda_arquivo");
+        ordemVendaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void rollupAcompanhaVendasLotesEExclusoes() {
+        Clientes cliente = cliente();
+        Produtos corda = produto("Corda", "12.50");
+        Produtos pedal = produto("Pedal", "300.00");
+        LocalDateTime dia = LocalDateTime.of(2041, 5, 10, 9, 0);
+
+        ordemVendaService.criarOrdemVenda(venda(cliente, dia, "FINALIZADA", "PIX", item(corda, 3)), cliente);
+        Long excluida = ordemVendaService.criarOrdemVenda(
+                venda(cliente, dia.plusHours(2), "FINALIZADA", "PIX", item(pedal, 1)), cliente).getId();
+        ordemVendaService.criarOrdensEmLote(List.of(
+                venda(cliente, dia.plusHours(3), "FINALIZADA", "DINHEIRO", item(corda, 1), item(pedal, 1)),
+                venda(cliente, dia.plusDays(1), "CANCELADA", "PIX", item(corda, 2)),
+                venda(cliente, dia.plusDays(1), "FINALIZADA", "PIX", item(corda, 4))));
+        outboxService.processarPendentes();
+        ordemVendaService.deletar(excluida);
+        outboxService.processarPendentes();
+
+        // as vendas avulsas ficam com a data do servidor; as do lote, com a do terminal
+        assertThat(rollup()).isEqualTo(calculado()).containsExactly(
+                LocalDate.now() + "|PIX|FINALIZADA|1|3|37.50",
+                "2041-05-10|DINHEIRO|FINALIZADA|1|2|312.50",
+                "2041-05-11|PIX|CANCELADA|1|2|25.00",
+                "2041-05-11|PIX|FINALIZADA|1|4|50.00");
+    }
+
+    @Test
+    void backfillReconstroiMesAMesEContinuaDeOndeParou() {
+        Clientes cliente = cliente();
+        Produtos corda = produto("Corda", "12.50");
+        List<OrdemVendasDTO> vendas = new ArrayList<>();
+        for (LocalDate dia : List.of(LocalDate.of(2043, 1, 31), LocalDate.of(2043, 2, 1), LocalDate.of(2043, 2, 28),
+                LocalDate.of(2043, 4, 15))) {
+            vendas.add(venda(cliente, dia.atTime(15, 0), "FINALIZADA", "PIX", item(corda, dia.getMonthValue())));
+        }
+        ordemVendaService.criarOrdensEmLote(vendas);
+        // venda arquivada mais antiga que as demais
+        jdbcTemplate.update("INSERT INTO ordem_venda_arquivo (id, data_venda, valor_total, status, forma_pagamento, " +
+                "cliente_id, cliente_nome, arquivado_em) VALUES (990101, ?, 25.00, 'FINALIZADA', 'DINHEIRO', 1, 'Balcão', ?)",
+                LocalDateTime.of(2042, 12, 20, 10, 0), LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO itens_vendas_arquivo (id, ordem_venda_id, produto_id, produto_nome, " +
+                "quantidade, preco_unitario) VALUES (990101, 990101, 990101, 'Corda', 2, 12.50)");
+        outboxService.processarPendentes();
+
+        // primeira subida: rollup vazio
+        jdbcTemplate.update("DELETE FROM vendas_diarias");
+        // abril (até a última venda), março, fevereiro, janeiro e dezembro (desde a primeira venda)
+        assertThat(backfill.executar()).isEqualTo(5);
+        assertThat(rollup()).hasSize(5).isEqualTo(calculado());
+
+        // interrompido depois de reconstruir abril: continua do dia anterior à venda de abril
+        jdbcTemplate.update("DELETE FROM vendas_diarias WHERE dia < ?", LocalDate.of(2043, 4, 1));
+        assertThat(backfill.executar()).isEqualTo(5);
+        assertThat(rollup()).isEqualTo(calculado());
+
+        // rollup completo: nada a fazer
+        assertThat(backfill.executar()).isZero();
+    }
+
+    @Test
+    void reconstrucaoComEventosPendentesNaoContaDuasVezes() {
+        Clientes cliente = cliente();
+        Produtos corda = produto("Corda", "12.50");
+        LocalDateTime dia = LocalDateTime.of(2044, 3, 5, 10, 0);
+        List<ResultadoVendaLoteDTO> entregues = ordemVendaService.criarOrdensEmLote(List.of(
+                venda(cliente, dia, "FINALIZADA", "PIX", item(corda, 1)),
+                venda(cliente, dia.plusHours(1), "FINALIZADA", "PIX", item(corda, 2))));
+        outboxService.processarPendentes();
+
+        // sem entregar: uma exclusão de venda já no rollup, uma venda nova e uma criada e excluída
+        ordemVendaService.deletar(entregues.get(0).getOrdemId());
+        List<ResultadoVendaLoteDTO> pendentes = ordemVendaService.criarOrdensEmLote(List.of(
+                venda(cliente, dia.plusHours(2), "FINALIZADA", "PIX", item(corda, 3)),
+                venda(cliente, dia.plusHours(3), "FINALIZADA", "DINHEIRO", item(corda, 4))));
+        ordemVendaService.deletar(pendentes.get(1).getOrdemId());
+
+        vendasDiariasService.reconstruir(dia.toLocalDate(), dia.toLocalDate());
+        outboxService.processarPendentes();
+
+        assertThat(rollup()).isEqualTo(calculado()).containsExactly("2044-03-05|PIX|FINALIZADA|2|5|62.50");
+    }
+
+    private List<String> rollup() {
+        return jdbcTemplate.queryForList(
+                "SELECT CAST(dia AS VARCHAR) || '|' || forma_pagamento || '|' || status || '|' || quantidade || '|' || " +
+                "unidades || '|' || CAST(total AS DECIMAL(14, 2)) " +
+                "FROM vendas_diarias WHERE quantidade <> 0 " +
+                "ORDER BY dia, forma_pagamento, status", String.class);
+    }
+
+    // o mesmo agregado tirado direto de ordem_venda e do arquivo
+    private List<String> calculado() {
+        return jdbcTemplate.queryForList(
+                "SELECT CAST(o.dia AS VARCHAR) || '|' || o.forma_pagamento || '|' || o.status || '|' || " +
+                "COUNT(*) || '|' || SUM(o.unidades) || '|' || CAST(SUM(o.valor_total) AS DECIMAL(14, 2)) " +
+                "FROM (SELECT CAST(ov.data_venda AS DATE) AS dia, ov.forma_pagamento, ov.status, ov.valor_total, " +
+                "             SUM(i.quantidade) AS unidades " +
+                "      FROM ordem_venda ov JOIN itens_vendas i ON i.ordem_venda_id = ov.id " +
+                "      GROUP BY ov.id, ov.data_venda, ov.forma_pagamento, ov.status, ov.valor_total " +
+                "      UNION ALL " +
+                "      SELECT CAST(oa.data_venda AS DATE), oa.forma_pagamento, oa.status, oa.valor_total, SUM(ia.quantidade) " +
+                "      FROM ordem_venda_arquivo oa JOIN itens_vendas_arquivo ia ON ia.ordem_venda_id = oa.id " +
+                "      GROUP BY oa.id, oa.data_venda, oa.forma_pagamento, oa.status, oa.valor_total) o " +
+                "GROUP BY o.dia, o.forma_pagamento, o.status " +
+                "ORDER BY o.dia, o.forma_pagamento, o.status", String.class);
+    }
+
+    private Clientes cliente() {
+        Clientes c = new Clientes();
+        c.setNome("Balcão");
+        return clienteRepository.save(c);
+    }
+
+    private Produtos produto(String nome, String preco) {
+        Produtos p = new Produtos();
+        p.setNome(nome);
+        p.setPrecoCusto(new BigDecimal(preco).divide(BigDecimal.TWO));
+        p.setPrecoVenda(new BigDecimal(preco));
+        p.setQuantidadeEstoque(100);
+        return produtoRepository.save(p);
+    }
+
+    private static ItensVendasDTO item(Produtos produto, int quantidade) {
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(quantidade);
+        item.setPrecoUnitario(produto.getPrecoVenda());
+        item.setPrecoTotal(produto.getPrecoVenda().multiply(BigDecimal.valueOf(quantidade)));
+        return item;
+    }
+
+    private static OrdemVendasDTO venda(Clientes cliente, LocalDateTime data, String status, String forma,
+                                        ItensVendasDTO... itens) {
+        OrdemVendasDTO dto = new OrdemVendasDTO();
+        dto.setClienteId(cliente.getId());
+        dto.setStatus(status);
+        dto.setFormaPagamento(forma);
+        dto.setDataVenda(data.toString());
+        dto.setItensVendas(List.of(itens));
+        dto.setValorTotal(List.of(itens).stream().map(ItensVendasDTO::getPrecoTotal).reduce(BigDecimal.ZERO, BigDecimal::add));
+        return dto;
+    }
+}
@@ -0,0 +1,146 @@
+package backend.loja_backend.services;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import backend.loja_backend.dto.ClienteDTO;
+import backend.loja_backend.dto.ProdutoDTO;
+import backend.loja_backend.entity.Clientes;
+import backend.loja_backend.entity.Produtos;
+import backend.loja_backend.entity.PDV.dto.ItensVendasDTO;
+import backend.loja_backend.entity.PDV.dto.OrdemVendasDTO;
+import backend.loja_backend.entity.PDV.services.OrdemVendaService;
+import backend.loja_backend.repositories.ClienteRepository;
+import backend.loja_backend.repositories.ProdutoRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+// sem o worker de comprovantes: as estatísticas do Hibernate são globais e ele consultaria em paralelo
+@SpringBootTest(properties = "comprovantes.workers=0")
+@AutoConfigureMockMvc
+class VersaoCatalogoTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProdutoService produtoService;
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private OrdemVendaService ordemVendaService;
+    @Autowired
+    private VersaoCatalogo versaoCatalogo;
+
+    @AfterEach
+    void limparDados() {
+        produtoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void listaSemAlteracaoRespondeNotModifiedSemConsultarOBanco() throws Exception {
+        Produtos produto = produtoService.salvar(produto("Palheta"));
+
+        String etag = mockMvc.perform(get("/api/produtos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).startsWith("\"produtos-");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            mockMvc.perform(get("/api/produtos").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag));
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        produto.setPrecoVenda(new BigDecimal("9.00"));
+        produtoService.atualizar(produto.getId(), produto);
+
+        String novaEtag = mockMvc.perform(get("/api/produtos").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(novaEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    void cadaCatalogoTemSuaPropriaVersao() throws Exception {
+        String etagProdutos = mockMvc.perform(get("/api/produtos"))
+                .andReturn().getResponse().getHeader("ETag");
+        String etagServicos = mockMvc.perform(get("/api/servicos"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        ClienteDTO cliente = new ClienteDTO();
+        cliente.setNome("Cliente Versão");
+        clienteService.salvar(cliente);
+
+        mockMvc.perform(get("/api/produtos").header("If-None-Match", etagProdutos))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/servicos").header("If-None-Match", etagServicos))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/clientes").header("If-None-Match", "\"clientes-desatualizada\""))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"));
+    }
+
+    @Test
+    void vendaRecusadaPorFaltaDeEstoqueNaoMudaAVersao() {
+        Produtos produto = produtoService.salvar(produto("Encordoamento"));
+        Clientes novo = new Clientes();
+        novo.setNome("Cliente Sem Saldo");
+        Clientes cliente = clienteRepository.save(novo);
+
+        ItensVendasDTO item = new ItensVendasDTO();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(11);
+        item.setPrecoUnitario(new BigDecimal("2.00"));
+        item.setPrecoTotal(new BigDecimal("22.00"));
+        OrdemVendasDTO venda = new OrdemVendasDTO();
+        venda.setClienteId(cliente.getId());
+        venda.setStatus("FINALIZADA");
+        venda.setFormaPagamento("PIX");
+        venda.setValorTotal(new BigDecimal("22.00"));
+        venda.setItensVendas(List.of(item));
+
+        long antes = versaoCatalogo.versao(VersaoCatalogo.Catalogo.PRODUTOS);
+        assertThatThrownBy(() -> ordemVendaService.criarOrdemVenda(venda, cliente))
+                .hasMessageContaining("Estoque insuficiente");
+
+        assertThat(versaoCatalogo.versao(VersaoCatalogo.Catalogo.PRODUTOS)).isEqualTo(antes);
+        assertThat(produtoRepository.findById(produto.getId()).orElseThrow().getQuantidadeEstoque()).isEqualTo(10);
+    }
+
+    private static ProdutoDTO produto(String nome) {
+        ProdutoDTO dto = new ProdutoDTO();
+        dto.setNome(nome);
+        dto.setPrecoCusto(new BigDecimal("1.00"));
+        dto.setPrecoVenda(new BigDecimal("2.00"));
+        dto.setQuantidadeEstoque(10);
+        return dto;
+    }
+}